@@ -0,0 +1,241 @@
+package com.eam.capacitaciones.cache;
+
+import com.eam.capacitaciones.domain.entity.CatalogoCambio;
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+import com.eam.capacitaciones.dto.response.CursoDTO;
+import com.eam.capacitaciones.dto.response.CursorPage;
+import com.eam.capacitaciones.repository.CatalogoCambioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de las lecturas del catálogo de cursos.
+ *
+ * Las entradas se expulsan por tamaño y por antigüedad máxima. Pasado {@code refresh-after},
+ * una lectura devuelve el valor vigente y dispara una recarga en segundo plano
+ * (stale-while-revalidate). Las escrituras de CursoService invalidan tras el commit; en modo
+ * multi-instancia además registran el cambio en CatalogoCambio, que las demás instancias
+ * consultan periódicamente.
+ */
+@Component
+@Slf4j
+public class CursoCatalogCache {
+
+    private final Cache<Long, Entrada<CursoDTO>> porId;
+    private final Cache<ListaKey, Entrada<CursorPage<CursoDTO>>> listas;
+    private final CatalogoCambioRepository catalogoCambioRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Set<Object> refrescando = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor;
+    private final Counter lecturasVencidas;
+    private final long refreshAfterMs;
+    private final boolean multiInstancia;
+    private final Duration ventanaCambios;
+
+    /** Cambios remotos ya aplicados dentro de la ventana; solo lo usa el hilo del scheduler. */
+    private final Map<Long, LocalDateTime> cambiosAplicados = new HashMap<>();
+
+    public CursoCatalogCache(
+            CatalogoCambioRepository catalogoCambioRepository,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${catalog.cache.max-size:10000}") long maxSize,
+            @Value("${catalog.cache.expire-after-write-ms:600000}") long expireAfterWriteMs,
+            @Value("${catalog.cache.refresh-after-ms:30000}") long refreshAfterMs,
+            @Value("${catalog.cache.multi-instance.enabled:false}") boolean multiInstancia,
+            @Value("${catalog.cache.multi-instance.window-ms:60000}") long ventanaCambiosMs) {
+        this.catalogoCambioRepository = catalogoCambioRepository;
+        this.eventPublisher = eventPublisher;
+        this.refreshAfterMs = refreshAfterMs;
+        this.multiInstancia = multiInstancia;
+        this.ventanaCambios = Duration.ofMillis(ventanaCambiosMs);
+
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        this.listas = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "catalogo.cursos.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, listas, "catalogo.cursos.listas");
+        this.lecturasVencidas = Counter.builder("catalogo.cursos.stale")
+                .description("Lecturas servidas vencidas mientras se recargan en segundo plano")
+                .register(meterRegistry);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "catalogo-refresh-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Devuelve el curso cacheado o lo carga. Un loader que devuelve null no se cachea.
+     */
+    public CursoDTO getCurso(Long id, Supplier<CursoDTO> loader) {
+        return obtener(porId, id, loader);
+    }
+
+    public CursorPage<CursoDTO> getLista(ListaKey key, Supplier<CursorPage<CursoDTO>> loader) {
+        return obtener(listas, key, loader);
+    }
+
+    public void invalidarCurso(Long cursoId, Set<NivelEnum> niveles) {
+        porId.invalidate(cursoId);
+        // Los listados de activos pueden contener cualquier curso; los de nivel solo los afectados
+        listas.asMap().keySet().removeIf(key -> key.nivel() == null || niveles.contains(key.nivel()));
+        log.debug("Caché de catálogo invalidada para curso ID: {}", cursoId);
+    }
+
+    public void invalidarTodo() {
+        porId.invalidateAll();
+        listas.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void registrarCambio(CursoCatalogoCambiadoEvent event) {
+        if (multiInstancia) {
+            // Se confirma junto con la modificación del curso
+            catalogoCambioRepository.save(CatalogoCambio.builder()
+                    .cursoId(event.cursoId())
+                    .fecha(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alConfirmarCambio(CursoCatalogoCambiadoEvent event) {
+        invalidarCurso(event.cursoId(), event.niveles());
+    }
+
+    /**
+     * Aplica los cambios registrados por otras instancias. Se revisa una ventana de tiempo y no
+     * solo los ids posteriores al último visto, porque cada instancia toma bloques propios de la
+     * secuencia y los ids de instancias distintas se confirman fuera de orden.
+     * El cambio se republica como evento local para que lo reciban también los demás índices
+     * en memoria del catálogo.
+     */
+    @Scheduled(fixedDelayString = "${catalog.cache.multi-instance.poll-interval-ms:2000}")
+    public void sincronizarCambios() {
+        if (!multiInstancia) {
+            return;
+        }
+        LocalDateTime desde = LocalDateTime.now().minus(ventanaCambios);
+        List<CatalogoCambio> cambios = catalogoCambioRepository.findByFechaAfterOrderByIdCambioAsc(desde);
+        for (CatalogoCambio cambio : cambios) {
+            if (cambiosAplicados.putIfAbsent(cambio.getIdCambio(), cambio.getFecha()) == null) {
+                eventPublisher.publishEvent(
+                        new CursoCatalogoCambiadoEvent(cambio.getCursoId(), EnumSet.allOf(NivelEnum.class)));
+            }
+        }
+        cambiosAplicados.values().removeIf(fecha -> fecha.isBefore(desde));
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.cache.multi-instance.purge-interval-ms:600000}")
+    public void purgarCambios() {
+        if (!multiInstancia) {
+            return;
+        }
+        int eliminados = catalogoCambioRepository.deleteAnterioresA(
+                LocalDateTime.now().minus(ventanaCambios.multipliedBy(10)));
+        if (eliminados > 0) {
+            log.debug("Registros de CatalogoCambio eliminados: {}", eliminados);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private <K, V> V obtener(Cache<K, Entrada<V>> cache, K key, Supplier<V> loader) {
+        Entrada<V> entrada = cache.get(key, k -> cargar(loader));
+        if (entrada == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entrada.cargadoEn() >= refreshAfterMs) {
+            refrescarEnSegundoPlano(cache, key, entrada, loader);
+        }
+        return entrada.valor();
+    }
+
+    private <K, V> void refrescarEnSegundoPlano(Cache<K, Entrada<V>> cache, K key,
+                                                Entrada<V> actual, Supplier<V> loader) {
+        if (!refrescando.add(key)) {
+            return;
+        }
+        lecturasVencidas.increment();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Entrada<V> nueva = cargar(loader);
+                    // Si la entrada se invalidó mientras tanto, el resultado se descarta
+                    if (nueva == null) {
+                        cache.asMap().remove(key, actual);
+                    } else {
+                        cache.asMap().replace(key, actual, nueva);
+                    }
+                } catch (RuntimeException ex) {
+                    log.warn("No se pudo recargar la entrada de catálogo {}", key, ex);
+                } finally {
+                    refrescando.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            refrescando.remove(key);
+        }
+    }
+
+    private static <V> Entrada<V> cargar(Supplier<V> loader) {
+        V valor = loader.get();
+        return valor == null ? null : new Entrada<>(valor, System.currentTimeMillis());
+    }
+
+    private record Entrada<V>(V valor, long cargadoEn) {
+    }
+
+    /**
+     * Clave de un listado paginado: activos ({@code nivel} null) o por nivel.
+     */
+    public record ListaKey(NivelEnum nivel, String cursor, int size) {
+
+        public static ListaKey activos(String cursor, int size) {
+            return new ListaKey(null, cursor, size);
+        }
+
+        public static ListaKey porNivel(NivelEnum nivel, String cursor, int size) {
+            return new ListaKey(nivel, cursor, size);
+        }
+    }
+}
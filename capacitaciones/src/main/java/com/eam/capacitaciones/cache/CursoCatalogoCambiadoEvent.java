@@ -0,0 +1,12 @@
+package com.eam.capacitaciones.cache;
+
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+
+import java.util.Set;
+
+/**
+ * Publicado por CursoService al modificar un curso. Lleva los niveles afectados
+ * (anterior y nuevo) para invalidar solo los listados que pueden contener el curso.
+ */
+public record CursoCatalogoCambiadoEvent(Long cursoId, Set<NivelEnum> niveles) {
+}
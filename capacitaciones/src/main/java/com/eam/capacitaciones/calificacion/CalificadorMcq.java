@@ -0,0 +1,112 @@
+package com.eam.capacitaciones.calificacion;
+
+import com.eam.capacitaciones.domain.entity.Evaluacion;
+import com.eam.capacitaciones.domain.entity.PreguntaClave;
+import com.eam.capacitaciones.examen.ExamenGenerado;
+import com.eam.capacitaciones.examen.ExamenGenerador;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.repository.PreguntaClaveRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Califica al enviarlas las respuestas de las evaluaciones de opción múltiple.
+ *
+ * Las claves se compilan la primera vez que se usan y se guardan por evaluación, incluida la
+ * ausencia de clave, para no volver a consultarlas en cada envío. Se invalidan al confirmarse
+ * un cambio de clave; la expiración por antigüedad acota el tiempo que otras instancias pueden
+ * seguir usando una clave anterior. Las evaluaciones con banco de preguntas se califican con la
+ * clave del examen que recibió cada intento, que se regenera a partir de su semilla con la
+ * versión del banco del intento.
+ */
+@Component
+@Slf4j
+public class CalificadorMcq {
+
+    private final PreguntaClaveRepository preguntaClaveRepository;
+    private final ExamenGenerador examenGenerador;
+    private final Cache<Long, Optional<ClaveCompilada>> claves;
+    private final Timer calificacion;
+
+    public CalificadorMcq(
+            PreguntaClaveRepository preguntaClaveRepository,
+            ExamenGenerador examenGenerador,
+            MeterRegistry meterRegistry,
+            @Value("${evaluacion.grading.cache-size:5000}") long maxSize,
+            @Value("${evaluacion.grading.expire-after-write-ms:3600000}") long expireAfterWriteMs) {
+        this.preguntaClaveRepository = preguntaClaveRepository;
+        this.examenGenerador = examenGenerador;
+        this.claves = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claves, "evaluacion.claves");
+        this.calificacion = Timer.builder("evaluacion.mcq.calificacion")
+                .description("Duración de la calificación automática de una respuesta")
+                .register(meterRegistry);
+    }
+
+    public boolean tieneClave(Evaluacion evaluacion) {
+        return examenGenerador.tieneBanco(evaluacion.getIdEvaluacion(), evaluacion.getVersionBanco())
+                || clave(evaluacion.getIdEvaluacion()).isPresent();
+    }
+
+    /**
+     * Clave con la que se califica un intento: la de su examen si la versión del banco del
+     * intento tiene preguntas, o la clave fija de la evaluación.
+     */
+    public Optional<ClaveCompilada> clave(Long evaluacionId, int versionBanco, Long usuarioId, int intentoNumero) {
+        Optional<ExamenGenerado> examen = examenGenerador.generar(evaluacionId, versionBanco, usuarioId, intentoNumero);
+        return examen.isPresent() ? examen.map(ExamenGenerado::clave) : clave(evaluacionId);
+    }
+
+    /**
+     * Puntuación de la respuesta, o vacío si la evaluación no tiene clave y debe calificarla un
+     * instructor.
+     */
+    public Optional<BigDecimal> calificar(Evaluacion evaluacion, int versionBanco, Long usuarioId, int intentoNumero,
+                                          String respuestaTexto) {
+        Optional<ClaveCompilada> clave = clave(evaluacion.getIdEvaluacion(), versionBanco, usuarioId, intentoNumero);
+        if (clave.isEmpty()) {
+            return Optional.empty();
+        }
+        long inicio = System.nanoTime();
+        try {
+            return Optional.of(clave.get().puntuar(respuestaTexto, evaluacion.getPuntajeMax()));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Formato de respuesta no válido: " + ex.getMessage()
+                    + ". Use las letras de las opciones separando las preguntas con comas, p. ej. A,BD,C");
+        } finally {
+            calificacion.record(Duration.ofNanos(System.nanoTime() - inicio));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCambiarClave(ClaveRespuestasCambiadaEvent event) {
+        claves.invalidate(event.evaluacionId());
+        log.debug("Clave de respuestas invalidada para evaluación ID: {}", event.evaluacionId());
+    }
+
+    private Optional<ClaveCompilada> clave(Long evaluacionId) {
+        return claves.get(evaluacionId, this::cargar);
+    }
+
+    private Optional<ClaveCompilada> cargar(Long evaluacionId) {
+        List<PreguntaClave> preguntas = preguntaClaveRepository.findByEvaluacionIdOrderByNumero(evaluacionId);
+        return preguntas.isEmpty() ? Optional.empty() : Optional.of(ClaveCompilada.compilar(preguntas));
+    }
+}
@@ -0,0 +1,138 @@
+package com.eam.capacitaciones.calificacion;
+
+import com.eam.capacitaciones.domain.entity.PreguntaClave;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Clave de respuestas de una evaluación de opción múltiple, compilada para calificar sin
+ * consultar la base de datos.
+ *
+ * Cada pregunta se guarda como una máscara de bits (bit 0 = opción A, bit 1 = B...), y una
+ * respuesta acierta si marca exactamente las opciones correctas. La respuesta del alumno se
+ * escribe por posición, separando las preguntas con comas: {@code "A,BD,,C"} deja la tercera
+ * sin contestar. Se recorre una sola vez, sin crear objetos. Las instancias son inmutables y se
+ * comparten entre hilos.
+ */
+public final class ClaveCompilada {
+
+    private final int[] correctas;
+    private final int[] pesos;
+    private final int pesoTotal;
+
+    private ClaveCompilada(int[] correctas, int[] pesos) {
+        this.correctas = correctas;
+        this.pesos = pesos;
+        int total = 0;
+        for (int peso : pesos) {
+            total += peso;
+        }
+        this.pesoTotal = total;
+    }
+
+    /**
+     * Compila las preguntas, que deben venir ordenadas por número.
+     */
+    public static ClaveCompilada compilar(List<PreguntaClave> preguntas) {
+        if (preguntas.isEmpty()) {
+            throw new IllegalArgumentException("La clave no tiene preguntas");
+        }
+        int[] correctas = new int[preguntas.size()];
+        int[] pesos = new int[preguntas.size()];
+        for (int i = 0; i < preguntas.size(); i++) {
+            PreguntaClave pregunta = preguntas.get(i);
+            correctas[i] = mascara(pregunta.getCorrectas());
+            pesos[i] = pregunta.getPeso() == null ? 1 : Math.max(1, pregunta.getPeso());
+        }
+        return new ClaveCompilada(correctas, pesos);
+    }
+
+    /**
+     * Clave a partir de las máscaras ya calculadas, por ejemplo las de un examen armado desde un
+     * banco de preguntas.
+     */
+    public static ClaveCompilada de(int[] correctas, int[] pesos) {
+        if (correctas.length == 0 || correctas.length != pesos.length) {
+            throw new IllegalArgumentException("La clave no tiene preguntas");
+        }
+        int[] pesosValidos = new int[pesos.length];
+        for (int i = 0; i < pesos.length; i++) {
+            pesosValidos[i] = Math.max(1, pesos[i]);
+        }
+        return new ClaveCompilada(correctas.clone(), pesosValidos);
+    }
+
+    /**
+     * Máscara de bits de un conjunto de opciones escritas con letras.
+     */
+    public static int mascara(CharSequence opciones) {
+        int mascara = 0;
+        for (int i = 0; i < opciones.length(); i++) {
+            int bit = bit(opciones.charAt(i));
+            if (bit < 0) {
+                throw new IllegalArgumentException("Opción no válida: " + opciones.charAt(i));
+            }
+            mascara |= 1 << bit;
+        }
+        return mascara;
+    }
+
+    public int preguntas() {
+        return correctas.length;
+    }
+
+    /**
+     * Suma de los pesos de las preguntas acertadas.
+     *
+     * @throws IllegalArgumentException si la respuesta tiene caracteres no válidos o más
+     *                                  preguntas que la clave
+     */
+    public int aciertos(CharSequence respuesta) {
+        int pregunta = 0;
+        int marcadas = 0;
+        int obtenido = 0;
+        for (int i = 0; i < respuesta.length(); i++) {
+            char c = respuesta.charAt(i);
+            if (c == ',') {
+                obtenido += puntos(pregunta, marcadas);
+                pregunta++;
+                marcadas = 0;
+                if (pregunta >= correctas.length) {
+                    throw new IllegalArgumentException(
+                            "La respuesta tiene más de " + correctas.length + " preguntas");
+                }
+            } else if (!Character.isWhitespace(c)) {
+                int bit = bit(c);
+                if (bit < 0) {
+                    throw new IllegalArgumentException("Opción no válida: " + c);
+                }
+                marcadas |= 1 << bit;
+            }
+        }
+        return obtenido + puntos(pregunta, marcadas);
+    }
+
+    /**
+     * Puntuación de la respuesta escalada a {@code puntajeMax}, con dos decimales.
+     */
+    public BigDecimal puntuar(CharSequence respuesta, int puntajeMax) {
+        return BigDecimal.valueOf((long) aciertos(respuesta) * puntajeMax)
+                .divide(BigDecimal.valueOf(pesoTotal), 2, RoundingMode.HALF_UP);
+    }
+
+    private int puntos(int pregunta, int marcadas) {
+        return marcadas != 0 && marcadas == correctas[pregunta] ? pesos[pregunta] : 0;
+    }
+
+    private static int bit(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,7 @@
+package com.eam.capacitaciones.calificacion;
+
+/**
+ * Se publica al modificar la clave de respuestas de una evaluación.
+ */
+public record ClaveRespuestasCambiadaEvent(Long evaluacionId) {
+}
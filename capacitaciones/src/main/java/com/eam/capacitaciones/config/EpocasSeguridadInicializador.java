@@ -0,0 +1,60 @@
+package com.eam.capacitaciones.config;
+
+import com.eam.capacitaciones.repository.UsuarioRepository;
+import com.eam.capacitaciones.repository.projection.UsuarioCambio;
+import com.eam.capacitaciones.security.SecurityEpochRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Siembra el {@link SecurityEpochRegistry} al arrancar con la última modificación de los usuarios
+ * cambiados durante la vida de un access token, para que tras un reinicio no se vuelvan a aceptar
+ * los tokens emitidos antes de un cambio de seguridad.
+ *
+ * fechaActualizacion cambia con cualquier modificación del usuario, no solo las de seguridad:
+ * tras un reinicio algunos usuarios tendrán que volver a iniciar sesión sin necesidad. Los
+ * usuarios borrados no tienen fila y sus tokens siguen aceptándose hasta expirar.
+ */
+@Component
+@Slf4j
+public class EpocasSeguridadInicializador {
+
+    private final UsuarioRepository usuarioRepository;
+    private final SecurityEpochRegistry securityEpochRegistry;
+    private final long jwtExpirationMs;
+    private final boolean habilitado;
+
+    public EpocasSeguridadInicializador(
+            UsuarioRepository usuarioRepository,
+            SecurityEpochRegistry securityEpochRegistry,
+            @Value("${jwt.expiration}") long jwtExpirationMs,
+            @Value("${jwt.stateless-auth.enabled:false}") boolean habilitado) {
+        this.usuarioRepository = usuarioRepository;
+        this.securityEpochRegistry = securityEpochRegistry;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.habilitado = habilitado;
+    }
+
+    @PostConstruct
+    public void sembrar() {
+        if (!habilitado) {
+            return;
+        }
+        List<UsuarioCambio> cambios = usuarioRepository.findModificadosDesde(
+                LocalDateTime.now().minus(Duration.ofMillis(jwtExpirationMs)));
+        ZoneId zona = ZoneId.systemDefault();
+        for (UsuarioCambio cambio : cambios) {
+            securityEpochRegistry.registrarCambio(cambio.usuarioId(),
+                    cambio.fechaActualizacion().atZone(zona).toInstant().toEpochMilli());
+        }
+        log.info("Épocas de seguridad sembradas para {} usuarios modificados en la última vida de un token",
+                cambios.size());
+    }
+}
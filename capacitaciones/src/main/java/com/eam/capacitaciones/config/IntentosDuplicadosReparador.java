@@ -0,0 +1,118 @@
+package com.eam.capacitaciones.config;
+
+import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.repository.IntentoContadorRepository;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import com.eam.capacitaciones.repository.projection.IntentoPar;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Renumera los intentos repetidos que quedaron de cuando el número se calculaba con un COUNT y
+ * dos envíos simultáneos podían obtener el mismo.
+ *
+ * En cada par evaluación-usuario afectado la respuesta más antigua conserva su número y las
+ * demás pasan a continuación del mayor intento registrado, así que ningún envío se pierde y cada
+ * uno sigue contando como intento. Si el par ya tiene IntentoContador, se adelanta para no volver
+ * a entregar esos números. Mientras haya repetidos Hibernate no puede crear uk_respuesta_intento,
+ * así que tras reparar se crea aquí.
+ */
+@Component
+@Slf4j
+public class IntentosDuplicadosReparador {
+
+    private static final String RESTRICCION = "uk_respuesta_intento";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final RespuestaRepository respuestaRepository;
+    private final IntentoContadorRepository contadorRepository;
+    private final TransactionTemplate transaccion;
+    private final boolean habilitado;
+
+    public IntentosDuplicadosReparador(
+            RespuestaRepository respuestaRepository,
+            IntentoContadorRepository contadorRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${persistence.attempt-dedupe.on-startup:true}") boolean habilitado) {
+        this.respuestaRepository = respuestaRepository;
+        this.contadorRepository = contadorRepository;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+    }
+
+    @PostConstruct
+    public void reparar() {
+        if (!habilitado) {
+            return;
+        }
+        List<IntentoPar> pares = respuestaRepository.findIntentosDuplicados();
+        if (pares.isEmpty()) {
+            return;
+        }
+        int renumeradas = 0;
+        for (IntentoPar par : pares) {
+            Integer cambios = transaccion.execute(status -> renumerar(par));
+            renumeradas += cambios == null ? 0 : cambios;
+        }
+        log.warn("Intentos repetidos renumerados: {} respuestas en {} pares evaluación-usuario",
+                renumeradas, pares.size());
+        crearRestriccion();
+    }
+
+    private int renumerar(IntentoPar par) {
+        List<Respuesta> respuestas = new ArrayList<>(respuestaRepository.findByEvaluacionIdAndUsuarioId(
+                par.evaluacionId(), par.usuarioId()));
+        respuestas.sort(Comparator.comparing(Respuesta::getIntentoNumero)
+                .thenComparing(Respuesta::getIdRespuesta));
+        int siguiente = respuestas.get(respuestas.size() - 1).getIntentoNumero();
+        Set<Integer> usados = new HashSet<>();
+        int renumeradas = 0;
+        for (Respuesta respuesta : respuestas) {
+            if (!usados.add(respuesta.getIntentoNumero())) {
+                respuesta.setIntentoNumero(++siguiente);
+                renumeradas++;
+            }
+        }
+        int ultimo = siguiente;
+        contadorRepository.findParaActualizar(par.evaluacionId(), par.usuarioId())
+                .ifPresent(contador -> contador.setIntentos(Math.max(contador.getIntentos(), ultimo)));
+        return renumeradas;
+    }
+
+    private void crearRestriccion() {
+        AbstractEntityPersister entidad = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Respuesta.class);
+        String columnas = String.join(", ",
+                entidad.getPropertyColumnNames("evaluacionId")[0],
+                entidad.getPropertyColumnNames("usuarioId")[0],
+                entidad.getPropertyColumnNames("intentoNumero")[0]);
+        try {
+            transaccion.executeWithoutResult(status -> entityManager
+                    .createNativeQuery("ALTER TABLE " + entidad.getTableName() + " ADD CONSTRAINT " + RESTRICCION
+                            + " UNIQUE (" + columnas + ")")
+                    .executeUpdate());
+            log.info("Restricción {} creada tras renumerar los intentos", RESTRICCION);
+        } catch (RuntimeException ex) {
+            // Ya existía, o Hibernate la creó en otra instancia que arrancó después de reparar
+            log.warn("No se pudo crear la restricción {}: {}", RESTRICCION, ex.getMessage());
+        }
+    }
+}
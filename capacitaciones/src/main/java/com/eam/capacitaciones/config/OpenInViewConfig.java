@@ -0,0 +1,30 @@
+package com.eam.capacitaciones.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view para toda la API salvo el login.
+ *
+ * Con open-in-view la conexión que toma la búsqueda del usuario queda retenida hasta el final
+ * de la petición, también mientras la verificación BCrypt espera turno en el pool de hashing.
+ * Por eso el interceptor de Spring Boot está desactivado (spring.jpa.open-in-view=false) y se
+ * registra aquí excluyendo /auth/login.
+ */
+@Configuration
+public class OpenInViewConfig implements WebMvcConfigurer {
+
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor())
+                .excludePathPatterns("/auth/login");
+    }
+}
@@ -0,0 +1,104 @@
+package com.eam.capacitaciones.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Alinea las secuencias de ids con los datos existentes antes de que la aplicación inserte nada.
+ *
+ * Las entidades generan sus ids con secuencias reservadas por bloques (optimizador pooled), lo
+ * que permite a Hibernate agrupar los INSERT en lotes JDBC; con IDENTITY cada fila exigía su
+ * propio viaje a la base de datos. En las bases creadas cuando los ids eran autoincrementales
+ * la secuencia se crea si falta y se adelanta por encima del mayor id de su tabla. Una secuencia
+ * nunca se retrasa: otras instancias pueden tener bloques reservados por delante.
+ *
+ * Los nombres de tabla, columna y secuencia se toman del modelo que Hibernate ya resolvió con la
+ * estrategia de nombres física (p. ej. {@code id_usuario} en {@code usuario}, {@code usuario_seq}),
+ * no de los nombres Java, para que el SQL nativo apunte a los mismos objetos que el ORM.
+ */
+@Component
+@Slf4j
+public class SecuenciasIdInicializador {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transaccion;
+    private final boolean habilitado;
+
+    public SecuenciasIdInicializador(
+            PlatformTransactionManager transactionManager,
+            @Value("${persistence.id-sequences.align-on-startup:true}") boolean habilitado) {
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+    }
+
+    @PostConstruct
+    public void alinear() {
+        if (!habilitado) {
+            return;
+        }
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        for (EntityType<?> entidad : entityManager.getMetamodel().getEntities()) {
+            secuencia(sessionFactory.getMappingMetamodel().getEntityDescriptor(entidad.getJavaType()))
+                    .ifPresent(secuencia -> transaccion.executeWithoutResult(status -> alinear(secuencia)));
+        }
+    }
+
+    private void alinear(Secuencia secuencia) {
+        long maximo = ((Number) entityManager
+                .createNativeQuery("SELECT COALESCE(MAX(" + secuencia.columna() + "), 0) FROM " + secuencia.tabla())
+                .getSingleResult()).longValue();
+        entityManager.createNativeQuery("CREATE SEQUENCE IF NOT EXISTS " + secuencia.nombre()
+                        + " START WITH " + (maximo + secuencia.asignacion())
+                        + " INCREMENT BY " + secuencia.asignacion())
+                .executeUpdate();
+        if (maximo == 0) {
+            return;
+        }
+
+        // Con el optimizador pooled el valor leído es el extremo superior del bloque reservado
+        long siguiente = ((Number) entityManager
+                .createNativeQuery("SELECT NEXT VALUE FOR " + secuencia.nombre())
+                .getSingleResult()).longValue();
+        if (siguiente - secuencia.asignacion() < maximo) {
+            long reinicio = Math.max(siguiente, maximo) + secuencia.asignacion();
+            entityManager.createNativeQuery("ALTER SEQUENCE " + secuencia.nombre() + " RESTART WITH " + reinicio)
+                    .executeUpdate();
+            log.info("Secuencia {} adelantada a {} (mayor id en {}: {})",
+                    secuencia.nombre(), reinicio, secuencia.tabla(), maximo);
+        }
+    }
+
+    private static Optional<Secuencia> secuencia(EntityPersister persister) {
+        if (!(persister.getGenerator() instanceof SequenceStyleGenerator generador)
+                || !(persister instanceof AbstractEntityPersister entidad)
+                || entidad.getIdentifierColumnNames().length != 1) {
+            return Optional.empty();
+        }
+        DatabaseStructure estructura = generador.getDatabaseStructure();
+        if (!estructura.isPhysicalSequence()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Secuencia(estructura.getPhysicalName().render(), entidad.getTableName(),
+                entidad.getIdentifierColumnNames()[0], estructura.getIncrementSize()));
+    }
+
+    private record Secuencia(String nombre, String tabla, String columna, int asignacion) {
+    }
+}
@@ -1,8 +1,10 @@
 package com.eam.capacitaciones.config;
 
+import com.eam.capacitaciones.security.BoundedPasswordEncoder;
 import com.eam.capacitaciones.security.CustomUserDetailsService;
 import com.eam.capacitaciones.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,11 +18,15 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity 
@@ -31,6 +37,18 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CorsConfigurationSource corsConfigurationSource;
 
+    @Value("${security.password.bcrypt-strength:12}")
+    private int bcryptStrength;
+
+    @Value("${security.password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${security.password.hashing.timeout-ms:5000}")
+    private long hashingTimeoutMs;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -56,6 +74,8 @@ public class SecurityConfig {
                         
                         .requestMatchers("/usuarios/**").hasRole("ADMIN")
                         .requestMatchers("/reportes/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         
                         .anyRequest().authenticated()
                 )
@@ -76,6 +96,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehash transparente tras un login exitoso si el hash no usa el formato/costo actual
+        authProvider.setUserDetailsPasswordService(customUserDetailsService);
         return authProvider;
     }
 
@@ -84,8 +106,38 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt con prefijo {bcrypt} sobre un pool acotado.
+     * Los hashes antiguos sin prefijo se siguen validando y se migran en el siguiente login.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength) {
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return super.upgradeEncoding(encodedPassword)
+                        || costoBcrypt(encodedPassword) != bcryptStrength;
+            }
+        };
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, threads, hashingQueueCapacity, hashingTimeoutMs);
+    }
+
+    private static int costoBcrypt(String encodedPassword) {
+        // Formato: $2a$12$<salt+hash>
+        if (encodedPassword == null || encodedPassword.length() < 7) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
     }
 }
\ No newline at end of file
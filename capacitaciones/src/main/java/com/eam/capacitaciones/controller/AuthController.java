@@ -10,6 +10,7 @@ import com.eam.capacitaciones.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,12 +33,14 @@ public class AuthController {
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Login exitoso"),
-        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Credenciales inválidas")
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Credenciales inválidas"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Demasiados intentos fallidos")
     })
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest loginRequest,
+                                                            HttpServletRequest httpRequest) {
         log.info("POST /auth/login - Usuario: {}", loginRequest.getEmail());
         
-        LoginResponse loginResponse = authService.login(loginRequest);
+        LoginResponse loginResponse = authService.login(loginRequest, httpRequest.getRemoteAddr());
         
         return ResponseEntity.ok(ApiResponse.success("Login exitoso", loginResponse));
     }
@@ -86,13 +89,20 @@ public class AuthController {
     @Operation(
         summary = "Cerrar sesión",
         description = "Cierra la sesión del usuario actual. " +
-                     "Nota: Con JWT stateless, esto solo limpia el contexto del servidor. " +
-                     "El token seguirá siendo válido hasta su expiración."
+                     "El access token enviado en el header y el refresh token opcional del cuerpo " +
+                     "quedan revocados hasta su expiración."
     )
-    public ResponseEntity<ApiResponse<Void>> logout() {
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestBody(required = false) RefreshTokenRequest request) {
         log.info("POST /auth/logout");
         
-        authService.logout();
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        String refreshToken = request != null ? request.getRefreshToken() : null;
+
+        authService.logout(accessToken, refreshToken);
         
         return ResponseEntity.ok(ApiResponse.success("Sesión cerrada exitosamente", null));
     }
@@ -2,8 +2,13 @@ package com.eam.capacitaciones.controller;
 
 import com.eam.capacitaciones.dto.request.CursoCreateRequest;
 import com.eam.capacitaciones.dto.response.ApiResponse;
+import com.eam.capacitaciones.dto.response.CursoBusquedaDTO;
 import com.eam.capacitaciones.dto.response.CursoDTO;
+import com.eam.capacitaciones.dto.response.CursoPopularDTO;
+import com.eam.capacitaciones.dto.response.CursoSugerenciaDTO;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking.Periodo;
 import com.eam.capacitaciones.security.CustomUserDetails;
 import com.eam.capacitaciones.service.CursoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,15 +40,20 @@ public class CursoController {
     @GetMapping
     @Operation(
         summary = "Listar todos los cursos",
-        description = "Obtiene lista de cursos disponibles. Accesible para todos los usuarios autenticados."
+        description = "Obtiene una página de cursos ordenada del más reciente al más antiguo. " +
+                      "Accesible para todos los usuarios autenticados."
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista obtenida exitosamente"),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "No autenticado")
     })
-    public ResponseEntity<ApiResponse<List<CursoDTO>>> getAllCursos() {
+    public ResponseEntity<ApiResponse<CursorPage<CursoDTO>>> getAllCursos(
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
         log.info("GET /cursos - Obteniendo todos los cursos");
-        List<CursoDTO> cursos = cursoService.getAllCursos();
+        CursorPage<CursoDTO> cursos = cursoService.getAllCursos(cursor, size);
         return ResponseEntity.ok(ApiResponse.success(cursos));
     }
 
@@ -61,45 +71,164 @@ public class CursoController {
         return ResponseEntity.ok(ApiResponse.success(curso));
     }
 
+    @GetMapping("/{id}/similares")
+    @Operation(
+        summary = "Cursos similares",
+        description = "Cursos activos con contenido parecido (título, descripción, nivel y módulos) al curso indicado"
+    )
+    public ResponseEntity<ApiResponse<List<CursoDTO>>> getCursosSimilares(
+            @Parameter(description = "ID del curso", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Número máximo de cursos (máximo 50)")
+            @RequestParam(required = false) Integer limit) {
+        List<CursoDTO> cursos = cursoService.getCursosSimilares(id, limit);
+        return ResponseEntity.ok(ApiResponse.success(cursos));
+    }
+
     @GetMapping("/instructor/{instructorId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
     @Operation(summary = "Obtener cursos por instructor", description = "Lista todos los cursos creados por un instructor específico")
-    public ResponseEntity<ApiResponse<List<CursoDTO>>> getCursosByInstructor(
+    public ResponseEntity<ApiResponse<CursorPage<CursoDTO>>> getCursosByInstructor(
             @Parameter(description = "ID del instructor", required = true)
-            @PathVariable Long instructorId) {
+            @PathVariable Long instructorId,
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
         
         log.info("GET /cursos/instructor/{} - Obteniendo cursos", instructorId);
-        List<CursoDTO> cursos = cursoService.getCursosByInstructor(instructorId);
+        CursorPage<CursoDTO> cursos = cursoService.getCursosByInstructor(instructorId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(cursos));
     }
 
     @GetMapping("/nivel/{nivel}")
     @Operation(summary = "Obtener cursos por nivel", description = "Filtra cursos por nivel de dificultad (BASICO, INTERMEDIO, AVANZADO)")
-    public ResponseEntity<ApiResponse<List<CursoDTO>>> getCursosByNivel(
+    public ResponseEntity<ApiResponse<CursorPage<CursoDTO>>> getCursosByNivel(
             @Parameter(description = "Nivel del curso", required = true)
-            @PathVariable NivelEnum nivel) {
+            @PathVariable NivelEnum nivel,
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
         
         log.info("GET /cursos/nivel/{} - Obteniendo cursos", nivel);
-        List<CursoDTO> cursos = cursoService.getCursosByNivel(nivel);
+        CursorPage<CursoDTO> cursos = cursoService.getCursosByNivel(nivel, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(cursos));
     }
 
     @GetMapping("/buscar")
     @Operation(summary = "Buscar cursos por título", description = "Búsqueda de cursos por palabra clave en el título")
-    public ResponseEntity<ApiResponse<List<CursoDTO>>> buscarCursosPorTitulo(
+    public ResponseEntity<ApiResponse<CursorPage<CursoDTO>>> buscarCursosPorTitulo(
             @Parameter(description = "Texto a buscar", required = true)
-            @RequestParam String titulo) {
+            @RequestParam String titulo,
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
         
         log.info("GET /cursos/buscar?titulo={} - Buscando cursos", titulo);
-        List<CursoDTO> cursos = cursoService.searchCursosByTitulo(titulo);
+        CursorPage<CursoDTO> cursos = cursoService.searchCursosByTitulo(titulo, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(cursos));
+    }
+
+    @GetMapping("/filtrar")
+    @Operation(
+        summary = "Filtrar cursos",
+        description = "Combina filtros opcionales por título, nivel, instructor, estado y número mínimo " +
+                      "de inscritos. Devuelve una página ordenada del más reciente al más antiguo."
+    )
+    public ResponseEntity<ApiResponse<CursorPage<CursoDTO>>> filtrarCursos(
+            @Parameter(description = "Texto contenido en el título")
+            @RequestParam(required = false) String titulo,
+            @Parameter(description = "Nivel del curso")
+            @RequestParam(required = false) NivelEnum nivel,
+            @Parameter(description = "ID del instructor")
+            @RequestParam(required = false) Long instructorId,
+            @Parameter(description = "Estado del curso")
+            @RequestParam(required = false) Boolean activo,
+            @Parameter(description = "Número mínimo de inscritos")
+            @RequestParam(required = false) Long minInscritos,
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
+        log.info("GET /cursos/filtrar - Filtrando cursos");
+        CursorPage<CursoDTO> cursos = cursoService.filtrarCursos(
+                titulo, nivel, instructorId, activo, minInscritos, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(cursos));
+    }
+
+    @GetMapping("/buscar-contenido")
+    @Operation(
+        summary = "Buscar cursos por contenido",
+        description = "Búsqueda de texto completo en título, descripción y contenido de los módulos " +
+                      "de los cursos activos, ordenada por relevancia. Cada resultado incluye el módulo " +
+                      "que mejor coincide con un fragmento resaltado."
+    )
+    public ResponseEntity<ApiResponse<List<CursoBusquedaDTO>>> buscarCursosPorContenido(
+            @Parameter(description = "Texto a buscar", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Número máximo de resultados (máximo 50)")
+            @RequestParam(required = false) Integer limit) {
+        log.info("GET /cursos/buscar-contenido?q={} - Buscando cursos", q);
+        List<CursoBusquedaDTO> resultados = cursoService.buscarContenido(q, limit);
+        return ResponseEntity.ok(ApiResponse.success(resultados));
+    }
+
+    @GetMapping("/autocompletar")
+    @Operation(
+        summary = "Autocompletar títulos de cursos",
+        description = "Sugerencias de cursos activos cuyo título contiene el texto, sin distinguir " +
+                      "mayúsculas ni tildes. Con menos de 3 caracteres se busca por inicio de palabra."
+    )
+    public ResponseEntity<ApiResponse<List<CursoSugerenciaDTO>>> autocompletarTitulo(
+            @Parameter(description = "Texto escrito por el usuario", required = true)
+            @RequestParam String q,
+            @Parameter(description = "Número máximo de sugerencias (máximo 50)")
+            @RequestParam(required = false) Integer limit) {
+        List<CursoSugerenciaDTO> sugerencias = cursoService.autocompletarTitulo(q, limit);
+        return ResponseEntity.ok(ApiResponse.success(sugerencias));
+    }
+
+    @GetMapping("/populares")
+    @Operation(
+        summary = "Cursos más populares",
+        description = "Cursos activos con más inscripciones en total o en los últimos 7 o 30 días. " +
+                      "Se sirve desde un ranking en memoria, sin consultar la base de datos."
+    )
+    public ResponseEntity<ApiResponse<List<CursoPopularDTO>>> getCursosPopulares(
+            @Parameter(description = "Periodo: TOTAL, ULTIMOS_7_DIAS o ULTIMOS_30_DIAS")
+            @RequestParam(defaultValue = "TOTAL") Periodo periodo,
+            @Parameter(description = "Número máximo de cursos (máximo 100)")
+            @RequestParam(required = false) Integer limit) {
+        List<CursoPopularDTO> cursos = cursoService.getCursosPopulares(periodo, limit);
+        return ResponseEntity.ok(ApiResponse.success(cursos));
+    }
+
+    @GetMapping("/recomendados")
+    @Operation(
+        summary = "Cursos recomendados",
+        description = "Cursos activos recomendados al usuario autenticado según lo que han cursado otros " +
+                      "usuarios con inscripciones en común. Excluye los cursos en los que ya está inscrito."
+    )
+    public ResponseEntity<ApiResponse<List<CursoDTO>>> getCursosRecomendados(
+            @Parameter(description = "Número máximo de cursos (máximo 50)")
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        List<CursoDTO> cursos = cursoService.getCursosRecomendados(userDetails.getId(), limit);
         return ResponseEntity.ok(ApiResponse.success(cursos));
     }
 
     @GetMapping("/activos")
     @Operation(summary = "Obtener cursos activos", description = "Lista todos los cursos disponibles y activos en el sistema")
-    public ResponseEntity<ApiResponse<List<CursoDTO>>> getCursosActivos() {
+    public ResponseEntity<ApiResponse<CursorPage<CursoDTO>>> getCursosActivos(
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
         log.info("GET /cursos/activos - Obteniendo cursos activos");
-        List<CursoDTO> cursos = cursoService.getCursosActivos();
+        CursorPage<CursoDTO> cursos = cursoService.getCursosActivos(cursor, size);
         return ResponseEntity.ok(ApiResponse.success(cursos));
     }
 
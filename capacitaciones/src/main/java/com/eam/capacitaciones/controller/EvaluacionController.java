@@ -1,9 +1,19 @@
 package com.eam.capacitaciones.controller;
 
+import com.eam.capacitaciones.dto.request.BancoPreguntasRequest;
+import com.eam.capacitaciones.dto.request.ClaveRespuestasRequest;
 import com.eam.capacitaciones.dto.request.EvaluacionCreateRequest;
 import com.eam.capacitaciones.dto.response.ApiResponse;
+import com.eam.capacitaciones.dto.response.BancoPreguntasDTO;
+import com.eam.capacitaciones.dto.response.ClaveRespuestasDTO;
 import com.eam.capacitaciones.dto.response.EvaluacionDTO;
+import com.eam.capacitaciones.dto.response.ExamenDTO;
+import com.eam.capacitaciones.dto.response.RecalificacionDTO;
+import com.eam.capacitaciones.dto.response.SesionExamenDTO;
+import com.eam.capacitaciones.security.CustomUserDetails;
 import com.eam.capacitaciones.service.EvaluacionService;
+import com.eam.capacitaciones.service.RecalificacionService;
+import com.eam.capacitaciones.service.SesionExamenService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -14,6 +24,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -27,6 +38,8 @@ import java.util.List;
 public class EvaluacionController {
 
     private final EvaluacionService evaluacionService;
+    private final RecalificacionService recalificacionService;
+    private final SesionExamenService sesionExamenService;
 
     @GetMapping("/modulo/{moduloId}")
     @Operation(summary = "Listar evaluaciones por módulo", description = "Obtiene todas las evaluaciones asociadas a un módulo")
@@ -63,6 +76,106 @@ public class EvaluacionController {
                 .body(ApiResponse.success("Evaluación creada exitosamente", nuevaEvaluacion));
     }
 
+    @GetMapping("/{id}/clave")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
+    @Operation(summary = "Obtener clave de respuestas", description = "Opciones correctas y peso de cada pregunta de una evaluación de opción múltiple")
+    public ResponseEntity<ApiResponse<ClaveRespuestasDTO>> getClave(
+            @Parameter(description = "ID de la evaluación", required = true)
+            @PathVariable Long id) {
+
+        log.info("GET /evaluaciones/{}/clave - Obteniendo clave de respuestas", id);
+        return ResponseEntity.ok(ApiResponse.success(evaluacionService.getClave(id)));
+    }
+
+    @PutMapping("/{id}/clave")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
+    @Operation(
+        summary = "Reemplazar clave de respuestas",
+        description = "Define las opciones correctas de cada pregunta, en orden. Las respuestas ya enviadas " +
+                      "conservan su puntuación hasta recalificar la evaluación."
+    )
+    public ResponseEntity<ApiResponse<ClaveRespuestasDTO>> actualizarClave(
+            @Parameter(description = "ID de la evaluación", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody ClaveRespuestasRequest request) {
+
+        log.info("PUT /evaluaciones/{}/clave - Actualizando clave de respuestas", id);
+        ClaveRespuestasDTO clave = evaluacionService.actualizarClave(id, request);
+        return ResponseEntity.ok(ApiResponse.success("Clave de respuestas actualizada", clave));
+    }
+
+    @PutMapping("/{id}/banco")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
+    @Operation(
+        summary = "Reemplazar banco de preguntas",
+        description = "Define las preguntas del banco y cuántas de cada dificultad recibe cada intento. " +
+                      "Con banco, cada intento recibe un examen distinto y se califica contra él."
+    )
+    public ResponseEntity<ApiResponse<BancoPreguntasDTO>> actualizarBanco(
+            @Parameter(description = "ID de la evaluación", required = true)
+            @PathVariable Long id,
+            @Valid @RequestBody BancoPreguntasRequest request) {
+
+        log.info("PUT /evaluaciones/{}/banco - Actualizando banco de preguntas", id);
+        BancoPreguntasDTO banco = evaluacionService.actualizarBanco(id, request);
+        return ResponseEntity.ok(ApiResponse.success("Banco de preguntas actualizado", banco));
+    }
+
+    @PostMapping("/{id}/intentos")
+    @Operation(
+        summary = "Iniciar intento",
+        description = "Abre un intento de una evaluación con tiempo límite y pone en marcha el reloj. " +
+                      "Si ya hay uno en curso lo devuelve. Al vencer el tiempo el intento se entrega en blanco."
+    )
+    public ResponseEntity<ApiResponse<SesionExamenDTO>> iniciarIntento(
+            @Parameter(description = "ID de la evaluación", required = true)
+            @PathVariable Long id,
+            Authentication authentication) {
+
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        log.info("POST /evaluaciones/{}/intentos - Usuario {}", id, userDetails.getId());
+        SesionExamenDTO sesion = sesionExamenService.iniciar(id, userDetails.getId());
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Intento iniciado", sesion));
+    }
+
+    @GetMapping("/{id}/intentos/actual")
+    @Operation(summary = "Intento actual", description = "Estado y tiempo restante del último intento iniciado por el usuario autenticado")
+    public ResponseEntity<ApiResponse<SesionExamenDTO>> getIntentoActual(
+            @Parameter(description = "ID de la evaluación", required = true)
+            @PathVariable Long id,
+            Authentication authentication) {
+
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success(sesionExamenService.getSesionActual(id, userDetails.getId())));
+    }
+
+    @GetMapping("/{id}/examen")
+    @Operation(summary = "Obtener examen", description = "Preguntas del próximo intento del usuario autenticado, sin las respuestas. " +
+                                                         "Con tiempo límite, las del intento en curso")
+    public ResponseEntity<ApiResponse<ExamenDTO>> getExamen(
+            @Parameter(description = "ID de la evaluación", required = true)
+            @PathVariable Long id,
+            Authentication authentication) {
+
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        log.info("GET /evaluaciones/{}/examen - Usuario {}", id, userDetails.getId());
+        return ResponseEntity.ok(ApiResponse.success(evaluacionService.getExamen(id, userDetails.getId())));
+    }
+
+    @PostMapping("/{id}/recalificar")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
+    @Operation(summary = "Recalificar evaluación", description = "Vuelve a calificar todas las respuestas con la clave actual")
+    public ResponseEntity<ApiResponse<RecalificacionDTO>> recalificar(
+            @Parameter(description = "ID de la evaluación", required = true)
+            @PathVariable Long id) {
+
+        log.info("POST /evaluaciones/{}/recalificar - Recalificando respuestas", id);
+        RecalificacionDTO resultado = recalificacionService.recalificar(id);
+        return ResponseEntity.ok(ApiResponse.success("Evaluación recalificada", resultado));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
     @Operation(summary = "Eliminar evaluación", description = "Elimina una evaluación del sistema")
@@ -1,9 +1,14 @@
 package com.eam.capacitaciones.controller;
 
+import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
 import com.eam.capacitaciones.dto.request.InscripcionCreateRequest;
+import com.eam.capacitaciones.dto.request.InscripcionMasivaRequest;
 import com.eam.capacitaciones.dto.response.ApiResponse;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.dto.response.InscripcionDTO;
+import com.eam.capacitaciones.dto.response.InscripcionMasivaDTO;
 import com.eam.capacitaciones.security.CustomUserDetails;
+import com.eam.capacitaciones.service.InscripcionMasivaService;
 import com.eam.capacitaciones.service.InscripcionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +35,7 @@ import java.util.List;
 public class InscripcionController {
 
     private final InscripcionService inscripcionService;
+    private final InscripcionMasivaService inscripcionMasivaService;
 
     @GetMapping("/usuario/{usuarioId}")
     @Operation(summary = "Listar inscripciones por usuario", description = "Obtiene todas las inscripciones de un usuario específico")
@@ -44,13 +50,17 @@ public class InscripcionController {
 
     @GetMapping("/curso/{cursoId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
-    @Operation(summary = "Listar inscripciones por curso", description = "Obtiene todas las inscripciones de un curso específico")
-    public ResponseEntity<ApiResponse<List<InscripcionDTO>>> getInscripcionesByCurso(
+    @Operation(summary = "Listar inscripciones por curso", description = "Obtiene una página de inscripciones de un curso, de la más reciente a la más antigua")
+    public ResponseEntity<ApiResponse<CursorPage<InscripcionDTO>>> getInscripcionesByCurso(
             @Parameter(description = "ID del curso", required = true)
-            @PathVariable Long cursoId) {
+            @PathVariable Long cursoId,
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
         
         log.info("GET /inscripciones/curso/{} - Obteniendo inscripciones", cursoId);
-        List<InscripcionDTO> inscripciones = inscripcionService.getInscripcionesByCurso(cursoId);
+        CursorPage<InscripcionDTO> inscripciones = inscripcionService.getInscripcionesByCurso(cursoId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(inscripciones));
     }
 
@@ -72,6 +82,36 @@ public class InscripcionController {
                 .body(ApiResponse.success("Inscripción creada exitosamente", nuevaInscripcion));
     }
 
+    @PostMapping("/masivas")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
+    @Operation(
+        summary = "Inscripción masiva",
+        description = "Inscribe en un curso a una lista de usuarios o a todos los usuarios activos de un " +
+                      "departamento y/o rol. Los instructores solo pueden hacerlo en sus propios cursos. " +
+                      "Se ejecuta en segundo plano; devuelve el id del trabajo para consultar su avance."
+    )
+    public ResponseEntity<ApiResponse<InscripcionMasivaDTO>> createInscripcionMasiva(
+            @Valid @RequestBody InscripcionMasivaRequest request,
+            Authentication authentication) {
+
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        log.info("POST /inscripciones/masivas - Inscripción masiva en curso {}", request.getCursoId());
+        InscripcionMasivaDTO trabajo = inscripcionMasivaService.iniciar(request, userDetails.getId(),
+                RolEnum.ADMIN.name().equals(userDetails.getRol()));
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Inscripción masiva iniciada", trabajo));
+    }
+
+    @GetMapping("/masivas/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
+    @Operation(summary = "Estado de inscripción masiva", description = "Avance y resultado de una inscripción masiva")
+    public ResponseEntity<ApiResponse<InscripcionMasivaDTO>> getInscripcionMasiva(
+            @Parameter(description = "ID del trabajo", required = true)
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success(inscripcionMasivaService.getEstado(jobId)));
+    }
+
     @PatchMapping("/{id}/progreso")
     @Operation(summary = "Actualizar progreso", description = "Actualiza el porcentaje de avance del curso (0-100)")
     public ResponseEntity<ApiResponse<Void>> actualizarProgreso(
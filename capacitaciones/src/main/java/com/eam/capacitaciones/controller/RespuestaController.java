@@ -3,7 +3,10 @@ package com.eam.capacitaciones.controller;
 import com.eam.capacitaciones.dto.request.RespuestaCalificarRequest;
 import com.eam.capacitaciones.dto.request.RespuestaSubmitRequest;
 import com.eam.capacitaciones.dto.response.ApiResponse;
+import com.eam.capacitaciones.dto.response.CursorPage;
+import com.eam.capacitaciones.dto.response.EntregaDTO;
 import com.eam.capacitaciones.dto.response.RespuestaDTO;
+import com.eam.capacitaciones.entrega.RecepcionEntregas;
 import com.eam.capacitaciones.security.CustomUserDetails;
 import com.eam.capacitaciones.service.RespuestaService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +33,7 @@ import java.util.List;
 public class RespuestaController {
 
     private final RespuestaService respuestaService;
+    private final RecepcionEntregas recepcionEntregas;
 
     @GetMapping("/evaluacion/{evaluacionId}/usuario/{usuarioId}")
     @Operation(summary = "Obtener respuestas de un usuario", description = "Lista todas las respuestas de un usuario en una evaluación específica")
@@ -60,6 +64,37 @@ public class RespuestaController {
                 .body(ApiResponse.success("Respuesta enviada exitosamente", respuesta));
     }
 
+    @PostMapping("/entregas")
+    @Operation(
+        summary = "Entregar respuesta de forma asíncrona",
+        description = "Registra la respuesta y devuelve un recibo de inmediato; se guarda en segundo plano. " +
+                      "Pensado para el cierre de exámenes con tiempo, cuando todos envían a la vez"
+    )
+    public ResponseEntity<ApiResponse<EntregaDTO>> entregarRespuesta(
+            @Valid @RequestBody RespuestaSubmitRequest request,
+            Authentication authentication) {
+        
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        log.info("POST /respuestas/entregas - Usuario {} entregando respuesta a evaluación {}", 
+                userDetails.getId(), request.getEvaluacionId());
+        
+        EntregaDTO entrega = recepcionEntregas.recibir(userDetails.getId(), request);
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Respuesta recibida", entrega));
+    }
+
+    @GetMapping("/entregas/{recibo}")
+    @Operation(summary = "Estado de una entrega", description = "Indica si la entrega ya se guardó como respuesta o fue rechazada")
+    public ResponseEntity<ApiResponse<EntregaDTO>> getEntrega(
+            @Parameter(description = "Recibo devuelto al entregar", required = true)
+            @PathVariable String recibo,
+            Authentication authentication) {
+        
+        CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
+        return ResponseEntity.ok(ApiResponse.success(recepcionEntregas.getEstado(recibo, userDetails.getId())));
+    }
+
     @PatchMapping("/{id}/calificar")
     @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
     @Operation(summary = "Calificar respuesta", description = "Califica una respuesta de tipo abierta")
@@ -75,12 +110,17 @@ public class RespuestaController {
 
     @GetMapping("/evaluacion/{evaluacionId}/pendientes")
     @PreAuthorize("hasAnyRole('ADMIN', 'INSTRUCTOR')")
-    @Operation(summary = "Obtener respuestas pendientes de calificación")
-    public ResponseEntity<ApiResponse<List<RespuestaDTO>>> getRespuestasPendientes(
-            @PathVariable Long evaluacionId) {
+    @Operation(summary = "Obtener respuestas pendientes de calificación",
+               description = "Página de respuestas sin calificar, de la más antigua a la más reciente")
+    public ResponseEntity<ApiResponse<CursorPage<RespuestaDTO>>> getRespuestasPendientes(
+            @PathVariable Long evaluacionId,
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
         
         log.info("GET /respuestas/evaluacion/{}/pendientes", evaluacionId);
-        List<RespuestaDTO> respuestas = respuestaService.getRespuestasPendientesCalificacion(evaluacionId);
+        CursorPage<RespuestaDTO> respuestas = respuestaService.getRespuestasPendientesCalificacion(evaluacionId, cursor, size);
         return ResponseEntity.ok(ApiResponse.success(respuestas));
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.eam.capacitaciones.controller;
 import com.eam.capacitaciones.dto.request.UsuarioCreateRequest;
 import com.eam.capacitaciones.dto.request.UsuarioUpdateRequest;
 import com.eam.capacitaciones.dto.response.ApiResponse;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.dto.response.UsuarioDTO;
 import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
 import com.eam.capacitaciones.service.UsuarioService;
@@ -53,6 +54,29 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarios);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(
+        summary = "Listar usuarios por cursor",
+        description = "Obtiene una página de usuarios ordenada por nombre, sin contar el total. Solo accesible por ADMIN."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lista obtenida exitosamente"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Cursor inválido"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Sin permisos de administrador"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "No autenticado")
+    })
+    public ResponseEntity<ApiResponse<CursorPage<UsuarioDTO>>> getUsuariosPorCursor(
+            @Parameter(description = "Cursor opaco devuelto por la página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (máximo 100)")
+            @RequestParam(required = false) Integer size) {
+        
+        log.info("GET /usuarios/cursor - Obteniendo lista de usuarios");
+        CursorPage<UsuarioDTO> usuarios = usuarioService.getUsuariosPorCursor(cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(usuarios));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
     @Operation(
@@ -1,20 +1,21 @@
 package com.eam.capacitaciones.dao;
 
-import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+import com.eam.capacitaciones.repository.projection.CursoResumen;
+import com.eam.capacitaciones.util.KeysetCursor;
 import java.util.List;
 import java.util.Map;
 
 public interface CustomCursoDAO {
     
-    List<Curso> buscarCursosConFiltros(String titulo, String nivel, 
-                                        Long instructorId, Boolean activo, 
-                                        Integer minInscritos);
-    
-    List<Map<String, Object>> obtenerCursosMasPopulares(int limit);
-
-    List<Curso> obtenerCursosRecomendados(Long usuarioId, int limit);
+    List<CursoResumen> buscarCursosConFiltros(String titulo, NivelEnum nivel,
+                                              Long instructorId, Boolean activo,
+                                              Long minInscritos, KeysetCursor cursor, int limite);
 
     Map<String, Long> obtenerEstadisticasPorNivel();
 
     List<Map<String, Object>> obtenerCursosConBajaCompletacion(double umbralPorcentaje);
+
+    List<CursoResumen> listarResumenes(Boolean activo, NivelEnum nivel, Long instructorId,
+                                       String titulo, KeysetCursor cursor, int limite);
 }
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.eam.capacitaciones.dao;
 
-import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.projection.CursoResumen;
+import com.eam.capacitaciones.util.KeysetCursor;
+import jakarta.persistence.TypedQuery;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.criteria.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 
@@ -17,98 +20,6 @@ public class CustomCursoDAOImpl implements CustomCursoDAO {
     @PersistenceContext
     private EntityManager entityManager;
 
-    @Override
-    public List<Curso> buscarCursosConFiltros(String titulo, String nivel, 
-                                               Long instructorId, Boolean activo, 
-                                               Integer minInscritos) {
-        log.debug("Buscando cursos con filtros avanzados");
-
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Curso> cq = cb.createQuery(Curso.class);
-        Root<Curso> curso = cq.from(Curso.class);
-
-        List<Predicate> predicates = new ArrayList<>();
-
-        if (titulo != null && !titulo.isEmpty()) {
-            predicates.add(cb.like(cb.lower(curso.get("titulo")), 
-                                   "%" + titulo.toLowerCase() + "%"));
-        }
-
-        if (nivel != null && !nivel.isEmpty()) {
-            predicates.add(cb.equal(curso.get("nivel"), Curso.NivelEnum.valueOf(nivel)));
-        }
-
-        if (instructorId != null) {
-            predicates.add(cb.equal(curso.get("instructorId"), instructorId));
-        }
-
-        if (activo != null) {
-            predicates.add(cb.equal(curso.get("activo"), activo));
-        }
-
-        if (minInscritos != null && minInscritos > 0) {
-            Subquery<Long> subquery = cq.subquery(Long.class);
-            Root<Curso> subCurso = subquery.correlate(curso);
-            subquery.select(cb.count(subCurso.join("inscripciones")));
-            
-            predicates.add(cb.greaterThanOrEqualTo(subquery, minInscritos.longValue()));
-        }
-
-        if (!predicates.isEmpty()) {
-            cq.where(cb.and(predicates.toArray(new Predicate[0])));
-        }
-
-        cq.orderBy(cb.desc(curso.get("fechaCreacion")));
-
-        return entityManager.createQuery(cq).getResultList();
-    }
-
-    @Override
-    public List<Map<String, Object>> obtenerCursosMasPopulares(int limit) {
-        log.debug("Obteniendo top {} cursos más populares", limit);
-
-        String jpql = "SELECT c.idCurso, c.titulo, c.nivel, COUNT(i.idInscripcion) as totalInscritos " +
-                      "FROM Curso c " +
-                      "LEFT JOIN c.inscripciones i " +
-                      "WHERE c.activo = true " +
-                      "GROUP BY c.idCurso, c.titulo, c.nivel " +
-                      "ORDER BY COUNT(i.idInscripcion) DESC";
-
-        List<Object[]> results = entityManager.createQuery(jpql, Object[].class)
-                                             .setMaxResults(limit)
-                                             .getResultList();
-
-        List<Map<String, Object>> cursos = new ArrayList<>();
-        for (Object[] row : results) {
-            Map<String, Object> curso = new HashMap<>();
-            curso.put("idCurso", row[0]);
-            curso.put("titulo", row[1]);
-            curso.put("nivel", row[2]);
-            curso.put("totalInscritos", row[3]);
-            cursos.add(curso);
-        }
-
-        return cursos;
-    }
-
-    @Override
-    public List<Curso> obtenerCursosRecomendados(Long usuarioId, int limit) {
-        log.debug("Obteniendo cursos recomendados para usuario: {}", usuarioId);
-
-        String jpql = "SELECT DISTINCT c FROM Curso c " +
-                      "WHERE c.activo = true " +
-                      "AND c.idCurso NOT IN (" +
-                      "    SELECT i.cursoId FROM Inscripcion i " +
-                      "    WHERE i.usuarioId = :usuarioId" +
-                      ") " +
-                      "ORDER BY c.fechaCreacion DESC";
-
-        return entityManager.createQuery(jpql, Curso.class)
-                           .setParameter("usuarioId", usuarioId)
-                           .setMaxResults(limit)
-                           .getResultList();
-    }
-
     @Override
     public Map<String, Long> obtenerEstadisticasPorNivel() {
         log.debug("Obteniendo estadísticas de cursos por nivel");
@@ -133,16 +44,15 @@ public class CustomCursoDAOImpl implements CustomCursoDAO {
         log.debug("Obteniendo cursos con tasa de completación menor a {}%", umbralPorcentaje);
 
         String sql = "SELECT c.idCurso, c.titulo, " +
-                     "COUNT(DISTINCT i1.idInscripcion) as totalInscritos, " +
-                     "COUNT(DISTINCT i2.idInscripcion) as totalCompletados, " +
-                     "(COUNT(DISTINCT i2.idInscripcion) * 100.0 / COUNT(DISTINCT i1.idInscripcion)) as tasaCompletacion " +
+                     "SUM(s.inscritos) as totalInscritos, " +
+                     "SUM(s.completados) as totalCompletados, " +
+                     "(SUM(s.completados) * 100.0 / SUM(s.inscritos)) as tasaCompletacion " +
                      "FROM Curso c " +
-                     "LEFT JOIN Inscripcion i1 ON c.idCurso = i1.cursoId " +
-                     "LEFT JOIN Inscripcion i2 ON c.idCurso = i2.cursoId AND i2.estado = 'COMPLETADO' " +
+                     "INNER JOIN CursoContador s ON c.idCurso = s.cursoId " +
                      "WHERE c.activo = true " +
                      "GROUP BY c.idCurso, c.titulo " +
-                     "HAVING COUNT(DISTINCT i1.idInscripcion) > 0 " +
-                     "AND (COUNT(DISTINCT i2.idInscripcion) * 100.0 / COUNT(DISTINCT i1.idInscripcion)) < :umbral " +
+                     "HAVING SUM(s.inscritos) > 0 " +
+                     "AND (SUM(s.completados) * 100.0 / SUM(s.inscritos)) < :umbral " +
                      "ORDER BY tasaCompletacion ASC";
 
         @SuppressWarnings("unchecked")
@@ -163,4 +73,74 @@ public class CustomCursoDAOImpl implements CustomCursoDAO {
 
         return cursos;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<CursoResumen> listarResumenes(Boolean activo, NivelEnum nivel, Long instructorId,
+                                              String titulo, KeysetCursor cursor, int limite) {
+        return buscarCursosConFiltros(titulo, nivel, instructorId, activo, null, cursor, limite);
+    }
+
+    /**
+     * Página ordenada por (fechaCreacion, idCurso) descendente. La condición de keyset
+     * continúa después de la última fila entregada sin OFFSET, apoyada en los índices
+     * compuestos de Curso. minInscritos compara contra el contador desnormalizado
+     * Curso.totalInscritos en lugar de contar Inscripcion por cada curso candidato.
+     */
+    @Override
+    public List<CursoResumen> buscarCursosConFiltros(String titulo, NivelEnum nivel,
+                                                     Long instructorId, Boolean activo,
+                                                     Long minInscritos, KeysetCursor cursor, int limite) {
+        log.debug("Buscando cursos con filtros (activo: {}, nivel: {}, instructor: {}, titulo: {}, minInscritos: {})",
+                activo, nivel, instructorId, titulo, minInscritos);
+
+        List<String> condiciones = new ArrayList<>();
+        if (activo != null) {
+            condiciones.add("c.activo = :activo");
+        }
+        if (nivel != null) {
+            condiciones.add("c.nivel = :nivel");
+        }
+        if (instructorId != null) {
+            condiciones.add("c.instructorId = :instructorId");
+        }
+        if (titulo != null && !titulo.isEmpty()) {
+            condiciones.add("LOWER(c.titulo) LIKE :titulo");
+        }
+        if (minInscritos != null && minInscritos > 0) {
+            condiciones.add("c.totalInscritos >= :minInscritos");
+        }
+        if (cursor != null) {
+            condiciones.add("(c.fechaCreacion < :fechaCursor " +
+                            "OR (c.fechaCreacion = :fechaCursor AND c.idCurso < :idCursor))");
+        }
+
+        StringBuilder jpql = new StringBuilder(CursoRepository.RESUMEN_SELECT);
+        if (!condiciones.isEmpty()) {
+            jpql.append("WHERE ").append(String.join(" AND ", condiciones)).append(' ');
+        }
+        jpql.append("ORDER BY c.fechaCreacion DESC, c.idCurso DESC");
+
+        TypedQuery<CursoResumen> query = entityManager.createQuery(jpql.toString(), CursoResumen.class);
+        if (activo != null) {
+            query.setParameter("activo", activo);
+        }
+        if (nivel != null) {
+            query.setParameter("nivel", nivel);
+        }
+        if (instructorId != null) {
+            query.setParameter("instructorId", instructorId);
+        }
+        if (titulo != null && !titulo.isEmpty()) {
+            query.setParameter("titulo", "%" + titulo.toLowerCase() + "%");
+        }
+        if (minInscritos != null && minInscritos > 0) {
+            query.setParameter("minInscritos", minInscritos);
+        }
+        if (cursor != null) {
+            query.setParameter("fechaCursor", cursor.getFecha());
+            query.setParameter("idCursor", cursor.getId());
+        }
+
+        return query.setMaxResults(limite).getResultList();
+    }
+}
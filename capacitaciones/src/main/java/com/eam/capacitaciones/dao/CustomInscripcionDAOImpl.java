@@ -110,11 +110,11 @@ public class CustomInscripcionDAOImpl implements CustomInscripcionDAO {
 
         String sql = """
             SELECT 
-                c.idCurso,
-                (SUM(CASE WHEN i.estado = 'COMPLETADO' THEN 1 ELSE 0 END) * 100.0 / COUNT(*)) as tasa
-            FROM Curso c
-            INNER JOIN Inscripcion i ON c.idCurso = i.cursoId
-            GROUP BY c.idCurso
+                s.cursoId,
+                (SUM(s.completados) * 100.0 / SUM(s.inscritos)) as tasa
+            FROM CursoContador s
+            GROUP BY s.cursoId
+            HAVING SUM(s.inscritos) > 0
         """;
 
         List<Object[]> results = entityManager.createNativeQuery(sql).getResultList();
@@ -24,7 +24,8 @@ import java.util.Set;
 public class Badge {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Badge_seq")
+	@SequenceGenerator(name = "Badge_seq", sequenceName = "Badge_seq", allocationSize = 50)
 	private Long idBadge;
 
 	@NotBlank(message = "El nombre es obligatorio")
@@ -0,0 +1,54 @@
+package com.eam.capacitaciones.domain.entity;
+
+import com.eam.capacitaciones.domain.entity.PreguntaBanco.DificultadEnum;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Entidad BancoMuestra - Cuántas preguntas de cada dificultad recibe cada intento de una
+ * evaluación con banco de preguntas
+ */
+@Entity
+@Table(name = "BancoMuestra",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_banco_muestra_dificultad", columnNames = {"evaluacionId", "versionBanco", "dificultad"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BancoMuestra {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "BancoMuestra_seq")
+    @SequenceGenerator(name = "BancoMuestra_seq", sequenceName = "BancoMuestra_seq", allocationSize = 50)
+    private Long idBancoMuestra;
+
+    @Column(nullable = false)
+    private Long evaluacionId;
+
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer versionBanco = 1;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private DificultadEnum dificultad;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+}
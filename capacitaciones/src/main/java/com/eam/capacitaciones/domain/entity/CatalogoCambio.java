@@ -0,0 +1,43 @@
+package com.eam.capacitaciones.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad CatalogoCambio - Registro de cursos modificados, consultado periódicamente
+ * por cada instancia para invalidar su caché de catálogo
+ */
+@Entity
+@Table(name = "CatalogoCambio",
+       indexes = {
+           @Index(name = "idx_catalogo_cambio_fecha", columnList = "fecha")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CatalogoCambio {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CatalogoCambio_seq")
+    @SequenceGenerator(name = "CatalogoCambio_seq", sequenceName = "CatalogoCambio_seq", allocationSize = 50)
+    private Long idCambio;
+
+    @Column(nullable = false)
+    private Long cursoId;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+}
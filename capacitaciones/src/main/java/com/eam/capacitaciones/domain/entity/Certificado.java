@@ -32,7 +32,8 @@ import java.time.LocalDateTime;
 public class Certificado {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Certificado_seq")
+    @SequenceGenerator(name = "Certificado_seq", sequenceName = "Certificado_seq", allocationSize = 50)
     private Long idCertificado;
 
     @Column(nullable = false)
@@ -12,6 +12,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Column;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
@@ -25,6 +26,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -41,8 +43,11 @@ import java.util.Set;
 @Table(name = "Curso",
        indexes = {
            @Index(name = "idx_titulo", columnList = "titulo"),
-           @Index(name = "idx_nivel", columnList = "nivel"),
-           @Index(name = "idx_instructor", columnList = "instructorId")
+           @Index(name = "idx_curso_fecha_id", columnList = "fechaCreacion, idCurso"),
+           @Index(name = "idx_curso_activo_fecha_id", columnList = "activo, fechaCreacion, idCurso"),
+           @Index(name = "idx_curso_nivel_fecha_id", columnList = "nivel, fechaCreacion, idCurso"),
+           @Index(name = "idx_curso_instructor_fecha_id", columnList = "instructorId, fechaCreacion, idCurso"),
+           @Index(name = "idx_curso_total_inscritos", columnList = "totalInscritos")
        })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -52,7 +57,8 @@ import java.util.Set;
 public class Curso {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Curso_seq")
+    @SequenceGenerator(name = "Curso_seq", sequenceName = "Curso_seq", allocationSize = 50)
     private Long idCurso;
 
     @NotBlank(message = "El título es obligatorio")
@@ -81,6 +87,12 @@ public class Curso {
     @Column(length = 255)
     private String imagenUrl;
 
+    // Total de inscripciones consolidado desde CursoContador por CursoContadorService
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Builder.Default
+    private Long totalInscritos = 0L;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
@@ -136,10 +148,6 @@ public class Curso {
         return modulos.size();
     }
 
-    public int getTotalInscritos() {
-        return inscripciones.size();
-    }
-
     public boolean puedePublicarse() {
         return modulos.size() > 0 && activo;
     }
@@ -0,0 +1,63 @@
+package com.eam.capacitaciones.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Entidad CursoContador - Fragmento de los contadores de inscripciones de un curso.
+ * Cada curso tiene varias filas (shards) para repartir las actualizaciones concurrentes;
+ * el valor total es la suma de todas ellas
+ */
+@Entity
+@Table(name = "CursoContador",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_curso_contador_shard", columnNames = {"cursoId", "shard"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursoContador {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "CursoContador_seq")
+    @SequenceGenerator(name = "CursoContador_seq", sequenceName = "CursoContador_seq", allocationSize = 50)
+    private Long idContador;
+
+    @Column(nullable = false)
+    private Long cursoId;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long inscritos = 0L;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long enProgreso = 0L;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long completados = 0L;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long abandonados = 0L;
+}
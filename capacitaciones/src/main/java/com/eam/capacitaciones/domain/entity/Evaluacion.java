@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -26,7 +27,8 @@ import java.util.Set;
 public class Evaluacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Evaluacion_seq")
+    @SequenceGenerator(name = "Evaluacion_seq", sequenceName = "Evaluacion_seq", allocationSize = 50)
     private Long idEvaluacion;
 
     @Column(nullable = false)
@@ -53,6 +55,12 @@ public class Evaluacion {
     @Builder.Default
     private Integer intentosPermitidos = 3;
 
+    /** Versión vigente del banco de preguntas; cada reemplazo del banco crea una nueva. */
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer versionBanco = 1;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
@@ -76,10 +84,12 @@ public class Evaluacion {
 
     public boolean esAbierta() { return this.tipo == TipoEnum.ABIERTA; }
     public boolean tieneLimiteIntentos() { return intentosPermitidos != null && intentosPermitidos > 0; }
+    public boolean tieneDuracion() { return duracionMinutos != null && duracionMinutos > 0; }
 
     @PrePersist
     protected void onCreate() {
         if (puntajeMax == null) puntajeMax = 100;
         if (intentosPermitidos == null) intentosPermitidos = 3;
+        if (versionBanco == null) versionBanco = 1;
     }
 }
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -23,7 +24,9 @@ import java.time.LocalDateTime;
        indexes = {
            @Index(name = "idx_usuario", columnList = "usuarioId"),
            @Index(name = "idx_curso", columnList = "cursoId"),
-           @Index(name = "idx_estado", columnList = "estado")
+           @Index(name = "idx_inscripcion_curso_fecha_id", columnList = "cursoId, fechaCreacion, idInscripcion"),
+           @Index(name = "idx_estado", columnList = "estado"),
+           @Index(name = "idx_inscripcion_fecha_curso", columnList = "fechaInscripcion, cursoId")
        },
        uniqueConstraints = {
            @UniqueConstraint(name = "uk_usuario_curso", columnNames = {"usuarioId", "cursoId"})
@@ -36,7 +39,8 @@ import java.time.LocalDateTime;
 public class Inscripcion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Inscripcion_seq")
+    @SequenceGenerator(name = "Inscripcion_seq", sequenceName = "Inscripcion_seq", allocationSize = 50)
     private Long idInscripcion;
 
     @Column(nullable = false)
@@ -70,6 +74,12 @@ public class Inscripcion {
     @Column(nullable = false)
     private LocalDateTime fechaActualizacion;
 
+    /** Control de concurrencia optimista: cada actualización comprueba e incrementa la versión. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuarioId", insertable = false, updatable = false)
     private Usuario usuario;
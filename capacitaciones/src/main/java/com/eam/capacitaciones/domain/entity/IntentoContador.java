@@ -0,0 +1,47 @@
+package com.eam.capacitaciones.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Entidad IntentoContador - Intentos consumidos por un usuario en una evaluación. Se incrementa
+ * con un UPDATE condicional que a la vez comprueba el límite de intentos
+ */
+@Entity
+@Table(name = "IntentoContador",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_intento_contador", columnNames = {"evaluacionId", "usuarioId"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IntentoContador {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "IntentoContador_seq")
+    @SequenceGenerator(name = "IntentoContador_seq", sequenceName = "IntentoContador_seq", allocationSize = 50)
+    private Long idIntentoContador;
+
+    @Column(nullable = false)
+    private Long evaluacionId;
+
+    @Column(nullable = false)
+    private Long usuarioId;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer intentos = 0;
+}
@@ -32,7 +32,8 @@ import java.util.Set;
 public class Modulo {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Modulo_seq")
+    @SequenceGenerator(name = "Modulo_seq", sequenceName = "Modulo_seq", allocationSize = 50)
     private Long idModulo;
 
     @Column(nullable = false)
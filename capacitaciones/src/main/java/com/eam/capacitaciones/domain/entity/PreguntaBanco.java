@@ -0,0 +1,85 @@
+package com.eam.capacitaciones.domain.entity;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entidad PreguntaBanco - Pregunta del banco de una evaluación de opción múltiple. Cada intento
+ * recibe una selección de preguntas del banco con las opciones en orden aleatorio
+ */
+@Entity
+@Table(name = "PreguntaBanco",
+       indexes = {@Index(name = "idx_pregunta_banco_evaluacion", columnList = "evaluacionId, versionBanco")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PreguntaBanco {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PreguntaBanco_seq")
+    @SequenceGenerator(name = "PreguntaBanco_seq", sequenceName = "PreguntaBanco_seq", allocationSize = 50)
+    private Long idPreguntaBanco;
+
+    @Column(nullable = false)
+    private Long evaluacionId;
+
+    /** Versión del banco a la que pertenece. Al reemplazar el banco se conservan las anteriores. */
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer versionBanco = 1;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String enunciado;
+
+    @ElementCollection
+    @CollectionTable(name = "PreguntaBancoOpcion", joinColumns = @JoinColumn(name = "preguntaBancoId"))
+    @OrderColumn(name = "posicion")
+    @Column(name = "texto", nullable = false, length = 500)
+    @Builder.Default
+    private List<String> opciones = new ArrayList<>();
+
+    /** Letras de las opciones correctas según el orden guardado (A = primera opción). */
+    @Column(nullable = false, length = 26)
+    private String correctas;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Builder.Default
+    private DificultadEnum dificultad = DificultadEnum.MEDIA;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer peso = 1;
+
+    public enum DificultadEnum {
+        BAJA("Baja"),
+        MEDIA("Media"),
+        ALTA("Alta");
+
+        private final String displayName;
+        DificultadEnum(String displayName) { this.displayName = displayName; }
+        public String getDisplayName() { return displayName; }
+    }
+}
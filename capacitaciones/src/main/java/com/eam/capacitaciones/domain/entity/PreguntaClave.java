@@ -0,0 +1,51 @@
+package com.eam.capacitaciones.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad PreguntaClave - Respuesta correcta de una pregunta de una evaluación de opción
+ * múltiple. Las opciones se identifican con letras (A, B, C...) y una pregunta puede tener
+ * varias correctas
+ */
+@Entity
+@Table(name = "PreguntaClave",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_pregunta_clave_numero", columnNames = {"evaluacionId", "numero"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PreguntaClave {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PreguntaClave_seq")
+    @SequenceGenerator(name = "PreguntaClave_seq", sequenceName = "PreguntaClave_seq", allocationSize = 50)
+    private Long idPreguntaClave;
+
+    @Column(nullable = false)
+    private Long evaluacionId;
+
+    /** Posición de la pregunta en la evaluación, desde 1. */
+    @Column(nullable = false)
+    private Integer numero;
+
+    /** Letras de las opciones correctas, en mayúsculas. */
+    @Column(nullable = false, length = 26)
+    private String correctas;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer peso = 1;
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -18,7 +19,12 @@ import java.time.LocalDateTime;
        indexes = {
            @Index(name = "idx_evaluacion", columnList = "evaluacionId"),
            @Index(name = "idx_usuario", columnList = "usuarioId"),
-           @Index(name = "idx_fecha", columnList = "fecha")
+           @Index(name = "idx_fecha", columnList = "fecha"),
+           @Index(name = "idx_respuesta_pendientes", columnList = "evaluacionId, calificada, fechaCreacion, idRespuesta")
+       },
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_respuesta_intento", columnNames = {"evaluacionId", "usuarioId", "intentoNumero"}),
+           @UniqueConstraint(name = "uk_respuesta_recibo", columnNames = {"reciboEntrega"})
        })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -28,7 +34,8 @@ import java.time.LocalDateTime;
 public class Respuesta {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Respuesta_seq")
+    @SequenceGenerator(name = "Respuesta_seq", sequenceName = "Respuesta_seq", allocationSize = 50)
     private Long idRespuesta;
 
     @Column(nullable = false)
@@ -52,6 +59,12 @@ public class Respuesta {
     @Column(columnDefinition = "TEXT")
     private String respuestaTexto;
 
+    /** Versión del banco de preguntas con la que se armó el examen del intento. */
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer versionBanco = 1;
+
     @Column(nullable = false)
     @Builder.Default
     private Boolean calificada = false;
@@ -59,10 +72,32 @@ public class Respuesta {
     @Column(columnDefinition = "TEXT")
     private String comentarioInstructor;
 
+    /** Calificada por un instructor; la recalificación automática no la toca. */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean calificacionManual = false;
+
+    /** Entrega en blanco generada al vencer el tiempo de un intento, no enviada por el usuario. */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean entregaAutomatica = false;
+
+    /** Recibo de la entrega asíncrona que originó la respuesta; nulo en los envíos directos. */
+    @Column(length = 36)
+    private String reciboEntrega;
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
 
+    /** Control de concurrencia optimista: cada actualización comprueba e incrementa la versión. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Relaciones
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "evaluacionId", insertable = false, updatable = false)
@@ -79,6 +114,11 @@ public class Respuesta {
         this.calificada = true;
     }
 
+    public void calificarManualmente(BigDecimal puntaje, String comentario) {
+        calificar(puntaje, comentario);
+        this.calificacionManual = true;
+    }
+
     public boolean aprobada(Integer puntajeMinimo) {
         return this.puntuacion.compareTo(new BigDecimal(puntajeMinimo)) >= 0;
     }
@@ -88,6 +128,8 @@ public class Respuesta {
         if (fecha == null) fecha = LocalDate.now();
         if (puntuacion == null) puntuacion = BigDecimal.ZERO;
         if (calificada == null) calificada = false;
+        if (calificacionManual == null) calificacionManual = false;
         if (intentoNumero == null) intentoNumero = 1;
+        if (versionBanco == null) versionBanco = 1;
     }
 }
@@ -0,0 +1,89 @@
+package com.eam.capacitaciones.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad SesionExamen - Intento en curso de una evaluación con tiempo límite. Se abre al iniciar
+ * el intento y se cierra al entregar o, al vencer el tiempo, con una entrega automática
+ */
+@Entity
+@Table(name = "SesionExamen",
+       indexes = {
+           @Index(name = "idx_sesion_usuario", columnList = "evaluacionId, usuarioId, estado"),
+           @Index(name = "idx_sesion_estado", columnList = "estado, idSesion")
+       },
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_sesion_intento", columnNames = {"evaluacionId", "usuarioId", "intentoNumero"})
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SesionExamen {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "SesionExamen_seq")
+    @SequenceGenerator(name = "SesionExamen_seq", sequenceName = "SesionExamen_seq", allocationSize = 50)
+    private Long idSesion;
+
+    @Column(nullable = false)
+    private Long evaluacionId;
+
+    @Column(nullable = false)
+    private Long usuarioId;
+
+    @Column(nullable = false)
+    private Integer intentoNumero;
+
+    /** Versión del banco de preguntas vigente al iniciar; el examen del intento no cambia con el banco. */
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer versionBanco = 1;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private EstadoEnum estado = EstadoEnum.ABIERTA;
+
+    @Column(nullable = false)
+    private LocalDateTime inicio;
+
+    @Column(nullable = false)
+    private LocalDateTime vence;
+
+    @Column
+    private LocalDateTime fin;
+
+    public enum EstadoEnum {
+        ABIERTA,
+        ENTREGADA,
+        EXPIRADA
+    }
+
+    public boolean vencida(LocalDateTime ahora) {
+        return ahora.isAfter(vence);
+    }
+
+    public void cerrar(EstadoEnum estadoFinal, LocalDateTime ahora) {
+        this.estado = estadoFinal;
+        this.fin = ahora;
+    }
+}
@@ -0,0 +1,50 @@
+package com.eam.capacitaciones.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad TareaProgramada - Estado compartido de una tarea periódica que recorre tablas por
+ * bloques: qué instancia la ejecuta y hasta cuándo (arriendo), y el punto de reanudación de la
+ * pasada en curso
+ */
+@Entity
+@Table(name = "TareaProgramada")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TareaProgramada {
+
+    @Id
+    @Column(length = 100)
+    private String nombre;
+
+    @Column(length = 100)
+    private String propietario;
+
+    @Column
+    private LocalDateTime bloqueadaHasta;
+
+    /** Límite temporal fijado al iniciar la pasada; nulo cuando no hay ninguna a medias. */
+    @Column
+    private LocalDateTime corte;
+
+    /** Último id confirmado de la pasada en curso. */
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long ultimoId = 0L;
+
+    @Column
+    private LocalDateTime ultimaEjecucion;
+}
@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -24,7 +25,9 @@ import java.util.Set;
 @Table(name = "Usuario", 
        indexes = {
            @Index(name = "idx_email", columnList = "email"),
-           @Index(name = "idx_rol", columnList = "rol")
+           @Index(name = "idx_rol", columnList = "rol"),
+           @Index(name = "idx_usuario_nombre_id", columnList = "nombre, idUsuario"),
+           @Index(name = "idx_usuario_departamento_id", columnList = "departamento, idUsuario")
        })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -34,7 +37,8 @@ import java.util.Set;
 public class Usuario {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Usuario_seq")
+    @SequenceGenerator(name = "Usuario_seq", sequenceName = "Usuario_seq", allocationSize = 50)
     private Long idUsuario;
 
     @NotBlank(message = "El nombre es obligatorio")
@@ -72,6 +76,12 @@ public class Usuario {
     @Column(nullable = false)
     private LocalDateTime fechaActualizacion;
 
+    /** Control de concurrencia optimista: cada actualización comprueba e incrementa la versión. */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private Set<Inscripcion> inscripciones = new HashSet<>();
@@ -0,0 +1,59 @@
+package com.eam.capacitaciones.dto.request;
+
+import com.eam.capacitaciones.domain.entity.PreguntaBanco.DificultadEnum;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Banco de preguntas de una evaluación. {@code muestra} indica cuántas preguntas de cada
+ * dificultad recibe cada intento; si se omite, cada intento recibe todas en orden aleatorio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BancoPreguntasRequest {
+
+    @NotEmpty(message = "El banco debe tener al menos una pregunta")
+    @Size(max = 2000, message = "El banco no puede tener más de 2000 preguntas")
+    private List<@Valid Pregunta> preguntas;
+
+    private Map<DificultadEnum, @NotNull @Min(0) Integer> muestra;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Pregunta {
+
+        @NotBlank(message = "El enunciado es obligatorio")
+        private String enunciado;
+
+        @NotNull(message = "Las opciones son obligatorias")
+        @Size(min = 2, max = 26, message = "Cada pregunta debe tener entre 2 y 26 opciones")
+        private List<@NotBlank @Size(max = 500) String> opciones;
+
+        @NotBlank(message = "Indique las opciones correctas")
+        @Pattern(regexp = "[A-Za-z]{1,26}", message = "Las opciones correctas se indican con letras, p. ej. A o BD")
+        private String correctas;
+
+        private DificultadEnum dificultad;
+
+        @Min(value = 1, message = "El peso debe ser mayor a 0")
+        @Max(value = 100, message = "El peso no puede exceder 100")
+        private Integer peso;
+    }
+}
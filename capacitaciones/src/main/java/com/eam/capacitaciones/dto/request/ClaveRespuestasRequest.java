@@ -0,0 +1,42 @@
+package com.eam.capacitaciones.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClaveRespuestasRequest {
+
+    /** Preguntas en el orden en que aparecen en la evaluación. */
+    @NotEmpty(message = "La clave debe tener al menos una pregunta")
+    @Size(max = 500, message = "La clave no puede tener más de 500 preguntas")
+    private List<@Valid Pregunta> preguntas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Pregunta {
+
+        @NotBlank(message = "Indique las opciones correctas")
+        @Pattern(regexp = "[A-Za-z]{1,26}", message = "Las opciones correctas se indican con letras, p. ej. A o BD")
+        private String correctas;
+
+        @Min(value = 1, message = "El peso debe ser mayor a 0")
+        @Max(value = 100, message = "El peso no puede exceder 100")
+        private Integer peso;
+    }
+}
@@ -0,0 +1,33 @@
+package com.eam.capacitaciones.dto.request;
+
+import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Inscripción masiva en un curso. Si se indican ids solo se inscriben esos usuarios; si no, todos
+ * los usuarios activos del departamento y/o rol indicados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InscripcionMasivaRequest {
+
+    @NotNull(message = "El ID del curso es obligatorio")
+    private Long cursoId;
+
+    @Size(max = 100)
+    private String departamento;
+
+    private RolEnum rol;
+
+    @Size(max = 100000, message = "No se pueden indicar más de 100000 usuarios")
+    private List<Long> usuarioIds;
+}
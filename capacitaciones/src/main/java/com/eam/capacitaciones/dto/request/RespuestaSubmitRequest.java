@@ -18,4 +18,7 @@ public class RespuestaSubmitRequest {
     
     @NotBlank(message = "La respuesta es obligatoria")
     private String respuestaTexto;
+
+    /** Versión del banco del examen que se respondió, tal como la devolvió el examen. */
+    private Integer versionBanco;
 }
\ No newline at end of file
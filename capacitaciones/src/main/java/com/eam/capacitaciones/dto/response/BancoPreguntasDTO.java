@@ -0,0 +1,21 @@
+package com.eam.capacitaciones.dto.response;
+
+import com.eam.capacitaciones.domain.entity.PreguntaBanco.DificultadEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BancoPreguntasDTO {
+    private Long evaluacionId;
+    private Integer versionBanco;
+    private Map<DificultadEnum, Integer> disponibles;
+    private Map<DificultadEnum, Integer> muestra;
+    private int preguntasPorIntento;
+}
@@ -0,0 +1,27 @@
+package com.eam.capacitaciones.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClaveRespuestasDTO {
+    private Long evaluacionId;
+    private List<Pregunta> preguntas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Pregunta {
+        private Integer numero;
+        private String correctas;
+        private Integer peso;
+    }
+}
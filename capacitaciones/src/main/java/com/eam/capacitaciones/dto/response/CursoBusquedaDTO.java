@@ -0,0 +1,19 @@
+package com.eam.capacitaciones.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursoBusquedaDTO {
+    private Long idCurso;
+    private String titulo;
+    private Float score;
+    private Long idModulo;
+    private String tituloModulo;
+    private String fragmento;
+}
@@ -0,0 +1,18 @@
+package com.eam.capacitaciones.dto.response;
+
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursoPopularDTO {
+    private Long idCurso;
+    private String titulo;
+    private NivelEnum nivel;
+    private Long totalInscritos;
+}
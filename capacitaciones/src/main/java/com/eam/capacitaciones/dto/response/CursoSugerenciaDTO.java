@@ -0,0 +1,15 @@
+package com.eam.capacitaciones.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursoSugerenciaDTO {
+    private Long idCurso;
+    private String titulo;
+}
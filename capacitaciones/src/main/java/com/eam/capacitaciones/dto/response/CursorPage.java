@@ -0,0 +1,39 @@
+package com.eam.capacitaciones.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Boolean hasNext;
+    private Integer size;
+
+    /**
+     * Construye la página a partir de hasta {@code size + 1} filas: la fila extra solo indica
+     * que hay más resultados y no se devuelve.
+     */
+    public static <E, T> CursorPage<T> of(List<E> filas, int size,
+                                          Function<E, String> cursorDe,
+                                          Function<List<E>, List<T>> mapper) {
+        boolean hasNext = filas.size() > size;
+        List<E> pagina = hasNext ? filas.subList(0, size) : filas;
+        String nextCursor = hasNext ? cursorDe.apply(pagina.get(pagina.size() - 1)) : null;
+
+        return CursorPage.<T>builder()
+                .items(mapper.apply(pagina))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(pagina.size())
+                .build();
+    }
+}
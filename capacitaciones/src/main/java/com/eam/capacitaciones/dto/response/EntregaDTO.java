@@ -0,0 +1,29 @@
+package com.eam.capacitaciones.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EntregaDTO {
+    private String recibo;
+    private Long evaluacionId;
+    private EstadoEnum estado;
+    private Long respuestaId;
+    private Integer intentoNumero;
+    private String error;
+    private LocalDateTime fechaRecepcion;
+    private LocalDateTime fechaProcesado;
+
+    public enum EstadoEnum {
+        PENDIENTE,
+        GUARDADA,
+        RECHAZADA
+    }
+}
@@ -0,0 +1,30 @@
+package com.eam.capacitaciones.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExamenDTO {
+    private Long evaluacionId;
+    private Integer intentoNumero;
+    private Integer versionBanco;
+    private Integer duracionMinutos;
+    private List<Pregunta> preguntas;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Pregunta {
+        private Integer numero;
+        private String enunciado;
+        private List<String> opciones;
+    }
+}
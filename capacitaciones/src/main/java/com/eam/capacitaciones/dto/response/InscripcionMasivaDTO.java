@@ -0,0 +1,32 @@
+package com.eam.capacitaciones.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InscripcionMasivaDTO {
+    private String jobId;
+    private Long cursoId;
+    private EstadoEnum estado;
+    private long procesados;
+    private long inscritos;
+    private long yaInscritos;
+    private long noEncontrados;
+    private String error;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+
+    public enum EstadoEnum {
+        PENDIENTE,
+        EN_CURSO,
+        COMPLETADO,
+        FALLIDO
+    }
+}
@@ -0,0 +1,17 @@
+package com.eam.capacitaciones.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecalificacionDTO {
+    private Long evaluacionId;
+    private long revisadas;
+    private long modificadas;
+    private long duracionMs;
+}
@@ -0,0 +1,24 @@
+package com.eam.capacitaciones.dto.response;
+
+import com.eam.capacitaciones.domain.entity.SesionExamen;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SesionExamenDTO {
+    private Long sesionId;
+    private Long evaluacionId;
+    private Integer intentoNumero;
+    private SesionExamen.EstadoEnum estado;
+    private LocalDateTime inicio;
+    private LocalDateTime vence;
+    private LocalDateTime fin;
+    private long segundosRestantes;
+}
@@ -0,0 +1,213 @@
+package com.eam.capacitaciones.entrega;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Diario local de solo anexado con las entregas recibidas y aún no guardadas.
+ *
+ * Cada línea es un registro JSON. Una entrega se da por recibida cuando su línea llegó al disco:
+ * los hilos que anexan a la vez comparten un mismo {@code force}, así que una ráfaga de entregas
+ * no paga una sincronización por cada una. Las entregas terminadas se anotan sin sincronizar; si
+ * esa línea se pierde, la entrega se vuelve a procesar al arrancar y se descarta por su recibo.
+ * El archivo se vacía cada vez que no quedan entregas pendientes; mientras las haya, al superar
+ * el umbral de compactación se reescribe solo con ellas.
+ */
+@Slf4j
+class DiarioEntregas implements AutoCloseable {
+
+    enum Tipo {
+        RECIBIDA,
+        TERMINADA
+    }
+
+    record Registro(Tipo tipo, String recibo, Long usuarioId, Long evaluacionId, String respuestaTexto,
+                    LocalDateTime fechaRecepcion) {
+
+        static Registro terminada(String recibo) {
+            return new Registro(Tipo.TERMINADA, recibo, null, null, null, null);
+        }
+    }
+
+    private final Path archivo;
+    private final ObjectMapper objectMapper;
+    private final long umbralCompactacion;
+    private final Object sincronizacion = new Object();
+
+    private FileChannel canal;
+    /** Bytes escritos y bytes ya sincronizados desde la apertura; no retroceden al compactar. */
+    private volatile long escritos;
+    private volatile long sincronizados;
+    /** Tamaño del archivo tras la última compactación. */
+    private long compactado;
+
+    /**
+     * @param umbralCompactacion tamaño en bytes a partir del cual se compacta; también debe
+     *                           haberse duplicado desde la compactación anterior
+     */
+    DiarioEntregas(Path archivo, ObjectMapper objectMapper, long umbralCompactacion) {
+        this.archivo = archivo;
+        this.objectMapper = objectMapper;
+        this.umbralCompactacion = Math.max(1, umbralCompactacion);
+    }
+
+    /**
+     * Abre el diario y devuelve las entregas que quedaron sin terminar, en orden de llegada. El
+     * archivo se reescribe solo con ellas.
+     */
+    synchronized List<Registro> abrir() throws IOException {
+        Files.createDirectories(archivo.toAbsolutePath().getParent());
+        Map<String, Registro> pendientes = new LinkedHashMap<>();
+        if (Files.exists(archivo)) {
+            try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    Registro registro = leer(linea);
+                    if (registro == null) {
+                        continue;
+                    }
+                    if (registro.tipo() == Tipo.RECIBIDA) {
+                        pendientes.put(registro.recibo(), registro);
+                    } else {
+                        pendientes.remove(registro.recibo());
+                    }
+                }
+            }
+        }
+        reescribir(pendientes.values());
+        canal = FileChannel.open(archivo, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        compactado = canal.size();
+        return new ArrayList<>(pendientes.values());
+    }
+
+    /**
+     * Anexa el registro y devuelve la posición que debe alcanzar {@link #sincronizar(long)} para
+     * que quede en disco.
+     */
+    long anexar(Registro registro) throws IOException {
+        ByteBuffer linea = linea(registro);
+        synchronized (this) {
+            while (linea.hasRemaining()) {
+                canal.write(linea);
+            }
+            escritos += linea.limit();
+            return escritos;
+        }
+    }
+
+    /**
+     * Espera a que el diario esté en disco hasta {@code posicion}. Un solo {@code force} cubre
+     * todo lo anexado antes de empezar, incluidas las líneas de otros hilos.
+     */
+    void sincronizar(long posicion) throws IOException {
+        if (sincronizados >= posicion) {
+            return;
+        }
+        synchronized (sincronizacion) {
+            if (sincronizados >= posicion) {
+                return;
+            }
+            long hasta = escritos;
+            canal.force(false);
+            sincronizados = hasta;
+        }
+    }
+
+    /**
+     * Vacía el archivo si no quedan pendientes, o lo reescribe con ellas si supera el umbral.
+     * Ambas comprobaciones se hacen bajo el bloqueo de escritura, así que nada se anexa mientras
+     * tanto; una entrega debe figurar en {@code pendientes} antes de anexarse.
+     */
+    synchronized void compactar(BooleanSupplier sinPendientes, Supplier<Collection<Registro>> pendientes)
+            throws IOException {
+        long tamano = canal.size();
+        if (tamano == 0) {
+            return;
+        }
+        if (sinPendientes.getAsBoolean()) {
+            canal.truncate(0);
+            compactado = 0;
+            return;
+        }
+        if (tamano < umbralCompactacion || tamano < 2 * compactado) {
+            return;
+        }
+        Collection<Registro> registros = pendientes.get();
+        synchronized (sincronizacion) {
+            canal.close();
+            try {
+                reescribir(registros);
+            } finally {
+                canal = FileChannel.open(archivo, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            // Lo anexado hasta aquí está en disco o ya no hace falta
+            sincronizados = escritos;
+            compactado = canal.size();
+        }
+        log.info("Diario de entregas compactado de {} a {} bytes con {} pendientes",
+                tamano, compactado, registros.size());
+    }
+
+    /**
+     * Un hilo interrumpido mientras escribía cierra el canal; lo anexado ya está en el archivo y
+     * se recupera al abrir.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (canal != null && canal.isOpen()) {
+            canal.force(false);
+            canal.close();
+        }
+    }
+
+    private void reescribir(Collection<Registro> pendientes) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel salida = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Registro registro : pendientes) {
+                ByteBuffer linea = linea(registro);
+                while (linea.hasRemaining()) {
+                    salida.write(linea);
+                }
+            }
+            salida.force(true);
+        }
+        Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private ByteBuffer linea(Registro registro) throws JsonProcessingException {
+        return ByteBuffer.wrap((objectMapper.writeValueAsString(registro) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Registro leer(String linea) {
+        if (linea.isBlank()) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(linea, Registro.class);
+        } catch (JsonProcessingException ex) {
+            // La última línea puede haber quedado a medias si el proceso terminó mientras escribía
+            log.warn("Línea ilegible en el diario de entregas {}, se ignora", archivo);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.eam.capacitaciones.entrega;
+
+import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.dto.request.RespuestaSubmitRequest;
+import com.eam.capacitaciones.dto.response.EntregaDTO;
+import com.eam.capacitaciones.dto.response.RespuestaDTO;
+import com.eam.capacitaciones.entrega.DiarioEntregas.Registro;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.exception.ConflictException;
+import com.eam.capacitaciones.exception.ResourceNotFoundException;
+import com.eam.capacitaciones.exception.ServiceUnavailableException;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import com.eam.capacitaciones.service.RespuestaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Recepción asíncrona de respuestas para absorber el pico de envíos al cerrar un examen.
+ *
+ * La petición solo anota la entrega en el {@link DiarioEntregas} local y devuelve un recibo, sin
+ * tocar la base de datos. Unos pocos hilos guardan las entregas por lotes, cada lote en una
+ * transacción, así que las conexiones en uso no crecen con la ráfaga. Si un lote falla por una
+ * entrega inválida se guardan una a una para rechazar solo esa; los fallos transitorios se
+ * reintentan cada {@code respuesta.intake.retry-delay-ms} y cualquier otro error rechaza la
+ * entrega, para no reintentarla indefinidamente. Con más de
+ * {@code respuesta.intake.queue-capacity} entregas sin guardar se responde 503. Las entregas
+ * pendientes al detenerse se recuperan del diario al arrancar, y el recibo guardado en la
+ * respuesta evita duplicarlas.
+ */
+@Service
+@Slf4j
+public class RecepcionEntregas {
+
+    private final RespuestaService respuestaService;
+    private final RespuestaRepository respuestaRepository;
+    private final TransactionTemplate transaccion;
+    private final DiarioEntregas diario;
+    private final int capacidad;
+    private final int lote;
+    private final int workers;
+
+    private final BlockingQueue<Entrega> cola = new LinkedBlockingQueue<>();
+    private final Queue<Entrega> diferidas = new ConcurrentLinkedQueue<>();
+    private final Map<String, Entrega> pendientes = new ConcurrentHashMap<>();
+    /** Entregas admitidas y aún sin terminar, incluidas las recuperadas del diario. */
+    private final AtomicInteger admitidas = new AtomicInteger();
+    private final Cache<String, Entrega> terminadas;
+    private ExecutorService executor;
+
+    private final Counter recibidas;
+    private final Counter guardadas;
+    private final Counter rechazadas;
+    private final Counter saturadas;
+    private final Timer duracionLote;
+
+    public RecepcionEntregas(
+            RespuestaService respuestaService,
+            RespuestaRepository respuestaRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${respuesta.intake.journal-path:data/entregas/entregas.log}") String journalPath,
+            @Value("${respuesta.intake.journal-compact-bytes:67108864}") long umbralCompactacion,
+            @Value("${respuesta.intake.queue-capacity:5000}") int capacidad,
+            @Value("${respuesta.intake.batch-size:100}") int lote,
+            @Value("${respuesta.intake.workers:2}") int workers,
+            @Value("${respuesta.intake.retention-ms:3600000}") long retentionMs) {
+        this.respuestaService = respuestaService;
+        this.respuestaRepository = respuestaRepository;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.diario = new DiarioEntregas(Paths.get(journalPath), objectMapper, umbralCompactacion);
+        this.capacidad = Math.max(1, capacidad);
+        this.lote = Math.max(1, lote);
+        this.workers = Math.max(1, workers);
+        this.terminadas = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(retentionMs))
+                .build();
+
+        this.recibidas = Counter.builder("respuesta.entregas.recibidas")
+                .description("Entregas de respuestas anotadas en el diario")
+                .register(meterRegistry);
+        this.guardadas = Counter.builder("respuesta.entregas.guardadas")
+                .description("Entregas guardadas como respuestas")
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("respuesta.entregas.rechazadas")
+                .description("Entregas rechazadas por datos inválidos o intentos agotados")
+                .register(meterRegistry);
+        this.saturadas = Counter.builder("respuesta.entregas.saturadas")
+                .description("Entregas no admitidas por cola llena")
+                .register(meterRegistry);
+        this.duracionLote = Timer.builder("respuesta.entregas.lote")
+                .description("Duración del guardado de cada lote de entregas")
+                .register(meterRegistry);
+        Gauge.builder("respuesta.entregas.pendientes", admitidas, AtomicInteger::get)
+                .description("Entregas recibidas y aún sin guardar")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void abrir() throws IOException {
+        List<Registro> recuperadas = diario.abrir();
+        for (Registro registro : recuperadas) {
+            Entrega entrega = new Entrega(registro.recibo(), registro.usuarioId(), registro.evaluacionId(),
+                    registro.respuestaTexto(), registro.fechaRecepcion());
+            // Pudo guardarse antes de detenerse sin que se anotara en el diario
+            entrega.verificar = true;
+            pendientes.put(entrega.recibo, entrega);
+            admitidas.incrementAndGet();
+            cola.add(entrega);
+        }
+        if (!recuperadas.isEmpty()) {
+            log.info("Recuperadas {} entregas pendientes del diario", recuperadas.size());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "entrega-respuesta-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::atender);
+        }
+    }
+
+    /**
+     * Anota la entrega y devuelve su recibo en cuanto está en disco.
+     */
+    public EntregaDTO recibir(Long usuarioId, RespuestaSubmitRequest request) {
+        if (admitidas.incrementAndGet() > capacidad) {
+            admitidas.decrementAndGet();
+            saturadas.increment();
+            throw new ServiceUnavailableException("Demasiadas entregas en cola, intente nuevamente en unos segundos");
+        }
+        Entrega entrega = new Entrega(UUID.randomUUID().toString(), usuarioId, request.getEvaluacionId(),
+                request.getRespuestaTexto(), LocalDateTime.now());
+        // Antes de anotarla, para que el diario no se vacíe ni se compacte sin ella
+        pendientes.put(entrega.recibo, entrega);
+        try {
+            diario.sincronizar(diario.anexar(entrega.registro()));
+        } catch (IOException ex) {
+            pendientes.remove(entrega.recibo);
+            admitidas.decrementAndGet();
+            log.error("No se pudo anotar la entrega de usuario {} en el diario", usuarioId, ex);
+            throw new ServiceUnavailableException("No se pudo registrar la entrega, intente nuevamente");
+        }
+        cola.add(entrega);
+        recibidas.increment();
+        log.debug("Entrega {} recibida de usuario {} para evaluación {}",
+                entrega.recibo, usuarioId, request.getEvaluacionId());
+        return entrega.resumen();
+    }
+
+    public EntregaDTO getEstado(String recibo, Long usuarioId) {
+        Entrega entrega = pendientes.get(recibo);
+        if (entrega == null) {
+            entrega = terminadas.getIfPresent(recibo);
+        }
+        if (entrega != null && entrega.usuarioId.equals(usuarioId)) {
+            return entrega.resumen();
+        }
+        // Guardada antes de un reinicio o fuera del periodo de retención
+        return respuestaRepository.findByReciboEntrega(recibo)
+                .filter(respuesta -> respuesta.getUsuarioId().equals(usuarioId))
+                .map(respuesta -> EntregaDTO.builder()
+                        .recibo(recibo)
+                        .evaluacionId(respuesta.getEvaluacionId())
+                        .estado(EntregaDTO.EstadoEnum.GUARDADA)
+                        .respuestaId(respuesta.getIdRespuesta())
+                        .intentoNumero(respuesta.getIntentoNumero())
+                        .fechaProcesado(respuesta.getFechaCreacion())
+                        .build())
+                .orElseThrow(() -> new ResourceNotFoundException("Entrega no encontrada: " + recibo));
+    }
+
+    @Scheduled(fixedDelayString = "${respuesta.intake.retry-delay-ms:5000}")
+    public void reencolarDiferidas() {
+        Entrega entrega;
+        while ((entrega = diferidas.poll()) != null) {
+            cola.add(entrega);
+        }
+    }
+
+    private void atender() {
+        List<Entrega> bloque = new ArrayList<>(lote);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                bloque.add(cola.take());
+                cola.drainTo(bloque, lote - 1);
+                procesar(bloque);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException ex) {
+                log.error("Error inesperado guardando {} entregas; se reintentarán", bloque.size(), ex);
+                bloque.stream().filter(entrega -> entrega.estado == EntregaDTO.EstadoEnum.PENDIENTE)
+                        .forEach(this::diferir);
+            } finally {
+                bloque.clear();
+            }
+        }
+    }
+
+    void procesar(List<Entrega> bloque) {
+        Timer.Sample muestra = Timer.start();
+        List<Entrega> porGuardar = descartarGuardadas(bloque);
+        if (!porGuardar.isEmpty()) {
+            try {
+                Map<Entrega, RespuestaDTO> resultado = transaccion.execute(status -> {
+                    Map<Entrega, RespuestaDTO> guardadasLote = new LinkedHashMap<>();
+                    for (Entrega entrega : porGuardar) {
+                        guardadasLote.put(entrega, guardar(entrega));
+                    }
+                    return guardadasLote;
+                });
+                resultado.forEach((entrega, respuesta) ->
+                        terminar(entrega, EntregaDTO.EstadoEnum.GUARDADA, respuesta.getIdRespuesta(),
+                                respuesta.getIntentoNumero(), null));
+            } catch (RuntimeException ex) {
+                // Una sola entrega inválida deshace el lote; guardándolas por separado se aísla
+                log.debug("Lote de {} entregas deshecho, se guardan una a una", porGuardar.size(), ex);
+                porGuardar.forEach(this::procesarUna);
+            }
+        }
+        muestra.stop(duracionLote);
+        try {
+            diario.compactar(pendientes::isEmpty,
+                    () -> pendientes.values().stream().map(Entrega::registro).toList());
+        } catch (IOException ex) {
+            log.warn("No se pudo compactar el diario de entregas", ex);
+        }
+    }
+
+    private void procesarUna(Entrega entrega) {
+        try {
+            RespuestaDTO respuesta = guardar(entrega);
+            terminar(entrega, EntregaDTO.EstadoEnum.GUARDADA, respuesta.getIdRespuesta(),
+                    respuesta.getIntentoNumero(), null);
+        } catch (BadRequestException | ResourceNotFoundException ex) {
+            terminar(entrega, EntregaDTO.EstadoEnum.RECHAZADA, null, null, ex.getMessage());
+        } catch (RuntimeException ex) {
+            if (transitorio(ex)) {
+                log.warn("No se pudo guardar la entrega {}; se reintentará", entrega.recibo, ex);
+                diferir(entrega);
+            } else {
+                log.error("Error no recuperable guardando la entrega {}; se rechaza", entrega.recibo, ex);
+                terminar(entrega, EntregaDTO.EstadoEnum.RECHAZADA, null, null, "No se pudo guardar la entrega");
+            }
+        }
+    }
+
+    /**
+     * Fallos que pueden desaparecer al reintentar: base de datos no disponible, bloqueos y
+     * conflictos de concurrencia, o reintentos optimistas agotados.
+     */
+    private static boolean transitorio(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException
+                || ex instanceof DataAccessResourceFailureException
+                || ex instanceof TransactionException
+                || ex instanceof ConflictException
+                || ex instanceof ServiceUnavailableException;
+    }
+
+    private RespuestaDTO guardar(Entrega entrega) {
+        RespuestaSubmitRequest request = RespuestaSubmitRequest.builder()
+                .evaluacionId(entrega.evaluacionId)
+                .respuestaTexto(entrega.respuestaTexto)
+                .build();
+        return respuestaService.submitRespuesta(entrega.usuarioId, request, entrega.recibo, entrega.fechaRecepcion);
+    }
+
+    /**
+     * Termina las entregas que ya tienen respuesta guardada y devuelve el resto. Solo consulta
+     * por las recuperadas del diario o reintentadas, las únicas que pueden estar ya guardadas.
+     */
+    private List<Entrega> descartarGuardadas(List<Entrega> bloque) {
+        Set<String> porVerificar = bloque.stream()
+                .filter(entrega -> entrega.verificar)
+                .map(entrega -> entrega.recibo)
+                .collect(Collectors.toSet());
+        if (porVerificar.isEmpty()) {
+            return bloque;
+        }
+        Map<String, Respuesta> existentes = respuestaRepository.findByReciboEntregaIn(porVerificar).stream()
+                .collect(Collectors.toMap(Respuesta::getReciboEntrega, respuesta -> respuesta));
+        List<Entrega> restantes = new ArrayList<>(bloque.size());
+        for (Entrega entrega : bloque) {
+            Respuesta existente = existentes.get(entrega.recibo);
+            if (existente == null) {
+                restantes.add(entrega);
+            } else {
+                terminar(entrega, EntregaDTO.EstadoEnum.GUARDADA, existente.getIdRespuesta(),
+                        existente.getIntentoNumero(), null);
+            }
+        }
+        return restantes;
+    }
+
+    private void diferir(Entrega entrega) {
+        entrega.verificar = true;
+        diferidas.add(entrega);
+    }
+
+    private void terminar(Entrega entrega, EntregaDTO.EstadoEnum estado, Long respuestaId, Integer intentoNumero,
+                          String error) {
+        entrega.terminar(estado, respuestaId, intentoNumero, error);
+        terminadas.put(entrega.recibo, entrega);
+        pendientes.remove(entrega.recibo);
+        admitidas.decrementAndGet();
+        (estado == EntregaDTO.EstadoEnum.GUARDADA ? guardadas : rechazadas).increment();
+        try {
+            // Sin sincronizar: si se pierde, al arrancar se descarta por su recibo
+            diario.anexar(Registro.terminada(entrega.recibo));
+        } catch (IOException ex) {
+            log.warn("No se pudo anotar en el diario el fin de la entrega {}", entrega.recibo, ex);
+        }
+    }
+
+    int pendientes() {
+        return admitidas.get();
+    }
+
+    @PreDestroy
+    void detener() throws IOException, InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        log.info("Deteniendo la recepción de entregas con {} pendientes en el diario", admitidas.get());
+        diario.close();
+    }
+
+    static final class Entrega {
+
+        private final String recibo;
+        private final Long usuarioId;
+        private final Long evaluacionId;
+        private final String respuestaTexto;
+        private final LocalDateTime fechaRecepcion;
+        /** Puede tener ya una respuesta guardada: recuperada del diario o tras un fallo. */
+        private volatile boolean verificar;
+        private volatile EntregaDTO.EstadoEnum estado = EntregaDTO.EstadoEnum.PENDIENTE;
+        private volatile Long respuestaId;
+        private volatile Integer intentoNumero;
+        private volatile String error;
+        private volatile LocalDateTime fechaProcesado;
+
+        Entrega(String recibo, Long usuarioId, Long evaluacionId, String respuestaTexto,
+                LocalDateTime fechaRecepcion) {
+            this.recibo = Objects.requireNonNull(recibo);
+            this.usuarioId = usuarioId;
+            this.evaluacionId = evaluacionId;
+            this.respuestaTexto = respuestaTexto;
+            this.fechaRecepcion = fechaRecepcion;
+        }
+
+        void terminar(EntregaDTO.EstadoEnum estadoFinal, Long respuestaId, Integer intentoNumero, String error) {
+            this.respuestaId = respuestaId;
+            this.intentoNumero = intentoNumero;
+            this.error = error;
+            this.fechaProcesado = LocalDateTime.now();
+            this.estado = estadoFinal;
+        }
+
+        Registro registro() {
+            return new Registro(DiarioEntregas.Tipo.RECIBIDA, recibo, usuarioId, evaluacionId, respuestaTexto,
+                    fechaRecepcion);
+        }
+
+        EntregaDTO resumen() {
+            return EntregaDTO.builder()
+                    .recibo(recibo)
+                    .evaluacionId(evaluacionId)
+                    .estado(estado)
+                    .respuestaId(respuestaId)
+                    .intentoNumero(intentoNumero)
+                    .error(error)
+                    .fechaRecepcion(fechaRecepcion)
+                    .fechaProcesado(fechaProcesado)
+                    .build();
+        }
+    }
+}
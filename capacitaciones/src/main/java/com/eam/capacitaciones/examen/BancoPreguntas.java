@@ -0,0 +1,138 @@
+package com.eam.capacitaciones.examen;
+
+import com.eam.capacitaciones.calificacion.ClaveCompilada;
+import com.eam.capacitaciones.domain.entity.BancoMuestra;
+import com.eam.capacitaciones.domain.entity.PreguntaBanco;
+import com.eam.capacitaciones.domain.entity.PreguntaBanco.DificultadEnum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Banco de preguntas de una evaluación, copiado a estructuras inmutables para armar exámenes
+ * sin consultar la base de datos y compartirlo entre hilos.
+ *
+ * Cada examen se arma con un generador pseudoaleatorio sembrado con (evaluación, versión del
+ * banco, usuario, intento): se eligen al azar las preguntas de cada dificultad indicadas en la
+ * muestra, se mezcla su orden y se reordenan las opciones de cada una. La misma semilla produce
+ * siempre el mismo examen, así que no hace falta guardarlo para calificarlo después. Reemplazar
+ * el banco crea una versión nueva y conserva las anteriores, de modo que los intentos ya hechos
+ * se siguen regenerando con la versión que recibieron.
+ */
+public final class BancoPreguntas {
+
+    private final Long evaluacionId;
+    private final int versionBanco;
+    private final Map<DificultadEnum, Pregunta[]> porDificultad;
+    private final Map<DificultadEnum, Integer> muestra;
+
+    private BancoPreguntas(Long evaluacionId, int versionBanco, Map<DificultadEnum, Pregunta[]> porDificultad,
+                           Map<DificultadEnum, Integer> muestra) {
+        this.evaluacionId = evaluacionId;
+        this.versionBanco = versionBanco;
+        this.porDificultad = porDificultad;
+        this.muestra = muestra;
+    }
+
+    /**
+     * Compila el banco. Sin muestra configurada cada intento recibe todas las preguntas.
+     */
+    public static BancoPreguntas compilar(Long evaluacionId, int versionBanco, List<PreguntaBanco> preguntas,
+                                          List<BancoMuestra> muestra) {
+        Map<DificultadEnum, List<Pregunta>> agrupadas = new EnumMap<>(DificultadEnum.class);
+        for (PreguntaBanco pregunta : preguntas) {
+            agrupadas.computeIfAbsent(pregunta.getDificultad(), d -> new ArrayList<>()).add(new Pregunta(
+                    pregunta.getIdPreguntaBanco(),
+                    pregunta.getEnunciado(),
+                    pregunta.getOpciones().toArray(String[]::new),
+                    ClaveCompilada.mascara(pregunta.getCorrectas()),
+                    pregunta.getPeso() == null ? 1 : pregunta.getPeso()));
+        }
+        Map<DificultadEnum, Pregunta[]> porDificultad = new EnumMap<>(DificultadEnum.class);
+        agrupadas.forEach((dificultad, lista) -> porDificultad.put(dificultad, lista.toArray(Pregunta[]::new)));
+
+        Map<DificultadEnum, Integer> cantidades = new EnumMap<>(DificultadEnum.class);
+        if (muestra.isEmpty()) {
+            porDificultad.forEach((dificultad, lista) -> cantidades.put(dificultad, lista.length));
+        } else {
+            muestra.forEach(m -> cantidades.put(m.getDificultad(), m.getCantidad()));
+        }
+        return new BancoPreguntas(evaluacionId, versionBanco, porDificultad, cantidades);
+    }
+
+    public ExamenGenerado generar(Long usuarioId, int intentoNumero) {
+        SplittableRandom aleatorio = new SplittableRandom(semilla(evaluacionId, versionBanco, usuarioId, intentoNumero));
+
+        List<Pregunta> elegidas = new ArrayList<>();
+        muestra.forEach((dificultad, cantidad) -> {
+            Pregunta[] disponibles = porDificultad.getOrDefault(dificultad, new Pregunta[0]);
+            int[] indices = permutacionParcial(disponibles.length, Math.min(cantidad, disponibles.length), aleatorio);
+            for (int indice : indices) {
+                elegidas.add(disponibles[indice]);
+            }
+        });
+        int[] orden = permutacionParcial(elegidas.size(), elegidas.size(), aleatorio);
+
+        List<PreguntaExamen> preguntas = new ArrayList<>(orden.length);
+        int[] correctas = new int[orden.length];
+        int[] pesos = new int[orden.length];
+        for (int i = 0; i < orden.length; i++) {
+            Pregunta pregunta = elegidas.get(orden[i]);
+            int[] opciones = permutacionParcial(pregunta.opciones().length, pregunta.opciones().length, aleatorio);
+            String[] textos = new String[opciones.length];
+            int mascara = 0;
+            for (int j = 0; j < opciones.length; j++) {
+                textos[j] = pregunta.opciones()[opciones[j]];
+                if ((pregunta.correctas() & (1 << opciones[j])) != 0) {
+                    mascara |= 1 << j;
+                }
+            }
+            preguntas.add(new PreguntaExamen(pregunta.id(), pregunta.enunciado(), List.of(textos)));
+            correctas[i] = mascara;
+            pesos[i] = pregunta.peso();
+        }
+        return new ExamenGenerado(evaluacionId, usuarioId, intentoNumero, List.copyOf(preguntas),
+                ClaveCompilada.de(correctas, pesos));
+    }
+
+    /**
+     * Semilla de un intento. Se mezclan los valores con el finalizador de SplitMix64 para que
+     * intentos consecutivos den exámenes sin relación entre sí.
+     */
+    static long semilla(Long evaluacionId, int versionBanco, Long usuarioId, int intentoNumero) {
+        long h = mezclar(0x9E3779B97F4A7C15L ^ evaluacionId);
+        h = mezclar(h ^ versionBanco);
+        h = mezclar(h ^ usuarioId);
+        return mezclar(h ^ intentoNumero);
+    }
+
+    private static long mezclar(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Los primeros {@code k} elementos de una permutación aleatoria de 0..n-1 (Fisher-Yates parcial).
+     */
+    private static int[] permutacionParcial(int n, int k, SplittableRandom aleatorio) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        for (int i = 0; i < k; i++) {
+            int j = i + aleatorio.nextInt(n - i);
+            int tmp = indices[i];
+            indices[i] = indices[j];
+            indices[j] = tmp;
+        }
+        return k == n ? indices : Arrays.copyOf(indices, k);
+    }
+
+    private record Pregunta(Long id, String enunciado, String[] opciones, int correctas, int peso) {
+    }
+}
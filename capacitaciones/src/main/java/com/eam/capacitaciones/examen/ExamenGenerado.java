@@ -0,0 +1,18 @@
+package com.eam.capacitaciones.examen;
+
+import com.eam.capacitaciones.calificacion.ClaveCompilada;
+
+import java.util.List;
+
+/**
+ * Examen de un intento concreto y la clave con la que se califica, en el mismo orden de
+ * preguntas y opciones que recibió el alumno.
+ */
+public record ExamenGenerado(
+        Long evaluacionId,
+        Long usuarioId,
+        int intentoNumero,
+        List<PreguntaExamen> preguntas,
+        ClaveCompilada clave
+) {
+}
@@ -0,0 +1,80 @@
+package com.eam.capacitaciones.examen;
+
+import com.eam.capacitaciones.domain.entity.PreguntaBanco;
+import com.eam.capacitaciones.repository.BancoMuestraRepository;
+import com.eam.capacitaciones.repository.PreguntaBancoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Arma los exámenes de las evaluaciones con banco de preguntas.
+ *
+ * Los bancos compilados se guardan por evaluación y versión, incluida la ausencia de banco. Una
+ * versión no cambia nunca (reemplazar el banco crea otra), así que no hace falta invalidarlas:
+ * las que dejan de usarse expiran. Con el banco en memoria, armar el examen de un intento no
+ * consulta la base de datos.
+ */
+@Component
+@Slf4j
+public class ExamenGenerador {
+
+    private final PreguntaBancoRepository preguntaBancoRepository;
+    private final BancoMuestraRepository bancoMuestraRepository;
+    private final Cache<BancoVersion, Optional<BancoPreguntas>> bancos;
+
+    public ExamenGenerador(
+            PreguntaBancoRepository preguntaBancoRepository,
+            BancoMuestraRepository bancoMuestraRepository,
+            MeterRegistry meterRegistry,
+            @Value("${evaluacion.bank.cache-size:2000}") long maxSize,
+            @Value("${evaluacion.bank.expire-after-write-ms:3600000}") long expireAfterWriteMs) {
+        this.preguntaBancoRepository = preguntaBancoRepository;
+        this.bancoMuestraRepository = bancoMuestraRepository;
+        this.bancos = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bancos, "evaluacion.bancos");
+    }
+
+    public boolean tieneBanco(Long evaluacionId, int versionBanco) {
+        return banco(evaluacionId, versionBanco).isPresent();
+    }
+
+    /**
+     * Examen del intento indicado con la versión del banco que le corresponde, o vacío si esa
+     * versión no tiene preguntas.
+     */
+    public Optional<ExamenGenerado> generar(Long evaluacionId, int versionBanco, Long usuarioId, int intentoNumero) {
+        return banco(evaluacionId, versionBanco).map(banco -> banco.generar(usuarioId, intentoNumero));
+    }
+
+    private Optional<BancoPreguntas> banco(Long evaluacionId, int versionBanco) {
+        return bancos.get(new BancoVersion(evaluacionId, versionBanco), this::cargar);
+    }
+
+    private Optional<BancoPreguntas> cargar(BancoVersion clave) {
+        List<PreguntaBanco> preguntas = preguntaBancoRepository.findBancoByEvaluacion(
+                clave.evaluacionId(), clave.versionBanco());
+        if (preguntas.isEmpty()) {
+            return Optional.empty();
+        }
+        log.debug("Banco de preguntas compilado para evaluación ID: {} versión {}",
+                clave.evaluacionId(), clave.versionBanco());
+        return Optional.of(BancoPreguntas.compilar(clave.evaluacionId(), clave.versionBanco(), preguntas,
+                bancoMuestraRepository.findByEvaluacionIdAndVersionBanco(clave.evaluacionId(), clave.versionBanco())));
+    }
+
+    private record BancoVersion(Long evaluacionId, int versionBanco) {
+    }
+}
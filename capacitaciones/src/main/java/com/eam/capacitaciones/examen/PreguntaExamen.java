@@ -0,0 +1,13 @@
+package com.eam.capacitaciones.examen;
+
+import java.util.List;
+
+/**
+ * Pregunta tal como la ve el alumno en un intento: opciones ya reordenadas y sin la respuesta.
+ */
+public record PreguntaExamen(
+        Long preguntaId,
+        String enunciado,
+        List<String> opciones
+) {
+}
@@ -3,6 +3,7 @@ package com.eam.capacitaciones.mapper;
 import com.eam.capacitaciones.dto.request.CursoCreateRequest;
 import com.eam.capacitaciones.dto.response.CursoDTO;
 import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.repository.projection.CursoResumen;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -12,10 +13,13 @@ public interface CursoMapper {
     
     @Mapping(target = "instructorNombre", source = "instructor.nombre")
     @Mapping(target = "totalModulos", expression = "java(entity.getModulos().size())")
-    @Mapping(target = "totalInscritos", expression = "java(entity.getInscripciones().size())")
     CursoDTO toDTO(Curso entity);
     
     List<CursoDTO> toDTOList(List<Curso> entities);
+
+    CursoDTO toDTO(CursoResumen resumen);
+
+    List<CursoDTO> toDTOListFromResumenes(List<CursoResumen> resumenes);
     
     @Mapping(target = "idCurso", ignore = true)
     @Mapping(target = "activo", constant = "true")
@@ -25,6 +29,7 @@ public interface CursoMapper {
     @Mapping(target = "modulos", ignore = true)
     @Mapping(target = "inscripciones", ignore = true)
     @Mapping(target = "certificados", ignore = true)
+    @Mapping(target = "totalInscritos", ignore = true)
     Curso toEntity(CursoCreateRequest request);
     
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -35,5 +40,6 @@ public interface CursoMapper {
     @Mapping(target = "modulos", ignore = true)
     @Mapping(target = "inscripciones", ignore = true)
     @Mapping(target = "certificados", ignore = true)
+    @Mapping(target = "totalInscritos", ignore = true)
     void updateEntityFromRequest(CursoCreateRequest request, @MappingTarget Curso entity);
 }
@@ -0,0 +1,314 @@
+package com.eam.capacitaciones.ranking;
+
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.dto.response.CursoPopularDTO;
+import com.eam.capacitaciones.repository.CursoContadorRepository;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.projection.CursoCabecera;
+import com.eam.capacitaciones.repository.projection.CursoContadores;
+import com.eam.capacitaciones.repository.projection.CursoInscritosDia;
+import com.eam.capacitaciones.util.ReconstruccionEnCaliente;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking en memoria de los cursos activos con más inscripciones, total y de los últimos 7 y
+ * 30 días.
+ *
+ * Cada periodo guarda un conjunto ordenado por inscripciones, así que el top-K se lee
+ * recorriendo sus primeros elementos. Los periodos con ventana se alimentan de contadores por
+ * día: al cambiar de día se resta el día que sale de cada ventana. Se construye al arrancar
+ * desde CursoContador e Inscripcion, se mantiene con los eventos de inscripción y se resincroniza
+ * periódicamente para recoger las inscripciones hechas en otras instancias.
+ */
+@Component
+public class CursoPopularesRanking {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 100;
+
+    private static final int DIAS_RETENIDOS = 30;
+
+    public enum Periodo {
+        TOTAL(0),
+        ULTIMOS_7_DIAS(7),
+        ULTIMOS_30_DIAS(30);
+
+        private final int dias;
+
+        Periodo(int dias) {
+            this.dias = dias;
+        }
+
+        public int getDias() {
+            return dias;
+        }
+    }
+
+    private final CursoRepository cursoRepository;
+    private final CursoContadorRepository contadorRepository;
+    private final InscripcionRepository inscripcionRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Periodo, Ranking> rankings = nuevosRankings();
+    private NavigableMap<LocalDate, Map<Long, Long>> porDia = new TreeMap<>();
+    private Map<Long, CursoCabecera> cabeceras = new HashMap<>();
+    private LocalDate hoy = LocalDate.now();
+
+    /**
+     * Las inscripciones recibidas mientras se reconstruye se aplican tras el intercambio. Puede
+     * contar dos veces una inscripción confirmada mientras se leía; la próxima resincronización
+     * lo corrige.
+     */
+    private final ReconstruccionEnCaliente<InscripcionRegistradaEvent> reconstruccion;
+
+    public CursoPopularesRanking(CursoRepository cursoRepository,
+                                 CursoContadorRepository contadorRepository,
+                                 InscripcionRepository inscripcionRepository,
+                                 MeterRegistry meterRegistry) {
+        this.cursoRepository = cursoRepository;
+        this.contadorRepository = contadorRepository;
+        this.inscripcionRepository = inscripcionRepository;
+        this.reconstruccion = new ReconstruccionEnCaliente<>("Ranking de cursos populares", lock, this::size);
+        Gauge.builder("catalogo.populares.cursos", this, CursoPopularesRanking::size)
+                .description("Cursos con inscripciones presentes en el ranking de populares")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        reconstruir(LocalDate.now());
+    }
+
+    /**
+     * Las inscripciones de otras instancias no llegan como evento local; se recogen aquí.
+     */
+    @Scheduled(cron = "${ranking.popular.resync-cron:0 0 * * * *}")
+    public void resincronizar() {
+        reconstruir(LocalDate.now());
+    }
+
+    void reconstruir(LocalDate fecha) {
+        reconstruccion.reconstruir(() -> construir(fecha), nuevo -> {
+            cabeceras = nuevo.cabeceras();
+            rankings = nuevo.rankings();
+            porDia = nuevo.porDia();
+            hoy = fecha;
+        }, pendiente -> registrar(pendiente.cursoId(), pendiente.fecha(), pendiente.cantidad(), LocalDate.now()));
+    }
+
+    private Construccion construir(LocalDate fecha) {
+        Map<Long, CursoCabecera> nuevasCabeceras = new HashMap<>();
+        for (CursoCabecera cabecera : cursoRepository.findCabecerasActivas()) {
+            nuevasCabeceras.put(cabecera.idCurso(), cabecera);
+        }
+
+        Map<Periodo, Ranking> nuevosRankings = nuevosRankings();
+        for (CursoContadores totales : contadorRepository.findTotales()) {
+            nuevosRankings.get(Periodo.TOTAL).sumar(totales.cursoId(), totales.inscritos());
+        }
+
+        NavigableMap<LocalDate, Map<Long, Long>> nuevosPorDia = new TreeMap<>();
+        LocalDate desde = fecha.minusDays(DIAS_RETENIDOS - 1L);
+        for (CursoInscritosDia dia : inscripcionRepository.contarPorDiaDesde(desde)) {
+            if (dia.fecha().isAfter(fecha)) {
+                continue;
+            }
+            nuevosPorDia.computeIfAbsent(dia.fecha(), k -> new HashMap<>()).put(dia.cursoId(), dia.inscritos());
+            for (Periodo periodo : Periodo.values()) {
+                if (periodo != Periodo.TOTAL && enVentana(periodo, dia.fecha(), fecha)) {
+                    nuevosRankings.get(periodo).sumar(dia.cursoId(), dia.inscritos());
+                }
+            }
+        }
+        return new Construccion(nuevasCabeceras, nuevosRankings, nuevosPorDia);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alInscribir(InscripcionRegistradaEvent event) {
+        if (reconstruccion.anotar(event)) {
+            return;
+        }
+        registrar(event.cursoId(), event.fecha(), event.cantidad(), LocalDate.now());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCambiarCurso(CursoCatalogoCambiadoEvent event) {
+        // Un curso desactivado conserva sus inscripciones por si se reactiva; solo deja de listarse
+        CursoCabecera cabecera = cursoRepository.findCabeceraActivaById(event.cursoId()).orElse(null);
+        lock.writeLock().lock();
+        try {
+            if (cabecera == null) {
+                cabeceras.remove(event.cursoId());
+            } else {
+                cabeceras.put(cabecera.idCurso(), cabecera);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void registrar(Long cursoId, LocalDate fecha, long cantidad, LocalDate ahora) {
+        lock.writeLock().lock();
+        try {
+            avanzarHasta(ahora);
+            rankings.get(Periodo.TOTAL).sumar(cursoId, cantidad);
+            if (fecha.isBefore(hoy.minusDays(DIAS_RETENIDOS - 1L)) || fecha.isAfter(hoy)) {
+                return;
+            }
+            porDia.computeIfAbsent(fecha, k -> new HashMap<>()).merge(cursoId, cantidad, Long::sum);
+            for (Periodo periodo : Periodo.values()) {
+                if (periodo != Periodo.TOTAL && enVentana(periodo, fecha, hoy)) {
+                    rankings.get(periodo).sumar(cursoId, cantidad);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<CursoPopularDTO> top(Periodo periodo, int limite) {
+        return top(periodo, limite, LocalDate.now());
+    }
+
+    List<CursoPopularDTO> top(Periodo periodo, int limite, LocalDate fecha) {
+        if (fecha.isAfter(hoyActual())) {
+            lock.writeLock().lock();
+            try {
+                avanzarHasta(fecha);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<CursoPopularDTO> resultado = new ArrayList<>(Math.min(limite, 16));
+        lock.readLock().lock();
+        try {
+            for (Posicion posicion : rankings.get(periodo).orden) {
+                if (resultado.size() >= limite) {
+                    break;
+                }
+                // Los cursos inactivos o eliminados se saltan sin sacarlos del ranking
+                CursoCabecera cabecera = cabeceras.get(posicion.cursoId());
+                if (cabecera != null) {
+                    resultado.add(CursoPopularDTO.builder()
+                            .idCurso(cabecera.idCurso())
+                            .titulo(cabecera.titulo())
+                            .nivel(cabecera.nivel())
+                            .totalInscritos(posicion.inscritos())
+                            .build());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return resultado;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rankings.get(Periodo.TOTAL).conteos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private LocalDate hoyActual() {
+        lock.readLock().lock();
+        try {
+            return hoy;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saca de cada ventana los días que han dejado de pertenecerle. Requiere el write lock.
+     */
+    private void avanzarHasta(LocalDate fecha) {
+        if (!fecha.isAfter(hoy)) {
+            return;
+        }
+        for (Map.Entry<LocalDate, Map<Long, Long>> dia : porDia.entrySet()) {
+            for (Periodo periodo : Periodo.values()) {
+                if (periodo != Periodo.TOTAL && enVentana(periodo, dia.getKey(), hoy)
+                        && !enVentana(periodo, dia.getKey(), fecha)) {
+                    Ranking ranking = rankings.get(periodo);
+                    dia.getValue().forEach((cursoId, inscritos) -> ranking.sumar(cursoId, -inscritos));
+                }
+            }
+        }
+        porDia.headMap(fecha.minusDays(DIAS_RETENIDOS - 1L), false).clear();
+        hoy = fecha;
+    }
+
+    private static boolean enVentana(Periodo periodo, LocalDate dia, LocalDate fecha) {
+        return !dia.isBefore(fecha.minusDays(periodo.getDias() - 1L)) && !dia.isAfter(fecha);
+    }
+
+    private static Map<Periodo, Ranking> nuevosRankings() {
+        Map<Periodo, Ranking> rankings = new EnumMap<>(Periodo.class);
+        for (Periodo periodo : Periodo.values()) {
+            rankings.put(periodo, new Ranking());
+        }
+        return rankings;
+    }
+
+    /**
+     * Conteo por curso más un conjunto ordenado por (inscripciones desc, id asc). Cada
+     * actualización es una baja y un alta en el árbol: O(log n).
+     */
+    private static final class Ranking {
+
+        private static final Comparator<Posicion> ORDEN = Comparator
+                .comparingLong(Posicion::inscritos).reversed()
+                .thenComparingLong(Posicion::cursoId);
+
+        private final Map<Long, Long> conteos = new HashMap<>();
+        private final TreeSet<Posicion> orden = new TreeSet<>(ORDEN);
+
+        void sumar(Long cursoId, long delta) {
+            if (delta == 0) {
+                return;
+            }
+            Long actual = conteos.get(cursoId);
+            if (actual != null) {
+                orden.remove(new Posicion(cursoId, actual));
+            }
+            long nuevo = (actual == null ? 0 : actual) + delta;
+            if (nuevo > 0) {
+                conteos.put(cursoId, nuevo);
+                orden.add(new Posicion(cursoId, nuevo));
+            } else {
+                conteos.remove(cursoId);
+            }
+        }
+    }
+
+    private record Posicion(Long cursoId, long inscritos) {
+    }
+
+    private record Construccion(Map<Long, CursoCabecera> cabeceras, Map<Periodo, Ranking> rankings,
+                                NavigableMap<LocalDate, Map<Long, Long>> porDia) {
+    }
+}
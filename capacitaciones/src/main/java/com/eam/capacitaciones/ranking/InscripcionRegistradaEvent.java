@@ -0,0 +1,14 @@
+package com.eam.capacitaciones.ranking;
+
+import java.time.LocalDate;
+
+/**
+ * Publicado al crear inscripciones: una sola desde InscripcionService o un bloque completo
+ * desde la inscripción masiva. Con {@code cantidad} negativa, al borrarlas con su usuario.
+ */
+public record InscripcionRegistradaEvent(Long cursoId, LocalDate fecha, long cantidad) {
+
+    public InscripcionRegistradaEvent(Long cursoId, LocalDate fecha) {
+        this(cursoId, fecha, 1);
+    }
+}
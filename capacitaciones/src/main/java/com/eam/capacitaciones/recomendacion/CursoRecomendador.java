@@ -0,0 +1,402 @@
+package com.eam.capacitaciones.recomendacion;
+
+import com.eam.capacitaciones.dto.response.CursoPopularDTO;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking.Periodo;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.projection.InscripcionPar;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Recomendador de cursos por co-inscripción (filtrado colaborativo ítem-ítem).
+ *
+ * La matriz de similitud se reconstruye periódicamente: se leen las inscripciones ordenadas por
+ * usuario, se calcula en paralelo (fork-join) la similitud coseno entre cada par de cursos que
+ * comparten alumnos y se guardan los mejores vecinos de cada curso en arrays primitivos
+ * (formato CSR). Al recomendar se suman los pesos de los vecinos de los cursos del usuario,
+ * descartando los que ya tiene; si no hay suficientes, se completa con los más populares.
+ */
+@Component
+@Slf4j
+public class CursoRecomendador {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    /** Cursos por tarea hoja del cálculo fork-join. */
+    private static final int CURSOS_POR_TAREA = 64;
+
+    private final InscripcionRepository inscripcionRepository;
+    private final CursoPopularesRanking cursoPopularesRanking;
+    private final int vecinosPorCurso;
+    private final int lote;
+    private final int paralelismo;
+
+    private volatile Matriz matriz = Matriz.VACIA;
+
+    public CursoRecomendador(
+            InscripcionRepository inscripcionRepository,
+            CursoPopularesRanking cursoPopularesRanking,
+            MeterRegistry meterRegistry,
+            @Value("${recommendation.neighbors:50}") int vecinosPorCurso,
+            @Value("${recommendation.batch-size:10000}") int lote,
+            @Value("${recommendation.parallelism:0}") int paralelismo) {
+        this.inscripcionRepository = inscripcionRepository;
+        this.cursoPopularesRanking = cursoPopularesRanking;
+        this.vecinosPorCurso = Math.max(1, vecinosPorCurso);
+        this.lote = Math.max(1, lote);
+        this.paralelismo = paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors();
+        Gauge.builder("recomendaciones.cursos", this, r -> r.matriz.cursoIds().length)
+                .description("Cursos presentes en la matriz de similitud")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        reconstruir();
+    }
+
+    @Scheduled(cron = "${recommendation.rebuild-cron:0 0 4 * * *}")
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+
+        // Inscripciones agrupadas por usuario: la fila u ocupa cursos[filas[u]..filas[u+1])
+        long[] cursosRaw = new long[1024];
+        int[] filas = new int[256];
+        int totalPares = 0;
+        int usuarios = 0;
+        Long usuarioActual = null;
+        Long ultimoUsuario = 0L;
+        Long ultimoCurso = 0L;
+        List<InscripcionPar> pares;
+        do {
+            pares = inscripcionRepository.findParesDespuesDe(ultimoUsuario, ultimoCurso, PageRequest.of(0, lote));
+            for (InscripcionPar par : pares) {
+                if (!par.usuarioId().equals(usuarioActual)) {
+                    usuarioActual = par.usuarioId();
+                    if (usuarios + 1 >= filas.length) {
+                        filas = Arrays.copyOf(filas, filas.length * 2);
+                    }
+                    filas[usuarios++] = totalPares;
+                }
+                if (totalPares == cursosRaw.length) {
+                    cursosRaw = Arrays.copyOf(cursosRaw, cursosRaw.length * 2);
+                }
+                cursosRaw[totalPares++] = par.cursoId();
+            }
+            if (!pares.isEmpty()) {
+                InscripcionPar ultimo = pares.get(pares.size() - 1);
+                ultimoUsuario = ultimo.usuarioId();
+                ultimoCurso = ultimo.cursoId();
+            }
+        } while (pares.size() == lote);
+        filas[usuarios] = totalPares;
+
+        matriz = calcular(Arrays.copyOf(cursosRaw, totalPares), Arrays.copyOf(filas, usuarios + 1), usuarios);
+        log.info("Matriz de recomendaciones construida: {} cursos, {} usuarios, {} inscripciones en {} ms",
+                matriz.cursoIds().length, usuarios, totalPares, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Ids de hasta {@code limite} cursos recomendados para el usuario, de mejor a peor, sin
+     * incluir los cursos en los que ya está inscrito.
+     */
+    public List<Long> recomendar(Long usuarioId, int limite) {
+        Matriz m = matriz;
+        Set<Long> inscritos = new HashSet<>(inscripcionRepository.findCursoIdsByUsuario(usuarioId));
+        List<Long> resultado = new ArrayList<>(limite);
+
+        int[] propios = new int[inscritos.size()];
+        int totalPropios = 0;
+        for (Long cursoId : inscritos) {
+            int i = Arrays.binarySearch(m.cursoIds(), cursoId);
+            if (i >= 0) {
+                propios[totalPropios++] = i;
+            }
+        }
+
+        if (totalPropios > 0) {
+            float[] puntuacion = new float[m.cursoIds().length];
+            int[] tocados = new int[totalPropios * vecinosPorCurso];
+            int totalTocados = 0;
+            for (int k = 0; k < totalPropios; k++) {
+                int i = propios[k];
+                for (int p = m.inicio()[i]; p < m.inicio()[i + 1]; p++) {
+                    int j = m.vecinos()[p];
+                    if (puntuacion[j] == 0) {
+                        tocados[totalTocados++] = j;
+                    }
+                    puntuacion[j] += m.pesos()[p];
+                }
+            }
+            for (int k = 0; k < totalPropios; k++) {
+                puntuacion[propios[k]] = 0;
+            }
+
+            Mejores mejores = new Mejores(limite);
+            for (int k = 0; k < totalTocados; k++) {
+                int j = tocados[k];
+                if (puntuacion[j] > 0) {
+                    mejores.ofrecer(j, puntuacion[j]);
+                }
+            }
+            for (int j : mejores.ordenados()) {
+                resultado.add(m.cursoIds()[j]);
+            }
+        }
+
+        if (resultado.size() < limite) {
+            // Arranque en frío o pocos vecinos: se completa con los cursos más populares
+            for (CursoPopularDTO popular : cursoPopularesRanking.top(Periodo.TOTAL, limite + inscritos.size())) {
+                if (resultado.size() >= limite) {
+                    break;
+                }
+                if (!inscritos.contains(popular.getIdCurso()) && !resultado.contains(popular.getIdCurso())) {
+                    resultado.add(popular.getIdCurso());
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private Matriz calcular(long[] cursosRaw, int[] filas, int usuarios) {
+        long[] cursoIds = Arrays.stream(cursosRaw).distinct().sorted().toArray();
+        int n = cursoIds.length;
+        if (n == 0) {
+            return Matriz.VACIA;
+        }
+
+        // Índice denso de cada inscripción y número de alumnos por curso
+        int[] cursos = new int[cursosRaw.length];
+        int[] alumnos = new int[n];
+        for (int k = 0; k < cursosRaw.length; k++) {
+            cursos[k] = Arrays.binarySearch(cursoIds, cursosRaw[k]);
+            alumnos[cursos[k]]++;
+        }
+
+        // Traspuesta: los usuarios del curso i ocupan usuariosDeCurso[inicioCurso[i]..inicioCurso[i+1])
+        int[] inicioCurso = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            inicioCurso[i + 1] = inicioCurso[i] + alumnos[i];
+        }
+        int[] posicion = Arrays.copyOf(inicioCurso, n);
+        int[] usuariosDeCurso = new int[cursos.length];
+        for (int u = 0; u < usuarios; u++) {
+            for (int k = filas[u]; k < filas[u + 1]; k++) {
+                usuariosDeCurso[posicion[cursos[k]]++] = u;
+            }
+        }
+
+        int[][] vecinos = new int[n][];
+        float[][] pesos = new float[n][];
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.invoke(new CalculoVecinos(0, n, cursos, filas, alumnos, inicioCurso, usuariosDeCurso,
+                    vecinosPorCurso, vecinos, pesos));
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] inicio = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            inicio[i + 1] = inicio[i] + vecinos[i].length;
+        }
+        int[] vecinosPlanos = new int[inicio[n]];
+        float[] pesosPlanos = new float[inicio[n]];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(vecinos[i], 0, vecinosPlanos, inicio[i], vecinos[i].length);
+            System.arraycopy(pesos[i], 0, pesosPlanos, inicio[i], pesos[i].length);
+        }
+        return new Matriz(cursoIds, inicio, vecinosPlanos, pesosPlanos);
+    }
+
+    /**
+     * Calcula los vecinos de los cursos [desde, hasta). Cada hoja reutiliza sus arrays de
+     * conteo para todos sus cursos, así que no hay estado compartido entre tareas.
+     */
+    private static final class CalculoVecinos extends RecursiveAction {
+
+        private final int desde;
+        private final int hasta;
+        private final int[] cursos;
+        private final int[] filas;
+        private final int[] alumnos;
+        private final int[] inicioCurso;
+        private final int[] usuariosDeCurso;
+        private final int maxVecinos;
+        private final int[][] vecinos;
+        private final float[][] pesos;
+
+        CalculoVecinos(int desde, int hasta, int[] cursos, int[] filas, int[] alumnos, int[] inicioCurso,
+                       int[] usuariosDeCurso, int maxVecinos, int[][] vecinos, float[][] pesos) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.cursos = cursos;
+            this.filas = filas;
+            this.alumnos = alumnos;
+            this.inicioCurso = inicioCurso;
+            this.usuariosDeCurso = usuariosDeCurso;
+            this.maxVecinos = maxVecinos;
+            this.vecinos = vecinos;
+            this.pesos = pesos;
+        }
+
+        @Override
+        protected void compute() {
+            if (hasta - desde > CURSOS_POR_TAREA) {
+                int medio = (desde + hasta) >>> 1;
+                invokeAll(
+                        new CalculoVecinos(desde, medio, cursos, filas, alumnos, inicioCurso, usuariosDeCurso,
+                                maxVecinos, vecinos, pesos),
+                        new CalculoVecinos(medio, hasta, cursos, filas, alumnos, inicioCurso, usuariosDeCurso,
+                                maxVecinos, vecinos, pesos));
+                return;
+            }
+
+            int n = alumnos.length;
+            int[] comunes = new int[n];
+            int[] tocados = new int[n];
+            for (int i = desde; i < hasta; i++) {
+                int totalTocados = 0;
+                for (int p = inicioCurso[i]; p < inicioCurso[i + 1]; p++) {
+                    int u = usuariosDeCurso[p];
+                    for (int k = filas[u]; k < filas[u + 1]; k++) {
+                        int j = cursos[k];
+                        if (j != i && comunes[j]++ == 0) {
+                            tocados[totalTocados++] = j;
+                        }
+                    }
+                }
+
+                Mejores mejores = new Mejores(maxVecinos);
+                for (int t = 0; t < totalTocados; t++) {
+                    int j = tocados[t];
+                    mejores.ofrecer(j, (float) (comunes[j] / Math.sqrt((double) alumnos[i] * alumnos[j])));
+                    comunes[j] = 0;
+                }
+                vecinos[i] = mejores.ids();
+                pesos[i] = mejores.pesos();
+            }
+        }
+    }
+
+    /**
+     * Montículo mínimo acotado sobre arrays primitivos: conserva los {@code capacidad} ids de
+     * mayor peso (a igual peso, el de menor índice).
+     */
+    static final class Mejores {
+
+        private final int[] ids;
+        private final float[] pesos;
+        private int size;
+
+        Mejores(int capacidad) {
+            this.ids = new int[capacidad];
+            this.pesos = new float[capacidad];
+        }
+
+        void ofrecer(int id, float peso) {
+            if (ids.length == 0) {
+                return;
+            }
+            if (size < ids.length) {
+                ids[size] = id;
+                pesos[size] = peso;
+                subir(size++);
+            } else if (peor(ids[0], pesos[0], id, peso)) {
+                ids[0] = id;
+                pesos[0] = peso;
+                bajar(0);
+            }
+        }
+
+        int[] ids() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        float[] pesos() {
+            return Arrays.copyOf(pesos, size);
+        }
+
+        /** Vacía el montículo y devuelve los ids de mayor a menor peso. */
+        int[] ordenados() {
+            int[] resultado = new int[size];
+            for (int k = size - 1; k >= 0; k--) {
+                resultado[k] = ids[0];
+                size--;
+                ids[0] = ids[size];
+                pesos[0] = pesos[size];
+                bajar(0);
+            }
+            return resultado;
+        }
+
+        private static boolean peor(int idA, float pesoA, int idB, float pesoB) {
+            return pesoA < pesoB || (pesoA == pesoB && idA > idB);
+        }
+
+        private void subir(int k) {
+            while (k > 0) {
+                int padre = (k - 1) >>> 1;
+                if (!peor(ids[k], pesos[k], ids[padre], pesos[padre])) {
+                    return;
+                }
+                intercambiar(k, padre);
+                k = padre;
+            }
+        }
+
+        private void bajar(int k) {
+            while (true) {
+                int izquierdo = 2 * k + 1;
+                if (izquierdo >= size) {
+                    return;
+                }
+                int menor = izquierdo;
+                int derecho = izquierdo + 1;
+                if (derecho < size && peor(ids[derecho], pesos[derecho], ids[izquierdo], pesos[izquierdo])) {
+                    menor = derecho;
+                }
+                if (!peor(ids[menor], pesos[menor], ids[k], pesos[k])) {
+                    return;
+                }
+                intercambiar(k, menor);
+                k = menor;
+            }
+        }
+
+        private void intercambiar(int a, int b) {
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float peso = pesos[a];
+            pesos[a] = pesos[b];
+            pesos[b] = peso;
+        }
+    }
+
+    /**
+     * Matriz de similitud en formato CSR: los vecinos del curso i (índice en {@code cursoIds},
+     * ordenado) ocupan vecinos/pesos[inicio[i]..inicio[i+1]).
+     */
+    private record Matriz(long[] cursoIds, int[] inicio, int[] vecinos, float[] pesos) {
+
+        static final Matriz VACIA = new Matriz(new long[0], new int[1], new int[0], new float[0]);
+    }
+}
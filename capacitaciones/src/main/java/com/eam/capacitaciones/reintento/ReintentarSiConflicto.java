@@ -0,0 +1,19 @@
+package com.eam.capacitaciones.reintento;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método transaccional de lectura-modificación-escritura que debe repetirse, en una
+ * transacción nueva, si al confirmar otra transacción ya había modificado las mismas filas.
+ * Solo se reintenta cuando el método abre su propia transacción; dentro de una transacción ya
+ * iniciada el conflicto se propaga a quien la abrió.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReintentarSiConflicto {
+}
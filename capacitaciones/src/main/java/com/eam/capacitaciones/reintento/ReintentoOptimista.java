@@ -0,0 +1,71 @@
+package com.eam.capacitaciones.reintento;
+
+import com.eam.capacitaciones.exception.ConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Política de reintento ante conflictos de bloqueo optimista (@Version).
+ *
+ * Cada intento debe ejecutar la operación completa en su propia transacción, releyendo las
+ * filas. Entre intentos se espera un tiempo aleatorio entre cero y un tope que se duplica en cada
+ * intento (full jitter), para que los escritores que chocaron no vuelvan a coincidir. Agotados
+ * los intentos se responde 409 al cliente.
+ */
+@Component
+@Slf4j
+public class ReintentoOptimista {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxIntentos;
+    private final long esperaBaseMs;
+    private final long esperaMaximaMs;
+
+    public ReintentoOptimista(
+            MeterRegistry meterRegistry,
+            @Value("${persistence.optimistic-retry.max-attempts:5}") int maxIntentos,
+            @Value("${persistence.optimistic-retry.base-delay-ms:10}") long esperaBaseMs,
+            @Value("${persistence.optimistic-retry.max-delay-ms:200}") long esperaMaximaMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.esperaBaseMs = Math.max(0, esperaBaseMs);
+        this.esperaMaximaMs = Math.max(this.esperaBaseMs, esperaMaximaMs);
+    }
+
+    public <T> T ejecutar(String operacion, Supplier<T> accion) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return accion.get();
+            } catch (OptimisticLockingFailureException ex) {
+                meterRegistry.counter("persistencia.conflictos", "operacion", operacion).increment();
+                if (intento >= maxIntentos) {
+                    meterRegistry.counter("persistencia.conflictos.agotados", "operacion", operacion).increment();
+                    log.warn("Conflicto persistente en {} tras {} intentos", operacion, intento);
+                    throw new ConflictException(
+                            "El recurso fue modificado por otra operación, intente nuevamente", ex);
+                }
+                log.debug("Conflicto optimista en {} (intento {}), reintentando", operacion, intento);
+                esperar(intento, ex);
+            }
+        }
+    }
+
+    private void esperar(int intento, OptimisticLockingFailureException causa) {
+        long tope = Math.min(esperaMaximaMs, esperaBaseMs << Math.min(intento - 1, 20));
+        if (tope <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(tope + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Operación interrumpida mientras se reintentaba", causa);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.eam.capacitaciones.reintento;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Aplica {@link ReintentoOptimista} a los métodos anotados con {@link ReintentarSiConflicto}.
+ * Se ordena por fuera del interceptor de @Transactional, así que cada intento abre y confirma su
+ * propia transacción.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class ReintentoOptimistaAspect {
+
+    private final ReintentoOptimista reintentoOptimista;
+
+    @Around("@annotation(com.eam.capacitaciones.reintento.ReintentarSiConflicto)")
+    public Object reintentar(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        String operacion = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        try {
+            return reintentoOptimista.ejecutar(operacion, () -> {
+                try {
+                    return joinPoint.proceed();
+                } catch (RuntimeException | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new UndeclaredThrowableException(ex);
+                }
+            });
+        } catch (UndeclaredThrowableException ex) {
+            throw ex.getUndeclaredThrowable();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.BancoMuestra;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BancoMuestraRepository extends JpaRepository<BancoMuestra, Long> {
+
+    List<BancoMuestra> findByEvaluacionIdAndVersionBanco(Long evaluacionId, Integer versionBanco);
+}
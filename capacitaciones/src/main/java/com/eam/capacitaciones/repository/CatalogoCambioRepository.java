@@ -0,0 +1,23 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.CatalogoCambio;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface CatalogoCambioRepository extends JpaRepository<CatalogoCambio, Long> {
+
+    List<CatalogoCambio> findByFechaAfterOrderByIdCambioAsc(LocalDateTime fecha);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CatalogoCambio c WHERE c.fecha < :limite")
+    int deleteAnterioresA(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,44 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.CursoContador;
+import com.eam.capacitaciones.repository.projection.CursoContadores;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CursoContadorRepository extends JpaRepository<CursoContador, Long> {
+
+    @Modifying
+    @Query("UPDATE CursoContador c SET c.inscritos = c.inscritos + :inscritos, " +
+           "c.enProgreso = c.enProgreso + :enProgreso, " +
+           "c.completados = c.completados + :completados, " +
+           "c.abandonados = c.abandonados + :abandonados " +
+           "WHERE c.cursoId = :cursoId AND c.shard = :shard")
+    int sumar(@Param("cursoId") Long cursoId,
+              @Param("shard") int shard,
+              @Param("inscritos") long inscritos,
+              @Param("enProgreso") long enProgreso,
+              @Param("completados") long completados,
+              @Param("abandonados") long abandonados);
+
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoContadores(" +
+           "c.cursoId, SUM(c.inscritos), SUM(c.enProgreso), SUM(c.completados), SUM(c.abandonados)) " +
+           "FROM CursoContador c GROUP BY c.cursoId")
+    List<CursoContadores> findTotales();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CursoContador c WHERE c.cursoId IN :cursoIds ORDER BY c.cursoId, c.shard")
+    List<CursoContador> findParaReconciliar(@Param("cursoIds") Collection<Long> cursoIds);
+
+    @Modifying
+    @Query("DELETE FROM CursoContador c WHERE c.cursoId = :cursoId")
+    int deleteByCursoId(@Param("cursoId") Long cursoId);
+}
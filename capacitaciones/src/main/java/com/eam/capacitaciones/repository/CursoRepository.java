@@ -2,15 +2,30 @@ package com.eam.capacitaciones.repository;
 
 import com.eam.capacitaciones.domain.entity.Curso;
 import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+import com.eam.capacitaciones.repository.projection.CursoCabecera;
+import com.eam.capacitaciones.repository.projection.CursoResumen;
+import com.eam.capacitaciones.repository.projection.CursoTitulo;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CursoRepository extends JpaRepository<Curso, Long> {
+
+    String RESUMEN_SELECT = "SELECT new com.eam.capacitaciones.repository.projection.CursoResumen(" +
+            "c.idCurso, c.titulo, c.descripcion, c.duracionEstim, c.nivel, c.instructorId, i.nombre, " +
+            "c.activo, c.imagenUrl, c.fechaCreacion, " +
+            "(SELECT COUNT(m) FROM Modulo m WHERE m.cursoId = c.idCurso), " +
+            "c.totalInscritos) " +
+            "FROM Curso c LEFT JOIN c.instructor i ";
     
     List<Curso> findByActivoTrue();
     
@@ -28,4 +43,54 @@ public interface CursoRepository extends JpaRepository<Curso, Long> {
     
     @Query("SELECT COUNT(c) FROM Curso c WHERE c.instructorId = :instructorId")
     Long countByInstructor(@Param("instructorId") Long instructorId);
-}
\ No newline at end of file
+
+    @Query(RESUMEN_SELECT + "WHERE c.idCurso = :id")
+    Optional<CursoResumen> findResumenById(@Param("id") Long id);
+
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoTitulo(c.idCurso, c.titulo) " +
+           "FROM Curso c WHERE c.activo = true")
+    List<CursoTitulo> findTitulosActivos();
+
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoTitulo(c.idCurso, c.titulo) " +
+           "FROM Curso c WHERE c.idCurso = :id AND c.activo = true")
+    Optional<CursoTitulo> findTituloActivoById(@Param("id") Long id);
+
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoCabecera(c.idCurso, c.titulo, c.nivel) " +
+           "FROM Curso c WHERE c.activo = true")
+    List<CursoCabecera> findCabecerasActivas();
+
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoCabecera(c.idCurso, c.titulo, c.nivel) " +
+           "FROM Curso c WHERE c.idCurso = :id AND c.activo = true")
+    Optional<CursoCabecera> findCabeceraActivaById(@Param("id") Long id);
+
+    @Query("SELECT c.idCurso FROM Curso c WHERE c.activo = true ORDER BY c.idCurso")
+    List<Long> findIdsActivos();
+
+    /**
+     * Cursos modificados desde {@code desde}, incluidos los que ganaron o perdieron módulos:
+     * ver {@link #marcarModificado}.
+     */
+    @Query("SELECT c.idCurso FROM Curso c WHERE c.fechaActualizacion > :desde")
+    List<Long> findIdsModificadosDesde(@Param("desde") LocalDateTime desde);
+
+    /**
+     * Avanza la fecha de modificación del curso cuando cambian sus módulos. Un módulo borrado no
+     * deja rastro en Modulo, y sin esto la sincronización del índice de texto no lo vería.
+     */
+    @Modifying
+    @Query("UPDATE Curso c SET c.fechaActualizacion = :fecha WHERE c.idCurso = :id")
+    int marcarModificado(@Param("id") Long id, @Param("fecha") LocalDateTime fecha);
+
+    @Query("SELECT c.idCurso FROM Curso c WHERE c.idCurso > :id ORDER BY c.idCurso")
+    List<Long> findIdsDespuesDe(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Vuelca en Curso.totalInscritos la suma de los shards de CursoContador, para que el
+     * filtro y la ordenación por inscritos usen una columna indexada.
+     */
+    @Modifying
+    @Query("UPDATE Curso c SET c.totalInscritos = " +
+           "(SELECT COALESCE(SUM(s.inscritos), 0) FROM CursoContador s WHERE s.cursoId = c.idCurso) " +
+           "WHERE c.idCurso IN :ids")
+    int consolidarTotalInscritos(@Param("ids") Collection<Long> ids);
+}
@@ -2,12 +2,15 @@ package com.eam.capacitaciones.repository;
 
 import com.eam.capacitaciones.domain.entity.Evaluacion;
 import com.eam.capacitaciones.domain.entity.Evaluacion.TipoEnum;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EvaluacionRepository extends JpaRepository<Evaluacion, Long> {
@@ -22,4 +25,11 @@ public interface EvaluacionRepository extends JpaRepository<Evaluacion, Long> {
     
     @Query("SELECT COUNT(e) FROM Evaluacion e WHERE e.moduloId = :moduloId")
     Long countByModulo(@Param("moduloId") Long moduloId);
+
+    /**
+     * Evaluación bloqueada para crear una versión nueva de su banco sin que otra la numere igual.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM Evaluacion e WHERE e.idEvaluacion = :id")
+    Optional<Evaluacion> findByIdParaActualizar(@Param("id") Long id);
 }
\ No newline at end of file
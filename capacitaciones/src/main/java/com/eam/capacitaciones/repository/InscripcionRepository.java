@@ -2,12 +2,20 @@ package com.eam.capacitaciones.repository;
 
 import com.eam.capacitaciones.domain.entity.Inscripcion;
 import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
+import com.eam.capacitaciones.repository.projection.CursoContadores;
+import com.eam.capacitaciones.repository.projection.CursoInscritosDia;
+import com.eam.capacitaciones.repository.projection.InscripcionCurso;
+import com.eam.capacitaciones.repository.projection.InscripcionPar;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,9 +35,99 @@ public interface InscripcionRepository extends JpaRepository<Inscripcion, Long>
     @Query("SELECT i FROM Inscripcion i WHERE i.usuarioId = :usuarioId AND i.estado = 'COMPLETADO'")
     List<Inscripcion> findCompletadasByUsuario(@Param("usuarioId") Long usuarioId);
     
-    @Query("SELECT COUNT(i) FROM Inscripcion i WHERE i.cursoId = :cursoId AND i.estado = 'COMPLETADO'")
+    @Query("SELECT COALESCE(SUM(s.completados), 0) FROM CursoContador s WHERE s.cursoId = :cursoId")
     Long countCompletadasByCurso(@Param("cursoId") Long cursoId);
     
     @Query("SELECT i FROM Inscripcion i WHERE i.fechaInscripcion BETWEEN :fechaInicio AND :fechaFin")
     List<Inscripcion> findByFechaInscripcionBetween(@Param("fechaInicio") LocalDate fechaInicio, @Param("fechaFin") LocalDate fechaFin);
-}
\ No newline at end of file
+
+    @Query("SELECT i FROM Inscripcion i WHERE i.cursoId = :cursoId " +
+           "ORDER BY i.fechaCreacion DESC, i.idInscripcion DESC")
+    List<Inscripcion> findPrimeraPaginaByCurso(@Param("cursoId") Long cursoId, Pageable pageable);
+
+    @Query("SELECT i FROM Inscripcion i WHERE i.cursoId = :cursoId " +
+           "AND (i.fechaCreacion < :fecha OR (i.fechaCreacion = :fecha AND i.idInscripcion < :id)) " +
+           "ORDER BY i.fechaCreacion DESC, i.idInscripcion DESC")
+    List<Inscripcion> findPaginaByCursoDespuesDe(@Param("cursoId") Long cursoId,
+                                                 @Param("fecha") LocalDateTime fecha,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+
+    /**
+     * Recuento real por estado desde la tabla base; solo lo usa la reconciliación de CursoContador.
+     */
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoContadores(i.cursoId, COUNT(i), " +
+           "SUM(CASE WHEN i.estado = 'EN_PROGRESO' THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN i.estado = 'COMPLETADO' THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN i.estado = 'ABANDONADO' THEN 1L ELSE 0L END)) " +
+           "FROM Inscripcion i WHERE i.cursoId IN :cursoIds GROUP BY i.cursoId")
+    List<CursoContadores> contarPorEstado(@Param("cursoIds") Collection<Long> cursoIds);
+
+    /**
+     * Inscripciones de un usuario agrupadas por curso y estado, para descontarlas de los
+     * contadores antes de borrarlo.
+     */
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoContadores(i.cursoId, COUNT(i), " +
+           "SUM(CASE WHEN i.estado = 'EN_PROGRESO' THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN i.estado = 'COMPLETADO' THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN i.estado = 'ABANDONADO' THEN 1L ELSE 0L END)) " +
+           "FROM Inscripcion i WHERE i.usuarioId = :usuarioId GROUP BY i.cursoId")
+    List<CursoContadores> contarPorEstadoDeUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoInscritosDia(" +
+           "i.cursoId, i.fechaInscripcion, COUNT(i)) " +
+           "FROM Inscripcion i WHERE i.fechaInscripcion >= :desde GROUP BY i.cursoId, i.fechaInscripcion")
+    List<CursoInscritosDia> contarPorDiaDesde(@Param("desde") LocalDate desde);
+
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.CursoInscritosDia(" +
+           "i.cursoId, i.fechaInscripcion, COUNT(i)) " +
+           "FROM Inscripcion i WHERE i.usuarioId = :usuarioId GROUP BY i.cursoId, i.fechaInscripcion")
+    List<CursoInscritosDia> contarPorDiaDeUsuario(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT i.cursoId FROM Inscripcion i WHERE i.usuarioId = :usuarioId")
+    List<Long> findCursoIdsByUsuario(@Param("usuarioId") Long usuarioId);
+
+    /**
+     * Recorre las inscripciones ordenadas por (usuarioId, cursoId) con el índice uk_usuario_curso.
+     */
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.InscripcionPar(i.usuarioId, i.cursoId) " +
+           "FROM Inscripcion i " +
+           "WHERE i.usuarioId > :usuarioId OR (i.usuarioId = :usuarioId AND i.cursoId > :cursoId) " +
+           "ORDER BY i.usuarioId, i.cursoId")
+    List<InscripcionPar> findParesDespuesDe(@Param("usuarioId") Long usuarioId,
+                                            @Param("cursoId") Long cursoId,
+                                            Pageable pageable);
+
+    /**
+     * Usuarios del bloque ya inscritos en el curso, resuelto en una sola consulta sobre uk_usuario_curso.
+     */
+    @Query("SELECT i.usuarioId FROM Inscripcion i WHERE i.cursoId = :cursoId AND i.usuarioId IN :usuarioIds")
+    List<Long> findUsuarioIdsInscritos(@Param("cursoId") Long cursoId,
+                                       @Param("usuarioIds") Collection<Long> usuarioIds);
+
+    /**
+     * Inscripciones en un estado sin modificar desde {@code corte}, recorridas por id. El índice
+     * idx_estado lleva implícita la clave primaria, así que sirve al filtro y al orden.
+     */
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.InscripcionCurso(i.idInscripcion, i.cursoId) " +
+           "FROM Inscripcion i WHERE i.estado = :estado AND i.fechaActualizacion < :corte " +
+           "AND i.idInscripcion > :ultimoId ORDER BY i.idInscripcion")
+    List<InscripcionCurso> findInactivasDespuesDe(@Param("estado") EstadoEnum estado,
+                                                 @Param("corte") LocalDateTime corte,
+                                                 @Param("ultimoId") Long ultimoId,
+                                                 Pageable pageable);
+
+    /**
+     * Cambia de estado las inscripciones indicadas que sigan en {@code anterior} y sin modificar
+     * desde {@code corte}. Incrementa la versión para que las escrituras concurrentes detecten el
+     * cambio.
+     */
+    @Modifying
+    @Query("UPDATE Inscripcion i SET i.estado = :nuevo, i.fechaActualizacion = :ahora, i.version = i.version + 1 " +
+           "WHERE i.idInscripcion IN :ids AND i.estado = :anterior AND i.fechaActualizacion < :corte")
+    int cambiarEstadoSiInactivas(@Param("ids") Collection<Long> ids,
+                                 @Param("anterior") EstadoEnum anterior,
+                                 @Param("nuevo") EstadoEnum nuevo,
+                                 @Param("corte") LocalDateTime corte,
+                                 @Param("ahora") LocalDateTime ahora);
+}
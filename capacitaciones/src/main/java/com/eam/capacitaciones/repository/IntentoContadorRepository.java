@@ -0,0 +1,38 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.IntentoContador;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IntentoContadorRepository extends JpaRepository<IntentoContador, Long> {
+
+    /**
+     * Consume un intento si quedan. Devuelve 0 si se alcanzó el límite o el contador aún no existe.
+     * El bloqueo de fila serializa los envíos simultáneos del mismo usuario.
+     */
+    @Modifying
+    @Query("UPDATE IntentoContador c SET c.intentos = c.intentos + 1 " +
+           "WHERE c.evaluacionId = :evaluacionId AND c.usuarioId = :usuarioId AND c.intentos < :limite")
+    int consumir(@Param("evaluacionId") Long evaluacionId,
+                 @Param("usuarioId") Long usuarioId,
+                 @Param("limite") int limite);
+
+    @Query("SELECT c.intentos FROM IntentoContador c WHERE c.evaluacionId = :evaluacionId AND c.usuarioId = :usuarioId")
+    Optional<Integer> findIntentos(@Param("evaluacionId") Long evaluacionId, @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Lectura con bloqueo: ve también un contador recién confirmado por otra transacción.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM IntentoContador c WHERE c.evaluacionId = :evaluacionId AND c.usuarioId = :usuarioId")
+    Optional<IntentoContador> findParaActualizar(@Param("evaluacionId") Long evaluacionId,
+                                                 @Param("usuarioId") Long usuarioId);
+}
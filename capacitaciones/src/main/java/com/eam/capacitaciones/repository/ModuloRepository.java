@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,4 +25,6 @@ public interface ModuloRepository extends JpaRepository<Modulo, Long> {
     
     @Query("SELECT MAX(m.orden) FROM Modulo m WHERE m.cursoId = :cursoId")
     Integer findMaxOrdenByCurso(@Param("cursoId") Long cursoId);
-}
\ No newline at end of file
+
+    List<Modulo> findByCursoIdIn(Collection<Long> cursoIds);
+}
@@ -0,0 +1,21 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.PreguntaBanco;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PreguntaBancoRepository extends JpaRepository<PreguntaBanco, Long> {
+
+    /**
+     * Una versión del banco completa con sus opciones en una sola consulta.
+     */
+    @Query("SELECT DISTINCT p FROM PreguntaBanco p LEFT JOIN FETCH p.opciones " +
+           "WHERE p.evaluacionId = :evaluacionId AND p.versionBanco = :versionBanco ORDER BY p.idPreguntaBanco")
+    List<PreguntaBanco> findBancoByEvaluacion(@Param("evaluacionId") Long evaluacionId,
+                                              @Param("versionBanco") Integer versionBanco);
+}
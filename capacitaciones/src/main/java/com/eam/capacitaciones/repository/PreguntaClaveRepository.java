@@ -0,0 +1,20 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.PreguntaClave;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PreguntaClaveRepository extends JpaRepository<PreguntaClave, Long> {
+
+    List<PreguntaClave> findByEvaluacionIdOrderByNumero(Long evaluacionId);
+
+    @Modifying
+    @Query("DELETE FROM PreguntaClave p WHERE p.evaluacionId = :evaluacionId")
+    int deleteByEvaluacionId(@Param("evaluacionId") Long evaluacionId);
+}
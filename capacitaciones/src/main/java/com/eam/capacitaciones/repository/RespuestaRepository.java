@@ -1,12 +1,18 @@
 package com.eam.capacitaciones.repository;
 
 import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.repository.projection.IntentoPar;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RespuestaRepository extends JpaRepository<Respuesta, Long> {
@@ -23,8 +29,58 @@ public interface RespuestaRepository extends JpaRepository<Respuesta, Long> {
     @Query("SELECT COUNT(r) FROM Respuesta r WHERE r.evaluacionId = :evaluacionId AND r.usuarioId = :usuarioId")
     Long countIntentosByUsuario(@Param("evaluacionId") Long evaluacionId, @Param("usuarioId") Long usuarioId);
     
+    /**
+     * Intentos ya consumidos: el mayor número registrado o, si hay números repetidos de antes de
+     * uk_respuesta_intento, el total de respuestas.
+     */
+    @Query("SELECT GREATEST(COALESCE(MAX(r.intentoNumero), 0), CAST(COUNT(r) AS Integer)) FROM Respuesta r " +
+           "WHERE r.evaluacionId = :evaluacionId AND r.usuarioId = :usuarioId")
+    Integer findIntentosRealizados(@Param("evaluacionId") Long evaluacionId, @Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT DISTINCT new com.eam.capacitaciones.repository.projection.IntentoPar(r.evaluacionId, r.usuarioId) " +
+           "FROM Respuesta r GROUP BY r.evaluacionId, r.usuarioId, r.intentoNumero HAVING COUNT(r) > 1")
+    List<IntentoPar> findIntentosDuplicados();
+
     @Query("SELECT r FROM Respuesta r WHERE r.usuarioId = :usuarioId " +
            "AND r.evaluacionId IN (SELECT e.idEvaluacion FROM Evaluacion e WHERE e.moduloId IN " +
            "(SELECT m.idModulo FROM Modulo m WHERE m.cursoId = :cursoId))")
     List<Respuesta> findRespuestasByUsuarioAndCurso(@Param("usuarioId") Long usuarioId, @Param("cursoId") Long cursoId);
-}
\ No newline at end of file
+
+    @Query("SELECT r FROM Respuesta r LEFT JOIN FETCH r.usuario LEFT JOIN FETCH r.evaluacion " +
+           "WHERE r.evaluacionId = :evaluacionId AND r.calificada = false " +
+           "ORDER BY r.fechaCreacion ASC, r.idRespuesta ASC")
+    List<Respuesta> findPendientesPrimeraPagina(@Param("evaluacionId") Long evaluacionId, Pageable pageable);
+
+    @Query("SELECT r FROM Respuesta r LEFT JOIN FETCH r.usuario LEFT JOIN FETCH r.evaluacion " +
+           "WHERE r.evaluacionId = :evaluacionId AND r.calificada = false " +
+           "AND (r.fechaCreacion > :fecha OR (r.fechaCreacion = :fecha AND r.idRespuesta > :id)) " +
+           "ORDER BY r.fechaCreacion ASC, r.idRespuesta ASC")
+    List<Respuesta> findPendientesDespuesDe(@Param("evaluacionId") Long evaluacionId,
+                                            @Param("fecha") LocalDateTime fecha,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    /**
+     * Respuestas de una evaluación recorridas por id, para recalificarlas por bloques.
+     */
+    @Query("SELECT r FROM Respuesta r WHERE r.evaluacionId = :evaluacionId AND r.idRespuesta > :id " +
+           "ORDER BY r.idRespuesta ASC")
+    List<Respuesta> findByEvaluacionDespuesDe(@Param("evaluacionId") Long evaluacionId,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    /**
+     * Borra la entrega en blanco que se generó al vencer un intento, para sustituirla por la que
+     * el usuario envió a tiempo.
+     */
+    @Modifying
+    @Query("DELETE FROM Respuesta r WHERE r.evaluacionId = :evaluacionId AND r.usuarioId = :usuarioId " +
+           "AND r.intentoNumero = :intentoNumero AND r.entregaAutomatica = true")
+    int deleteEntregaEnBlanco(@Param("evaluacionId") Long evaluacionId,
+                              @Param("usuarioId") Long usuarioId,
+                              @Param("intentoNumero") Integer intentoNumero);
+
+    Optional<Respuesta> findByReciboEntrega(String reciboEntrega);
+
+    List<Respuesta> findByReciboEntregaIn(Collection<String> recibos);
+}
@@ -0,0 +1,75 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.SesionExamen;
+import com.eam.capacitaciones.domain.entity.SesionExamen.EstadoEnum;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SesionExamenRepository extends JpaRepository<SesionExamen, Long> {
+
+    Optional<SesionExamen> findFirstByEvaluacionIdAndUsuarioIdAndEstado(Long evaluacionId, Long usuarioId,
+                                                                        EstadoEnum estado);
+
+    Optional<SesionExamen> findFirstByEvaluacionIdAndUsuarioIdOrderByIntentoNumeroDesc(Long evaluacionId,
+                                                                                      Long usuarioId);
+
+    /**
+     * Lectura con bloqueo de la sesión abierta: ve también una recién confirmada por otra
+     * transacción y serializa la entrega con el cierre por tiempo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SesionExamen s WHERE s.evaluacionId = :evaluacionId AND s.usuarioId = :usuarioId " +
+           "AND s.estado = com.eam.capacitaciones.domain.entity.SesionExamen.EstadoEnum.ABIERTA")
+    List<SesionExamen> findAbiertasParaActualizar(@Param("evaluacionId") Long evaluacionId,
+                                                  @Param("usuarioId") Long usuarioId);
+
+    /**
+     * Sesión a la que pertenece una entrega recibida en {@code enviadaEn}: la última iniciada
+     * antes de ese momento, abierta o ya cerrada, bloqueada para cerrarla o corregir su cierre.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SesionExamen s WHERE s.evaluacionId = :evaluacionId AND s.usuarioId = :usuarioId " +
+           "AND s.inicio <= :enviadaEn ORDER BY s.intentoNumero DESC")
+    List<SesionExamen> findParaEntregar(@Param("evaluacionId") Long evaluacionId,
+                                        @Param("usuarioId") Long usuarioId,
+                                        @Param("enviadaEn") LocalDateTime enviadaEn,
+                                        Pageable pageable);
+
+    /**
+     * Sesiones de la lista que siguen abiertas, bloqueadas para cerrarlas. Las que otra instancia
+     * cerró mientras tanto ya no aparecen.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SesionExamen s WHERE s.idSesion IN :ids " +
+           "AND s.estado = com.eam.capacitaciones.domain.entity.SesionExamen.EstadoEnum.ABIERTA")
+    List<SesionExamen> findAbiertasParaCerrar(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sesiones abiertas recorridas por id, para volver a programar sus vencimientos al arrancar.
+     */
+    @Query("SELECT s FROM SesionExamen s " +
+           "WHERE s.estado = com.eam.capacitaciones.domain.entity.SesionExamen.EstadoEnum.ABIERTA " +
+           "AND s.idSesion > :id ORDER BY s.idSesion ASC")
+    List<SesionExamen> findAbiertasDespuesDe(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Ids de las sesiones abiertas que vencieron antes de {@code limite}, recorridas por id.
+     */
+    @Query("SELECT s.idSesion FROM SesionExamen s " +
+           "WHERE s.estado = com.eam.capacitaciones.domain.entity.SesionExamen.EstadoEnum.ABIERTA " +
+           "AND s.idSesion > :id AND s.vence < :limite ORDER BY s.idSesion ASC")
+    List<Long> findIdsVencidasDespuesDe(@Param("id") Long id,
+                                        @Param("limite") LocalDateTime limite,
+                                        Pageable pageable);
+}
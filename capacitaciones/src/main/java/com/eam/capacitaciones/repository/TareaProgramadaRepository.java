@@ -0,0 +1,47 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.TareaProgramada;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TareaProgramadaRepository extends JpaRepository<TareaProgramada, String> {
+
+    /**
+     * Toma el arriendo de la tarea si está libre, vencido o ya es del propietario. Devuelve 1 si
+     * lo consiguió; el UPDATE condicional garantiza que solo una instancia lo obtiene.
+     */
+    @Modifying
+    @Query("UPDATE TareaProgramada t SET t.propietario = :propietario, t.bloqueadaHasta = :hasta " +
+           "WHERE t.nombre = :nombre AND (t.propietario IS NULL OR t.propietario = :propietario " +
+           "OR t.bloqueadaHasta IS NULL OR t.bloqueadaHasta < :ahora)")
+    int adquirir(@Param("nombre") String nombre,
+                 @Param("propietario") String propietario,
+                 @Param("ahora") LocalDateTime ahora,
+                 @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Guarda el punto de reanudación y renueva el arriendo. Devuelve 0 si otra instancia se
+     * quedó con la tarea.
+     */
+    @Modifying
+    @Query("UPDATE TareaProgramada t SET t.ultimoId = :ultimoId, t.bloqueadaHasta = :hasta " +
+           "WHERE t.nombre = :nombre AND t.propietario = :propietario")
+    int avanzar(@Param("nombre") String nombre,
+                @Param("propietario") String propietario,
+                @Param("ultimoId") Long ultimoId,
+                @Param("hasta") LocalDateTime hasta);
+
+    @Modifying
+    @Query("UPDATE TareaProgramada t SET t.corte = NULL, t.ultimoId = 0, t.propietario = NULL, " +
+           "t.bloqueadaHasta = NULL, t.ultimaEjecucion = :ahora " +
+           "WHERE t.nombre = :nombre AND t.propietario = :propietario")
+    int finalizar(@Param("nombre") String nombre,
+                  @Param("propietario") String propietario,
+                  @Param("ahora") LocalDateTime ahora);
+}
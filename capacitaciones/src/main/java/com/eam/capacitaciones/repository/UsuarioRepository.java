@@ -2,11 +2,15 @@ package com.eam.capacitaciones.repository;
 
 import com.eam.capacitaciones.domain.entity.Usuario;
 import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
+import com.eam.capacitaciones.repository.projection.UsuarioCambio;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +32,29 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     
     @Query("SELECT COUNT(u) FROM Usuario u WHERE u.rol = :rol")
     Long countByRol(@Param("rol") RolEnum rol);
+
+    @Query("SELECT u FROM Usuario u ORDER BY u.nombre ASC, u.idUsuario ASC")
+    List<Usuario> findPrimeraPagina(Pageable pageable);
+
+    @Query("SELECT u FROM Usuario u " +
+           "WHERE u.nombre > :nombre OR (u.nombre = :nombre AND u.idUsuario > :id) " +
+           "ORDER BY u.nombre ASC, u.idUsuario ASC")
+    List<Usuario> findPaginaDespuesDe(@Param("nombre") String nombre, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT u.idUsuario FROM Usuario u " +
+           "WHERE u.activo = true AND u.idUsuario > :id " +
+           "AND (:departamento IS NULL OR u.departamento = :departamento) " +
+           "AND (:rol IS NULL OR u.rol = :rol) " +
+           "ORDER BY u.idUsuario ASC")
+    List<Long> findIdsActivosDespuesDe(@Param("departamento") String departamento,
+                                       @Param("rol") RolEnum rol,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Query("SELECT u.idUsuario FROM Usuario u WHERE u.activo = true AND u.idUsuario IN :ids")
+    List<Long> findIdsActivosIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.eam.capacitaciones.repository.projection.UsuarioCambio(u.idUsuario, u.fechaActualizacion) " +
+           "FROM Usuario u WHERE u.fechaActualizacion >= :desde")
+    List<UsuarioCambio> findModificadosDesde(@Param("desde") LocalDateTime desde);
 }
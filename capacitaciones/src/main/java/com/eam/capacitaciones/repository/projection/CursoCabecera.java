@@ -0,0 +1,13 @@
+package com.eam.capacitaciones.repository.projection;
+
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+
+/**
+ * Datos mínimos de un curso activo para mostrarlo en el ranking de populares.
+ */
+public record CursoCabecera(
+        Long idCurso,
+        String titulo,
+        NivelEnum nivel
+) {
+}
@@ -0,0 +1,18 @@
+package com.eam.capacitaciones.repository.projection;
+
+/**
+ * Totales de inscripciones de un curso por estado. {@code inscritos} cuenta todas las
+ * inscripciones, sea cual sea su estado.
+ */
+public record CursoContadores(
+        Long cursoId,
+        Long inscritos,
+        Long enProgreso,
+        Long completados,
+        Long abandonados
+) {
+
+    public static CursoContadores vacio(Long cursoId) {
+        return new CursoContadores(cursoId, 0L, 0L, 0L, 0L);
+    }
+}
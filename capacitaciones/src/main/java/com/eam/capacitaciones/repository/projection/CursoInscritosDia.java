@@ -0,0 +1,13 @@
+package com.eam.capacitaciones.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Inscripciones de un curso en un día concreto.
+ */
+public record CursoInscritosDia(
+        Long cursoId,
+        LocalDate fecha,
+        Long inscritos
+) {
+}
@@ -0,0 +1,25 @@
+package com.eam.capacitaciones.repository.projection;
+
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de solo lectura de un curso con el nombre del instructor y los conteos
+ * de módulos e inscripciones, resuelta en una sola consulta.
+ */
+public record CursoResumen(
+        Long idCurso,
+        String titulo,
+        String descripcion,
+        String duracionEstim,
+        NivelEnum nivel,
+        Long instructorId,
+        String instructorNombre,
+        Boolean activo,
+        String imagenUrl,
+        LocalDateTime fechaCreacion,
+        Long totalModulos,
+        Long totalInscritos
+) {
+}
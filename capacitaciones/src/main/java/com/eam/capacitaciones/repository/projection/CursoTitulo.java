@@ -0,0 +1,10 @@
+package com.eam.capacitaciones.repository.projection;
+
+/**
+ * Proyección mínima de un curso activo para el índice de títulos.
+ */
+public record CursoTitulo(
+        Long idCurso,
+        String titulo
+) {
+}
@@ -0,0 +1,10 @@
+package com.eam.capacitaciones.repository.projection;
+
+/**
+ * Id de una inscripción y su curso, para procesar inscripciones por bloques sin cargar la entidad.
+ */
+public record InscripcionCurso(
+        Long idInscripcion,
+        Long cursoId
+) {
+}
@@ -0,0 +1,10 @@
+package com.eam.capacitaciones.repository.projection;
+
+/**
+ * Par usuario-curso de una inscripción, para construir la matriz de recomendaciones.
+ */
+public record InscripcionPar(
+        Long usuarioId,
+        Long cursoId
+) {
+}
@@ -0,0 +1,10 @@
+package com.eam.capacitaciones.repository.projection;
+
+/**
+ * Par evaluación-usuario con varias respuestas registradas con el mismo número de intento.
+ */
+public record IntentoPar(
+        Long evaluacionId,
+        Long usuarioId
+) {
+}
@@ -0,0 +1,12 @@
+package com.eam.capacitaciones.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Última modificación registrada de un usuario.
+ */
+public record UsuarioCambio(
+        Long usuarioId,
+        LocalDateTime fechaActualizacion
+) {
+}
@@ -0,0 +1,36 @@
+package com.eam.capacitaciones.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.StopFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.es.SpanishAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.snowball.SnowballFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.tartarus.snowball.ext.SpanishStemmer;
+
+/**
+ * Análisis de texto en español: minúsculas, stopwords, sin tildes y stemming Snowball, de modo
+ * que "Bases de Datos" y "base dato" producen los mismos términos.
+ *
+ * Las stopwords se eliminan antes de quitar tildes porque la lista las trae acentuadas.
+ */
+final class AnalizadorEspanol extends Analyzer {
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        Tokenizer source = new StandardTokenizer();
+        TokenStream result = new LowerCaseFilter(source);
+        result = new StopFilter(result, SpanishAnalyzer.getDefaultStopSet());
+        result = new ASCIIFoldingFilter(result);
+        result = new SnowballFilter(result, new SpanishStemmer());
+        return new TokenStreamComponents(source, result);
+    }
+
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+    }
+}
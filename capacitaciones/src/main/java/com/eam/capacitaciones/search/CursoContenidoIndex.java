@@ -0,0 +1,409 @@
+package com.eam.capacitaciones.search;
+
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Modulo;
+import com.eam.capacitaciones.dto.response.CursoBusquedaDTO;
+import com.eam.capacitaciones.exception.ServiceUnavailableException;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.ModuloRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Índice de texto completo (Lucene, ranking BM25) sobre el título y la descripción de los
+ * cursos activos y el contenido de sus módulos.
+ *
+ * Cada curso se indexa como un bloque: un documento "curso" con los tres campos, usado para el
+ * ranking con boosts por campo, y un documento por módulo, usado para elegir y resaltar el
+ * módulo que mejor coincide. El bloque completo se reemplaza cuando CursoService o
+ * ModuloService confirman un cambio.
+ *
+ * Los segmentos viven en {@code search.fulltext.path}. Al arrancar solo se reindexan los cursos
+ * modificados desde el último commit del índice y se descartan los que ya no están activos.
+ */
+@Component
+@Slf4j
+public class CursoContenidoIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 50;
+
+    private static final String CAMPO_TIPO = "tipo";
+    private static final String CAMPO_CURSO_ID = "cursoId";
+    private static final String CAMPO_TITULO = "titulo";
+    private static final String CAMPO_DESCRIPCION = "descripcion";
+    private static final String CAMPO_CONTENIDO = "contenido";
+    // Los módulos usan campos propios para no alterar las estadísticas BM25 de los cursos
+    private static final String CAMPO_MODULO_ID = "moduloId";
+    private static final String CAMPO_MODULO_TITULO = "moduloTitulo";
+    private static final String CAMPO_MODULO_CONTENIDO = "moduloContenido";
+
+    private static final String TIPO_CURSO = "curso";
+    private static final String TIPO_MODULO = "modulo";
+    private static final String SINCRONIZADO_HASTA = "sincronizadoHasta";
+
+    private static final int MAX_TERMINOS = 16;
+    private static final int LOTE_RECONSTRUCCION = 500;
+    private static final int LARGO_FRAGMENTO = 200;
+
+    /** Margen para cambios confirmados en BD cuyo evento aún no llegó al índice. */
+    private static final Duration MARGEN_SINCRONIZACION = Duration.ofMinutes(5);
+
+    private final CursoRepository cursoRepository;
+    private final ModuloRepository moduloRepository;
+    private final Path indexPath;
+    private final boolean reconstruirAlArrancar;
+    private final float boostTitulo;
+    private final float boostDescripcion;
+    private final float boostContenido;
+    private final Analyzer analyzer = new AnalizadorEspanol();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile LocalDateTime sincronizadoHasta;
+    /** Hasta terminar la sincronización inicial no se confirma, para no adelantar la marca. */
+    private volatile boolean sincronizado;
+
+    public CursoContenidoIndex(
+            CursoRepository cursoRepository,
+            ModuloRepository moduloRepository,
+            @Value("${search.fulltext.path:data/search-index}") String indexPath,
+            @Value("${search.fulltext.rebuild-on-startup:false}") boolean reconstruirAlArrancar,
+            @Value("${search.fulltext.boost.titulo:3.0}") float boostTitulo,
+            @Value("${search.fulltext.boost.descripcion:2.0}") float boostDescripcion,
+            @Value("${search.fulltext.boost.contenido:1.0}") float boostContenido) {
+        this.cursoRepository = cursoRepository;
+        this.moduloRepository = moduloRepository;
+        this.indexPath = Paths.get(indexPath);
+        this.reconstruirAlArrancar = reconstruirAlArrancar;
+        this.boostTitulo = boostTitulo;
+        this.boostDescripcion = boostDescripcion;
+        this.boostContenido = boostContenido;
+    }
+
+    @PostConstruct
+    void abrir() throws IOException {
+        Files.createDirectories(indexPath);
+        directory = FSDirectory.open(indexPath);
+        if (DirectoryReader.indexExists(directory)) {
+            String marca = SegmentInfos.readLatestCommit(directory).getUserData().get(SINCRONIZADO_HASTA);
+            sincronizadoHasta = marca == null ? null : LocalDateTime.parse(marca);
+        }
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sincronizarAlArrancar() throws IOException {
+        LocalDateTime marca = LocalDateTime.now().minus(MARGEN_SINCRONIZACION);
+        if (reconstruirAlArrancar || sincronizadoHasta == null || writer.getDocStats().numDocs == 0) {
+            reconstruir();
+            sincronizado = true;
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        Set<Long> pendientes = new HashSet<>(cursoRepository.findIdsModificadosDesde(sincronizadoHasta));
+        // Cursos eliminados o desactivados mientras la instancia estaba detenida
+        Set<Long> activos = new HashSet<>(cursoRepository.findIdsActivos());
+        for (Long indexado : idsIndexados()) {
+            if (!activos.contains(indexado)) {
+                pendientes.add(indexado);
+            }
+        }
+        pendientes.forEach(this::reindexar);
+        confirmar(marca);
+        sincronizado = true;
+        log.info("Índice de texto sincronizado: {} cursos actualizados en {} ms",
+                pendientes.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public void reconstruir() throws IOException {
+        long inicio = System.nanoTime();
+        LocalDateTime marca = LocalDateTime.now().minus(MARGEN_SINCRONIZACION);
+        writer.deleteAll();
+
+        List<Long> ids = cursoRepository.findIdsActivos();
+        for (int i = 0; i < ids.size(); i += LOTE_RECONSTRUCCION) {
+            List<Long> lote = ids.subList(i, Math.min(i + LOTE_RECONSTRUCCION, ids.size()));
+            Map<Long, List<Modulo>> modulosPorCurso = moduloRepository.findByCursoIdIn(lote).stream()
+                    .collect(Collectors.groupingBy(Modulo::getCursoId));
+            for (Curso curso : cursoRepository.findAllById(lote)) {
+                writer.addDocuments(documentos(curso,
+                        modulosPorCurso.getOrDefault(curso.getIdCurso(), List.of())));
+            }
+        }
+
+        confirmar(marca);
+        searcherManager.maybeRefresh();
+        log.info("Índice de texto reconstruido: {} cursos en {} ms",
+                ids.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCambiarCurso(CursoCatalogoCambiadoEvent event) {
+        reindexar(event.cursoId());
+    }
+
+    /**
+     * Reemplaza el bloque del curso con su estado actual en BD, o lo elimina si el curso
+     * ya no existe o está inactivo. Un error de E/S se registra sin propagarse: la escritura
+     * en BD ya está confirmada y el curso se reindexa en el próximo arranque.
+     */
+    public void reindexar(Long cursoId) {
+        Term id = new Term(CAMPO_CURSO_ID, String.valueOf(cursoId));
+        Optional<Curso> curso = cursoRepository.findById(cursoId)
+                .filter(c -> Boolean.TRUE.equals(c.getActivo()));
+        try {
+            if (curso.isPresent()) {
+                writer.updateDocuments(id,
+                        documentos(curso.get(), moduloRepository.findByCursoIdOrderByOrdenAsc(cursoId)));
+            } else {
+                writer.deleteDocuments(id);
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException ex) {
+            log.error("No se pudo reindexar el curso ID: {}", cursoId, ex);
+        }
+    }
+
+    /**
+     * Cursos ordenados por relevancia BM25 (título > descripción > contenido), cada uno con
+     * el módulo que mejor coincide y un fragmento de su contenido con los términos en {@code <em>}.
+     */
+    public List<CursoBusquedaDTO> buscar(String texto, int limite) {
+        Set<String> terminos = terminos(texto);
+        if (terminos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields stored = searcher.storedFields();
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                        .withFormatter(new DefaultPassageFormatter("<em>", "</em>", "... ", false))
+                        .build();
+
+                TopDocs cursos = searcher.search(consultaCursos(terminos), limite);
+                List<CursoBusquedaDTO> resultados = new ArrayList<>(cursos.scoreDocs.length);
+                for (ScoreDoc hit : cursos.scoreDocs) {
+                    Document curso = stored.document(hit.doc);
+                    CursoBusquedaDTO resultado = CursoBusquedaDTO.builder()
+                            .idCurso(Long.valueOf(curso.get(CAMPO_CURSO_ID)))
+                            .titulo(curso.get(CAMPO_TITULO))
+                            .score(hit.score)
+                            .build();
+                    resaltarModulo(searcher, stored, highlighter, resultado, terminos);
+                    resultados.add(resultado);
+                }
+                return resultados;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException ex) {
+            log.error("Error consultando el índice de texto", ex);
+            throw new ServiceUnavailableException("La búsqueda no está disponible en este momento");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.fulltext.commit-interval-ms:5000}")
+    public void confirmar() {
+        if (!sincronizado || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            confirmar(LocalDateTime.now().minus(MARGEN_SINCRONIZACION));
+        } catch (IOException ex) {
+            log.error("No se pudo confirmar el índice de texto en {}", indexPath, ex);
+        }
+    }
+
+    @PreDestroy
+    void cerrar() throws IOException {
+        confirmar();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    Set<String> terminos(String texto) {
+        Set<String> terminos = new LinkedHashSet<>();
+        if (texto == null || texto.isBlank()) {
+            return terminos;
+        }
+        try (TokenStream stream = analyzer.tokenStream(CAMPO_CONTENIDO, texto)) {
+            CharTermAttribute termino = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terminos.size() < MAX_TERMINOS) {
+                terminos.add(termino.toString());
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return terminos;
+    }
+
+    private void confirmar(LocalDateTime marca) throws IOException {
+        // Solo se avanza la marca en un commit: si el proceso cae, lo no confirmado se reindexa
+        writer.setLiveCommitData(Map.of(SINCRONIZADO_HASTA, marca.toString()).entrySet());
+        writer.commit();
+        sincronizadoHasta = marca;
+    }
+
+    private void resaltarModulo(IndexSearcher searcher, StoredFields stored, UnifiedHighlighter highlighter,
+                                CursoBusquedaDTO resultado, Set<String> terminos) throws IOException {
+        Query consulta = consultaModulos(resultado.getIdCurso(), terminos);
+        TopDocs mejor = searcher.search(consulta, 1);
+        if (mejor.scoreDocs.length == 0) {
+            return;
+        }
+        Document modulo = stored.document(mejor.scoreDocs[0].doc);
+        resultado.setIdModulo(Long.valueOf(modulo.get(CAMPO_MODULO_ID)));
+        resultado.setTituloModulo(modulo.get(CAMPO_MODULO_TITULO));
+
+        String fragmento = highlighter.highlight(CAMPO_MODULO_CONTENIDO, consulta, mejor)[0];
+        if (fragmento == null) {
+            // Coincidió solo el título del módulo: se muestra el inicio del contenido
+            String contenido = modulo.get(CAMPO_MODULO_CONTENIDO);
+            fragmento = contenido == null
+                    ? null
+                    : contenido.substring(0, Math.min(LARGO_FRAGMENTO, contenido.length()));
+        }
+        resultado.setFragmento(fragmento);
+    }
+
+    private Query consultaCursos(Set<String> terminos) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(CAMPO_TIPO, TIPO_CURSO)), Occur.FILTER);
+        for (String termino : terminos) {
+            builder.add(termino(CAMPO_TITULO, termino, boostTitulo), Occur.SHOULD);
+            builder.add(termino(CAMPO_DESCRIPCION, termino, boostDescripcion), Occur.SHOULD);
+            builder.add(termino(CAMPO_CONTENIDO, termino, boostContenido), Occur.SHOULD);
+        }
+        // Con un FILTER presente las cláusulas SHOULD dejan de ser obligatorias
+        return builder.setMinimumNumberShouldMatch(1).build();
+    }
+
+    private Query consultaModulos(Long cursoId, Set<String> terminos) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(CAMPO_TIPO, TIPO_MODULO)), Occur.FILTER)
+                .add(new TermQuery(new Term(CAMPO_CURSO_ID, String.valueOf(cursoId))), Occur.FILTER);
+        for (String termino : terminos) {
+            builder.add(termino(CAMPO_MODULO_TITULO, termino, boostTitulo), Occur.SHOULD);
+            builder.add(termino(CAMPO_MODULO_CONTENIDO, termino, boostContenido), Occur.SHOULD);
+        }
+        return builder.setMinimumNumberShouldMatch(1).build();
+    }
+
+    private static Query termino(String campo, String termino, float boost) {
+        return new BoostQuery(new TermQuery(new Term(campo, termino)), boost);
+    }
+
+    private Set<Long> idsIndexados() throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            int maxDoc = Math.max(1, searcher.getIndexReader().maxDoc());
+            TopDocs cursos = searcher.search(new TermQuery(new Term(CAMPO_TIPO, TIPO_CURSO)), maxDoc);
+            StoredFields stored = searcher.storedFields();
+            Set<Long> ids = new HashSet<>();
+            for (ScoreDoc hit : cursos.scoreDocs) {
+                ids.add(Long.valueOf(stored.document(hit.doc).get(CAMPO_CURSO_ID)));
+            }
+            return ids;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static List<Document> documentos(Curso curso, List<Modulo> modulos) {
+        String cursoId = String.valueOf(curso.getIdCurso());
+        List<Document> bloque = new ArrayList<>(modulos.size() + 1);
+
+        Document documentoCurso = new Document();
+        documentoCurso.add(new StringField(CAMPO_TIPO, TIPO_CURSO, Field.Store.NO));
+        documentoCurso.add(new StringField(CAMPO_CURSO_ID, cursoId, Field.Store.YES));
+        documentoCurso.add(new TextField(CAMPO_TITULO, curso.getTitulo(), Field.Store.YES));
+        if (curso.getDescripcion() != null) {
+            documentoCurso.add(new TextField(CAMPO_DESCRIPCION, curso.getDescripcion(), Field.Store.NO));
+        }
+
+        List<Modulo> ordenados = new ArrayList<>(modulos);
+        ordenados.sort(Comparator.comparing(Modulo::getOrden, Comparator.nullsLast(Comparator.naturalOrder())));
+        for (Modulo modulo : ordenados) {
+            if (modulo.getContenido() != null) {
+                documentoCurso.add(new TextField(CAMPO_CONTENIDO, modulo.getContenido(), Field.Store.NO));
+            }
+
+            Document documentoModulo = new Document();
+            documentoModulo.add(new StringField(CAMPO_TIPO, TIPO_MODULO, Field.Store.NO));
+            documentoModulo.add(new StringField(CAMPO_CURSO_ID, cursoId, Field.Store.NO));
+            documentoModulo.add(new StoredField(CAMPO_MODULO_ID, String.valueOf(modulo.getIdModulo())));
+            documentoModulo.add(new TextField(CAMPO_MODULO_TITULO, modulo.getTitulo(), Field.Store.YES));
+            if (modulo.getContenido() != null) {
+                documentoModulo.add(new TextField(CAMPO_MODULO_CONTENIDO, modulo.getContenido(), Field.Store.YES));
+            }
+            bloque.add(documentoModulo);
+        }
+
+        bloque.add(documentoCurso);
+        return bloque;
+    }
+}
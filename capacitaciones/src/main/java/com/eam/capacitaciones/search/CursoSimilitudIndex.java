@@ -0,0 +1,399 @@
+package com.eam.capacitaciones.search;
+
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Modulo;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.ModuloRepository;
+import com.eam.capacitaciones.util.ReconstruccionEnCaliente;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Cursos parecidos por contenido, para poder recomendar cursos nuevos que aún no tienen
+ * inscripciones.
+ *
+ * Cada curso activo es un vector TF-IDF disperso y normalizado sobre su título (con doble peso),
+ * descripción, nivel y títulos de módulos, analizados con {@link AnalizadorEspanol}. Los N
+ * vecinos más cercanos por coseno se precalculan en paralelo al arrancar y cada noche. Cuando un
+ * curso cambia solo se recalcula, en segundo plano, su vector y sus vecinos, y se corrigen las
+ * listas de los cursos afectados; los pesos IDF de los demás vectores se refrescan en la
+ * siguiente reconstrucción.
+ */
+@Component
+@Slf4j
+public class CursoSimilitudIndex {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private static final String CAMPO = "similitud";
+    private static final int LOTE_CARGA = 500;
+
+    /**
+     * Un término presente en más de esta fracción de cursos aporta muy poco al coseno y
+     * dispararía el número de candidatos; no se usa para buscarlos.
+     */
+    private static final double MAX_FRACCION_CANDIDATOS = 0.5;
+
+    private static final Comparator<Vecino> MEJOR_PRIMERO = Comparator
+            .comparingDouble(Vecino::similitud).reversed()
+            .thenComparingLong(Vecino::cursoId);
+
+    private final CursoRepository cursoRepository;
+    private final ModuloRepository moduloRepository;
+    private final Analyzer analyzer = new AnalizadorEspanol();
+    private final int maxVecinos;
+    private final int paralelismo;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, Vector> vectores = new HashMap<>();
+    /** Término → (curso → peso del término en el vector del curso). */
+    private Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private Map<Long, List<Vecino>> vecinos = new HashMap<>();
+
+    /** Los cursos modificados mientras se reconstruye se recalculan tras el intercambio. */
+    private final ReconstruccionEnCaliente<Long> reconstruccion;
+    /** Recalcula fuera del hilo que confirma la transacción, de uno en uno. */
+    private final ExecutorService actualizaciones;
+
+    public CursoSimilitudIndex(CursoRepository cursoRepository,
+                               ModuloRepository moduloRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${similarity.neighbors:20}") int maxVecinos,
+                               @Value("${similarity.parallelism:0}") int paralelismo) {
+        this.cursoRepository = cursoRepository;
+        this.moduloRepository = moduloRepository;
+        this.maxVecinos = Math.max(1, maxVecinos);
+        this.paralelismo = paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors();
+        this.reconstruccion = new ReconstruccionEnCaliente<>("Índice de similitud", lock, this::size);
+        this.actualizaciones = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "similitud-actualizar");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("catalogo.similitud.cursos", this, CursoSimilitudIndex::size)
+                .description("Cursos activos presentes en el índice de similitud")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        reconstruir();
+    }
+
+    @Scheduled(cron = "${similarity.rebuild-cron:0 15 4 * * *}")
+    public void reconstruir() {
+        reconstruccion.reconstruir(this::construir, nuevo -> {
+            vectores = nuevo.vectores();
+            postings = nuevo.postings();
+            vecinos = nuevo.vecinos();
+        }, this::actualizar);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        actualizaciones.shutdownNow();
+    }
+
+    private Construccion construir() {
+        Map<Long, Map<String, Integer>> frecuencias = new HashMap<>();
+        List<Long> ids = cursoRepository.findIdsActivos();
+        for (int i = 0; i < ids.size(); i += LOTE_CARGA) {
+            List<Long> lote = ids.subList(i, Math.min(i + LOTE_CARGA, ids.size()));
+            Map<Long, List<Modulo>> modulosPorCurso = moduloRepository.findByCursoIdIn(lote).stream()
+                    .collect(Collectors.groupingBy(Modulo::getCursoId));
+            for (Curso curso : cursoRepository.findAllById(lote)) {
+                frecuencias.put(curso.getIdCurso(),
+                        frecuencias(curso, modulosPorCurso.getOrDefault(curso.getIdCurso(), List.of())));
+            }
+        }
+
+        Map<String, Integer> documentosPorTermino = new HashMap<>();
+        frecuencias.values().forEach(tf -> tf.keySet().forEach(t -> documentosPorTermino.merge(t, 1, Integer::sum)));
+        int totalCursos = frecuencias.size();
+
+        Map<Long, Vector> nuevosVectores = new HashMap<>(frecuencias.size() * 2);
+        Map<String, Map<Long, Float>> nuevosPostings = new HashMap<>();
+        frecuencias.forEach((cursoId, tf) -> {
+            Vector vector = vectorizar(tf, documentosPorTermino::get, totalCursos);
+            nuevosVectores.put(cursoId, vector);
+            indexar(nuevosPostings, cursoId, vector);
+        });
+
+        Map<Long, List<Vecino>> nuevosVecinos = new ConcurrentHashMap<>(nuevosVectores.size() * 2);
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            pool.submit(() -> nuevosVectores.keySet().parallelStream().forEach(cursoId ->
+                    nuevosVecinos.put(cursoId, calcularVecinos(cursoId, nuevosVectores, nuevosPostings))))
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
+        return new Construccion(nuevosVectores, nuevosPostings, new HashMap<>(nuevosVecinos));
+    }
+
+    /**
+     * Recalcular los vecinos recorre las listas de todos los cursos bajo el lock de escritura;
+     * se hace en segundo plano para no alargar la petición que modificó el curso.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCambiarCurso(CursoCatalogoCambiadoEvent event) {
+        Long cursoId = event.cursoId();
+        reconstruccion.anotar(cursoId);
+        actualizaciones.execute(() -> {
+            try {
+                actualizar(cursoId);
+            } catch (RuntimeException ex) {
+                // La siguiente reconstrucción lo recoge
+                log.warn("No se pudo actualizar la similitud del curso ID: {}", cursoId, ex);
+            }
+        });
+    }
+
+    /**
+     * Relee el curso y recalcula su vector y sus vecinos. En los demás cursos solo se tocan
+     * las listas donde el curso entra, cambia de posición o desaparece.
+     */
+    public void actualizar(Long cursoId) {
+        Optional<Curso> curso = cursoRepository.findById(cursoId)
+                .filter(c -> Boolean.TRUE.equals(c.getActivo()));
+        Map<String, Integer> tf = curso
+                .map(c -> frecuencias(c, moduloRepository.findByCursoIdOrderByOrdenAsc(cursoId)))
+                .orElse(null);
+
+        lock.writeLock().lock();
+        try {
+            Vector anterior = vectores.remove(cursoId);
+            if (anterior != null) {
+                desindexar(postings, cursoId, anterior);
+            }
+            vecinos.remove(cursoId);
+
+            Map<Long, Float> similitudes = Map.of();
+            if (tf != null) {
+                int totalCursos = vectores.size() + 1;
+                Vector vector = vectorizar(tf, t -> {
+                    Map<Long, Float> posting = postings.get(t);
+                    return (posting == null ? 0 : posting.size()) + 1;
+                }, totalCursos);
+                vectores.put(cursoId, vector);
+                indexar(postings, cursoId, vector);
+                similitudes = productos(cursoId, vectores, postings);
+                vecinos.put(cursoId, mejores(similitudes));
+            }
+
+            // La similitud es simétrica: se corrigen las listas de los demás cursos
+            for (Map.Entry<Long, List<Vecino>> entrada : vecinos.entrySet()) {
+                Long otroId = entrada.getKey();
+                if (otroId.equals(cursoId)) {
+                    continue;
+                }
+                List<Vecino> lista = entrada.getValue();
+                boolean loContenia = lista.stream().anyMatch(v -> v.cursoId().equals(cursoId));
+                Float similitud = similitudes.get(otroId);
+                if (loContenia && similitud == null) {
+                    // Ha dejado de parecerse (o ya no está activo): la lista se recalcula entera
+                    entrada.setValue(calcularVecinos(otroId, vectores, postings));
+                } else if (similitud != null && (loContenia || admite(lista, similitud, cursoId))) {
+                    entrada.setValue(insertar(lista, new Vecino(cursoId, similitud)));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de los cursos más parecidos al indicado, de mayor a menor similitud. Vacío si el
+     * curso no está activo o no comparte términos con ningún otro.
+     */
+    public List<Long> similares(Long cursoId, int limite) {
+        lock.readLock().lock();
+        try {
+            List<Vecino> lista = vecinos.getOrDefault(cursoId, List.of());
+            return lista.stream().limit(limite).map(Vecino::cursoId).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return vectores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Vecino> calcularVecinos(Long cursoId, Map<Long, Vector> vectores,
+                                         Map<String, Map<Long, Float>> postings) {
+        return mejores(productos(cursoId, vectores, postings));
+    }
+
+    /**
+     * Coseno con cada curso que comparte algún término (salvo los muy frecuentes).
+     */
+    private Map<Long, Float> productos(Long cursoId, Map<Long, Vector> vectores,
+                                       Map<String, Map<Long, Float>> postings) {
+        Vector vector = vectores.get(cursoId);
+        int maxCandidatos = Math.max(maxVecinos, (int) (vectores.size() * MAX_FRACCION_CANDIDATOS));
+        Map<Long, Float> productos = new HashMap<>();
+        for (int k = 0; k < vector.terminos().length; k++) {
+            Map<Long, Float> posting = postings.get(vector.terminos()[k]);
+            if (posting == null || posting.size() > maxCandidatos) {
+                continue;
+            }
+            float peso = vector.pesos()[k];
+            posting.forEach((otroId, otroPeso) -> {
+                if (!otroId.equals(cursoId)) {
+                    productos.merge(otroId, peso * otroPeso, Float::sum);
+                }
+            });
+        }
+        return productos;
+    }
+
+    private List<Vecino> mejores(Map<Long, Float> productos) {
+        PriorityQueue<Vecino> mejores = new PriorityQueue<>(maxVecinos + 1, MEJOR_PRIMERO.reversed());
+        productos.forEach((otroId, similitud) -> {
+            mejores.offer(new Vecino(otroId, similitud));
+            if (mejores.size() > maxVecinos) {
+                mejores.poll();
+            }
+        });
+        List<Vecino> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(MEJOR_PRIMERO);
+        return List.copyOf(ordenados);
+    }
+
+    private boolean admite(List<Vecino> lista, float similitud, Long cursoId) {
+        if (lista.size() < maxVecinos) {
+            return true;
+        }
+        return MEJOR_PRIMERO.compare(new Vecino(cursoId, similitud), lista.get(lista.size() - 1)) < 0;
+    }
+
+    private List<Vecino> insertar(List<Vecino> lista, Vecino nuevo) {
+        List<Vecino> resultado = new ArrayList<>(lista.size() + 1);
+        for (Vecino vecino : lista) {
+            if (!vecino.cursoId().equals(nuevo.cursoId())) {
+                resultado.add(vecino);
+            }
+        }
+        resultado.add(nuevo);
+        resultado.sort(MEJOR_PRIMERO);
+        return List.copyOf(resultado.subList(0, Math.min(maxVecinos, resultado.size())));
+    }
+
+    /**
+     * TF sublineal (1 + ln tf) por IDF suavizado, normalizado a norma 1 para que el producto
+     * escalar sea el coseno.
+     */
+    private static Vector vectorizar(Map<String, Integer> tf, ToIntFunction<String> df,
+                                     int totalCursos) {
+        String[] terminos = tf.keySet().toArray(new String[0]);
+        Arrays.sort(terminos);
+        float[] pesos = new float[terminos.length];
+        double norma = 0;
+        for (int k = 0; k < terminos.length; k++) {
+            double idf = Math.log((totalCursos + 1.0) / (df.applyAsInt(terminos[k]) + 1.0)) + 1.0;
+            double peso = (1 + Math.log(tf.get(terminos[k]))) * idf;
+            pesos[k] = (float) peso;
+            norma += peso * peso;
+        }
+        if (norma > 0) {
+            float inversa = (float) (1 / Math.sqrt(norma));
+            for (int k = 0; k < pesos.length; k++) {
+                pesos[k] *= inversa;
+            }
+        }
+        return new Vector(terminos, pesos);
+    }
+
+    private static void indexar(Map<String, Map<Long, Float>> postings, Long cursoId, Vector vector) {
+        for (int k = 0; k < vector.terminos().length; k++) {
+            postings.computeIfAbsent(vector.terminos()[k], t -> new HashMap<>()).put(cursoId, vector.pesos()[k]);
+        }
+    }
+
+    private static void desindexar(Map<String, Map<Long, Float>> postings, Long cursoId, Vector vector) {
+        for (String termino : vector.terminos()) {
+            Map<Long, Float> posting = postings.get(termino);
+            if (posting != null && posting.remove(cursoId) != null && posting.isEmpty()) {
+                postings.remove(termino);
+            }
+        }
+    }
+
+    Map<String, Integer> frecuencias(Curso curso, List<Modulo> modulos) {
+        Map<String, Integer> tf = new HashMap<>();
+        // El título cuenta doble: es lo que mejor describe el curso
+        contar(tf, curso.getTitulo(), 2);
+        contar(tf, curso.getDescripcion(), 1);
+        for (Modulo modulo : modulos) {
+            contar(tf, modulo.getTitulo(), 1);
+        }
+        if (curso.getNivel() != null) {
+            tf.merge("nivel:" + curso.getNivel().name().toLowerCase(), 1, Integer::sum);
+        }
+        return tf;
+    }
+
+    private void contar(Map<String, Integer> tf, String texto, int peso) {
+        if (texto == null || texto.isBlank()) {
+            return;
+        }
+        try (TokenStream stream = analyzer.tokenStream(CAMPO, texto)) {
+            CharTermAttribute termino = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tf.merge(termino.toString(), peso, Integer::sum);
+            }
+            stream.end();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private record Vector(String[] terminos, float[] pesos) {
+    }
+
+    private record Construccion(Map<Long, Vector> vectores, Map<String, Map<Long, Float>> postings,
+                                Map<Long, List<Vecino>> vecinos) {
+    }
+
+    private record Vecino(Long cursoId, float similitud) {
+    }
+}
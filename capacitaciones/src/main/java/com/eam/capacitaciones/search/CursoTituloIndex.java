@@ -0,0 +1,272 @@
+package com.eam.capacitaciones.search;
+
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.dto.response.CursoSugerenciaDTO;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.projection.CursoTitulo;
+import com.eam.capacitaciones.util.ReconstruccionEnCaliente;
+import com.eam.capacitaciones.util.TextoNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de los títulos de cursos activos para el autocompletado.
+ *
+ * Las consultas de 3 o más caracteres se resuelven intersectando las listas de trigramas
+ * y verificando la subcadena; las más cortas buscan por prefijo de palabra. Se construye al
+ * arrancar y se mantiene al día con los eventos de CursoService una vez confirmados.
+ */
+@Component
+public class CursoTituloIndex {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+
+    private static final int N = 3;
+
+    /** Mejor primero: título que empieza por la consulta, luego palabra, luego subcadena. */
+    private static final Comparator<Resultado> RANKING = Comparator
+            .comparingInt(Resultado::rango)
+            .thenComparingInt(r -> r.documento().normalizado().length())
+            .thenComparingLong(r -> r.documento().idCurso());
+
+    private final CursoRepository cursoRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, Documento> documentos = new HashMap<>();
+    private Map<String, Set<Long>> trigramas = new HashMap<>();
+    private NavigableMap<String, Set<Long>> palabras = new TreeMap<>();
+
+    /** Los cursos modificados mientras se reconstruye se releen tras el intercambio. */
+    private final ReconstruccionEnCaliente<Long> reconstruccion;
+
+    public CursoTituloIndex(CursoRepository cursoRepository, MeterRegistry meterRegistry) {
+        this.cursoRepository = cursoRepository;
+        this.reconstruccion = new ReconstruccionEnCaliente<>("Índice de títulos", lock, this::size);
+        Gauge.builder("catalogo.titulos.indexados", this, CursoTituloIndex::size)
+                .description("Cursos activos presentes en el índice de títulos")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        reconstruccion.reconstruir(this::construir, nuevo -> {
+            documentos = nuevo.documentos();
+            trigramas = nuevo.trigramas();
+            palabras = nuevo.palabras();
+        }, this::releer);
+    }
+
+    private Indice construir() {
+        Indice nuevo = new Indice(new HashMap<>(), new HashMap<>(), new TreeMap<>());
+        for (CursoTitulo curso : cursoRepository.findTitulosActivos()) {
+            agregar(nuevo.documentos(), nuevo.trigramas(), nuevo.palabras(), documento(curso));
+        }
+        return nuevo;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCambiarCurso(CursoCatalogoCambiadoEvent event) {
+        reconstruccion.anotar(event.cursoId());
+        releer(event.cursoId());
+    }
+
+    public void indexar(Long cursoId, String titulo) {
+        Documento documento = documento(new CursoTitulo(cursoId, titulo));
+        lock.writeLock().lock();
+        try {
+            quitar(cursoId);
+            agregar(documentos, trigramas, palabras, documento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long cursoId) {
+        lock.writeLock().lock();
+        try {
+            quitar(cursoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Devuelve hasta {@code limite} cursos activos cuyo título contiene la consulta,
+     * ignorando mayúsculas y tildes, ordenados por relevancia.
+     */
+    public List<CursoSugerenciaDTO> buscar(String consulta, int limite) {
+        String q = TextoNormalizer.normalizar(consulta);
+        if (q.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, RANKING.reversed());
+        lock.readLock().lock();
+        try {
+            if (q.length() < N) {
+                candidatosPorPrefijo(q, mejores, limite);
+            } else {
+                candidatosPorTrigramas(q, mejores, limite);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Resultado> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(RANKING);
+        List<CursoSugerenciaDTO> sugerencias = new ArrayList<>(ordenados.size());
+        for (Resultado resultado : ordenados) {
+            sugerencias.add(CursoSugerenciaDTO.builder()
+                    .idCurso(resultado.documento().idCurso())
+                    .titulo(resultado.documento().titulo())
+                    .build());
+        }
+        return sugerencias;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void releer(Long cursoId) {
+        cursoRepository.findTituloActivoById(cursoId).ifPresentOrElse(
+                curso -> indexar(curso.idCurso(), curso.titulo()),
+                () -> eliminar(cursoId));
+    }
+
+    private void candidatosPorPrefijo(String q, PriorityQueue<Resultado> mejores, int limite) {
+        Set<Long> vistos = new HashSet<>();
+        for (Set<Long> ids : palabras.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+            for (Long id : ids) {
+                if (vistos.add(id)) {
+                    ofrecer(mejores, documentos.get(id), q, limite);
+                }
+            }
+        }
+    }
+
+    private void candidatosPorTrigramas(String q, PriorityQueue<Resultado> mejores, int limite) {
+        Set<String> grams = trigramasDe(q);
+        @SuppressWarnings("unchecked")
+        Set<Long>[] listas = new Set[grams.size()];
+        int i = 0;
+        for (String gram : grams) {
+            Set<Long> ids = trigramas.get(gram);
+            if (ids == null) {
+                return;
+            }
+            listas[i++] = ids;
+        }
+        // Se recorre la lista más corta y se comprueba la pertenencia en las demás
+        Arrays.sort(listas, Comparator.comparingInt(Set::size));
+
+        for (Long id : listas[0]) {
+            boolean enTodas = true;
+            for (int j = 1; j < listas.length && enTodas; j++) {
+                enTodas = listas[j].contains(id);
+            }
+            if (enTodas) {
+                Documento documento = documentos.get(id);
+                // Los trigramas pueden coincidir en otro orden: se confirma la subcadena
+                if (documento.normalizado().contains(q)) {
+                    ofrecer(mejores, documento, q, limite);
+                }
+            }
+        }
+    }
+
+    private static void ofrecer(PriorityQueue<Resultado> mejores, Documento documento, String q, int limite) {
+        mejores.offer(new Resultado(documento, rango(documento.normalizado(), q)));
+        if (mejores.size() > limite) {
+            mejores.poll();
+        }
+    }
+
+    private static int rango(String normalizado, String q) {
+        if (normalizado.startsWith(q)) {
+            return 0;
+        }
+        return normalizado.contains(" " + q) ? 1 : 2;
+    }
+
+    private void quitar(Long cursoId) {
+        Documento anterior = documentos.remove(cursoId);
+        if (anterior == null) {
+            return;
+        }
+        for (String gram : trigramasDe(" " + anterior.normalizado() + " ")) {
+            quitarDe(trigramas, gram, cursoId);
+        }
+        for (String palabra : anterior.palabras()) {
+            quitarDe(palabras, palabra, cursoId);
+        }
+    }
+
+    private static void agregar(Map<Long, Documento> documentos, Map<String, Set<Long>> trigramas,
+                                Map<String, Set<Long>> palabras, Documento documento) {
+        documentos.put(documento.idCurso(), documento);
+        for (String gram : trigramasDe(" " + documento.normalizado() + " ")) {
+            trigramas.computeIfAbsent(gram, k -> new HashSet<>()).add(documento.idCurso());
+        }
+        for (String palabra : documento.palabras()) {
+            palabras.computeIfAbsent(palabra, k -> new HashSet<>()).add(documento.idCurso());
+        }
+    }
+
+    private static void quitarDe(Map<String, Set<Long>> postings, String clave, Long cursoId) {
+        Set<Long> ids = postings.get(clave);
+        if (ids != null && ids.remove(cursoId) && ids.isEmpty()) {
+            postings.remove(clave);
+        }
+    }
+
+    private static Set<String> trigramasDe(String texto) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            grams.add(texto.substring(i, i + N));
+        }
+        return grams;
+    }
+
+    private static Documento documento(CursoTitulo curso) {
+        String normalizado = TextoNormalizer.normalizar(curso.titulo());
+        Set<String> palabras = normalizado.isEmpty()
+                ? Set.of()
+                : new HashSet<>(Arrays.asList(normalizado.split(" ")));
+        return new Documento(curso.idCurso(), curso.titulo(), normalizado, palabras);
+    }
+
+    private record Documento(Long idCurso, String titulo, String normalizado, Set<String> palabras) {
+    }
+
+    private record Indice(Map<Long, Documento> documentos, Map<String, Set<Long>> trigramas,
+                          NavigableMap<String, Set<Long>> palabras) {
+    }
+
+    private record Resultado(Documento documento, int rango) {
+    }
+}
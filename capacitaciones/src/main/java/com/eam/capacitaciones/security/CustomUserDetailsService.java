@@ -5,6 +5,7 @@ import com.eam.capacitaciones.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -13,7 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UsuarioRepository usuarioRepository;
 
@@ -48,4 +49,22 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         return CustomUserDetails.build(usuario);
     }
+
+    /**
+     * Persiste el hash migrado tras un login exitoso. Se llama después de verificar la
+     * contraseña, cuando la transacción de la búsqueda ya ha terminado.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        "Usuario no encontrado con email: " + user.getUsername()));
+
+        usuario.setPassword(newPassword);
+        usuarioRepository.save(usuario);
+        log.info("Hash de contraseña actualizado para usuario ID: {}", usuario.getIdUsuario());
+
+        return CustomUserDetails.build(usuario);
+    }
 }
@@ -1,11 +1,13 @@
 package com.eam.capacitaciones.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,8 +23,19 @@ import java.io.IOException;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String ROLE_PREFIX = "ROLE_";
+
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final SecurityEpochRegistry securityEpochRegistry;
+    private final TokenRevocationStore tokenRevocationStore;
+
+    /**
+     * Si está activo, el usuario se construye a partir de los claims del access token
+     * sin consultar la tabla Usuario en cada petición.
+     */
+    @Value("${jwt.stateless-auth.enabled:false}")
+    private boolean statelessAuthEnabled;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,24 +46,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
 
             if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
+                UserDetails userDetails = resolveUserDetails(jwt);
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    userDetails,
+                                    null,
+                                    userDetails.getAuthorities()
+                            );
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                
-                log.debug("Usuario autenticado: {} con roles: {}", 
-                         userDetails.getUsername(), 
-                         userDetails.getAuthorities());
+                    log.debug("Usuario autenticado: {} con roles: {}",
+                             userDetails.getUsername(),
+                             userDetails.getAuthorities());
+                }
             }
         } catch (Exception ex) {
             log.error("No se pudo establecer la autenticación del usuario en el contexto de seguridad", ex);
@@ -59,13 +72,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolveUserDetails(String jwt) {
+        // validateToken deja el token en la caché de verificados: esta lectura no vuelve a verificar la firma
+        Claims claims = tokenProvider.getVerifiedClaims(jwt);
+        Long userId = Long.parseLong(claims.getSubject());
+
+        if (tokenRevocationStore.isRevoked(claims)) {
+            log.debug("Token revocado para usuario ID: {}", userId);
+            return null;
+        }
+
+        String roles = claims.get("roles", String.class);
+        if (!statelessAuthEnabled || !StringUtils.hasText(roles)) {
+            // Los refresh tokens no llevan roles: siempre se resuelven contra la BD
+            return customUserDetailsService.loadUserById(userId);
+        }
+
+        if (!securityEpochRegistry.esTokenVigente(userId, tokenProvider.getIssuedAt(claims))) {
+            log.debug("Token emitido antes del último cambio de seguridad del usuario ID: {}", userId);
+            return null;
+        }
+
+        return new CustomUserDetails(
+                userId,
+                claims.get("nombre", String.class),
+                claims.get("email", String.class),
+                null,
+                extractRol(roles),
+                true
+        );
+    }
+
+    private String extractRol(String roles) {
+        String rol = roles.split(",")[0].trim();
+        return rol.startsWith(ROLE_PREFIX) ? rol.substring(ROLE_PREFIX.length()) : rol;
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        
+
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7); 
+            return bearerToken.substring(7);
         }
-        
+
         return null;
     }
-}
\ No newline at end of file
+}
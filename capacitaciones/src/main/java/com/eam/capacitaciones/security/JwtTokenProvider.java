@@ -1,7 +1,12 @@
 package com.eam.capacitaciones.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -10,7 +15,12 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
@@ -18,6 +28,9 @@ import java.util.stream.Collectors;
 @SuppressWarnings("deprecation")
 public class JwtTokenProvider {
 
+    /** Instante de emisión en milisegundos; el claim iat estándar solo guarda segundos. */
+    static final String CLAIM_EMITIDO_MS = "iat_ms";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -27,14 +40,41 @@ public class JwtTokenProvider {
     @Value("${jwt.refresh-expiration}")
     private long jwtRefreshExpirationMs;
 
-    private SecretKey getSigningKey() {
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * Tokens cuya firma ya fue verificada, indexados por el SHA-256 del token.
+     * Cada entrada vive como máximo hasta el exp del propio token; al llenarse se
+     * desalojan las menos usadas.
+     */
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        // JwtParser es inmutable y thread-safe, se construye una sola vez
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, verifiedCacheMaxSize))
+                .expireAfter(new HastaExpiracion())
+                .build();
+    }
+
+    private SecretKey getSigningKey() {
+        return signingKey;
     }
 
     public String generateToken(Authentication authentication) {
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-        
+
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
@@ -43,10 +83,12 @@ public class JwtTokenProvider {
                 .collect(Collectors.joining(","));
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(String.valueOf(userDetails.getId()))
                 .claim("email", userDetails.getUsername())
                 .claim("roles", roles)
                 .claim("nombre", userDetails.getNombre())
+                .claim(CLAIM_EMITIDO_MS, now.getTime())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey())
@@ -58,6 +100,7 @@ public class JwtTokenProvider {
         Date expiryDate = new Date(now.getTime() + jwtRefreshExpirationMs);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(String.valueOf(userId))
                 .claim("type", "refresh")
                 .setIssuedAt(now)
@@ -66,32 +109,38 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-            .setSigningKey(getSigningKey().getEncoded())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+    /**
+     * Devuelve los claims de un token con firma válida y no expirado.
+     * La firma se verifica una sola vez por token; las llamadas siguientes
+     * se resuelven desde la caché hasta que el token expira.
+     */
+    public Claims getVerifiedClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT claims string is empty");
+        }
+
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached.claims();
+        }
 
-        return Long.parseLong(claims.getSubject());
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        cacheVerified(digest, claims);
+        return claims;
     }
 
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parser()
-            .setSigningKey(getSigningKey().getEncoded())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+    public Long getUserIdFromToken(String token) {
+        return Long.parseLong(getVerifiedClaims(token).getSubject());
+    }
 
-        return claims.get("email", String.class);
+    public String getEmailFromToken(String token) {
+        return getVerifiedClaims(token).get("email", String.class);
     }
 
     public boolean validateToken(String token) {
         try {
-                    Jwts.parser()
-                        .setSigningKey(getSigningKey().getEncoded())
-                        .build()
-                        .parseClaimsJws(token);
+            getVerifiedClaims(token);
             return true;
         } catch (SecurityException ex) {
             log.error("Invalid JWT signature");
@@ -109,33 +158,73 @@ public class JwtTokenProvider {
 
     public boolean isTokenExpired(String token) {
         try {
-                Claims claims = Jwts.parser()
-                    .setSigningKey(getSigningKey().getEncoded())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            return claims.getExpiration().before(new Date());
+            return getVerifiedClaims(token).getExpiration().before(new Date());
         } catch (ExpiredJwtException ex) {
             return true;
         }
     }
 
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-            .setSigningKey(getSigningKey().getEncoded())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
-
-        return claims.getExpiration();
+        return getVerifiedClaims(token).getExpiration();
     }
 
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-            .setSigningKey(getSigningKey().getEncoded())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        return getVerifiedClaims(token);
+    }
+
+    /**
+     * Instante de emisión con milisegundos. Los tokens emitidos antes de existir el claim
+     * {@value #CLAIM_EMITIDO_MS} usan el iat truncado al segundo, que nunca es posterior al real.
+     */
+    public Date getIssuedAt(Claims claims) {
+        Long emitidoMs = claims.get(CLAIM_EMITIDO_MS, Long.class);
+        return emitidoMs != null ? new Date(emitidoMs) : claims.getIssuedAt();
+    }
+
+    long getVerifiedCacheSize() {
+        verifiedTokens.cleanUp();
+        return verifiedTokens.estimatedSize();
+    }
+
+    private void cacheVerified(String digest, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || verifiedCacheMaxSize <= 0) {
+            return;
+        }
+        verifiedTokens.put(digest, new VerifiedToken(claims, expiration.getTime()));
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 no disponible", ex);
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
+    }
+
+    /**
+     * Cada token sale de la caché en su propio exp; leerlo no alarga su vida.
+     */
+    private static final class HastaExpiracion implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,158 @@
+package com.eam.capacitaciones.security;
+
+import com.eam.capacitaciones.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los intentos de login fallidos por email y por IP de origen.
+ *
+ * Tras {@code delay-after} fallos dentro de la ventana cada intento debe esperar un retardo
+ * que se duplica con cada fallo; al llegar a {@code lockout-after} la clave queda bloqueada
+ * temporalmente. La verificación ocurre antes del AuthenticationManager, de modo que un
+ * intento limitado no consulta la BD ni ejecuta BCrypt.
+ */
+@Component
+@Slf4j
+public class LoginAttemptThrottler {
+
+    private final StripedFailureCounter porEmail;
+    private final StripedFailureCounter porIp;
+    private final LongSupplier clock;
+
+    private final Counter fallos;
+    private final Counter rechazosEmail;
+    private final Counter rechazosIp;
+    private final Counter bloqueos;
+
+    @Autowired
+    public LoginAttemptThrottler(
+            MeterRegistry meterRegistry,
+            @Value("${security.login-throttle.window-seconds:900}") long windowSeconds,
+            @Value("${security.login-throttle.email.delay-after:3}") int emailDelayAfter,
+            @Value("${security.login-throttle.email.lockout-after:10}") int emailLockoutAfter,
+            @Value("${security.login-throttle.ip.delay-after:20}") int ipDelayAfter,
+            @Value("${security.login-throttle.ip.lockout-after:100}") int ipLockoutAfter,
+            @Value("${security.login-throttle.base-delay-ms:1000}") long baseDelayMs,
+            @Value("${security.login-throttle.max-delay-ms:60000}") long maxDelayMs,
+            @Value("${security.login-throttle.lockout-seconds:900}") long lockoutSeconds) {
+        this(meterRegistry,
+                new StripedFailureCounter(windowSeconds * 1000, emailDelayAfter, emailLockoutAfter,
+                        baseDelayMs, maxDelayMs, lockoutSeconds * 1000),
+                new StripedFailureCounter(windowSeconds * 1000, ipDelayAfter, ipLockoutAfter,
+                        baseDelayMs, maxDelayMs, lockoutSeconds * 1000),
+                System::currentTimeMillis);
+    }
+
+    LoginAttemptThrottler(MeterRegistry meterRegistry,
+                          StripedFailureCounter porEmail,
+                          StripedFailureCounter porIp,
+                          LongSupplier clock) {
+        this.porEmail = porEmail;
+        this.porIp = porIp;
+        this.clock = clock;
+
+        this.fallos = Counter.builder("auth.login.failures")
+                .description("Intentos de login fallidos")
+                .register(meterRegistry);
+        this.rechazosEmail = Counter.builder("auth.login.throttled")
+                .description("Intentos de login rechazados antes de autenticar")
+                .tag("key", "email")
+                .register(meterRegistry);
+        this.rechazosIp = Counter.builder("auth.login.throttled")
+                .description("Intentos de login rechazados antes de autenticar")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        this.bloqueos = Counter.builder("auth.login.lockouts")
+                .description("Bloqueos temporales aplicados")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.login.tracked", porEmail, StripedFailureCounter::size)
+                .description("Claves con fallos recientes")
+                .tag("key", "email")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.tracked", porIp, StripedFailureCounter::size)
+                .description("Claves con fallos recientes")
+                .tag("key", "ip")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.locked", porEmail, c -> c.lockedCount(clock.getAsLong()))
+                .description("Claves bloqueadas temporalmente")
+                .tag("key", "email")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.locked", porIp, c -> c.lockedCount(clock.getAsLong()))
+                .description("Claves bloqueadas temporalmente")
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lanza TooManyRequestsException si el email o la IP deben esperar antes de otro intento.
+     */
+    public void verificarPermitido(String email, String ip) {
+        long now = clock.getAsLong();
+
+        long esperaEmail = porEmail.retryAfterMs(normalizar(email), now);
+        if (esperaEmail > 0) {
+            rechazosEmail.increment();
+            throw limitado(esperaEmail);
+        }
+
+        if (ip != null) {
+            long esperaIp = porIp.retryAfterMs(ip, now);
+            if (esperaIp > 0) {
+                rechazosIp.increment();
+                throw limitado(esperaIp);
+            }
+        }
+    }
+
+    public void registrarFallo(String email, String ip) {
+        long now = clock.getAsLong();
+        fallos.increment();
+
+        if (porEmail.recordFailure(normalizar(email), now)) {
+            bloqueos.increment();
+            log.warn("Login bloqueado temporalmente para email: {}", email);
+        }
+        if (ip != null && porIp.recordFailure(ip, now)) {
+            bloqueos.increment();
+            log.warn("Login bloqueado temporalmente para IP: {}", ip);
+        }
+    }
+
+    /**
+     * Un login exitoso limpia el historial del email; el de la IP se conserva porque
+     * una misma IP puede estar probando muchas cuentas.
+     */
+    public void registrarExito(String email) {
+        porEmail.reset(normalizar(email));
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-throttle.purge-interval-ms:60000}")
+    public void purgarExpirados() {
+        long now = clock.getAsLong();
+        int eliminadas = porEmail.purge(now) + porIp.purge(now);
+        if (eliminadas > 0) {
+            log.debug("Contadores de login expirados eliminados: {}", eliminadas);
+        }
+    }
+
+    private TooManyRequestsException limitado(long esperaMs) {
+        long segundos = Math.max(1, (esperaMs + 999) / 1000);
+        return new TooManyRequestsException(
+                "Demasiados intentos de login, intente nuevamente en " + segundos + " segundos", segundos);
+    }
+
+    private String normalizar(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,51 @@
+package com.eam.capacitaciones.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro en memoria de la "época de seguridad" de cada usuario.
+ * Cuando cambia algo que afecta la autenticación (desactivación, cambio de rol,
+ * email o contraseña) se avanza la época y todo token emitido antes deja de aceptarse
+ * en el modo de autenticación sin consulta a BD. Al arrancar se siembra con
+ * {@link com.eam.capacitaciones.config.EpocasSeguridadInicializador}.
+ */
+@Component
+@Slf4j
+public class SecurityEpochRegistry {
+
+    private final Map<Long, Long> epochPorUsuario = new ConcurrentHashMap<>();
+
+    public void invalidarTokensAnteriores(Long usuarioId) {
+        if (usuarioId == null) {
+            return;
+        }
+        registrarCambio(usuarioId, System.currentTimeMillis());
+        log.debug("Época de seguridad avanzada para usuario ID: {}", usuarioId);
+    }
+
+    /**
+     * Invalida los tokens emitidos antes de {@code instante}, en milisegundos; la época nunca
+     * retrocede.
+     */
+    public void registrarCambio(Long usuarioId, long instante) {
+        epochPorUsuario.merge(usuarioId, instante, Math::max);
+    }
+
+    /**
+     * Un token emitido en el mismo milisegundo que el cambio o después sigue vigente, así que el
+     * usuario puede volver a iniciar sesión enseguida. {@code emitidoEn} debe tener resolución de
+     * milisegundos: ver {@link JwtTokenProvider#getIssuedAt(io.jsonwebtoken.Claims)}.
+     */
+    public boolean esTokenVigente(Long usuarioId, Date emitidoEn) {
+        Long epoch = epochPorUsuario.get(usuarioId);
+        if (epoch == null) {
+            return true;
+        }
+        return emitidoEn != null && emitidoEn.getTime() >= epoch;
+    }
+}
@@ -0,0 +1,204 @@
+package com.eam.capacitaciones.security;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Contador de fallos por clave con ventana deslizante, repartido en franjas con su propio lock.
+ *
+ * Cada clave guarda solo los últimos {@code lockoutAfter} instantes de fallo en un arreglo
+ * circular de long, suficiente para decidir el retardo progresivo y el bloqueo temporal.
+ */
+class StripedFailureCounter {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long windowMs;
+    private final int delayAfter;
+    private final int lockoutAfter;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long lockoutMs;
+
+    StripedFailureCounter(long windowMs, int delayAfter, int lockoutAfter,
+                          long baseDelayMs, long maxDelayMs, long lockoutMs) {
+        if (delayAfter < 1 || lockoutAfter < delayAfter) {
+            throw new IllegalArgumentException("Se requiere 1 <= delayAfter <= lockoutAfter");
+        }
+        this.windowMs = windowMs;
+        this.delayAfter = delayAfter;
+        this.lockoutAfter = lockoutAfter;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.lockoutMs = lockoutMs;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Milisegundos que faltan para poder intentar de nuevo; 0 si el intento está permitido.
+     */
+    long retryAfterMs(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(key);
+            if (entry == null) {
+                return 0;
+            }
+            if (entry.lockedUntil > now) {
+                return entry.lockedUntil - now;
+            }
+            int recientes = entry.recent(now - windowMs);
+            if (recientes < delayAfter) {
+                return 0;
+            }
+            long disponibleEn = entry.latest() + delayFor(recientes);
+            return Math.max(0, disponibleEn - now);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Registra un fallo y devuelve true si la clave quedó bloqueada por este fallo.
+     */
+    boolean recordFailure(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.computeIfAbsent(key, k -> new Entry(lockoutAfter));
+            entry.add(now);
+            if (entry.recent(now - windowMs) >= lockoutAfter) {
+                entry.lockedUntil = now + lockoutMs;
+                entry.clear();
+                return true;
+            }
+            return false;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    void reset(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.entries.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina las claves sin fallos dentro de la ventana y sin bloqueo vigente.
+     */
+    int purge(long now) {
+        int eliminadas = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<Map.Entry<String, Entry>> it = stripe.entries.entrySet().iterator();
+                while (it.hasNext()) {
+                    Entry entry = it.next().getValue();
+                    if (entry.lockedUntil <= now && entry.recent(now - windowMs) == 0) {
+                        it.remove();
+                        eliminadas++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return eliminadas;
+    }
+
+    int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                total += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    int lockedCount(long now) {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (Entry entry : stripe.entries.values()) {
+                    if (entry.lockedUntil > now) {
+                        total++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    private long delayFor(int recientes) {
+        int exponente = Math.min(recientes - delayAfter, 30);
+        return Math.min(maxDelayMs, baseDelayMs << exponente);
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final HashMap<String, Entry> entries = new HashMap<>();
+    }
+
+    private static final class Entry {
+
+        private final long[] failures;
+        private int next;
+        private int count;
+        private long lockedUntil;
+
+        Entry(int capacity) {
+            this.failures = new long[capacity];
+        }
+
+        void add(long timestamp) {
+            failures[next] = timestamp;
+            next = (next + 1) % failures.length;
+            if (count < failures.length) {
+                count++;
+            }
+        }
+
+        int recent(long desde) {
+            int total = 0;
+            for (int i = 0; i < count; i++) {
+                if (failures[i] > desde) {
+                    total++;
+                }
+            }
+            return total;
+        }
+
+        long latest() {
+            return failures[(next - 1 + failures.length) % failures.length];
+        }
+
+        void clear() {
+            next = 0;
+            count = 0;
+        }
+    }
+}
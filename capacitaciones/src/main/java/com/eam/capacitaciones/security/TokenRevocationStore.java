@@ -0,0 +1,392 @@
+package com.eam.capacitaciones.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Lista de tokens revocados indexada por jti.
+ *
+ * Los jti (UUID) se guardan como pares de long en conjuntos de direccionamiento abierto,
+ * agrupados en buckets según el minuto de expiración del token. Los buckets forman un anillo
+ * que cubre la vida máxima de un token: al expirar, un bucket se descarta completo, por lo
+ * que la memoria depende solo de los tokens revocados todavía vigentes.
+ */
+@Component
+@Slf4j
+public class TokenRevocationStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x4A544952;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    @Value("${jwt.expiration}")
+    private long jwtExpirationMs;
+
+    @Value("${jwt.refresh-expiration}")
+    private long jwtRefreshExpirationMs;
+
+    @Value("${jwt.revocation.bucket-seconds:60}")
+    private long bucketSeconds;
+
+    @Value("${jwt.revocation.snapshot-path:data/revoked-tokens.bin}")
+    private String snapshotPath;
+
+    private AtomicReferenceArray<Bucket> ring;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+
+    /** Serializa las escrituras del snapshot; no es el monitor del anillo. */
+    private final Object snapshotLock = new Object();
+
+    @PostConstruct
+    void init() {
+        long maxLifetimeSeconds = Math.max(jwtExpirationMs, jwtRefreshExpirationMs) / 1000;
+        int slots = (int) (maxLifetimeSeconds / bucketSeconds) + 2;
+        this.ring = new AtomicReferenceArray<>(slots);
+        loadSnapshot();
+    }
+
+    /**
+     * Revoca un token hasta su fecha de expiración. Tokens sin jti o ya expirados se ignoran.
+     */
+    public void revoke(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (claims.getId() == null || expiration == null) {
+            return;
+        }
+        revoke(claims.getId(), expiration.getTime() / 1000);
+    }
+
+    public void revoke(String jti, long expEpochSeconds) {
+        long now = System.currentTimeMillis() / 1000;
+        if (expEpochSeconds <= now) {
+            return;
+        }
+
+        long bucketId = expEpochSeconds / bucketSeconds;
+        if (bucketId - now / bucketSeconds >= ring.length()) {
+            log.warn("Token con expiración fuera del horizonte de revocación, jti: {}", jti);
+            return;
+        }
+
+        long msb = parseHigh(jti);
+        long lsb = parseLow(jti);
+        bucketFor(bucketId).add(msb, lsb);
+        dirty.set(true);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (claims.getId() == null || expiration == null) {
+            return false;
+        }
+        return isRevoked(claims.getId(), expiration.getTime() / 1000);
+    }
+
+    /**
+     * Consulta O(1) y sin reservar memoria: el bucket se deduce de la expiración del token.
+     */
+    public boolean isRevoked(String jti, long expEpochSeconds) {
+        long bucketId = expEpochSeconds / bucketSeconds;
+        Bucket bucket = ring.get(slot(bucketId));
+        if (bucket == null || bucket.id != bucketId) {
+            return false;
+        }
+        return bucket.contains(parseHigh(jti), parseLow(jti));
+    }
+
+    public int size() {
+        int total = 0;
+        long currentBucket = System.currentTimeMillis() / 1000 / bucketSeconds;
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.id >= currentBucket) {
+                total += bucket.size();
+            }
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long currentBucket = System.currentTimeMillis() / 1000 / bucketSeconds;
+        int purged = 0;
+        synchronized (this) {
+            for (int i = 0; i < ring.length(); i++) {
+                Bucket bucket = ring.get(i);
+                if (bucket != null && bucket.id < currentBucket) {
+                    ring.set(i, null);
+                    purged++;
+                }
+            }
+        }
+        if (purged > 0) {
+            log.debug("Buckets de revocación expirados eliminados: {}", purged);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.snapshot-interval-ms:300000}")
+    public void snapshotIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            writeSnapshot();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshotIfDirty();
+    }
+
+    private Bucket bucketFor(long bucketId) {
+        int slot = slot(bucketId);
+        Bucket bucket = ring.get(slot);
+        if (bucket != null && bucket.id == bucketId) {
+            return bucket;
+        }
+        synchronized (this) {
+            bucket = ring.get(slot);
+            if (bucket == null || bucket.id != bucketId) {
+                // El bucket anterior del slot ya expiró: el anillo cubre la vida máxima de un token
+                bucket = new Bucket(bucketId);
+                ring.set(slot, bucket);
+            }
+            return bucket;
+        }
+    }
+
+    private int slot(long bucketId) {
+        return (int) (bucketId % ring.length());
+    }
+
+    /**
+     * Copia los buckets vigentes, cada uno bajo su propio bloqueo de lectura, y escribe el archivo
+     * con la copia: ni las revocaciones ni la creación de buckets esperan a la escritura en disco.
+     */
+    void writeSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        synchronized (snapshotLock) {
+            long now = System.currentTimeMillis() / 1000;
+            List<long[]> copies = new ArrayList<>();
+            List<Long> expirations = new ArrayList<>();
+            for (int i = 0; i < ring.length(); i++) {
+                Bucket bucket = ring.get(i);
+                if (bucket != null && (bucket.id + 1) * bucketSeconds > now) {
+                    copies.add(bucket.copySlots());
+                    expirations.add((bucket.id + 1) * bucketSeconds - 1);
+                }
+            }
+            try {
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                try (DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(SNAPSHOT_MAGIC);
+                    out.writeInt(SNAPSHOT_VERSION);
+                    for (int i = 0; i < copies.size(); i++) {
+                        Bucket.writeTo(out, copies.get(i), expirations.get(i));
+                    }
+                    out.writeLong(0L);
+                }
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.debug("Snapshot de tokens revocados escrito en {}", path);
+            } catch (IOException ex) {
+                dirty.set(true);
+                log.error("No se pudo escribir el snapshot de tokens revocados en {}", path, ex);
+            }
+        }
+    }
+
+    private void loadSnapshot() {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.exists(path)) {
+            return;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Snapshot de tokens revocados con formato desconocido, se ignora: {}", path);
+                return;
+            }
+            long exp;
+            while ((exp = in.readLong()) != 0L) {
+                long msb = in.readLong();
+                long lsb = in.readLong();
+                if (exp > now) {
+                    bucketFor(exp / bucketSeconds).add(msb, lsb);
+                    loaded++;
+                }
+            }
+            log.info("Tokens revocados restaurados desde snapshot: {}", loaded);
+        } catch (IOException ex) {
+            log.error("No se pudo leer el snapshot de tokens revocados {}", path, ex);
+        }
+    }
+
+    static long parseHigh(String uuid) {
+        return hex(uuid, 0, 8) << 32 | hex(uuid, 9, 13) << 16 | hex(uuid, 14, 18);
+    }
+
+    static long parseLow(String uuid) {
+        return hex(uuid, 19, 23) << 48 | hex(uuid, 24, 36);
+    }
+
+    private static long hex(String s, int from, int to) {
+        if (s.length() != 36) {
+            throw new IllegalArgumentException("jti no es un UUID válido");
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(s.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("jti no es un UUID válido");
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    /**
+     * Conjunto de pares (msb, lsb) con direccionamiento abierto.
+     * Las lecturas son optimistas y no bloquean a menos que coincidan con una escritura.
+     */
+    private static final class Bucket {
+
+        private final long id;
+        private final StampedLock lock = new StampedLock();
+        private long[] slots = new long[32];
+        private int size;
+
+        Bucket(long id) {
+            this.id = id;
+        }
+
+        boolean contains(long msb, long lsb) {
+            long stamp = lock.tryOptimisticRead();
+            boolean found = probe(slots, msb, lsb) >= 0;
+            if (lock.validate(stamp)) {
+                return found;
+            }
+            stamp = lock.readLock();
+            try {
+                return probe(slots, msb, lsb) >= 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void add(long msb, long lsb) {
+            long stamp = lock.writeLock();
+            try {
+                if ((size + 1) * 4 > slots.length) {
+                    resize();
+                }
+                if (insert(slots, msb, lsb)) {
+                    size++;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        long[] copySlots() {
+            long stamp = lock.readLock();
+            try {
+                return slots.clone();
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        static void writeTo(DataOutputStream out, long[] slots, long exp) throws IOException {
+            for (int i = 0; i < slots.length; i += 2) {
+                if (slots[i] != 0L || slots[i + 1] != 0L) {
+                    out.writeLong(exp);
+                    out.writeLong(slots[i]);
+                    out.writeLong(slots[i + 1]);
+                }
+            }
+        }
+
+        private void resize() {
+            long[] old = slots;
+            long[] grown = new long[old.length * 2];
+            for (int i = 0; i < old.length; i += 2) {
+                if (old[i] != 0L || old[i + 1] != 0L) {
+                    insert(grown, old[i], old[i + 1]);
+                }
+            }
+            slots = grown;
+        }
+
+        /** Devuelve la posición del par o -1; tolera leer un arreglo que está siendo reemplazado. */
+        private static int probe(long[] table, long msb, long lsb) {
+            int pairs = table.length >> 1;
+            int index = mix(msb, lsb) & (pairs - 1);
+            for (int n = 0; n < pairs; n++) {
+                int pos = index << 1;
+                long a = table[pos];
+                long b = table[pos + 1];
+                if (a == msb && b == lsb) {
+                    return pos;
+                }
+                if (a == 0L && b == 0L) {
+                    return -1;
+                }
+                index = (index + 1) & (pairs - 1);
+            }
+            return -1;
+        }
+
+        private static boolean insert(long[] table, long msb, long lsb) {
+            int pairs = table.length >> 1;
+            int index = mix(msb, lsb) & (pairs - 1);
+            while (true) {
+                int pos = index << 1;
+                if (table[pos] == msb && table[pos + 1] == lsb) {
+                    return false;
+                }
+                if (table[pos] == 0L && table[pos + 1] == 0L) {
+                    table[pos] = msb;
+                    table[pos + 1] = lsb;
+                    return true;
+                }
+                index = (index + 1) & (pairs - 1);
+            }
+        }
+
+        private static int mix(long msb, long lsb) {
+            long h = msb ^ Long.rotateLeft(lsb, 32);
+            h *= 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -12,6 +12,8 @@ import com.eam.capacitaciones.mapper.UsuarioMapper;
 import com.eam.capacitaciones.repository.UsuarioRepository;
 import com.eam.capacitaciones.security.CustomUserDetails;
 import com.eam.capacitaciones.security.JwtTokenProvider;
+import com.eam.capacitaciones.security.LoginAttemptThrottler;
+import com.eam.capacitaciones.security.TokenRevocationStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -33,11 +35,19 @@ public class AuthService {
     private final UsuarioMapper usuarioMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
-
-    @Transactional(readOnly = true)
-    public LoginResponse login(LoginRequest loginRequest) {
+    private final TokenRevocationStore tokenRevocationStore;
+    private final LoginAttemptThrottler loginAttemptThrottler;
+
+    /**
+     * Sin transacción propia: la búsqueda del usuario y el rehash abren cada uno la suya, y la
+     * verificación BCrypt, que puede esperar turno en el pool de hashing, no retiene conexión.
+     */
+    public LoginResponse login(LoginRequest loginRequest, String clientIp) {
         log.info("Intento de login para usuario: {}", loginRequest.getEmail());
 
+        // Se rechaza antes de consultar la BD o ejecutar BCrypt
+        loginAttemptThrottler.verificarPermitido(loginRequest.getEmail(), clientIp);
+
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -46,6 +56,8 @@ public class AuthService {
                     )
             );
 
+            loginAttemptThrottler.registrarExito(loginRequest.getEmail());
+
             SecurityContextHolder.getContext().setAuthentication(authentication);
 
             CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
@@ -68,6 +80,7 @@ public class AuthService {
 
         } catch (BadCredentialsException ex) {
             log.error("Credenciales inválidas para: {}", loginRequest.getEmail());
+            loginAttemptThrottler.registrarFallo(loginRequest.getEmail(), clientIp);
             throw new UnauthorizedException("Email o contraseña incorrectos");
         }
     }
@@ -96,11 +109,12 @@ public class AuthService {
         log.info("Usuario registrado exitosamente: {} (ID: {})", 
                 usuarioGuardado.getEmail(), usuarioGuardado.getIdUsuario());
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        request.getEmail(),
-                        request.getPassword()
-                )
+        // La contraseña se acaba de hashear: no se vuelve a verificar con BCrypt
+        CustomUserDetails userDetails = CustomUserDetails.build(usuarioGuardado);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
         );
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -125,6 +139,10 @@ public class AuthService {
             throw new UnauthorizedException("Refresh token inválido o expirado");
         }
 
+        if (tokenRevocationStore.isRevoked(jwtTokenProvider.getAllClaimsFromToken(refreshToken))) {
+            throw new UnauthorizedException("Refresh token revocado");
+        }
+
         Long userId = jwtTokenProvider.getUserIdFromToken(refreshToken);
 
         Usuario usuario = usuarioRepository.findById(userId)
@@ -148,11 +166,23 @@ public class AuthService {
         return newAccessToken;
     }
 
-    public void logout() {
+    /**
+     * Cierra la sesión revocando el access token y, si se envía, el refresh token.
+     * Los tokens revocados se rechazan hasta su expiración natural.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        revocarSiEsValido(accessToken);
+        revocarSiEsValido(refreshToken);
         SecurityContextHolder.clearContext();
         log.info("Usuario desconectado");
     }
 
+    private void revocarSiEsValido(String token) {
+        if (token != null && !token.isBlank() && jwtTokenProvider.validateToken(token)) {
+            tokenRevocationStore.revoke(jwtTokenProvider.getAllClaimsFromToken(token));
+        }
+    }
+
     @Transactional(readOnly = true)
     public UsuarioDTO getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
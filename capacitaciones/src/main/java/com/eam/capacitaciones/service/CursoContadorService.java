@@ -0,0 +1,344 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.CursoContador;
+import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
+import com.eam.capacitaciones.repository.CursoContadorRepository;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.projection.CursoContadores;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Contadores de inscripciones por curso (inscritos, en progreso, completados, abandonados).
+ *
+ * Cada curso reparte sus contadores en varias filas de CursoContador y cada transición suma
+ * sobre una fila elegida al azar, de modo que las inscripciones concurrentes a un mismo curso no
+ * se bloquean entre sí. Las lecturas suman los shards. Curso.totalInscritos se consolida en
+ * segundo plano a partir de los shards, y una reconciliación periódica compara los contadores
+ * con la tabla Inscripcion y corrige cualquier desviación.
+ *
+ * Los shards se crean con el curso, y al arrancar se completan los de los cursos que no los
+ * tengan todos y se consolida Curso.totalInscritos de todos los cursos. Las transiciones nunca insertan filas: en InnoDB el UPDATE sobre un shard
+ * inexistente deja un bloqueo de hueco en uk_curso_contador_shard que haría esperar a cualquier
+ * INSERT en otra transacción. Si aun así falta un shard, el curso se repara y se reconcilia en
+ * segundo plano tras el commit.
+ */
+@Service
+@Transactional
+@Slf4j
+public class CursoContadorService {
+
+    private final CursoContadorRepository contadorRepository;
+    private final CursoRepository cursoRepository;
+    private final InscripcionRepository inscripcionRepository;
+    private final TransactionTemplate nuevaTransaccion;
+    private final Counter desviaciones;
+    private final int shards;
+    private final int lote;
+    private final boolean reconciliarAlArrancar;
+
+    /** Cursos con inscritos modificados y confirmados, pendientes de volcar en Curso.totalInscritos. */
+    private final Set<Long> pendientesDeConsolidar = ConcurrentHashMap.newKeySet();
+    /** Cursos a los que les faltaba un shard al sumar, pendientes de completar y reconciliar. */
+    private final Set<Long> pendientesDeReparar = ConcurrentHashMap.newKeySet();
+
+    public CursoContadorService(
+            CursoContadorRepository contadorRepository,
+            CursoRepository cursoRepository,
+            InscripcionRepository inscripcionRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${inscripcion.counters.shards:16}") int shards,
+            @Value("${inscripcion.counters.batch-size:500}") int lote,
+            @Value("${inscripcion.counters.reconcile-on-startup:true}") boolean reconciliarAlArrancar) {
+        this.contadorRepository = contadorRepository;
+        this.cursoRepository = cursoRepository;
+        this.inscripcionRepository = inscripcionRepository;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shards = Math.max(1, shards);
+        this.lote = Math.max(1, lote);
+        this.reconciliarAlArrancar = reconciliarAlArrancar;
+        this.desviaciones = Counter.builder("inscripcion.contadores.desviaciones")
+                .description("Cursos cuyos contadores no coincidían con Inscripcion al reconciliar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Crea los shards de un curso nuevo dentro de la transacción que lo inserta.
+     */
+    public void inicializar(Long cursoId) {
+        List<CursoContador> nuevos = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            nuevos.add(CursoContador.builder().cursoId(cursoId).shard(shard).build());
+        }
+        contadorRepository.saveAll(nuevos);
+    }
+
+    public void registrarInscripcion(Long cursoId) {
+        sumar(cursoId, 1, 0, 0, 0);
+    }
+
+    /**
+     * Traslada una inscripción de un estado a otro. INSCRITO no tiene contador propio: es
+     * {@code inscritos} menos los demás estados.
+     */
+    public void registrarTransicion(Long cursoId, EstadoEnum anterior, EstadoEnum nuevo) {
+        if (anterior == nuevo) {
+            return;
+        }
+        long[] deltas = new long[3];
+        ajustar(deltas, anterior, -1);
+        ajustar(deltas, nuevo, 1);
+        sumar(cursoId, 0, deltas[0], deltas[1], deltas[2]);
+    }
+
+    /**
+     * Descuenta inscripciones que se van a borrar, agrupadas por curso y estado.
+     */
+    public void registrarBajas(List<CursoContadores> bajas) {
+        for (CursoContadores baja : bajas) {
+            sumar(baja.cursoId(), -baja.inscritos(), -baja.enProgreso(), -baja.completados(), -baja.abandonados());
+        }
+    }
+
+    /**
+     * Suma los deltas sobre un shard al azar dentro de la transacción en curso. Pensado también
+     * para las operaciones masivas, que ya conocen el recuento por curso.
+     */
+    public void sumar(Long cursoId, long inscritos, long enProgreso, long completados, long abandonados) {
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        if (contadorRepository.sumar(cursoId, shard, inscritos, enProgreso, completados, abandonados) == 0) {
+            // No se aborta la operación del usuario por un contador: la reparación lo recalcula
+            log.warn("Falta el shard {} del curso {}; se completará y reconciliará", shard, cursoId);
+            despuesDelCommit(() -> pendientesDeReparar.add(cursoId));
+            return;
+        }
+        if (inscritos != 0) {
+            despuesDelCommit(() -> pendientesDeConsolidar.add(cursoId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inscripcion.counters.rollup-interval-ms:5000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void consolidarTotales() {
+        reparar();
+        if (pendientesDeConsolidar.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pendientesDeConsolidar);
+        pendientesDeConsolidar.removeAll(ids);
+        for (int desde = 0; desde < ids.size(); desde += lote) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + lote, ids.size()));
+            try {
+                nuevaTransaccion.executeWithoutResult(status -> cursoRepository.consolidarTotalInscritos(bloque));
+            } catch (DataAccessException ex) {
+                pendientesDeConsolidar.addAll(bloque);
+                log.warn("No se pudo consolidar totalInscritos de {} cursos", bloque.size(), ex);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void alArrancar() {
+        if (reconciliarAlArrancar) {
+            // La reconciliación también completa los shards que falten
+            reconciliar();
+            return;
+        }
+        long inicio = System.nanoTime();
+        int completados = porBloques(bloque -> nuevaTransaccion.execute(status -> completarShards(bloque)));
+        log.info("Shards de contadores completados en {} cursos y totales consolidados en {} ms",
+                completados, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Recorre todos los cursos por bloques de id y compara sus contadores con Inscripcion.
+     */
+    @Scheduled(cron = "${inscripcion.counters.reconcile-cron:0 30 3 * * *}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconciliar() {
+        long inicio = System.nanoTime();
+        int corregidos = porBloques(bloque -> nuevaTransaccion.execute(status -> reconciliarBloque(bloque)));
+        log.info("Reconciliación de contadores terminada: {} cursos corregidos en {} ms",
+                corregidos, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Completa y reconcilia, cada uno en su propia transacción, los cursos a los que les faltaba
+     * un shard. El recuento desde Inscripcion recupera los deltas que no se pudieron sumar.
+     */
+    private void reparar() {
+        if (pendientesDeReparar.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pendientesDeReparar);
+        pendientesDeReparar.removeAll(ids);
+        for (int desde = 0; desde < ids.size(); desde += lote) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + lote, ids.size()));
+            try {
+                nuevaTransaccion.execute(status -> reconciliarBloque(bloque));
+            } catch (DataAccessException ex) {
+                pendientesDeReparar.addAll(bloque);
+                log.warn("No se pudieron reparar los contadores de {} cursos", bloque.size(), ex);
+            }
+        }
+    }
+
+    /**
+     * Recorre todos los cursos por bloques de id y suma lo que devuelva el trabajo de cada bloque.
+     */
+    private int porBloques(Function<List<Long>, Integer> trabajo) {
+        int total = 0;
+        Long ultimo = 0L;
+        List<Long> ids;
+        while (!(ids = cursoRepository.findIdsDespuesDe(ultimo, PageRequest.of(0, lote))).isEmpty()) {
+            try {
+                Integer resultado = trabajo.apply(ids);
+                total += resultado == null ? 0 : resultado;
+            } catch (DataAccessException ex) {
+                // Se reintenta en la próxima pasada
+                log.warn("No se pudieron procesar los contadores de los cursos {} a {}",
+                        ids.get(0), ids.get(ids.size() - 1), ex);
+            }
+            ultimo = ids.get(ids.size() - 1);
+        }
+        return total;
+    }
+
+    private int reconciliarBloque(List<Long> cursoIds) {
+        // Primero la lectura con bloqueo: las inscripciones de estos cursos esperan a que termine
+        // el bloque, y el recuento de Inscripcion que sigue ve un estado coherente con los shards
+        Map<Long, List<CursoContador>> filas = contadorRepository.findParaReconciliar(cursoIds).stream()
+                .collect(Collectors.groupingBy(CursoContador::getCursoId));
+        Map<Long, CursoContadores> reales = inscripcionRepository.contarPorEstado(cursoIds).stream()
+                .collect(Collectors.toMap(CursoContadores::cursoId, Function.identity()));
+
+        int corregidos = 0;
+        for (Long cursoId : cursoIds) {
+            CursoContadores real = reales.getOrDefault(cursoId, CursoContadores.vacio(cursoId));
+            List<CursoContador> shardsCurso = new ArrayList<>(filas.getOrDefault(cursoId, List.of()));
+            shardsCurso.addAll(crearFaltantes(cursoId, shardsCurso));
+            CursoContadores registrado = totalizar(cursoId, shardsCurso);
+            if (registrado.equals(real)) {
+                continue;
+            }
+
+            log.warn("Contadores del curso {} desviados: registrados {}, reales {}", cursoId, registrado, real);
+            CursoContador base = shardsCurso.get(0);
+            base.setInscritos(base.getInscritos() + real.inscritos() - registrado.inscritos());
+            base.setEnProgreso(base.getEnProgreso() + real.enProgreso() - registrado.enProgreso());
+            base.setCompletados(base.getCompletados() + real.completados() - registrado.completados());
+            base.setAbandonados(base.getAbandonados() + real.abandonados() - registrado.abandonados());
+            corregidos++;
+        }
+
+        contadorRepository.flush();
+        cursoRepository.consolidarTotalInscritos(cursoIds);
+        desviaciones.increment(corregidos);
+        return corregidos;
+    }
+
+    /**
+     * Crea los shards que falten a los cursos del bloque y vuelca sus totales en
+     * Curso.totalInscritos, que en una base existente empieza en 0. Devuelve cuántos cursos completó.
+     */
+    private int completarShards(List<Long> cursoIds) {
+        Map<Long, List<CursoContador>> filas = contadorRepository.findParaReconciliar(cursoIds).stream()
+                .collect(Collectors.groupingBy(CursoContador::getCursoId));
+        int completados = 0;
+        for (Long cursoId : cursoIds) {
+            if (!crearFaltantes(cursoId, filas.getOrDefault(cursoId, List.of())).isEmpty()) {
+                completados++;
+            }
+        }
+        contadorRepository.flush();
+        cursoRepository.consolidarTotalInscritos(cursoIds);
+        return completados;
+    }
+
+    /**
+     * Inserta los shards del curso que no estén entre los existentes. Se llama con esas filas ya
+     * bloqueadas, así que el INSERT cae en huecos que la propia transacción tiene tomados.
+     */
+    private List<CursoContador> crearFaltantes(Long cursoId, List<CursoContador> existentes) {
+        Set<Integer> presentes = new HashSet<>();
+        existentes.forEach(contador -> presentes.add(contador.getShard()));
+        List<CursoContador> nuevos = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            if (!presentes.contains(shard)) {
+                nuevos.add(CursoContador.builder().cursoId(cursoId).shard(shard).build());
+            }
+        }
+        return nuevos.isEmpty() ? nuevos : contadorRepository.saveAll(nuevos);
+    }
+
+    private static void despuesDelCommit(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        // Solo tras el commit: la consolidación debe ver el cambio
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    private static void ajustar(long[] deltas, EstadoEnum estado, long delta) {
+        if (estado == null) {
+            return;
+        }
+        switch (estado) {
+            case EN_PROGRESO -> deltas[0] += delta;
+            case COMPLETADO -> deltas[1] += delta;
+            case ABANDONADO -> deltas[2] += delta;
+            default -> {
+                // INSCRITO se deduce del total
+            }
+        }
+    }
+
+    private static CursoContadores totalizar(Long cursoId, List<CursoContador> filas) {
+        long inscritos = 0;
+        long enProgreso = 0;
+        long completados = 0;
+        long abandonados = 0;
+        for (CursoContador fila : filas) {
+            inscritos += fila.getInscritos();
+            enProgreso += fila.getEnProgreso();
+            completados += fila.getCompletados();
+            abandonados += fila.getAbandonados();
+        }
+        return new CursoContadores(cursoId, inscritos, enProgreso, completados, abandonados);
+    }
+}
@@ -1,20 +1,41 @@
 package com.eam.capacitaciones.service;
 
+import com.eam.capacitaciones.cache.CursoCatalogCache;
+import com.eam.capacitaciones.cache.CursoCatalogCache.ListaKey;
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.dao.CustomCursoDAO;
 import com.eam.capacitaciones.dto.request.CursoCreateRequest;
+import com.eam.capacitaciones.dto.response.CursoBusquedaDTO;
 import com.eam.capacitaciones.dto.response.CursoDTO;
+import com.eam.capacitaciones.dto.response.CursoPopularDTO;
+import com.eam.capacitaciones.dto.response.CursoSugerenciaDTO;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.domain.entity.Curso;
 import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
 import com.eam.capacitaciones.exception.BadRequestException;
 import com.eam.capacitaciones.exception.ForbiddenException;
 import com.eam.capacitaciones.exception.ResourceNotFoundException;
 import com.eam.capacitaciones.mapper.CursoMapper;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking.Periodo;
+import com.eam.capacitaciones.recomendacion.CursoRecomendador;
+import com.eam.capacitaciones.repository.CursoContadorRepository;
 import com.eam.capacitaciones.repository.CursoRepository;
 import com.eam.capacitaciones.repository.UsuarioRepository;
+import com.eam.capacitaciones.repository.projection.CursoResumen;
+import com.eam.capacitaciones.search.CursoContenidoIndex;
+import com.eam.capacitaciones.search.CursoSimilitudIndex;
+import com.eam.capacitaciones.search.CursoTituloIndex;
+import com.eam.capacitaciones.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 
 @Service
@@ -26,48 +47,164 @@ public class CursoService {
     private final CursoRepository cursoRepository;
     private final UsuarioRepository usuarioRepository;
     private final CursoMapper cursoMapper;
+    private final CustomCursoDAO customCursoDAO;
+    private final CursoCatalogCache catalogCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CursoTituloIndex cursoTituloIndex;
+    private final CursoContenidoIndex cursoContenidoIndex;
+    private final CursoContadorRepository cursoContadorRepository;
+    private final CursoContadorService cursoContadorService;
+    private final CursoPopularesRanking cursoPopularesRanking;
+    private final CursoRecomendador cursoRecomendador;
+    private final CursoSimilitudIndex cursoSimilitudIndex;
 
     @Transactional(readOnly = true)
-    public List<CursoDTO> getAllCursos() {
+    public CursorPage<CursoDTO> getAllCursos(String cursor, Integer size) {
         log.debug("Obteniendo todos los cursos");
-        List<Curso> cursos = cursoRepository.findAll();
-        return cursoMapper.toDTOList(cursos);
+        return listarCursos(null, null, null, null, cursor, size);
     }
 
     @Transactional(readOnly = true)
-    public List<CursoDTO> getCursosActivos() {
+    public CursorPage<CursoDTO> getCursosActivos(String cursor, Integer size) {
         log.debug("Obteniendo cursos activos");
-        List<Curso> cursos = cursoRepository.findByActivoTrue();
-        return cursoMapper.toDTOList(cursos);
+        return catalogCache.getLista(ListaKey.activos(cursor, KeysetCursor.pageSize(size)),
+                () -> listarCursos(true, null, null, null, cursor, size));
     }
 
     @Transactional(readOnly = true)
     public CursoDTO getCursoById(Long id) {
         log.debug("Obteniendo curso por ID: {}", id);
-        Curso curso = cursoRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado con ID: " + id));
-        return cursoMapper.toDTO(curso);
+        CursoDTO curso = cargarCurso(id);
+        if (curso == null) {
+            throw new ResourceNotFoundException("Curso no encontrado con ID: " + id);
+        }
+        return curso;
     }
 
     @Transactional(readOnly = true)
-    public List<CursoDTO> getCursosByInstructor(Long instructorId) {
+    public CursorPage<CursoDTO> getCursosByInstructor(Long instructorId, String cursor, Integer size) {
         log.debug("Obteniendo cursos del instructor: {}", instructorId);
-        List<Curso> cursos = cursoRepository.findByInstructorId(instructorId);
-        return cursoMapper.toDTOList(cursos);
+        return listarCursos(null, null, instructorId, null, cursor, size);
     }
 
     @Transactional(readOnly = true)
-    public List<CursoDTO> getCursosByNivel(NivelEnum nivel) {
+    public CursorPage<CursoDTO> getCursosByNivel(NivelEnum nivel, String cursor, Integer size) {
         log.debug("Obteniendo cursos por nivel: {}", nivel);
-        List<Curso> cursos = cursoRepository.findByNivel(nivel);
-        return cursoMapper.toDTOList(cursos);
+        return catalogCache.getLista(ListaKey.porNivel(nivel, cursor, KeysetCursor.pageSize(size)),
+                () -> listarCursos(null, nivel, null, null, cursor, size));
     }
 
     @Transactional(readOnly = true)
-    public List<CursoDTO> searchCursosByTitulo(String search) {
+    public CursorPage<CursoDTO> searchCursosByTitulo(String search, String cursor, Integer size) {
         log.debug("Buscando cursos por título: {}", search);
-        List<Curso> cursos = cursoRepository.searchByTitulo(search);
-        return cursoMapper.toDTOList(cursos);
+        return listarCursos(true, null, null, search, cursor, size);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<CursoDTO> filtrarCursos(String titulo, NivelEnum nivel, Long instructorId, Boolean activo,
+                                              Long minInscritos, String cursor, Integer size) {
+        log.debug("Filtrando cursos (titulo: {}, nivel: {}, instructor: {}, activo: {}, minInscritos: {})",
+                titulo, nivel, instructorId, activo, minInscritos);
+        int pageSize = KeysetCursor.pageSize(size);
+        List<CursoResumen> filas = customCursoDAO.buscarCursosConFiltros(
+                titulo, nivel, instructorId, activo, minInscritos, KeysetCursor.decode(cursor), pageSize + 1);
+        return paginar(filas, pageSize);
+    }
+
+    /**
+     * Sugerencias para el buscador, servidas desde el índice en memoria sin consultar la BD
+     * (por eso no abre transacción ni toma conexión del pool).
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CursoSugerenciaDTO> autocompletarTitulo(String texto, Integer limit) {
+        int limite = limit == null || limit < 1
+                ? CursoTituloIndex.DEFAULT_LIMIT
+                : Math.min(limit, CursoTituloIndex.MAX_LIMIT);
+        return cursoTituloIndex.buscar(texto, limite);
+    }
+
+    /**
+     * Búsqueda de texto completo sobre título, descripción y contenido de módulos.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CursoBusquedaDTO> buscarContenido(String texto, Integer limit) {
+        log.debug("Buscando cursos por contenido: {}", texto);
+        int limite = limit == null || limit < 1
+                ? CursoContenidoIndex.DEFAULT_LIMIT
+                : Math.min(limit, CursoContenidoIndex.MAX_LIMIT);
+        return cursoContenidoIndex.buscar(texto, limite);
+    }
+
+    /**
+     * Cursos activos con más inscripciones en el periodo, servidos desde el ranking en memoria.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CursoPopularDTO> getCursosPopulares(Periodo periodo, Integer limit) {
+        int limite = limit == null || limit < 1
+                ? CursoPopularesRanking.DEFAULT_LIMIT
+                : Math.min(limit, CursoPopularesRanking.MAX_LIMIT);
+        return cursoPopularesRanking.top(periodo == null ? Periodo.TOTAL : periodo, limite);
+    }
+
+    /**
+     * Recomendaciones por co-inscripción para el usuario. Los cursos se resuelven desde la caché
+     * de catálogo y se descartan los inactivos.
+     */
+    @Transactional(readOnly = true)
+    public List<CursoDTO> getCursosRecomendados(Long usuarioId, Integer limit) {
+        log.debug("Obteniendo cursos recomendados para usuario: {}", usuarioId);
+        int limite = limit == null || limit < 1
+                ? CursoRecomendador.DEFAULT_LIMIT
+                : Math.min(limit, CursoRecomendador.MAX_LIMIT);
+        return cargarActivos(cursoRecomendador.recomendar(usuarioId, limite * 2), limite);
+    }
+
+    /**
+     * Cursos activos con contenido parecido, servidos desde el índice de similitud en memoria.
+     */
+    @Transactional(readOnly = true)
+    public List<CursoDTO> getCursosSimilares(Long id, Integer limit) {
+        log.debug("Obteniendo cursos similares al curso: {}", id);
+        if (cargarCurso(id) == null) {
+            throw new ResourceNotFoundException("Curso no encontrado con ID: " + id);
+        }
+        int limite = limit == null || limit < 1
+                ? CursoSimilitudIndex.DEFAULT_LIMIT
+                : Math.min(limit, CursoSimilitudIndex.MAX_LIMIT);
+        return cargarActivos(cursoSimilitudIndex.similares(id, limite), limite);
+    }
+
+    private List<CursoDTO> cargarActivos(List<Long> ids, int limite) {
+        List<CursoDTO> cursos = new ArrayList<>(limite);
+        for (Long cursoId : ids) {
+            if (cursos.size() >= limite) {
+                break;
+            }
+            CursoDTO curso = cargarCurso(cursoId);
+            if (curso != null && Boolean.TRUE.equals(curso.getActivo())) {
+                cursos.add(curso);
+            }
+        }
+        return cursos;
+    }
+
+    private CursoDTO cargarCurso(Long id) {
+        return catalogCache.getCurso(id,
+                () -> cursoRepository.findResumenById(id).map(cursoMapper::toDTO).orElse(null));
+    }
+
+    private CursorPage<CursoDTO> listarCursos(Boolean activo, NivelEnum nivel, Long instructorId,
+                                              String titulo, String cursor, Integer size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<CursoResumen> filas = customCursoDAO.listarResumenes(
+                activo, nivel, instructorId, titulo, KeysetCursor.decode(cursor), pageSize + 1);
+        return paginar(filas, pageSize);
+    }
+
+    private CursorPage<CursoDTO> paginar(List<CursoResumen> filas, int pageSize) {
+        return CursorPage.of(filas, pageSize,
+                c -> KeysetCursor.encode(c.fechaCreacion(), c.idCurso()),
+                cursoMapper::toDTOListFromResumenes);
     }
 
     public CursoDTO createCurso(CursoCreateRequest request) {
@@ -79,7 +216,9 @@ public class CursoService {
 
         Curso curso = cursoMapper.toEntity(request);
         Curso cursoGuardado = cursoRepository.save(curso);
-        
+        cursoContadorService.inicializar(cursoGuardado.getIdCurso());
+        publicarCambio(cursoGuardado.getIdCurso(), cursoGuardado.getNivel());
+
         log.info("Curso creado exitosamente con ID: {}", cursoGuardado.getIdCurso());
         return cursoMapper.toDTO(cursoGuardado);
     }
@@ -94,8 +233,10 @@ public class CursoService {
             throw new ForbiddenException("No tiene permisos para actualizar este curso");
         }
 
+        NivelEnum nivelAnterior = curso.getNivel();
         cursoMapper.updateEntityFromRequest(request, curso);
         Curso cursoActualizado = cursoRepository.save(curso);
+        publicarCambio(id, nivelAnterior, cursoActualizado.getNivel());
 
         log.info("Curso actualizado exitosamente ID: {}", id);
         return cursoMapper.toDTO(cursoActualizado);
@@ -109,6 +250,8 @@ public class CursoService {
         }
 
         cursoRepository.deleteById(id);
+        cursoContadorRepository.deleteByCursoId(id);
+        publicarCambio(id, NivelEnum.values());
         log.info("Curso eliminado ID: {}", id);
     }
 
@@ -117,6 +260,7 @@ public class CursoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado"));
         curso.setActivo(true);
         cursoRepository.save(curso);
+        publicarCambio(id, curso.getNivel());
         log.info("Curso activado ID: {}", id);
     }
 
@@ -125,6 +269,20 @@ public class CursoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado"));
         curso.setActivo(false);
         cursoRepository.save(curso);
+        publicarCambio(id, curso.getNivel());
         log.info("Curso desactivado ID: {}", id);
     }
-}
\ No newline at end of file
+
+    /**
+     * La caché de catálogo se invalida cuando la transacción confirma (ver CursoCatalogCache).
+     */
+    private void publicarCambio(Long cursoId, NivelEnum... niveles) {
+        EnumSet<NivelEnum> afectados = EnumSet.noneOf(NivelEnum.class);
+        for (NivelEnum nivel : niveles) {
+            if (nivel != null) {
+                afectados.add(nivel);
+            }
+        }
+        eventPublisher.publishEvent(new CursoCatalogoCambiadoEvent(cursoId, afectados));
+    }
+}
@@ -1,20 +1,43 @@
 package com.eam.capacitaciones.service;
 
+import com.eam.capacitaciones.calificacion.ClaveCompilada;
+import com.eam.capacitaciones.calificacion.ClaveRespuestasCambiadaEvent;
+import com.eam.capacitaciones.dto.request.BancoPreguntasRequest;
+import com.eam.capacitaciones.dto.request.ClaveRespuestasRequest;
 import com.eam.capacitaciones.dto.request.EvaluacionCreateRequest;
+import com.eam.capacitaciones.dto.response.BancoPreguntasDTO;
+import com.eam.capacitaciones.dto.response.ClaveRespuestasDTO;
 import com.eam.capacitaciones.dto.response.EvaluacionDTO;
+import com.eam.capacitaciones.dto.response.ExamenDTO;
+import com.eam.capacitaciones.domain.entity.BancoMuestra;
 import com.eam.capacitaciones.domain.entity.Evaluacion;
+import com.eam.capacitaciones.domain.entity.PreguntaBanco;
+import com.eam.capacitaciones.domain.entity.PreguntaBanco.DificultadEnum;
+import com.eam.capacitaciones.domain.entity.PreguntaClave;
+import com.eam.capacitaciones.domain.entity.SesionExamen;
+import com.eam.capacitaciones.examen.ExamenGenerado;
+import com.eam.capacitaciones.examen.ExamenGenerador;
 import com.eam.capacitaciones.exception.BadRequestException;
 import com.eam.capacitaciones.exception.ResourceNotFoundException;
 import com.eam.capacitaciones.mapper.EvaluacionMapper;
+import com.eam.capacitaciones.repository.BancoMuestraRepository;
 import com.eam.capacitaciones.repository.EvaluacionRepository;
 import com.eam.capacitaciones.repository.ModuloRepository;
+import com.eam.capacitaciones.repository.PreguntaBancoRepository;
+import com.eam.capacitaciones.repository.PreguntaClaveRepository;
 import com.eam.capacitaciones.repository.RespuestaRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 @Service
 @Transactional
@@ -25,7 +48,14 @@ public class EvaluacionService {
     private final EvaluacionRepository evaluacionRepository;
     private final ModuloRepository moduloRepository;
     private final RespuestaRepository respuestaRepository;
+    private final PreguntaClaveRepository preguntaClaveRepository;
+    private final PreguntaBancoRepository preguntaBancoRepository;
+    private final BancoMuestraRepository bancoMuestraRepository;
+    private final ExamenGenerador examenGenerador;
+    private final IntentoContadorService intentoContadorService;
+    private final SesionExamenService sesionExamenService;
     private final EvaluacionMapper evaluacionMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<EvaluacionDTO> getEvaluacionesByModulo(Long moduloId) {
@@ -78,6 +108,188 @@ public class EvaluacionService {
 
     @Transactional(readOnly = true)
     public Long contarIntentos(Long evaluacionId, Long usuarioId) {
-        return respuestaRepository.countIntentosByUsuario(evaluacionId, usuarioId);
+        return (long) intentoContadorService.intentosRealizados(evaluacionId, usuarioId);
     }
-}
\ No newline at end of file
+
+    @Transactional(readOnly = true)
+    public ClaveRespuestasDTO getClave(Long evaluacionId) {
+        if (!evaluacionRepository.existsById(evaluacionId)) {
+            throw new ResourceNotFoundException("Evaluación no encontrada");
+        }
+        return toClaveDTO(evaluacionId, preguntaClaveRepository.findByEvaluacionIdOrderByNumero(evaluacionId));
+    }
+
+    /**
+     * Reemplaza la clave de respuestas. Las respuestas ya enviadas conservan su puntuación hasta
+     * que se recalifican.
+     */
+    public ClaveRespuestasDTO actualizarClave(Long evaluacionId, ClaveRespuestasRequest request) {
+        log.info("Actualizando clave de respuestas de la evaluación ID: {}", evaluacionId);
+
+        Evaluacion evaluacion = evaluacionRepository.findById(evaluacionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada"));
+        if (evaluacion.getTipo() != Evaluacion.TipoEnum.MCQ) {
+            throw new BadRequestException("Solo las evaluaciones de opción múltiple tienen clave de respuestas");
+        }
+
+        preguntaClaveRepository.deleteByEvaluacionId(evaluacionId);
+        List<PreguntaClave> preguntas = new ArrayList<>();
+        for (int i = 0; i < request.getPreguntas().size(); i++) {
+            ClaveRespuestasRequest.Pregunta pregunta = request.getPreguntas().get(i);
+            preguntas.add(PreguntaClave.builder()
+                    .evaluacionId(evaluacionId)
+                    .numero(i + 1)
+                    .correctas(normalizarOpciones(pregunta.getCorrectas()))
+                    .peso(pregunta.getPeso() == null ? 1 : pregunta.getPeso())
+                    .build());
+        }
+        List<PreguntaClave> guardadas = preguntaClaveRepository.saveAll(preguntas);
+        eventPublisher.publishEvent(new ClaveRespuestasCambiadaEvent(evaluacionId));
+
+        log.info("Clave de la evaluación ID: {} actualizada con {} preguntas", evaluacionId, guardadas.size());
+        return toClaveDTO(evaluacionId, guardadas);
+    }
+
+    /**
+     * Reemplaza el banco de preguntas. Con banco, cada intento recibe su propio examen y se
+     * califica con la clave de ese examen en lugar de la clave fija. El banco nuevo se guarda como
+     * otra versión: los intentos ya iniciados o entregados conservan la suya.
+     */
+    public BancoPreguntasDTO actualizarBanco(Long evaluacionId, BancoPreguntasRequest request) {
+        log.info("Actualizando banco de preguntas de la evaluación ID: {}", evaluacionId);
+
+        Evaluacion evaluacion = evaluacionRepository.findByIdParaActualizar(evaluacionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada"));
+        if (evaluacion.getTipo() != Evaluacion.TipoEnum.MCQ) {
+            throw new BadRequestException("Solo las evaluaciones de opción múltiple tienen banco de preguntas");
+        }
+
+        List<PreguntaBanco> preguntas = new ArrayList<>();
+        Map<DificultadEnum, Integer> disponibles = new EnumMap<>(DificultadEnum.class);
+        for (int i = 0; i < request.getPreguntas().size(); i++) {
+            BancoPreguntasRequest.Pregunta pregunta = request.getPreguntas().get(i);
+            String correctas = normalizarOpciones(pregunta.getCorrectas());
+            if (ClaveCompilada.mascara(correctas) >>> pregunta.getOpciones().size() != 0) {
+                throw new BadRequestException("La pregunta " + (i + 1) + " marca como correcta una opción inexistente");
+            }
+            DificultadEnum dificultad = pregunta.getDificultad() == null ? DificultadEnum.MEDIA : pregunta.getDificultad();
+            disponibles.merge(dificultad, 1, Integer::sum);
+            preguntas.add(PreguntaBanco.builder()
+                    .evaluacionId(evaluacionId)
+                    .enunciado(pregunta.getEnunciado())
+                    .opciones(new ArrayList<>(pregunta.getOpciones()))
+                    .correctas(correctas)
+                    .dificultad(dificultad)
+                    .peso(pregunta.getPeso() == null ? 1 : pregunta.getPeso())
+                    .build());
+        }
+
+        Map<DificultadEnum, Integer> muestra = new EnumMap<>(DificultadEnum.class);
+        if (request.getMuestra() != null) {
+            request.getMuestra().forEach((dificultad, cantidad) -> {
+                if (cantidad > disponibles.getOrDefault(dificultad, 0)) {
+                    throw new BadRequestException("El banco solo tiene " + disponibles.getOrDefault(dificultad, 0)
+                            + " preguntas de dificultad " + dificultad.getDisplayName());
+                }
+                if (cantidad > 0) {
+                    muestra.put(dificultad, cantidad);
+                }
+            });
+            if (!request.getMuestra().isEmpty() && muestra.isEmpty()) {
+                throw new BadRequestException("Cada intento debe recibir al menos una pregunta");
+            }
+        }
+
+        // Las versiones anteriores se conservan para regenerar y recalificar sus intentos
+        int versionBanco = evaluacion.getVersionBanco() + 1;
+        evaluacion.setVersionBanco(versionBanco);
+        preguntas.forEach(pregunta -> pregunta.setVersionBanco(versionBanco));
+        preguntaBancoRepository.saveAll(preguntas);
+        bancoMuestraRepository.saveAll(muestra.entrySet().stream()
+                .map(entrada -> BancoMuestra.builder()
+                        .evaluacionId(evaluacionId)
+                        .versionBanco(versionBanco)
+                        .dificultad(entrada.getKey())
+                        .cantidad(entrada.getValue())
+                        .build())
+                .toList());
+        evaluacionRepository.save(evaluacion);
+
+        Map<DificultadEnum, Integer> efectiva = muestra.isEmpty() ? disponibles : muestra;
+        log.info("Banco de la evaluación ID: {} actualizado a la versión {} con {} preguntas",
+                evaluacionId, versionBanco, preguntas.size());
+        return BancoPreguntasDTO.builder()
+                .evaluacionId(evaluacionId)
+                .versionBanco(versionBanco)
+                .disponibles(disponibles)
+                .muestra(efectiva)
+                .preguntasPorIntento(efectiva.values().stream().mapToInt(Integer::intValue).sum())
+                .build();
+    }
+
+    /**
+     * Examen del próximo intento del usuario, o del intento en curso si la evaluación tiene tiempo
+     * límite. Se regenera igual en cada llamada, así que puede pedirse de nuevo sin cambiar las
+     * preguntas. El intento en curso usa la versión del banco con que se inició; el próximo, la
+     * vigente, que se devuelve para enviarla con la respuesta.
+     */
+    @Transactional(readOnly = true)
+    public ExamenDTO getExamen(Long evaluacionId, Long usuarioId) {
+        Evaluacion evaluacion = evaluacionRepository.findById(evaluacionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada"));
+
+        int intentoNumero;
+        int versionBanco = evaluacion.getVersionBanco();
+        if (evaluacion.tieneDuracion()) {
+            // Las preguntas solo se muestran con el reloj en marcha
+            SesionExamen sesion = sesionExamenService.intentoEnCurso(evaluacionId, usuarioId);
+            intentoNumero = sesion.getIntentoNumero();
+            versionBanco = sesion.getVersionBanco();
+        } else {
+            int intentosRealizados = intentoContadorService.intentosRealizados(evaluacionId, usuarioId);
+            if (evaluacion.tieneLimiteIntentos() && intentosRealizados >= evaluacion.getIntentosPermitidos()) {
+                throw new BadRequestException("Ha excedido el número máximo de intentos permitidos");
+            }
+            intentoNumero = intentosRealizados + 1;
+        }
+        ExamenGenerado examen = examenGenerador.generar(evaluacionId, versionBanco, usuarioId, intentoNumero)
+                .orElseThrow(() -> new BadRequestException("La evaluación no tiene banco de preguntas"));
+        return ExamenDTO.builder()
+                .evaluacionId(evaluacionId)
+                .intentoNumero(intentoNumero)
+                .versionBanco(versionBanco)
+                .duracionMinutos(evaluacion.getDuracionMinutos())
+                .preguntas(IntStream.range(0, examen.preguntas().size())
+                        .mapToObj(i -> ExamenDTO.Pregunta.builder()
+                                .numero(i + 1)
+                                .enunciado(examen.preguntas().get(i).enunciado())
+                                .opciones(examen.preguntas().get(i).opciones())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * Opciones en mayúsculas, sin repetir y en orden alfabético.
+     */
+    private static String normalizarOpciones(String opciones) {
+        return opciones.toUpperCase(Locale.ROOT).chars()
+                .distinct()
+                .sorted()
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+                .toString();
+    }
+
+    private static ClaveRespuestasDTO toClaveDTO(Long evaluacionId, List<PreguntaClave> preguntas) {
+        return ClaveRespuestasDTO.builder()
+                .evaluacionId(evaluacionId)
+                .preguntas(preguntas.stream()
+                        .map(pregunta -> ClaveRespuestasDTO.Pregunta.builder()
+                                .numero(pregunta.getNumero())
+                                .correctas(pregunta.getCorrectas())
+                                .peso(pregunta.getPeso())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
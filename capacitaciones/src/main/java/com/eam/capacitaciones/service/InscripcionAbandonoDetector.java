@@ -0,0 +1,183 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
+import com.eam.capacitaciones.domain.entity.TareaProgramada;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.TareaProgramadaRepository;
+import com.eam.capacitaciones.repository.projection.InscripcionCurso;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Marca como abandonadas las inscripciones EN_PROGRESO sin actividad durante
+ * {@code inscripcion.abandonment.inactivity-days}.
+ *
+ * La tabla se recorre por bloques de id con una consulta keyset y cada bloque se resuelve con un
+ * UPDATE masivo por curso, cuyo recuento ajusta los contadores en la misma transacción. El punto
+ * de reanudación se guarda en TareaProgramada junto con cada bloque, así que una pasada
+ * interrumpida continúa donde quedó con el mismo corte. Solo una instancia ejecuta la pasada: la
+ * que obtiene el arriendo de la tarea, que se renueva con cada bloque.
+ */
+@Component
+@Slf4j
+public class InscripcionAbandonoDetector {
+
+    static final String TAREA = "inscripcion.abandono";
+
+    private final InscripcionRepository inscripcionRepository;
+    private final TareaProgramadaRepository tareaRepository;
+    private final CursoContadorService cursoContadorService;
+    private final TransactionTemplate transaccion;
+    private final Counter marcadas;
+    private final boolean habilitado;
+    private final Duration inactividad;
+    private final Duration arriendo;
+    private final int lote;
+
+    /** Identifica a esta instancia como propietaria del arriendo. */
+    private final String propietario = UUID.randomUUID().toString();
+
+    public InscripcionAbandonoDetector(
+            InscripcionRepository inscripcionRepository,
+            TareaProgramadaRepository tareaRepository,
+            CursoContadorService cursoContadorService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${inscripcion.abandonment.enabled:true}") boolean habilitado,
+            @Value("${inscripcion.abandonment.inactivity-days:30}") long diasInactividad,
+            @Value("${inscripcion.abandonment.lease-ms:300000}") long arriendoMs,
+            @Value("${inscripcion.abandonment.chunk-size:500}") int lote) {
+        this.inscripcionRepository = inscripcionRepository;
+        this.tareaRepository = tareaRepository;
+        this.cursoContadorService = cursoContadorService;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.habilitado = habilitado;
+        this.inactividad = Duration.ofDays(Math.max(1, diasInactividad));
+        this.arriendo = Duration.ofMillis(Math.max(1000, arriendoMs));
+        this.lote = Math.max(1, lote);
+        this.marcadas = Counter.builder("inscripcion.abandono.marcadas")
+                .description("Inscripciones marcadas como abandonadas por inactividad")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${inscripcion.abandonment.cron:0 0 2 * * *}")
+    public void detectar() {
+        if (!habilitado || !adquirir()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        long total = 0;
+        try {
+            TareaProgramada tarea = transaccion.execute(status -> iniciar());
+            LocalDateTime corte = tarea.getCorte();
+            Long ultimo = tarea.getUltimoId();
+            List<InscripcionCurso> ids;
+            while (!(ids = inscripcionRepository.findInactivasDespuesDe(
+                    EstadoEnum.EN_PROGRESO, corte, ultimo, PageRequest.of(0, lote))).isEmpty()) {
+                List<InscripcionCurso> bloque = ids;
+                Integer marcadasBloque = transaccion.execute(status -> procesar(bloque, corte));
+                int n = marcadasBloque == null ? 0 : marcadasBloque;
+                marcadas.increment(n);
+                total += n;
+                ultimo = ids.get(ids.size() - 1).idInscripcion();
+            }
+            transaccion.executeWithoutResult(status ->
+                    tareaRepository.finalizar(TAREA, propietario, LocalDateTime.now()));
+            log.info("Detección de abandonos terminada: {} inscripciones marcadas en {} ms",
+                    total, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (ArriendoPerdidoException ex) {
+            log.warn("Otra instancia tomó la detección de abandonos tras {} inscripciones marcadas", total);
+        } catch (DataAccessException ex) {
+            // El arriendo vence solo; la próxima pasada reanuda desde el último bloque confirmado
+            log.warn("Detección de abandonos interrumpida tras {} inscripciones marcadas", total, ex);
+        }
+    }
+
+    private boolean adquirir() {
+        if (intentarAdquirir()) {
+            return true;
+        }
+        if (tareaRepository.existsById(TAREA)) {
+            log.debug("La detección de abandonos la está ejecutando otra instancia");
+            return false;
+        }
+        try {
+            transaccion.executeWithoutResult(status ->
+                    tareaRepository.save(TareaProgramada.builder().nombre(TAREA).build()));
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Tarea {} creada por otra instancia", TAREA);
+        }
+        return intentarAdquirir();
+    }
+
+    private boolean intentarAdquirir() {
+        LocalDateTime ahora = LocalDateTime.now();
+        Integer filas = transaccion.execute(status ->
+                tareaRepository.adquirir(TAREA, propietario, ahora, ahora.plus(arriendo)));
+        return filas != null && filas > 0;
+    }
+
+    /**
+     * Fija el corte de una pasada nueva, o devuelve el de la pasada interrumpida.
+     */
+    private TareaProgramada iniciar() {
+        TareaProgramada tarea = tareaRepository.findById(TAREA)
+                .orElseThrow(() -> new IllegalStateException("Tarea " + TAREA + " no registrada"));
+        if (tarea.getCorte() == null) {
+            tarea.setCorte(LocalDateTime.now().minus(inactividad));
+            tarea.setUltimoId(0L);
+        } else {
+            log.info("Reanudando la detección de abandonos desde la inscripción {}", tarea.getUltimoId());
+        }
+        return tarea;
+    }
+
+    /**
+     * Marca el bloque y guarda el punto de reanudación en la misma transacción. El UPDATE vuelve
+     * a comprobar estado y fecha, así que una inscripción que avanzó después de leer el bloque
+     * no se toca.
+     */
+    private int procesar(List<InscripcionCurso> bloque, LocalDateTime corte) {
+        Map<Long, List<Long>> porCurso = bloque.stream().collect(Collectors.groupingBy(
+                InscripcionCurso::cursoId,
+                Collectors.mapping(InscripcionCurso::idInscripcion, Collectors.toList())));
+        LocalDateTime ahora = LocalDateTime.now();
+        int total = 0;
+        for (Map.Entry<Long, List<Long>> curso : porCurso.entrySet()) {
+            int n = inscripcionRepository.cambiarEstadoSiInactivas(
+                    curso.getValue(), EstadoEnum.EN_PROGRESO, EstadoEnum.ABANDONADO, corte, ahora);
+            if (n > 0) {
+                cursoContadorService.sumar(curso.getKey(), 0, -n, 0, n);
+                total += n;
+            }
+        }
+        Long ultimoId = bloque.get(bloque.size() - 1).idInscripcion();
+        if (tareaRepository.avanzar(TAREA, propietario, ultimoId, ahora.plus(arriendo)) == 0) {
+            // Lanzar revierte el bloque: la otra instancia lo procesará desde su checkpoint
+            throw new ArriendoPerdidoException();
+        }
+        return total;
+    }
+
+    private static class ArriendoPerdidoException extends RuntimeException {
+        ArriendoPerdidoException() {
+            super("Arriendo de la tarea " + TAREA + " perdido");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Inscripcion;
+import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
+import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
+import com.eam.capacitaciones.dto.request.InscripcionMasivaRequest;
+import com.eam.capacitaciones.dto.response.InscripcionMasivaDTO;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.exception.ForbiddenException;
+import com.eam.capacitaciones.exception.ResourceNotFoundException;
+import com.eam.capacitaciones.exception.ServiceUnavailableException;
+import com.eam.capacitaciones.ranking.InscripcionRegistradaEvent;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.UsuarioRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inscripción masiva de usuarios en un curso, ejecutada en segundo plano.
+ *
+ * Los candidatos se recorren por bloques de id. Cada bloque resuelve con una sola consulta qué
+ * usuarios ya estaban inscritos y guarda las inscripciones nuevas en su propia transacción, así
+ * que Hibernate las envía en lotes JDBC y un fallo solo deshace ese bloque. Los contadores del
+ * curso y el ranking de populares se actualizan una vez por bloque. El estado de cada trabajo se
+ * guarda en memoria de la instancia que lo ejecuta.
+ */
+@Service
+@Slf4j
+public class InscripcionMasivaService {
+
+    /** Un bloque choca con uk_usuario_curso si alguien se inscribe a la vez; se vuelve a resolver. */
+    private static final int INTENTOS_POR_BLOQUE = 3;
+
+    private final InscripcionRepository inscripcionRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final CursoRepository cursoRepository;
+    private final CursoContadorService cursoContadorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaccion;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, Trabajo> trabajos;
+    private final Counter inscripcionesCreadas;
+    private final int lote;
+
+    public InscripcionMasivaService(
+            InscripcionRepository inscripcionRepository,
+            UsuarioRepository usuarioRepository,
+            CursoRepository cursoRepository,
+            CursoContadorService cursoContadorService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${inscripcion.bulk.chunk-size:1000}") int lote,
+            @Value("${inscripcion.bulk.workers:2}") int workers,
+            @Value("${inscripcion.bulk.queue-capacity:8}") int queueCapacity,
+            @Value("${inscripcion.bulk.retention-ms:3600000}") long retentionMs) {
+        this.inscripcionRepository = inscripcionRepository;
+        this.usuarioRepository = usuarioRepository;
+        this.cursoRepository = cursoRepository;
+        this.cursoContadorService = cursoContadorService;
+        this.eventPublisher = eventPublisher;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.lote = Math.max(1, lote);
+        this.trabajos = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(retentionMs))
+                .build();
+        this.inscripcionesCreadas = Counter.builder("inscripcion.masiva.creadas")
+                .description("Inscripciones creadas por inscripción masiva")
+                .register(meterRegistry);
+
+        AtomicInteger contador = new AtomicInteger();
+        int hilos = Math.max(1, workers);
+        this.executor = new ThreadPoolExecutor(
+                hilos,
+                hilos,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "inscripcion-masiva-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Encola la inscripción masiva. Un instructor solo puede inscribir usuarios en sus propios
+     * cursos; un administrador, en cualquiera.
+     */
+    public InscripcionMasivaDTO iniciar(InscripcionMasivaRequest request, Long solicitanteId, boolean esAdmin) {
+        boolean porIds = request.getUsuarioIds() != null && !request.getUsuarioIds().isEmpty();
+        if (!porIds && StringUtils.isBlank(request.getDepartamento()) && request.getRol() == null) {
+            throw new BadRequestException("Indique los usuarios, un departamento o un rol");
+        }
+        Curso curso = cursoRepository.findById(request.getCursoId())
+                .orElseThrow(() -> new ResourceNotFoundException("Curso no encontrado"));
+        if (!esAdmin && !curso.getInstructorId().equals(solicitanteId)) {
+            throw new ForbiddenException("No tiene permisos para inscribir usuarios en este curso");
+        }
+
+        Trabajo trabajo = new Trabajo(UUID.randomUUID().toString(), request.getCursoId());
+        trabajos.put(trabajo.id, trabajo);
+        try {
+            executor.execute(() -> ejecutar(trabajo, request));
+        } catch (RejectedExecutionException ex) {
+            trabajos.invalidate(trabajo.id);
+            log.warn("Cola de inscripción masiva llena (cola: {})", executor.getQueue().size());
+            throw new ServiceUnavailableException("Demasiadas inscripciones masivas en curso, intente más tarde");
+        }
+        log.info("Inscripción masiva {} encolada para curso {}", trabajo.id, request.getCursoId());
+        return trabajo.resumen();
+    }
+
+    public InscripcionMasivaDTO getEstado(String jobId) {
+        Trabajo trabajo = trabajos.getIfPresent(jobId);
+        if (trabajo == null) {
+            throw new ResourceNotFoundException("Inscripción masiva no encontrada: " + jobId);
+        }
+        return trabajo.resumen();
+    }
+
+    void ejecutar(Trabajo trabajo, InscripcionMasivaRequest request) {
+        long inicio = System.nanoTime();
+        trabajo.estado = InscripcionMasivaDTO.EstadoEnum.EN_CURSO;
+        try {
+            if (request.getUsuarioIds() != null && !request.getUsuarioIds().isEmpty()) {
+                inscribirIds(trabajo, request.getUsuarioIds());
+            } else {
+                inscribirFiltro(trabajo, StringUtils.trimToNull(request.getDepartamento()), request.getRol());
+            }
+            trabajo.terminar(InscripcionMasivaDTO.EstadoEnum.COMPLETADO, null);
+            log.info("Inscripción masiva {} terminada: {} inscritos, {} ya inscritos en {} ms", trabajo.id,
+                    trabajo.inscritos.get(), trabajo.yaInscritos.get(), (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException ex) {
+            // Los bloques ya confirmados se conservan; relanzar el trabajo solo inscribe el resto
+            trabajo.terminar(InscripcionMasivaDTO.EstadoEnum.FALLIDO, ex.getMessage());
+            log.error("Inscripción masiva {} fallida tras {} usuarios", trabajo.id, trabajo.procesados.get(), ex);
+        }
+    }
+
+    private void inscribirIds(Trabajo trabajo, List<Long> usuarioIds) {
+        List<Long> ids = usuarioIds.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        for (int desde = 0; desde < ids.size(); desde += lote) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + lote, ids.size()));
+            List<Long> activos = usuarioRepository.findIdsActivosIn(bloque);
+            trabajo.noEncontrados.addAndGet(bloque.size() - activos.size());
+            inscribirBloque(trabajo, activos);
+            trabajo.procesados.addAndGet(bloque.size());
+        }
+    }
+
+    private void inscribirFiltro(Trabajo trabajo, String departamento, RolEnum rol) {
+        Long ultimo = 0L;
+        List<Long> bloque;
+        while (!(bloque = usuarioRepository.findIdsActivosDespuesDe(
+                departamento, rol, ultimo, PageRequest.of(0, lote))).isEmpty()) {
+            inscribirBloque(trabajo, bloque);
+            trabajo.procesados.addAndGet(bloque.size());
+            ultimo = bloque.get(bloque.size() - 1);
+        }
+    }
+
+    private void inscribirBloque(Trabajo trabajo, List<Long> usuarioIds) {
+        if (usuarioIds.isEmpty()) {
+            return;
+        }
+        for (int intento = 1; ; intento++) {
+            try {
+                Bloque resultado = transaccion.execute(status -> guardarBloque(trabajo.cursoId, usuarioIds));
+                trabajo.inscritos.addAndGet(resultado.inscritos());
+                trabajo.yaInscritos.addAndGet(resultado.yaInscritos());
+                inscripcionesCreadas.increment(resultado.inscritos());
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (intento >= INTENTOS_POR_BLOQUE) {
+                    throw ex;
+                }
+                log.debug("Bloque de inscripción masiva {} en conflicto, reintentando", trabajo.id);
+            }
+        }
+    }
+
+    private Bloque guardarBloque(Long cursoId, List<Long> usuarioIds) {
+        Set<Long> yaInscritos = new HashSet<>(inscripcionRepository.findUsuarioIdsInscritos(cursoId, usuarioIds));
+        LocalDate hoy = LocalDate.now();
+        List<Inscripcion> nuevas = new ArrayList<>(usuarioIds.size() - yaInscritos.size());
+        for (Long usuarioId : usuarioIds) {
+            if (!yaInscritos.contains(usuarioId)) {
+                nuevas.add(Inscripcion.builder()
+                        .usuarioId(usuarioId)
+                        .cursoId(cursoId)
+                        .progreso(BigDecimal.ZERO)
+                        .estado(EstadoEnum.INSCRITO)
+                        .fechaInscripcion(hoy)
+                        .build());
+            }
+        }
+        if (!nuevas.isEmpty()) {
+            inscripcionRepository.saveAll(nuevas);
+            // Dentro del bloque, para que un choque con uk_usuario_curso permita reintentarlo
+            inscripcionRepository.flush();
+            cursoContadorService.sumar(cursoId, nuevas.size(), 0, 0, 0);
+            eventPublisher.publishEvent(new InscripcionRegistradaEvent(cursoId, hoy, nuevas.size()));
+        }
+        return new Bloque(nuevas.size(), yaInscritos.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Bloque(int inscritos, int yaInscritos) {
+    }
+
+    static final class Trabajo {
+
+        private final String id;
+        private final Long cursoId;
+        private final LocalDateTime fechaInicio = LocalDateTime.now();
+        private final AtomicLong procesados = new AtomicLong();
+        private final AtomicLong inscritos = new AtomicLong();
+        private final AtomicLong yaInscritos = new AtomicLong();
+        private final AtomicLong noEncontrados = new AtomicLong();
+        private volatile InscripcionMasivaDTO.EstadoEnum estado = InscripcionMasivaDTO.EstadoEnum.PENDIENTE;
+        private volatile String error;
+        private volatile LocalDateTime fechaFin;
+
+        Trabajo(String id, Long cursoId) {
+            this.id = id;
+            this.cursoId = cursoId;
+        }
+
+        void terminar(InscripcionMasivaDTO.EstadoEnum estadoFinal, String mensaje) {
+            this.error = mensaje;
+            this.fechaFin = LocalDateTime.now();
+            this.estado = estadoFinal;
+        }
+
+        InscripcionMasivaDTO resumen() {
+            return InscripcionMasivaDTO.builder()
+                    .jobId(id)
+                    .cursoId(cursoId)
+                    .estado(estado)
+                    .procesados(procesados.get())
+                    .inscritos(inscritos.get())
+                    .yaInscritos(yaInscritos.get())
+                    .noEncontrados(noEncontrados.get())
+                    .error(error)
+                    .fechaInicio(fechaInicio)
+                    .fechaFin(fechaFin)
+                    .build();
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package com.eam.capacitaciones.service;
 
 import com.eam.capacitaciones.dto.request.InscripcionCreateRequest;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.dto.response.InscripcionDTO;
 import com.eam.capacitaciones.domain.entity.Inscripcion;
 import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
 import com.eam.capacitaciones.exception.BadRequestException;
 import com.eam.capacitaciones.exception.ResourceNotFoundException;
 import com.eam.capacitaciones.mapper.InscripcionMapper;
+import com.eam.capacitaciones.ranking.InscripcionRegistradaEvent;
+import com.eam.capacitaciones.reintento.ReintentarSiConflicto;
 import com.eam.capacitaciones.repository.CursoRepository;
 import com.eam.capacitaciones.repository.InscripcionRepository;
 import com.eam.capacitaciones.repository.UsuarioRepository;
+import com.eam.capacitaciones.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -29,6 +36,9 @@ public class InscripcionService {
     private final UsuarioRepository usuarioRepository;
     private final CursoRepository cursoRepository;
     private final InscripcionMapper inscripcionMapper;
+    private final CursoContadorService cursoContadorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProgresoInscripcionBuffer progresoBuffer;
 
     @Transactional(readOnly = true)
     public List<InscripcionDTO> getInscripcionesByUsuario(Long usuarioId) {
@@ -38,10 +48,20 @@ public class InscripcionService {
     }
 
     @Transactional(readOnly = true)
-    public List<InscripcionDTO> getInscripcionesByCurso(Long cursoId) {
+    public CursorPage<InscripcionDTO> getInscripcionesByCurso(Long cursoId, String cursor, Integer size) {
         log.debug("Obteniendo inscripciones del curso: {}", cursoId);
-        List<Inscripcion> inscripciones = inscripcionRepository.findByCursoId(cursoId);
-        return inscripcionMapper.toDTOList(inscripciones);
+        int pageSize = KeysetCursor.pageSize(size);
+        KeysetCursor posicion = KeysetCursor.decode(cursor);
+        PageRequest limite = PageRequest.of(0, pageSize + 1);
+
+        List<Inscripcion> inscripciones = posicion == null
+                ? inscripcionRepository.findPrimeraPaginaByCurso(cursoId, limite)
+                : inscripcionRepository.findPaginaByCursoDespuesDe(
+                        cursoId, posicion.getFecha(), posicion.getId(), limite);
+
+        return CursorPage.of(inscripciones, pageSize,
+                i -> KeysetCursor.encode(i.getFechaCreacion(), i.getIdInscripcion()),
+                inscripcionMapper::toDTOList);
     }
 
     public InscripcionDTO inscribirUsuarioEnCurso(Long usuarioId, InscripcionCreateRequest request) {
@@ -68,18 +88,44 @@ public class InscripcionService {
                 .build();
 
         Inscripcion inscripcionGuardada = inscripcionRepository.save(inscripcion);
+        cursoContadorService.registrarInscripcion(request.getCursoId());
+        eventPublisher.publishEvent(new InscripcionRegistradaEvent(
+                request.getCursoId(), inscripcionGuardada.getFechaInscripcion()));
         log.info("Inscripción creada ID: {}", inscripcionGuardada.getIdInscripcion());
 
         return inscripcionMapper.toDTO(inscripcionGuardada);
     }
 
+    /**
+     * El progreso se agrupa en {@link ProgresoInscripcionBuffer}; solo completar el curso se
+     * escribe en el momento. La inscripción se comprueba antes para no aceptar progresos que
+     * el volcado descartaría.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void actualizarProgreso(Long inscripcionId, BigDecimal nuevoProgreso) {
-        log.info("Actualizando progreso de inscripción: {}", inscripcionId);
+        log.debug("Actualizando progreso de inscripción: {}", inscripcionId);
+
+        if (nuevoProgreso == null
+                || nuevoProgreso.compareTo(BigDecimal.ZERO) < 0
+                || nuevoProgreso.compareTo(new BigDecimal("100")) > 0) {
+            throw new BadRequestException("El progreso debe estar entre 0 y 100");
+        }
+        if (!inscripcionRepository.existsById(inscripcionId)) {
+            throw new ResourceNotFoundException("Inscripción no encontrada");
+        }
+        progresoBuffer.registrar(inscripcionId, nuevoProgreso);
+    }
+
+    @ReintentarSiConflicto
+    public void marcarComoAbandonado(Long inscripcionId) {
+        log.info("Marcando inscripción como abandonada: {}", inscripcionId);
 
         Inscripcion inscripcion = inscripcionRepository.findById(inscripcionId)
                 .orElseThrow(() -> new ResourceNotFoundException("Inscripción no encontrada"));
 
-        inscripcion.actualizarProgreso(nuevoProgreso);
+        EstadoEnum estadoAnterior = inscripcion.getEstado();
+        inscripcion.marcarComoAbandonado();
         inscripcionRepository.save(inscripcion);
+        cursoContadorService.registrarTransicion(inscripcion.getCursoId(), estadoAnterior, inscripcion.getEstado());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.IntentoContador;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.repository.IntentoContadorRepository;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Numeración de intentos por (evaluación, usuario).
+ *
+ * Cada envío consume un intento con un único UPDATE condicional sobre IntentoContador, que
+ * comprueba el límite y bloquea la fila hasta el commit: dos envíos simultáneos nunca obtienen
+ * el mismo número ni superan el límite juntos, y si el envío falla el intento se devuelve con el
+ * rollback.
+ *
+ * El contador se crea antes del primer UPDATE, en una transacción propia y a partir de los
+ * intentos ya registrados. Si dos primeros envíos lo crean a la vez, uk_intento_contador rechaza
+ * al segundo y este sigue con el contador del primero. Crearlo aparte evita que el UPDATE del
+ * envío, sin fila que bloquear, retenga el hueco del índice donde se insertaría. Los pares con
+ * contador confirmado se recuerdan para no comprobarlo en cada envío.
+ *
+ * uk_respuesta_intento en Respuesta respalda la numeración, y
+ * {@link com.eam.capacitaciones.config.IntentosDuplicadosReparador} renumera al arrancar los
+ * intentos repetidos de antes de existir la restricción.
+ */
+@Service
+@Transactional
+@Slf4j
+public class IntentoContadorService {
+
+    private final IntentoContadorRepository contadorRepository;
+    private final RespuestaRepository respuestaRepository;
+    private final TransactionTemplate nuevaTransaccion;
+
+    /** Pares (evaluación, usuario) cuyo contador ya existe. Los contadores no se borran. */
+    private final Cache<Par, Boolean> conContador;
+
+    public IntentoContadorService(
+            IntentoContadorRepository contadorRepository,
+            RespuestaRepository respuestaRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${evaluacion.attempt-counter.known-cache-size:100000}") long maxSize) {
+        this.contadorRepository = contadorRepository;
+        this.respuestaRepository = respuestaRepository;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.conContador = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Consume el siguiente intento dentro de la transacción en curso y devuelve su número.
+     *
+     * @param intentosPermitidos límite de la evaluación; nulo o cero para intentos ilimitados
+     */
+    public int consumirIntento(Long evaluacionId, Long usuarioId, Integer intentosPermitidos) {
+        int limite = intentosPermitidos != null && intentosPermitidos > 0 ? intentosPermitidos : Integer.MAX_VALUE;
+        asegurarContador(evaluacionId, usuarioId);
+
+        if (contadorRepository.consumir(evaluacionId, usuarioId, limite) == 0) {
+            throw new BadRequestException("Ha excedido el número máximo de intentos permitidos");
+        }
+        return contadorRepository.findIntentos(evaluacionId, usuarioId)
+                .orElseThrow(() -> new IllegalStateException("Contador de intentos no encontrado"));
+    }
+
+    @Transactional(readOnly = true)
+    public int intentosRealizados(Long evaluacionId, Long usuarioId) {
+        return contadorRepository.findIntentos(evaluacionId, usuarioId)
+                .orElseGet(() -> respuestaRepository.findIntentosRealizados(evaluacionId, usuarioId));
+    }
+
+    private void asegurarContador(Long evaluacionId, Long usuarioId) {
+        Par par = new Par(evaluacionId, usuarioId);
+        if (conContador.getIfPresent(par) != null) {
+            return;
+        }
+        try {
+            nuevaTransaccion.executeWithoutResult(status -> {
+                if (contadorRepository.findIntentos(evaluacionId, usuarioId).isEmpty()) {
+                    log.debug("Creando contador de intentos de la evaluación {} y usuario {}", evaluacionId, usuarioId);
+                    contadorRepository.saveAndFlush(IntentoContador.builder()
+                            .evaluacionId(evaluacionId)
+                            .usuarioId(usuarioId)
+                            .intentos(respuestaRepository.findIntentosRealizados(evaluacionId, usuarioId))
+                            .build());
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Contador de intentos de la evaluación {} y usuario {} creado por otro envío",
+                    evaluacionId, usuarioId);
+        }
+        conContador.put(par, Boolean.TRUE);
+    }
+
+    private record Par(Long evaluacionId, Long usuarioId) {
+    }
+}
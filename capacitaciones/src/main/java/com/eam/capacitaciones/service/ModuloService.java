@@ -1,5 +1,7 @@
 package com.eam.capacitaciones.service;
 
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
 import com.eam.capacitaciones.dto.request.ModuloCreateRequest;
 import com.eam.capacitaciones.dto.response.ModuloDTO;
 import com.eam.capacitaciones.domain.entity.Modulo;
@@ -9,9 +11,12 @@ import com.eam.capacitaciones.repository.CursoRepository;
 import com.eam.capacitaciones.repository.ModuloRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 
 @Service
@@ -23,6 +28,7 @@ public class ModuloService {
     private final ModuloRepository moduloRepository;
     private final CursoRepository cursoRepository;
     private final ModuloMapper moduloMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<ModuloDTO> getModulosByCurso(Long cursoId) {
@@ -48,7 +54,8 @@ public class ModuloService {
 
         Modulo modulo = moduloMapper.toEntity(request);
         Modulo moduloGuardado = moduloRepository.save(modulo);
-        
+        publicarCambio(moduloGuardado.getCursoId());
+
         log.info("Módulo creado ID: {}", moduloGuardado.getIdModulo());
         return moduloMapper.toDTO(moduloGuardado);
     }
@@ -56,10 +63,21 @@ public class ModuloService {
     public void deleteModulo(Long id) {
         log.warn("Eliminando módulo ID: {}", id);
         
-        if (!moduloRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Módulo no encontrado");
-        }
+        Modulo modulo = moduloRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Módulo no encontrado"));
+
+        moduloRepository.delete(modulo);
+        publicarCambio(modulo.getCursoId());
+    }
 
-        moduloRepository.deleteById(id);
+    /**
+     * El curso cambia su conteo de módulos y su contenido indexado. No se conoce el nivel
+     * sin cargar el curso, así que se invalidan los listados de todos los niveles. La fecha de
+     * modificación del curso también avanza, para que una instancia detenida lo reindexe al
+     * arrancar.
+     */
+    private void publicarCambio(Long cursoId) {
+        cursoRepository.marcarModificado(cursoId, LocalDateTime.now());
+        eventPublisher.publishEvent(new CursoCatalogoCambiadoEvent(cursoId, EnumSet.allOf(NivelEnum.class)));
     }
 }
\ No newline at end of file
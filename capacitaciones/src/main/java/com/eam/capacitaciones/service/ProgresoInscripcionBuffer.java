@@ -0,0 +1,208 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.Inscripcion;
+import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
+import com.eam.capacitaciones.exception.ResourceNotFoundException;
+import com.eam.capacitaciones.reintento.ReintentoOptimista;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrupa las actualizaciones de progreso de las inscripciones antes de escribirlas.
+ *
+ * Los reproductores informan el progreso cada pocos segundos; el buffer guarda solo el mayor
+ * valor recibido por inscripción y lo vuelca cada {@code inscripcion.progress.flush-interval-ms}
+ * por bloques: una lectura por bloque y los UPDATE agrupados en lotes JDBC al confirmar. El
+ * progreso nunca retrocede. Llegar al 100% se escribe en el momento, porque completa el curso, y
+ * al apagar la aplicación se vuelca lo pendiente.
+ *
+ * Las escrituras no se serializan entre sí: si un volcado y una finalización tocan la misma
+ * inscripción, el bloqueo optimista de Inscripcion hace fallar a una de las dos, que se relee o
+ * vuelve al buffer. Un error que no se arregla reintentando descarta el progreso afectado en
+ * lugar de reencolarlo para siempre.
+ */
+@Component
+@Slf4j
+public class ProgresoInscripcionBuffer {
+
+    private static final BigDecimal COMPLETO = new BigDecimal("100");
+
+    private final InscripcionRepository inscripcionRepository;
+    private final CursoContadorService cursoContadorService;
+    private final TransactionTemplate transaccion;
+    private final ReintentoOptimista reintentoOptimista;
+    private final int lote;
+
+    private final Map<Long, BigDecimal> pendientes = new ConcurrentHashMap<>();
+
+    private final Counter recibidas;
+    private final Counter escritas;
+    private final Counter descartadas;
+    private final Timer volcado;
+
+    public ProgresoInscripcionBuffer(
+            InscripcionRepository inscripcionRepository,
+            CursoContadorService cursoContadorService,
+            PlatformTransactionManager transactionManager,
+            ReintentoOptimista reintentoOptimista,
+            MeterRegistry meterRegistry,
+            @Value("${inscripcion.progress.batch-size:500}") int lote) {
+        this.inscripcionRepository = inscripcionRepository;
+        this.cursoContadorService = cursoContadorService;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.reintentoOptimista = reintentoOptimista;
+        this.lote = Math.max(1, lote);
+
+        this.recibidas = Counter.builder("inscripcion.progreso.recibidas")
+                .description("Actualizaciones de progreso recibidas")
+                .register(meterRegistry);
+        this.escritas = Counter.builder("inscripcion.progreso.escritas")
+                .description("Actualizaciones de progreso escritas en la base de datos")
+                .register(meterRegistry);
+        this.descartadas = Counter.builder("inscripcion.progreso.descartadas")
+                .description("Actualizaciones de progreso descartadas por un error no recuperable")
+                .register(meterRegistry);
+        this.volcado = Timer.builder("inscripcion.progreso.volcado")
+                .description("Duración de cada escritura de un bloque de progreso")
+                .register(meterRegistry);
+        Gauge.builder("inscripcion.progreso.pendientes", pendientes, Map::size)
+                .description("Inscripciones con progreso pendiente de escribir")
+                .register(meterRegistry);
+        Gauge.builder("inscripcion.progreso.coalescencia", this, ProgresoInscripcionBuffer::coalescencia)
+                .description("Fracción de actualizaciones de progreso absorbidas por el buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra el progreso informado. Se escribe en el próximo volcado, salvo que complete el
+     * curso.
+     */
+    public void registrar(Long inscripcionId, BigDecimal progreso) {
+        recibidas.increment();
+        if (progreso.compareTo(COMPLETO) >= 0) {
+            pendientes.remove(inscripcionId);
+            completar(inscripcionId, progreso);
+            return;
+        }
+        pendientes.merge(inscripcionId, progreso, BigDecimal::max);
+    }
+
+    @Scheduled(fixedDelayString = "${inscripcion.progress.flush-interval-ms:2000}")
+    public void volcar() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pendientes.keySet());
+        for (int desde = 0; desde < ids.size(); desde += lote) {
+            Map<Long, BigDecimal> bloque = new HashMap<>();
+            for (Long id : ids.subList(desde, Math.min(desde + lote, ids.size()))) {
+                BigDecimal progreso = pendientes.remove(id);
+                if (progreso != null) {
+                    bloque.put(id, progreso);
+                }
+            }
+            escribir(bloque);
+        }
+    }
+
+    @PreDestroy
+    void drenar() {
+        log.info("Volcando {} progresos pendientes antes de apagar", pendientes.size());
+        volcar();
+    }
+
+    private void escribir(Map<Long, BigDecimal> bloque) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        Timer.Sample muestra = Timer.start();
+        try {
+            transaccion.executeWithoutResult(status ->
+                    inscripcionRepository.findAllById(bloque.keySet()).forEach(inscripcion ->
+                            aplicar(inscripcion, bloque.get(inscripcion.getIdInscripcion()))));
+            escritas.increment(bloque.size());
+        } catch (DataAccessException ex) {
+            if (recuperable(ex)) {
+                // Incluye los conflictos de versión con otras instancias y la base no disponible.
+                // Se devuelven al buffer sin pisar valores más nuevos llegados mientras tanto
+                bloque.forEach((id, progreso) -> pendientes.merge(id, progreso, BigDecimal::max));
+                log.warn("No se pudo escribir el progreso de {} inscripciones; se reintentará", bloque.size(), ex);
+            } else if (bloque.size() > 1) {
+                // Se aísla la inscripción que falla para no perder el resto del bloque
+                log.warn("Error no recuperable al escribir {} progresos; se escriben uno a uno", bloque.size(), ex);
+                bloque.forEach((id, progreso) -> escribir(Map.of(id, progreso)));
+            } else {
+                descartadas.increment();
+                log.error("Se descarta el progreso de la inscripción {}", bloque.keySet(), ex);
+            }
+        } finally {
+            muestra.stop(volcado);
+        }
+    }
+
+    private void completar(Long inscripcionId, BigDecimal progreso) {
+        Timer.Sample muestra = Timer.start();
+        try {
+            // Otra instancia o un volcado puede haber escrito la misma inscripción; se relee y se vuelve a aplicar
+            reintentoOptimista.ejecutar("inscripcion.progreso", () -> {
+                transaccion.executeWithoutResult(status -> aplicar(
+                        inscripcionRepository.findById(inscripcionId)
+                                .orElseThrow(() -> new ResourceNotFoundException("Inscripción no encontrada")),
+                        progreso));
+                return null;
+            });
+            escritas.increment();
+        } finally {
+            muestra.stop(volcado);
+        }
+    }
+
+    /**
+     * Aplica el progreso si supera al guardado. La inscripción se escribe al confirmar.
+     */
+    private void aplicar(Inscripcion inscripcion, BigDecimal progreso) {
+        if (progreso.compareTo(inscripcion.getProgreso()) <= 0) {
+            return;
+        }
+        EstadoEnum estadoAnterior = inscripcion.getEstado();
+        inscripcion.actualizarProgreso(progreso);
+        cursoContadorService.registrarTransicion(inscripcion.getCursoId(), estadoAnterior, inscripcion.getEstado());
+    }
+
+    /**
+     * Errores que pueden desaparecer solos: conflictos de concurrencia, bloqueos, tiempos de
+     * espera y la base de datos no disponible.
+     */
+    private static boolean recuperable(DataAccessException ex) {
+        return ex instanceof TransientDataAccessException || ex instanceof DataAccessResourceFailureException;
+    }
+
+    double coalescencia() {
+        double total = recibidas.count();
+        return total == 0 ? 0 : 1 - escritas.count() / total;
+    }
+
+    int pendientes() {
+        return pendientes.size();
+    }
+}
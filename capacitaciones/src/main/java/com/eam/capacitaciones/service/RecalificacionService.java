@@ -0,0 +1,162 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.calificacion.CalificadorMcq;
+import com.eam.capacitaciones.calificacion.ClaveCompilada;
+import com.eam.capacitaciones.domain.entity.Evaluacion;
+import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.dto.response.RecalificacionDTO;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.exception.ResourceNotFoundException;
+import com.eam.capacitaciones.reintento.ReintentoOptimista;
+import com.eam.capacitaciones.repository.EvaluacionRepository;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Vuelve a calificar todas las respuestas de una evaluación de opción múltiple con su clave
+ * actual, por ejemplo después de corregir una pregunta. Con banco de preguntas cada respuesta
+ * se califica contra el examen regenerado de su intento, con la versión del banco que recibió.
+ *
+ * No se tocan las respuestas calificadas por un instructor ni las que no se pueden calificar con
+ * la clave (entregas en blanco, o enviadas antes de que existiera la clave con otro formato u
+ * otro número de preguntas).
+ *
+ * Las respuestas se recorren por bloques de id, cada uno en su propia transacción; solo se
+ * escriben las que cambian, y Hibernate agrupa esos UPDATE en lotes JDBC. Si un bloque choca
+ * con una modificación concurrente se relee y se vuelve a calificar.
+ */
+@Service
+@Slf4j
+public class RecalificacionService {
+
+    private final EvaluacionRepository evaluacionRepository;
+    private final RespuestaRepository respuestaRepository;
+    private final CalificadorMcq calificadorMcq;
+    private final ReintentoOptimista reintentoOptimista;
+    private final TransactionTemplate transaccion;
+    private final int lote;
+
+    public RecalificacionService(
+            EvaluacionRepository evaluacionRepository,
+            RespuestaRepository respuestaRepository,
+            CalificadorMcq calificadorMcq,
+            ReintentoOptimista reintentoOptimista,
+            PlatformTransactionManager transactionManager,
+            @Value("${evaluacion.grading.regrade-batch-size:500}") int lote) {
+        this.evaluacionRepository = evaluacionRepository;
+        this.respuestaRepository = respuestaRepository;
+        this.calificadorMcq = calificadorMcq;
+        this.reintentoOptimista = reintentoOptimista;
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.lote = Math.max(1, lote);
+    }
+
+    public RecalificacionDTO recalificar(Long evaluacionId) {
+        log.info("Recalificando respuestas de la evaluación ID: {}", evaluacionId);
+
+        Evaluacion evaluacion = evaluacionRepository.findById(evaluacionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada"));
+        if (evaluacion.getTipo() != Evaluacion.TipoEnum.MCQ) {
+            throw new BadRequestException("Solo se recalifican evaluaciones de opción múltiple");
+        }
+        if (!calificadorMcq.tieneClave(evaluacion)) {
+            throw new BadRequestException("La evaluación no tiene clave de respuestas");
+        }
+        int puntajeMax = evaluacion.getPuntajeMax();
+
+        long inicio = System.nanoTime();
+        long revisadas = 0;
+        long modificadas = 0;
+        Long ultimo = 0L;
+        while (true) {
+            Long desde = ultimo;
+            Bloque bloque = reintentoOptimista.ejecutar("respuesta.recalificar",
+                    () -> transaccion.execute(status -> recalificarBloque(evaluacionId, desde, puntajeMax)));
+            if (bloque == null || bloque.revisadas() == 0) {
+                break;
+            }
+            revisadas += bloque.revisadas();
+            modificadas += bloque.modificadas();
+            ultimo = bloque.ultimoId();
+        }
+
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Evaluación ID: {} recalificada: {} respuestas revisadas, {} modificadas en {} ms",
+                evaluacionId, revisadas, modificadas, duracionMs);
+        return RecalificacionDTO.builder()
+                .evaluacionId(evaluacionId)
+                .revisadas(revisadas)
+                .modificadas(modificadas)
+                .duracionMs(duracionMs)
+                .build();
+    }
+
+    private Bloque recalificarBloque(Long evaluacionId, Long desde, int puntajeMax) {
+        List<Respuesta> respuestas = respuestaRepository.findByEvaluacionDespuesDe(
+                evaluacionId, desde, PageRequest.of(0, lote));
+        if (respuestas.isEmpty()) {
+            return new Bloque(0, 0, desde);
+        }
+        int modificadas = 0;
+        for (Respuesta respuesta : respuestas) {
+            if (calificadaPorInstructor(respuesta)) {
+                continue;
+            }
+            Optional<BigDecimal> puntuacion = puntuar(respuesta, puntajeMax);
+            if (puntuacion.isEmpty()) {
+                continue;
+            }
+            if (!Boolean.TRUE.equals(respuesta.getCalificada()) || respuesta.getPuntuacion() == null
+                    || respuesta.getPuntuacion().compareTo(puntuacion.get()) != 0) {
+                respuesta.setPuntuacion(puntuacion.get());
+                respuesta.setCalificada(true);
+                modificadas++;
+            }
+        }
+        return new Bloque(respuestas.size(), modificadas, respuestas.get(respuestas.size() - 1).getIdRespuesta());
+    }
+
+    /**
+     * La calificación automática nunca escribe comentario, así que una respuesta con comentario
+     * (salvo las entregas en blanco, que no tienen texto) también la calificó un instructor,
+     * incluidas las anteriores a {@code calificacionManual}.
+     */
+    private static boolean calificadaPorInstructor(Respuesta respuesta) {
+        return Boolean.TRUE.equals(respuesta.getCalificacionManual())
+                || (Boolean.TRUE.equals(respuesta.getCalificada()) && respuesta.getComentarioInstructor() != null);
+    }
+
+    /**
+     * Puntuación con la clave del intento, o vacío si la respuesta no se puede calificar con ella.
+     */
+    private Optional<BigDecimal> puntuar(Respuesta respuesta, int puntajeMax) {
+        if (respuesta.getRespuestaTexto() == null) {
+            return Optional.empty();
+        }
+        Optional<ClaveCompilada> clave = calificadorMcq.clave(
+                respuesta.getEvaluacionId(), respuesta.getVersionBanco(), respuesta.getUsuarioId(),
+                respuesta.getIntentoNumero());
+        if (clave.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(clave.get().puntuar(respuesta.getRespuestaTexto(), puntajeMax));
+        } catch (IllegalArgumentException ex) {
+            // Enviada antes de que existiera la clave o con otro número de preguntas
+            log.debug("Respuesta ID: {} no válida para la clave actual: {}", respuesta.getIdRespuesta(), ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private record Bloque(int revisadas, int modificadas, Long ultimoId) {
+    }
+}
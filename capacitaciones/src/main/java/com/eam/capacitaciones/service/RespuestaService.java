@@ -1,23 +1,30 @@
 package com.eam.capacitaciones.service;
 
+import com.eam.capacitaciones.calificacion.CalificadorMcq;
 import com.eam.capacitaciones.dto.request.RespuestaCalificarRequest;
 import com.eam.capacitaciones.dto.request.RespuestaSubmitRequest;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.dto.response.RespuestaDTO;
 import com.eam.capacitaciones.domain.entity.Evaluacion;
 import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.domain.entity.SesionExamen;
 import com.eam.capacitaciones.exception.BadRequestException;
 import com.eam.capacitaciones.exception.ResourceNotFoundException;
 import com.eam.capacitaciones.mapper.RespuestaMapper;
+import com.eam.capacitaciones.reintento.ReintentarSiConflicto;
 import com.eam.capacitaciones.repository.EvaluacionRepository;
 import com.eam.capacitaciones.repository.RespuestaRepository;
 import com.eam.capacitaciones.repository.UsuarioRepository;
+import com.eam.capacitaciones.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -30,6 +37,9 @@ public class RespuestaService {
     private final EvaluacionRepository evaluacionRepository;
     private final UsuarioRepository usuarioRepository;
     private final RespuestaMapper respuestaMapper;
+    private final CalificadorMcq calificadorMcq;
+    private final IntentoContadorService intentoContadorService;
+    private final SesionExamenService sesionExamenService;
 
     @Transactional(readOnly = true)
     public List<RespuestaDTO> getRespuestasByEvaluacionAndUsuario(Long evaluacionId, Long usuarioId) {
@@ -39,13 +49,35 @@ public class RespuestaService {
     }
 
     @Transactional(readOnly = true)
-    public List<RespuestaDTO> getRespuestasPendientesCalificacion(Long evaluacionId) {
+    public CursorPage<RespuestaDTO> getRespuestasPendientesCalificacion(Long evaluacionId, String cursor, Integer size) {
         log.debug("Obteniendo respuestas pendientes de calificación para evaluación: {}", evaluacionId);
-        List<Respuesta> respuestas = respuestaRepository.findPendientesCalificacion(evaluacionId);
-        return respuestaMapper.toDTOList(respuestas);
+        int pageSize = KeysetCursor.pageSize(size);
+        KeysetCursor posicion = KeysetCursor.decode(cursor);
+        PageRequest limite = PageRequest.of(0, pageSize + 1);
+
+        List<Respuesta> respuestas = posicion == null
+                ? respuestaRepository.findPendientesPrimeraPagina(evaluacionId, limite)
+                : respuestaRepository.findPendientesDespuesDe(
+                        evaluacionId, posicion.getFecha(), posicion.getId(), limite);
+
+        return CursorPage.of(respuestas, pageSize,
+                r -> KeysetCursor.encode(r.getFechaCreacion(), r.getIdRespuesta()),
+                respuestaMapper::toDTOList);
     }
 
     public RespuestaDTO submitRespuesta(Long usuarioId, RespuestaSubmitRequest request) {
+        return submitRespuesta(usuarioId, request, null, LocalDateTime.now());
+    }
+
+    /**
+     * Guarda la respuesta recordando el recibo de la entrega asíncrona que la originó, para no
+     * duplicarla si la entrega se vuelve a procesar.
+     *
+     * @param enviadaEn momento en que se recibió; en las evaluaciones con tiempo debe ser anterior
+     *                  al vencimiento del intento
+     */
+    public RespuestaDTO submitRespuesta(Long usuarioId, RespuestaSubmitRequest request, String reciboEntrega,
+                                        LocalDateTime enviadaEn) {
         log.info("Usuario {} enviando respuesta a evaluación {}", usuarioId, request.getEvaluacionId());
 
         if (!usuarioRepository.existsById(usuarioId)) {
@@ -55,12 +87,22 @@ public class RespuestaService {
         Evaluacion evaluacion = evaluacionRepository.findById(request.getEvaluacionId())
                 .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada"));
 
-        Long intentosRealizados = respuestaRepository.countIntentosByUsuario(
-                request.getEvaluacionId(), usuarioId);
-
-        if (evaluacion.tieneLimiteIntentos() && 
-            intentosRealizados >= evaluacion.getIntentosPermitidos()) {
-            throw new BadRequestException("Ha excedido el número máximo de intentos permitidos");
+        // Con tiempo límite el intento ya se consumió al iniciarlo, con la versión del banco de
+        // entonces. Si no, se comprueba el límite y se numera en un solo UPDATE, que se devuelve
+        // si el envío falla
+        int intentoNumero;
+        int versionBanco;
+        if (evaluacion.tieneDuracion()) {
+            SesionExamen sesion = sesionExamenService.entregar(request.getEvaluacionId(), usuarioId, enviadaEn);
+            intentoNumero = sesion.getIntentoNumero();
+            versionBanco = sesion.getVersionBanco();
+        } else {
+            versionBanco = evaluacion.getVersionBanco();
+            if (request.getVersionBanco() != null && request.getVersionBanco() != versionBanco) {
+                throw new BadRequestException("El banco de preguntas cambió; cargue de nuevo el examen");
+            }
+            intentoNumero = intentoContadorService.consumirIntento(
+                    request.getEvaluacionId(), usuarioId, evaluacion.getIntentosPermitidos());
         }
 
         Respuesta respuesta = Respuesta.builder()
@@ -69,12 +111,18 @@ public class RespuestaService {
                 .respuestaTexto(request.getRespuestaTexto())
                 .puntuacion(BigDecimal.ZERO)
                 .fecha(LocalDate.now())
-                .intentoNumero(intentosRealizados.intValue() + 1)
+                .intentoNumero(intentoNumero)
+                .versionBanco(versionBanco)
                 .calificada(false)
+                .reciboEntrega(reciboEntrega)
                 .build();
 
         if (evaluacion.getTipo() == Evaluacion.TipoEnum.MCQ) {
-            respuesta.setCalificada(true);
+            // Sin clave de respuestas queda pendiente para que la califique un instructor
+            calificadorMcq.calificar(evaluacion, versionBanco, usuarioId, intentoNumero, request.getRespuestaTexto())
+                    .ifPresentOrElse(puntuacion -> respuesta.calificar(puntuacion, null),
+                            () -> log.warn("Evaluación {} de opción múltiple sin clave de respuestas",
+                                    evaluacion.getIdEvaluacion()));
         }
 
         Respuesta respuestaGuardada = respuestaRepository.save(respuesta);
@@ -83,6 +131,7 @@ public class RespuestaService {
         return respuestaMapper.toDTO(respuestaGuardada);
     }
 
+    @ReintentarSiConflicto
     public RespuestaDTO calificarRespuesta(Long respuestaId, RespuestaCalificarRequest request) {
         log.info("Calificando respuesta ID: {}", respuestaId);
 
@@ -93,7 +142,7 @@ public class RespuestaService {
             throw new BadRequestException("Esta respuesta ya ha sido calificada");
         }
 
-        respuesta.calificar(request.getPuntuacion(), request.getComentario());
+        respuesta.calificarManualmente(request.getPuntuacion(), request.getComentario());
         Respuesta respuestaCalificada = respuestaRepository.save(respuesta);
 
         log.info("Respuesta calificada: {} puntos", request.getPuntuacion());
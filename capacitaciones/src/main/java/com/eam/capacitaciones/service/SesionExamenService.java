@@ -0,0 +1,208 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.Evaluacion;
+import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.domain.entity.SesionExamen;
+import com.eam.capacitaciones.domain.entity.SesionExamen.EstadoEnum;
+import com.eam.capacitaciones.dto.response.SesionExamenDTO;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.exception.ConflictException;
+import com.eam.capacitaciones.exception.ResourceNotFoundException;
+import com.eam.capacitaciones.repository.EvaluacionRepository;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import com.eam.capacitaciones.repository.SesionExamenRepository;
+import com.eam.capacitaciones.sesion.SesionExamenCerradaEvent;
+import com.eam.capacitaciones.sesion.SesionExamenIniciadaEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sesiones de las evaluaciones con tiempo límite.
+ *
+ * Iniciar un intento consume uno de los permitidos y abre una sesión que vence a los
+ * {@code duracionMinutos}; mientras está abierta, el examen y la entrega usan su número de
+ * intento. Una entrega solo se acepta si se envió antes del vencimiento. Las sesiones vencidas las
+ * cierra {@link com.eam.capacitaciones.sesion.SesionExamenTemporizador} por lotes, entregando en
+ * blanco el intento, que cuenta como realizado. Si una entrega enviada a tiempo se guarda después
+ * de ese cierre (p. ej. porque esperaba en la cola de entregas asíncronas), sustituye a la entrega
+ * en blanco.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class SesionExamenService {
+
+    private static final String COMENTARIO_VENCIDA = "Entregada automáticamente al vencer el tiempo";
+
+    private final SesionExamenRepository sesionExamenRepository;
+    private final EvaluacionRepository evaluacionRepository;
+    private final RespuestaRepository respuestaRepository;
+    private final IntentoContadorService intentoContadorService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Abre un intento, o devuelve el que el usuario ya tiene en curso.
+     */
+    public SesionExamenDTO iniciar(Long evaluacionId, Long usuarioId) {
+        Evaluacion evaluacion = evaluacionRepository.findById(evaluacionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Evaluación no encontrada"));
+        if (!evaluacion.tieneDuracion()) {
+            throw new BadRequestException("La evaluación no tiene tiempo límite");
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<SesionExamen> abiertas = sesionExamenRepository.findAbiertasParaActualizar(evaluacionId, usuarioId);
+        for (SesionExamen abierta : abiertas) {
+            if (!abierta.vencida(ahora)) {
+                return toDTO(abierta, ahora);
+            }
+        }
+        // Vencida sin que el temporizador la haya cerrado aún
+        cerrarVencidas(abiertas, ahora);
+
+        int intentoNumero = intentoContadorService.consumirIntento(
+                evaluacionId, usuarioId, evaluacion.getIntentosPermitidos());
+        // El contador serializa los inicios del mismo usuario; otro pudo abrir uno mientras tanto
+        if (!sesionExamenRepository.findAbiertasParaActualizar(evaluacionId, usuarioId).isEmpty()) {
+            throw new ConflictException("Ya hay un intento en curso para esta evaluación");
+        }
+
+        SesionExamen sesion = sesionExamenRepository.save(SesionExamen.builder()
+                .evaluacionId(evaluacionId)
+                .usuarioId(usuarioId)
+                .intentoNumero(intentoNumero)
+                .versionBanco(evaluacion.getVersionBanco())
+                .estado(EstadoEnum.ABIERTA)
+                .inicio(ahora)
+                .vence(ahora.plusMinutes(evaluacion.getDuracionMinutos()))
+                .build());
+        eventPublisher.publishEvent(new SesionExamenIniciadaEvent(sesion.getIdSesion(), sesion.getVence()));
+        log.info("Usuario {} inició el intento {} de la evaluación {}, vence {}",
+                usuarioId, intentoNumero, evaluacionId, sesion.getVence());
+        return toDTO(sesion, ahora);
+    }
+
+    @Transactional(readOnly = true)
+    public SesionExamenDTO getSesionActual(Long evaluacionId, Long usuarioId) {
+        return sesionExamenRepository.findFirstByEvaluacionIdAndUsuarioIdOrderByIntentoNumeroDesc(evaluacionId, usuarioId)
+                .map(sesion -> toDTO(sesion, LocalDateTime.now()))
+                .orElseThrow(() -> new ResourceNotFoundException("No hay intentos iniciados en esta evaluación"));
+    }
+
+    /**
+     * Sesión abierta del usuario, si no ha vencido.
+     */
+    @Transactional(readOnly = true)
+    public SesionExamen intentoEnCurso(Long evaluacionId, Long usuarioId) {
+        SesionExamen sesion = sesionExamenRepository
+                .findFirstByEvaluacionIdAndUsuarioIdAndEstado(evaluacionId, usuarioId, EstadoEnum.ABIERTA)
+                .orElseThrow(() -> new BadRequestException("Inicie el intento para ver el examen"));
+        if (sesion.vencida(LocalDateTime.now())) {
+            throw new BadRequestException("El tiempo del examen ha terminado");
+        }
+        return sesion;
+    }
+
+    /**
+     * Cierra con la entrega del usuario la sesión en la que se envió y la devuelve, con el número
+     * de intento y la versión del banco de la entrega. Se llama dentro de la transacción que
+     * guarda la respuesta.
+     *
+     * @param enviadaEn momento en que se recibió la entrega, que puede guardarse más tarde
+     */
+    public SesionExamen entregar(Long evaluacionId, Long usuarioId, LocalDateTime enviadaEn) {
+        SesionExamen sesion = sesionExamenRepository
+                .findParaEntregar(evaluacionId, usuarioId, enviadaEn, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .filter(candidata -> candidata.getEstado() != EstadoEnum.ENTREGADA)
+                .orElseThrow(() -> new BadRequestException("No hay un intento en curso para esta evaluación"));
+        if (sesion.vencida(enviadaEn)) {
+            throw new BadRequestException("El tiempo del examen ha terminado");
+        }
+
+        if (sesion.getEstado() == EstadoEnum.EXPIRADA) {
+            // Se cerró por tiempo mientras la entrega esperaba a guardarse: la entrega en blanco
+            // deja su lugar a la del usuario
+            int borradas = respuestaRepository.deleteEntregaEnBlanco(
+                    evaluacionId, usuarioId, sesion.getIntentoNumero());
+            if (borradas == 0) {
+                throw new BadRequestException("El intento ya fue entregado");
+            }
+            sesion.setEstado(EstadoEnum.ENTREGADA);
+            log.info("Entrega a tiempo del intento {} de la evaluación {} guardada tras su vencimiento (usuario {})",
+                    sesion.getIntentoNumero(), evaluacionId, usuarioId);
+            return sesion;
+        }
+
+        sesion.cerrar(EstadoEnum.ENTREGADA, LocalDateTime.now());
+        eventPublisher.publishEvent(new SesionExamenCerradaEvent(sesion.getIdSesion()));
+        return sesion;
+    }
+
+    /**
+     * Cierra las sesiones de la lista que sigan abiertas y hayan vencido, con una entrega en
+     * blanco por cada una. Devuelve cuántas cerró.
+     */
+    public int vencer(Collection<Long> sesionIds) {
+        if (sesionIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        List<SesionExamen> vencidas = sesionExamenRepository.findAbiertasParaCerrar(sesionIds).stream()
+                .filter(sesion -> sesion.vencida(ahora))
+                .toList();
+        cerrarVencidas(vencidas, ahora);
+        return vencidas.size();
+    }
+
+    private void cerrarVencidas(List<SesionExamen> sesiones, LocalDateTime ahora) {
+        if (sesiones.isEmpty()) {
+            return;
+        }
+        List<Respuesta> enBlanco = new ArrayList<>(sesiones.size());
+        for (SesionExamen sesion : sesiones) {
+            sesion.cerrar(EstadoEnum.EXPIRADA, ahora);
+            enBlanco.add(Respuesta.builder()
+                    .evaluacionId(sesion.getEvaluacionId())
+                    .usuarioId(sesion.getUsuarioId())
+                    .intentoNumero(sesion.getIntentoNumero())
+                    .versionBanco(sesion.getVersionBanco())
+                    .puntuacion(BigDecimal.ZERO)
+                    .fecha(ahora.toLocalDate())
+                    .calificada(true)
+                    .comentarioInstructor(COMENTARIO_VENCIDA)
+                    .entregaAutomatica(true)
+                    .build());
+        }
+        respuestaRepository.saveAll(enBlanco);
+        log.debug("{} sesiones de examen cerradas por tiempo", sesiones.size());
+    }
+
+    private static SesionExamenDTO toDTO(SesionExamen sesion, LocalDateTime ahora) {
+        long restantes = sesion.getEstado() == EstadoEnum.ABIERTA
+                ? Math.max(0, Duration.between(ahora, sesion.getVence()).toSeconds())
+                : 0;
+        return SesionExamenDTO.builder()
+                .sesionId(sesion.getIdSesion())
+                .evaluacionId(sesion.getEvaluacionId())
+                .intentoNumero(sesion.getIntentoNumero())
+                .estado(sesion.getEstado())
+                .inicio(sesion.getInicio())
+                .vence(sesion.getVence())
+                .fin(sesion.getFin())
+                .segundosRestantes(restantes)
+                .build();
+    }
+}
@@ -2,15 +2,24 @@ package com.eam.capacitaciones.service;
 
 import com.eam.capacitaciones.dto.request.UsuarioCreateRequest;
 import com.eam.capacitaciones.dto.request.UsuarioUpdateRequest;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.dto.response.UsuarioDTO;
 import com.eam.capacitaciones.domain.entity.Usuario;
 import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
 import com.eam.capacitaciones.exception.BadRequestException;
 import com.eam.capacitaciones.mapper.UsuarioMapper;
+import com.eam.capacitaciones.ranking.InscripcionRegistradaEvent;
+import com.eam.capacitaciones.reintento.ReintentarSiConflicto;
+import com.eam.capacitaciones.repository.InscripcionRepository;
 import com.eam.capacitaciones.repository.UsuarioRepository;
+import com.eam.capacitaciones.repository.projection.CursoInscritosDia;
+import com.eam.capacitaciones.security.SecurityEpochRegistry;
+import com.eam.capacitaciones.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -31,6 +40,10 @@ public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final UsuarioMapper usuarioMapper;
     private final PasswordEncoder passwordEncoder;
+    private final SecurityEpochRegistry securityEpochRegistry;
+    private final InscripcionRepository inscripcionRepository;
+    private final CursoContadorService cursoContadorService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public Page<UsuarioDTO> getAllUsuarios(Pageable pageable) {
@@ -39,6 +52,22 @@ public class UsuarioService {
                 .map(usuarioMapper::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<UsuarioDTO> getUsuariosPorCursor(String cursor, Integer size) {
+        log.debug("Obteniendo todos los usuarios - Cursor: {}", cursor);
+        int pageSize = KeysetCursor.pageSize(size);
+        KeysetCursor posicion = KeysetCursor.decode(cursor);
+        PageRequest limite = PageRequest.of(0, pageSize + 1);
+
+        List<Usuario> usuarios = posicion == null
+                ? usuarioRepository.findPrimeraPagina(limite)
+                : usuarioRepository.findPaginaDespuesDe(posicion.getTexto(), posicion.getId(), limite);
+
+        return CursorPage.of(usuarios, pageSize,
+                u -> KeysetCursor.encode(u.getNombre(), u.getIdUsuario()),
+                usuarioMapper::toDTOList);
+    }
+
     @Transactional(readOnly = true)
     public UsuarioDTO getUsuarioById(Long id) {
         log.debug("Obteniendo usuario por ID: {}", id);
@@ -107,6 +136,7 @@ public class UsuarioService {
      * Actualiza un usuario existente
      * Solo actualiza campos no nulos
      */
+    @ReintentarSiConflicto
     public UsuarioDTO updateUsuario(Long id, UsuarioUpdateRequest request) {
         log.info("Actualizando usuario con ID: {}", id);
         log.info("Actualizando usuario con ID: {}", id);
@@ -119,14 +149,20 @@ public class UsuarioService {
             }
         }
 
+        boolean cambiaSeguridad = cambiaDatosDeSeguridad(usuario, request);
+
         usuarioMapper.updateEntityFromRequest(request, usuario);
 
         Usuario usuarioActualizado = usuarioRepository.save(usuario);
+        if (cambiaSeguridad) {
+            securityEpochRegistry.invalidarTokensAnteriores(id);
+        }
         log.info("Usuario actualizado exitosamente con ID: {}", id);
 
         return usuarioMapper.toDTO(usuarioActualizado);
     }
 
+    @ReintentarSiConflicto
     public void cambiarPassword(Long id, String nuevaPassword) {
         log.info("Cambiando contraseña del usuario con ID: {}", id);
         log.info("Cambiando contraseña del usuario con ID: {}", id);
@@ -139,10 +175,12 @@ public class UsuarioService {
 
         usuario.setPassword(passwordEncoder.encode(nuevaPassword));
         usuarioRepository.save(usuario);
+        securityEpochRegistry.invalidarTokensAnteriores(id);
 
         log.info("Contraseña cambiada exitosamente para usuario ID: {}", id);
     }
 
+    @ReintentarSiConflicto
     public void desactivarUsuario(Long id) {
         log.info("Desactivando usuario con ID: {}", id);
         log.info("Desactivando usuario con ID: {}", id);
@@ -151,10 +189,12 @@ public class UsuarioService {
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + id));
         usuario.setActivo(false);
         usuarioRepository.save(usuario);
+        securityEpochRegistry.invalidarTokensAnteriores(id);
 
         log.info("Usuario desactivado exitosamente con ID: {}", id);
     }
 
+    @ReintentarSiConflicto
     public void activarUsuario(Long id) {
         log.info("Activando usuario con ID: {}", id);
         log.info("Activando usuario con ID: {}", id);
@@ -173,10 +213,27 @@ public class UsuarioService {
         if (!usuarioRepository.existsById(id)) {
             throw new RuntimeException("Usuario no encontrado con ID: " + id);
         }
+        // El borrado arrastra sus inscripciones en cascada: se descuentan de los contadores del curso
+        // y del ranking de populares, por el día en que se hicieron
+        cursoContadorService.registrarBajas(inscripcionRepository.contarPorEstadoDeUsuario(id));
+        for (CursoInscritosDia baja : inscripcionRepository.contarPorDiaDeUsuario(id)) {
+            eventPublisher.publishEvent(new InscripcionRegistradaEvent(baja.cursoId(), baja.fecha(), -baja.inscritos()));
+        }
         usuarioRepository.deleteById(id);
+        securityEpochRegistry.invalidarTokensAnteriores(id);
         log.warn("Usuario ELIMINADO permanentemente con ID: {}", id);
     }
 
+    /**
+     * Indica si la actualización cambia datos que viajan en el token (rol, email)
+     * o el estado activo del usuario
+     */
+    private boolean cambiaDatosDeSeguridad(Usuario usuario, UsuarioUpdateRequest request) {
+        return (request.getRol() != null && request.getRol() != usuario.getRol())
+                || (request.getEmail() != null && !request.getEmail().equals(usuario.getEmail()))
+                || (request.getActivo() != null && !request.getActivo().equals(usuario.getActivo()));
+    }
+
     @Transactional(readOnly = true)
     public boolean existeEmail(String email) {
         return usuarioRepository.existsByEmail(email);
@@ -0,0 +1,131 @@
+package com.eam.capacitaciones.sesion;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rueda de tiempo con ranuras por dispersión para programar muchos vencimientos a la vez.
+ *
+ * El tiempo se divide en ticks de {@code tickMs} y cada vencimiento cae en la ranura de su tick
+ * módulo el número de ranuras. Programar y cancelar son O(1) y no bloquean: lo programado espera
+ * en una cola hasta el siguiente {@link #avanzar(long)}, que lo reparte y recorre solo las ranuras
+ * de los ticks transcurridos. Las tareas de vueltas posteriores se quedan en su ranura, y las
+ * canceladas se descartan al pasar por ella. Un vencimiento nunca se entrega antes de tiempo y
+ * como mucho un tick tarde, más lo que tarde en llamarse a {@link #avanzar(long)}.
+ */
+public class RuedaTemporizadora<T> {
+
+    private final long tickMs;
+    private final int mascara;
+    private final List<Queue<Tarea<T>>> ranuras;
+    private final Queue<Tarea<T>> nuevas = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger programadas = new AtomicInteger();
+    /** Último tick recorrido; solo lo toca {@link #avanzar(long)}. */
+    private long tickActual;
+
+    public RuedaTemporizadora(long tickMs, int ranuras, long ahoraMs) {
+        if (tickMs <= 0 || ranuras <= 0) {
+            throw new IllegalArgumentException("El tick y el número de ranuras deben ser positivos");
+        }
+        int potencia = Integer.highestOneBit(ranuras);
+        int total = potencia == ranuras ? ranuras : potencia << 1;
+        this.tickMs = tickMs;
+        this.mascara = total - 1;
+        this.ranuras = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            this.ranuras.add(new ArrayDeque<>());
+        }
+        this.tickActual = ahoraMs / tickMs;
+    }
+
+    /**
+     * Programa {@code valor} para {@code venceMs}. Puede llamarse desde cualquier hilo.
+     */
+    public Tarea<T> programar(T valor, long venceMs) {
+        Tarea<T> tarea = new Tarea<>(valor, Math.floorDiv(venceMs + tickMs - 1, tickMs));
+        nuevas.add(tarea);
+        programadas.incrementAndGet();
+        return tarea;
+    }
+
+    /**
+     * Recorre los ticks hasta {@code ahoraMs} y devuelve lo vencido.
+     */
+    public synchronized List<T> avanzar(long ahoraMs) {
+        List<T> vencidas = new ArrayList<>();
+        repartir(vencidas);
+        long hasta = ahoraMs / tickMs;
+        if (hasta - tickActual >= ranuras.size()) {
+            // Más de una vuelta de retraso: basta con una pasada por todas las ranuras
+            for (Queue<Tarea<T>> ranura : ranuras) {
+                vaciar(ranura, hasta, vencidas);
+            }
+            tickActual = hasta;
+        }
+        while (tickActual < hasta) {
+            tickActual++;
+            vaciar(ranuras.get((int) (tickActual & mascara)), tickActual, vencidas);
+        }
+        return vencidas;
+    }
+
+    /** Tareas programadas y aún no entregadas, incluidas las canceladas que no se han descartado. */
+    public int programadas() {
+        return programadas.get();
+    }
+
+    private void repartir(List<T> vencidas) {
+        Tarea<T> tarea;
+        while ((tarea = nuevas.poll()) != null) {
+            if (tarea.cancelada) {
+                programadas.decrementAndGet();
+            } else if (tarea.tick <= tickActual) {
+                programadas.decrementAndGet();
+                vencidas.add(tarea.valor);
+            } else {
+                ranuras.get((int) (tarea.tick & mascara)).add(tarea);
+            }
+        }
+    }
+
+    private void vaciar(Queue<Tarea<T>> ranura, long hasta, List<T> vencidas) {
+        Iterator<Tarea<T>> iterador = ranura.iterator();
+        while (iterador.hasNext()) {
+            Tarea<T> tarea = iterador.next();
+            boolean cancelada = tarea.cancelada;
+            if (cancelada || tarea.tick <= hasta) {
+                iterador.remove();
+                programadas.decrementAndGet();
+                if (!cancelada) {
+                    vencidas.add(tarea.valor);
+                }
+            }
+        }
+    }
+
+    public static final class Tarea<T> {
+
+        private final T valor;
+        private final long tick;
+        private volatile boolean cancelada;
+
+        private Tarea(T valor, long tick) {
+            this.valor = valor;
+            this.tick = tick;
+        }
+
+        public T valor() {
+            return valor;
+        }
+
+        /** La tarea deja de entregarse; se descarta al pasar por su ranura. */
+        public void cancelar() {
+            cancelada = true;
+        }
+    }
+}
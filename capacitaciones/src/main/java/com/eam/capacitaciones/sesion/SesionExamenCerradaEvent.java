@@ -0,0 +1,7 @@
+package com.eam.capacitaciones.sesion;
+
+/**
+ * Se publica al cerrar una sesión de examen antes de que venza su tiempo.
+ */
+public record SesionExamenCerradaEvent(Long sesionId) {
+}
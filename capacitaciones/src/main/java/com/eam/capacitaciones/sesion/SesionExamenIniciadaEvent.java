@@ -0,0 +1,9 @@
+package com.eam.capacitaciones.sesion;
+
+import java.time.LocalDateTime;
+
+/**
+ * Se publica al abrir una sesión de examen, para programar su vencimiento.
+ */
+public record SesionExamenIniciadaEvent(Long sesionId, LocalDateTime vence) {
+}
@@ -0,0 +1,184 @@
+package com.eam.capacitaciones.sesion;
+
+import com.eam.capacitaciones.domain.entity.SesionExamen;
+import com.eam.capacitaciones.repository.SesionExamenRepository;
+import com.eam.capacitaciones.service.SesionExamenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cierra las sesiones de examen al vencer su tiempo.
+ *
+ * Las sesiones abiertas de esta instancia viven en memoria con su vencimiento programado en una
+ * {@link RuedaTemporizadora}, así que programar o cancelar no cuesta más con decenas de miles de
+ * sesiones. Cada {@code evaluacion.session.tick-ms} se recogen las vencidas y se cierran por
+ * lotes, una transacción por lote. El cierre espera {@code evaluacion.session.grace-ms} tras el
+ * vencimiento para dar tiempo a guardar las entregas enviadas a último momento. Al arrancar se
+ * vuelven a programar todas las sesiones abiertas de la base de datos; si otra instancia cierra
+ * la misma sesión, la segunda ya no la encuentra abierta.
+ *
+ * La rueda solo conoce las sesiones de esta instancia: si la instancia que abrió una sesión se
+ * detiene y no vuelve, nadie la cerraría. Por eso cada {@code evaluacion.session.sweep-interval-ms}
+ * se buscan además en la base de datos las sesiones abiertas vencidas hace más del periodo de
+ * gracia y se cierran.
+ */
+@Component
+@Slf4j
+public class SesionExamenTemporizador {
+
+    private final SesionExamenService sesionExamenService;
+    private final SesionExamenRepository sesionExamenRepository;
+    private final RuedaTemporizadora<Long> rueda;
+    /** Sesiones abiertas con su vencimiento programado, por id. */
+    private final Map<Long, RuedaTemporizadora.Tarea<Long>> activas = new ConcurrentHashMap<>();
+    private final long graciaMs;
+    private final long reintentoMs;
+    private final int lote;
+
+    private final Counter vencidas;
+    private final Timer cierre;
+
+    public SesionExamenTemporizador(
+            SesionExamenService sesionExamenService,
+            SesionExamenRepository sesionExamenRepository,
+            MeterRegistry meterRegistry,
+            @Value("${evaluacion.session.tick-ms:1000}") long tickMs,
+            @Value("${evaluacion.session.wheel-slots:4096}") int ranuras,
+            @Value("${evaluacion.session.grace-ms:30000}") long graciaMs,
+            @Value("${evaluacion.session.retry-delay-ms:5000}") long reintentoMs,
+            @Value("${evaluacion.session.finalize-batch-size:500}") int lote) {
+        this.sesionExamenService = sesionExamenService;
+        this.sesionExamenRepository = sesionExamenRepository;
+        this.rueda = new RuedaTemporizadora<>(Math.max(1, tickMs), Math.max(1, ranuras), System.currentTimeMillis());
+        this.graciaMs = Math.max(0, graciaMs);
+        this.reintentoMs = Math.max(1, reintentoMs);
+        this.lote = Math.max(1, lote);
+
+        this.vencidas = Counter.builder("evaluacion.sesiones.vencidas")
+                .description("Sesiones de examen cerradas al vencer su tiempo")
+                .register(meterRegistry);
+        this.cierre = Timer.builder("evaluacion.sesiones.cierre")
+                .description("Duración del cierre de cada lote de sesiones vencidas")
+                .register(meterRegistry);
+        Gauge.builder("evaluacion.sesiones.abiertas", activas, Map::size)
+                .description("Sesiones de examen abiertas con vencimiento programado en esta instancia")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alIniciar(SesionExamenIniciadaEvent event) {
+        programar(event.sesionId(), milisegundos(event.vence()) + graciaMs);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void alCerrar(SesionExamenCerradaEvent event) {
+        descartar(event.sesionId());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recuperar() {
+        long inicio = System.nanoTime();
+        int recuperadas = 0;
+        Long ultimo = 0L;
+        List<SesionExamen> bloque;
+        while (!(bloque = sesionExamenRepository.findAbiertasDespuesDe(ultimo, PageRequest.of(0, lote))).isEmpty()) {
+            for (SesionExamen sesion : bloque) {
+                programar(sesion.getIdSesion(), milisegundos(sesion.getVence()) + graciaMs);
+            }
+            recuperadas += bloque.size();
+            ultimo = bloque.get(bloque.size() - 1).getIdSesion();
+        }
+        log.info("Sesiones de examen abiertas reprogramadas: {} en {} ms",
+                recuperadas, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Cierra las sesiones abiertas que vencieron hace más del periodo de gracia, sean o no de esta
+     * instancia.
+     */
+    @Scheduled(fixedDelayString = "${evaluacion.session.sweep-interval-ms:60000}",
+               initialDelayString = "${evaluacion.session.sweep-interval-ms:60000}")
+    public void barrer() {
+        LocalDateTime limite = LocalDateTime.now().minusNanos(graciaMs * 1_000_000);
+        int cerradas = 0;
+        Long ultimo = 0L;
+        List<Long> bloque;
+        while (!(bloque = sesionExamenRepository.findIdsVencidasDespuesDe(ultimo, limite, PageRequest.of(0, lote)))
+                .isEmpty()) {
+            bloque.forEach(this::descartar);
+            cerradas += cerrar(bloque);
+            ultimo = bloque.get(bloque.size() - 1);
+        }
+        if (cerradas > 0) {
+            log.info("Barrido de sesiones vencidas: {} cerradas", cerradas);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${evaluacion.session.tick-ms:1000}")
+    public void avanzar() {
+        List<Long> vencidasTick = rueda.avanzar(System.currentTimeMillis());
+        if (vencidasTick.isEmpty()) {
+            return;
+        }
+        vencidasTick.forEach(activas::remove);
+        for (int desde = 0; desde < vencidasTick.size(); desde += lote) {
+            cerrar(vencidasTick.subList(desde, Math.min(desde + lote, vencidasTick.size())));
+        }
+    }
+
+    int activas() {
+        return activas.size();
+    }
+
+    private int cerrar(List<Long> sesionIds) {
+        Timer.Sample muestra = Timer.start();
+        try {
+            int cerradas = sesionExamenService.vencer(sesionIds);
+            vencidas.increment(cerradas);
+            return cerradas;
+        } catch (RuntimeException ex) {
+            // Siguen abiertas en la base de datos; se intenta de nuevo más tarde
+            log.warn("No se pudieron cerrar {} sesiones vencidas; se reintentará", sesionIds.size(), ex);
+            long reintento = System.currentTimeMillis() + reintentoMs;
+            sesionIds.forEach(sesionId -> programar(sesionId, reintento));
+            return 0;
+        } finally {
+            muestra.stop(cierre);
+        }
+    }
+
+    private void descartar(Long sesionId) {
+        RuedaTemporizadora.Tarea<Long> tarea = activas.remove(sesionId);
+        if (tarea != null) {
+            tarea.cancelar();
+        }
+    }
+
+    private void programar(Long sesionId, long venceMs) {
+        RuedaTemporizadora.Tarea<Long> anterior = activas.put(sesionId, rueda.programar(sesionId, venceMs));
+        if (anterior != null) {
+            anterior.cancelar();
+        }
+    }
+
+    private static long milisegundos(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
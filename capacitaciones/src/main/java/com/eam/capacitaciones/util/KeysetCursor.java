@@ -0,0 +1,83 @@
+package com.eam.capacitaciones.util;
+
+import com.eam.capacitaciones.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de continuación para paginación por keyset: el valor de la columna de orden
+ * y el id de la última fila entregada, codificados como token opaco Base64 URL.
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final String clave;
+    private final Long id;
+
+    private KeysetCursor(String clave, Long id) {
+        this.clave = clave;
+        this.id = id;
+    }
+
+    /**
+     * Las columnas de orden son NOT NULL: una clave nula se rechaza en lugar de codificarse como
+     * el texto "null", que la página siguiente compararía como un valor real.
+     *
+     * @throws IllegalArgumentException si la clave o el id son nulos
+     */
+    public static String encode(Object clave, Long id) {
+        if (clave == null || id == null) {
+            throw new IllegalArgumentException("El cursor de paginación necesita clave e id");
+        }
+        String raw = id + ":" + clave;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Devuelve null para la primera página (token vacío).
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = raw.indexOf(':');
+            if (separador <= 0) {
+                throw new BadRequestException("Cursor de paginación inválido");
+            }
+            return new KeysetCursor(raw.substring(separador + 1), Long.parseLong(raw.substring(0, separador)));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+
+    public static int pageSize(Integer solicitado) {
+        if (solicitado == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(solicitado, MAX_PAGE_SIZE));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTexto() {
+        return clave;
+    }
+
+    public LocalDateTime getFecha() {
+        try {
+            return LocalDateTime.parse(clave);
+        } catch (DateTimeParseException ex) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.eam.capacitaciones.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Reconstrucción completa de una estructura en memoria sin bloquear las lecturas.
+ *
+ * La estructura nueva se arma fuera del lock y se intercambia bajo el lock de escritura. Los
+ * cambios que llegan mientras tanto se guardan con {@link #anotar} y se vuelven a aplicar sobre
+ * la estructura nueva tras el intercambio, porque la lectura de la base pudo no verlos.
+ *
+ * @param <T> cambio que se anota durante la reconstrucción (un id, un evento)
+ */
+@Slf4j
+public final class ReconstruccionEnCaliente<T> {
+
+    private final String descripcion;
+    private final ReentrantReadWriteLock lock;
+    private final IntSupplier tamano;
+
+    private final Queue<T> anotados = new ConcurrentLinkedQueue<>();
+    private volatile boolean reconstruyendo;
+
+    /**
+     * @param descripcion nombre de la estructura para el log, p. ej. "Índice de títulos"
+     * @param lock        lock que protege la estructura; el intercambio toma el de escritura
+     * @param tamano      número de cursos tras el intercambio, para el log
+     */
+    public ReconstruccionEnCaliente(String descripcion, ReentrantReadWriteLock lock, IntSupplier tamano) {
+        this.descripcion = descripcion;
+        this.lock = lock;
+        this.tamano = tamano;
+    }
+
+    /**
+     * Guarda el cambio para volver a aplicarlo si hay una reconstrucción en curso.
+     *
+     * @return si se ha anotado
+     */
+    public boolean anotar(T cambio) {
+        if (!reconstruyendo) {
+            return false;
+        }
+        anotados.add(cambio);
+        return true;
+    }
+
+    /**
+     * Construye la estructura nueva, la intercambia bajo el lock de escritura y vuelve a aplicar
+     * los cambios anotados mientras tanto. Dos reconstrucciones simultáneas se ejecutan una tras
+     * otra.
+     */
+    public synchronized <S> void reconstruir(Supplier<S> construir, Consumer<S> intercambiar,
+                                             Consumer<T> reaplicar) {
+        long inicio = System.nanoTime();
+        reconstruyendo = true;
+        try {
+            S nueva = construir.get();
+            lock.writeLock().lock();
+            try {
+                intercambiar.accept(nueva);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            reconstruyendo = false;
+        }
+
+        T cambio;
+        while ((cambio = anotados.poll()) != null) {
+            reaplicar.accept(cambio);
+        }
+        log.info("{} construido: {} cursos en {} ms",
+                descripcion, tamano.getAsInt(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
@@ -0,0 +1,27 @@
+package com.eam.capacitaciones.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto en español para búsqueda: minúsculas, sin tildes ni diéresis
+ * y con cualquier separador reducido a un único espacio ("Básico" y "basico" coinciden).
+ */
+public final class TextoNormalizer {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TextoNormalizer() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String sinDiacriticos = DIACRITICOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("");
+        return SEPARADORES.matcher(sinDiacriticos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+}
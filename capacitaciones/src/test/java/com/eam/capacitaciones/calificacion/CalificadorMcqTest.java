@@ -0,0 +1,92 @@
+package com.eam.capacitaciones.calificacion;
+
+import com.eam.capacitaciones.domain.entity.Evaluacion;
+import com.eam.capacitaciones.domain.entity.PreguntaClave;
+import com.eam.capacitaciones.examen.ExamenGenerador;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.repository.PreguntaClaveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CalificadorMcqTest {
+
+    @Mock
+    private PreguntaClaveRepository preguntaClaveRepository;
+
+    @Mock
+    private ExamenGenerador examenGenerador;
+
+    private CalificadorMcq calificador;
+    private Evaluacion evaluacion;
+
+    @BeforeEach
+    void setUp() {
+        calificador = new CalificadorMcq(preguntaClaveRepository, examenGenerador, new SimpleMeterRegistry(), 100, 60000);
+        evaluacion = Evaluacion.builder()
+                .idEvaluacion(7L)
+                .tipo(Evaluacion.TipoEnum.MCQ)
+                .puntajeMax(50)
+                .build();
+    }
+
+    @Test
+    void calificar_VariasRespuestas_CompilaLaClaveUnaSolaVez() {
+        // Arrange
+        when(preguntaClaveRepository.findByEvaluacionIdOrderByNumero(7L)).thenReturn(List.of(
+                PreguntaClave.builder().evaluacionId(7L).numero(1).correctas("A").peso(1).build(),
+                PreguntaClave.builder().evaluacionId(7L).numero(2).correctas("C").peso(1).build()));
+
+        // Act
+        Optional<BigDecimal> primera = calificador.calificar(evaluacion, 1, 1L, 1, "A,C");
+        Optional<BigDecimal> segunda = calificador.calificar(evaluacion, 1, 1L, 1, "A,B");
+
+        // Assert
+        assertThat(primera).hasValueSatisfying(p -> assertThat(p).isEqualByComparingTo("50"));
+        assertThat(segunda).hasValueSatisfying(p -> assertThat(p).isEqualByComparingTo("25"));
+        verify(preguntaClaveRepository, times(1)).findByEvaluacionIdOrderByNumero(7L);
+    }
+
+    @Test
+    void alCambiarClave_RecargaLaClaveEnLaSiguienteCalificacion() {
+        // Arrange
+        when(preguntaClaveRepository.findByEvaluacionIdOrderByNumero(7L))
+                .thenReturn(List.of(PreguntaClave.builder().evaluacionId(7L).numero(1).correctas("A").build()))
+                .thenReturn(List.of(PreguntaClave.builder().evaluacionId(7L).numero(1).correctas("B").build()));
+        calificador.calificar(evaluacion, 1, 1L, 1, "B");
+
+        // Act
+        calificador.alCambiarClave(new ClaveRespuestasCambiadaEvent(7L));
+        Optional<BigDecimal> puntuacion = calificador.calificar(evaluacion, 1, 1L, 1, "B");
+
+        // Assert
+        assertThat(puntuacion).hasValueSatisfying(p -> assertThat(p).isEqualByComparingTo("50"));
+        verify(preguntaClaveRepository, times(2)).findByEvaluacionIdOrderByNumero(7L);
+    }
+
+    @Test
+    void calificar_SinClave_DevuelveVacioYFormatoInvalidoLanzaBadRequest() {
+        // Arrange
+        when(preguntaClaveRepository.findByEvaluacionIdOrderByNumero(7L)).thenReturn(List.of());
+        when(preguntaClaveRepository.findByEvaluacionIdOrderByNumero(8L))
+                .thenReturn(List.of(PreguntaClave.builder().evaluacionId(8L).numero(1).correctas("A").build()));
+        Evaluacion conClave = Evaluacion.builder().idEvaluacion(8L).tipo(Evaluacion.TipoEnum.MCQ).puntajeMax(10).build();
+
+        // Act & Assert
+        assertThat(calificador.calificar(evaluacion, 1, 1L, 1, "A")).isEmpty();
+        assertThatThrownBy(() -> calificador.calificar(conClave, 1, 1L, 1, "1"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,55 @@
+package com.eam.capacitaciones.calificacion;
+
+import com.eam.capacitaciones.domain.entity.PreguntaClave;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClaveCompiladaTest {
+
+    private final ClaveCompilada clave = ClaveCompilada.compilar(List.of(
+            pregunta(1, "A", 1),
+            pregunta(2, "BD", 2),
+            pregunta(3, "C", 1)));
+
+    @Test
+    void puntuar_TodasCorrectas_DevuelvePuntajeMaximo() {
+        // Act
+        BigDecimal puntuacion = clave.puntuar("a, db ,C", 80);
+
+        // Assert
+        assertThat(puntuacion).isEqualByComparingTo("80");
+    }
+
+    @Test
+    void puntuar_MultipleIncompletaYPreguntaSinContestar_SoloSumaLasExactas() {
+        // Act
+        BigDecimal puntuacion = clave.puntuar("A,B,", 100);
+
+        // Assert
+        assertThat(clave.aciertos("A,B,")).isEqualTo(1);
+        assertThat(puntuacion).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void aciertos_MasPreguntasQueLaClave_LanzaIllegalArgumentException() {
+        // Act & Assert
+        assertThatThrownBy(() -> clave.aciertos("A,BD,C,A"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> clave.aciertos("A;BD"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static PreguntaClave pregunta(int numero, String correctas, int peso) {
+        return PreguntaClave.builder()
+                .evaluacionId(1L)
+                .numero(numero)
+                .correctas(correctas)
+                .peso(peso)
+                .build();
+    }
+}
@@ -0,0 +1,253 @@
+package com.eam.capacitaciones.entrega;
+
+import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.dto.request.RespuestaSubmitRequest;
+import com.eam.capacitaciones.dto.response.EntregaDTO;
+import com.eam.capacitaciones.dto.response.RespuestaDTO;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.exception.ServiceUnavailableException;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import com.eam.capacitaciones.service.RespuestaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecepcionEntregasTest {
+
+    @TempDir
+    Path directorio;
+
+    @Mock
+    private RespuestaService respuestaService;
+
+    @Mock
+    private RespuestaRepository respuestaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<RecepcionEntregas> abiertas = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (RecepcionEntregas recepcion : abiertas) {
+            recepcion.detener();
+        }
+    }
+
+    @Test
+    void recibir_RafagaAlCerrarExamen_DevuelveRecibosYGuardaPorLotes() throws Exception {
+        // Arrange
+        AtomicLong ids = new AtomicLong();
+        when(respuestaService.submitRespuesta(anyLong(), any(), anyString(), any()))
+                .thenAnswer(invocation -> RespuestaDTO.builder().idRespuesta(ids.incrementAndGet()).intentoNumero(1).build());
+        RecepcionEntregas recepcion = abrir(1000);
+        ExecutorService clientes = Executors.newFixedThreadPool(50);
+        List<Callable<EntregaDTO>> envios = new ArrayList<>();
+        for (long usuario = 1; usuario <= 500; usuario++) {
+            long usuarioId = usuario;
+            envios.add(() -> recepcion.recibir(usuarioId, solicitud("A,B,C")));
+        }
+
+        // Act
+        List<String> recibos = new ArrayList<>();
+        for (Future<EntregaDTO> envio : clientes.invokeAll(envios)) {
+            EntregaDTO entrega = envio.get();
+            assertThat(entrega.getEstado()).isEqualTo(EntregaDTO.EstadoEnum.PENDIENTE);
+            recibos.add(entrega.getRecibo());
+        }
+        clientes.shutdown();
+        long anotadas = Files.readAllLines(directorio.resolve("entregas.log")).size();
+        recepcion.iniciar();
+        esperarSinPendientes(recepcion);
+
+        // Assert
+        assertThat(new HashSet<>(recibos)).hasSize(500);
+        assertThat(anotadas).isEqualTo(500);
+        verify(respuestaService, times(500)).submitRespuesta(anyLong(), any(), anyString(), any());
+        // Lotes de 100: cinco transacciones para toda la ráfaga
+        verify(transactionManager, times(5)).getTransaction(any());
+        // invokeAll conserva el orden: el primer recibo es del usuario 1
+        assertThat(recepcion.getEstado(recibos.get(0), 1L).getEstado()).isEqualTo(EntregaDTO.EstadoEnum.GUARDADA);
+    }
+
+    @Test
+    void recibir_ColaLlena_RespondeServicioNoDisponible() throws Exception {
+        // Arrange
+        RecepcionEntregas recepcion = abrir(2);
+        recepcion.recibir(1L, solicitud("A"));
+        recepcion.recibir(2L, solicitud("B"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> recepcion.recibir(3L, solicitud("C")))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(recepcion.pendientes()).isEqualTo(2);
+    }
+
+    @Test
+    void abrir_EntregasSinTerminar_LasRecuperaSinDuplicarLasGuardadas() throws Exception {
+        // Arrange
+        RecepcionEntregas anterior = abrir(10);
+        String guardada = anterior.recibir(1L, solicitud("A")).getRecibo();
+        String perdida = anterior.recibir(2L, solicitud("B")).getRecibo();
+        anterior.detener();
+        abiertas.remove(anterior);
+
+        Respuesta existente = Respuesta.builder().idRespuesta(7L).usuarioId(1L).intentoNumero(1)
+                .reciboEntrega(guardada).build();
+        when(respuestaRepository.findByReciboEntregaIn(any())).thenReturn(List.of(existente));
+        when(respuestaService.submitRespuesta(eq(2L), any(), eq(perdida), any()))
+                .thenReturn(RespuestaDTO.builder().idRespuesta(8L).intentoNumero(1).build());
+
+        // Act
+        RecepcionEntregas recepcion = abrir(10);
+        recepcion.iniciar();
+        esperarSinPendientes(recepcion);
+
+        // Assert
+        verify(respuestaService, never()).submitRespuesta(eq(1L), any(), anyString(), any());
+        assertThat(recepcion.getEstado(guardada, 1L).getRespuestaId()).isEqualTo(7L);
+        assertThat(recepcion.getEstado(perdida, 2L).getRespuestaId()).isEqualTo(8L);
+    }
+
+    @Test
+    void procesar_EntregaInvalidaEnLote_RechazaSoloEsa() throws Exception {
+        // Arrange
+        when(respuestaService.submitRespuesta(eq(1L), any(), anyString(), any()))
+                .thenReturn(RespuestaDTO.builder().idRespuesta(1L).intentoNumero(2).build());
+        when(respuestaService.submitRespuesta(eq(2L), any(), anyString(), any()))
+                .thenThrow(new BadRequestException("Ha excedido el número máximo de intentos permitidos"));
+        RecepcionEntregas recepcion = abrir(10);
+        String valida = recepcion.recibir(1L, solicitud("A")).getRecibo();
+        String invalida = recepcion.recibir(2L, solicitud("B")).getRecibo();
+
+        // Act
+        recepcion.iniciar();
+        esperarSinPendientes(recepcion);
+
+        // Assert
+        assertThat(recepcion.getEstado(valida, 1L).getEstado()).isEqualTo(EntregaDTO.EstadoEnum.GUARDADA);
+        EntregaDTO rechazada = recepcion.getEstado(invalida, 2L);
+        assertThat(rechazada.getEstado()).isEqualTo(EntregaDTO.EstadoEnum.RECHAZADA);
+        assertThat(rechazada.getError()).contains("máximo de intentos");
+        verify(respuestaService, atLeastOnce()).submitRespuesta(eq(1L),
+                argThat(request -> "A".equals(request.getRespuestaTexto())), eq(valida), any());
+    }
+
+    @Test
+    void procesar_ErrorNoTransitorio_RechazaLaEntregaSinReintentarla() throws Exception {
+        // Arrange
+        when(respuestaService.submitRespuesta(eq(1L), any(), anyString(), any()))
+                .thenThrow(new IllegalStateException("estado inesperado"));
+        RecepcionEntregas recepcion = abrir(10);
+        String recibo = recepcion.recibir(1L, solicitud("A")).getRecibo();
+
+        // Act
+        recepcion.iniciar();
+        esperarSinPendientes(recepcion);
+
+        // Assert
+        EntregaDTO rechazada = recepcion.getEstado(recibo, 1L);
+        assertThat(rechazada.getEstado()).isEqualTo(EntregaDTO.EstadoEnum.RECHAZADA);
+        assertThat(rechazada.getError()).isEqualTo("No se pudo guardar la entrega");
+    }
+
+    @Test
+    void procesar_ErrorTransitorio_DifiereLaEntrega() throws Exception {
+        // Arrange
+        when(respuestaService.submitRespuesta(eq(1L), any(), anyString(), any()))
+                .thenThrow(new PessimisticLockingFailureException("bloqueo"));
+        RecepcionEntregas recepcion = abrir(10);
+        String recibo = recepcion.recibir(1L, solicitud("A")).getRecibo();
+
+        // Act
+        recepcion.iniciar();
+
+        // Assert
+        // Una vez en el lote y otra sola, tras deshacerse el lote
+        verify(respuestaService, timeout(5000).times(2)).submitRespuesta(eq(1L), any(), eq(recibo), any());
+        assertThat(recepcion.pendientes()).isEqualTo(1);
+        assertThat(recepcion.getEstado(recibo, 1L).getEstado()).isEqualTo(EntregaDTO.EstadoEnum.PENDIENTE);
+    }
+
+    @Test
+    void procesar_DiarioSuperaUmbralConPendientes_LoReescribeSoloConEllas() throws Exception {
+        // Arrange
+        when(respuestaService.submitRespuesta(eq(1L), any(), anyString(), any()))
+                .thenThrow(new PessimisticLockingFailureException("bloqueo"));
+        when(respuestaService.submitRespuesta(eq(2L), any(), anyString(), any()))
+                .thenReturn(RespuestaDTO.builder().idRespuesta(2L).intentoNumero(1).build());
+        RecepcionEntregas recepcion = abrir(10, 1);
+        String diferida = recepcion.recibir(1L, solicitud("A")).getRecibo();
+        recepcion.recibir(2L, solicitud("B"));
+        recepcion.recibir(2L, solicitud("C"));
+        Path diario = directorio.resolve("entregas.log");
+
+        // Act
+        recepcion.iniciar();
+
+        // Assert
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (Files.readAllLines(diario).size() != 1 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(Files.readAllLines(diario)).singleElement().asString().contains(diferida, "RECIBIDA");
+        recepcion.detener();
+        abiertas.remove(recepcion);
+        assertThat(abrir(10).pendientes()).isEqualTo(1);
+    }
+
+    private RecepcionEntregas abrir(int capacidad) throws Exception {
+        return abrir(capacidad, 1 << 20);
+    }
+
+    private RecepcionEntregas abrir(int capacidad, long umbralCompactacion) throws Exception {
+        RecepcionEntregas recepcion = new RecepcionEntregas(respuestaService, respuestaRepository, transactionManager,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                directorio.resolve("entregas.log").toString(), umbralCompactacion, capacidad, 100, 2, 60000);
+        recepcion.abrir();
+        abiertas.add(recepcion);
+        return recepcion;
+    }
+
+    private static RespuestaSubmitRequest solicitud(String texto) {
+        return RespuestaSubmitRequest.builder().evaluacionId(10L).respuestaTexto(texto).build();
+    }
+
+    private static void esperarSinPendientes(RecepcionEntregas recepcion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (recepcion.pendientes() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(recepcion.pendientes()).isZero();
+    }
+}
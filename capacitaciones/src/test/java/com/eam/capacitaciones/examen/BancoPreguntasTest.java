@@ -0,0 +1,105 @@
+package com.eam.capacitaciones.examen;
+
+import com.eam.capacitaciones.domain.entity.BancoMuestra;
+import com.eam.capacitaciones.domain.entity.PreguntaBanco;
+import com.eam.capacitaciones.domain.entity.PreguntaBanco.DificultadEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BancoPreguntasTest {
+
+    private final List<PreguntaBanco> preguntas = crearPreguntas();
+
+    private final BancoPreguntas banco = BancoPreguntas.compilar(9L, 1, preguntas, List.of(
+            BancoMuestra.builder().evaluacionId(9L).dificultad(DificultadEnum.BAJA).cantidad(2).build(),
+            BancoMuestra.builder().evaluacionId(9L).dificultad(DificultadEnum.ALTA).cantidad(1).build()));
+
+    @Test
+    void generar_MismaSemilla_DevuelveElMismoExamen() {
+        // Act
+        ExamenGenerado primero = banco.generar(3L, 1);
+        ExamenGenerado segundo = banco.generar(3L, 1);
+        ExamenGenerado otroIntento = banco.generar(3L, 2);
+
+        // Assert
+        assertThat(segundo.preguntas()).isEqualTo(primero.preguntas());
+        assertThat(List.of(banco.generar(3L, 2), banco.generar(4L, 1), banco.generar(5L, 1)))
+                .extracting(ExamenGenerado::preguntas)
+                .anyMatch(otras -> !otras.equals(primero.preguntas()));
+        assertThat(otroIntento.intentoNumero()).isEqualTo(2);
+    }
+
+    @Test
+    void generar_OtraVersionDelBanco_NoAlteraLosExamenesDeLaAnterior() {
+        // Arrange
+        BancoPreguntas nuevaVersion = BancoPreguntas.compilar(9L, 2, preguntas, List.of(
+                BancoMuestra.builder().evaluacionId(9L).versionBanco(2).dificultad(DificultadEnum.BAJA).cantidad(2).build(),
+                BancoMuestra.builder().evaluacionId(9L).versionBanco(2).dificultad(DificultadEnum.ALTA).cantidad(1).build()));
+        ExamenGenerado antes = banco.generar(3L, 1);
+
+        // Act
+        List<ExamenGenerado> nuevos = List.of(nuevaVersion.generar(3L, 1), nuevaVersion.generar(4L, 1),
+                nuevaVersion.generar(5L, 1));
+
+        // Assert
+        assertThat(banco.generar(3L, 1).preguntas()).isEqualTo(antes.preguntas());
+        assertThat(BancoPreguntas.semilla(9L, 2, 3L, 1)).isNotEqualTo(BancoPreguntas.semilla(9L, 1, 3L, 1));
+        assertThat(nuevos).extracting(ExamenGenerado::preguntas)
+                .anyMatch(otras -> !otras.equals(antes.preguntas()));
+    }
+
+    @Test
+    void generar_ConMuestra_EligeLaCantidadDeCadaDificultad() {
+        // Act
+        ExamenGenerado examen = banco.generar(3L, 1);
+
+        // Assert
+        Map<Long, PreguntaBanco> porId = preguntas.stream()
+                .collect(Collectors.toMap(PreguntaBanco::getIdPreguntaBanco, Function.identity()));
+        assertThat(examen.preguntas()).hasSize(3);
+        assertThat(examen.preguntas()).extracting(p -> porId.get(p.preguntaId()).getDificultad())
+                .containsExactlyInAnyOrder(DificultadEnum.BAJA, DificultadEnum.BAJA, DificultadEnum.ALTA);
+        assertThat(examen.preguntas()).extracting(PreguntaExamen::preguntaId).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void generar_OpcionesMezcladas_LaClaveSigueALaOpcionCorrecta() {
+        // Arrange
+        ExamenGenerado examen = banco.generar(11L, 1);
+        StringBuilder respuesta = new StringBuilder();
+        for (PreguntaExamen pregunta : examen.preguntas()) {
+            // La opción correcta de cada pregunta del banco es la que contiene "correcta"
+            int indice = pregunta.opciones().indexOf("correcta " + pregunta.preguntaId());
+            if (respuesta.length() > 0) {
+                respuesta.append(',');
+            }
+            respuesta.append((char) ('A' + indice));
+        }
+
+        // Act & Assert
+        assertThat(examen.clave().puntuar(respuesta, 100)).isEqualByComparingTo("100");
+    }
+
+    private static List<PreguntaBanco> crearPreguntas() {
+        List<PreguntaBanco> preguntas = new ArrayList<>();
+        DificultadEnum[] dificultades = {DificultadEnum.BAJA, DificultadEnum.MEDIA, DificultadEnum.ALTA};
+        for (long id = 1; id <= 12; id++) {
+            preguntas.add(PreguntaBanco.builder()
+                    .idPreguntaBanco(id)
+                    .evaluacionId(9L)
+                    .enunciado("Pregunta " + id)
+                    .opciones(new ArrayList<>(List.of("correcta " + id, "otra 1", "otra 2", "otra 3")))
+                    .correctas("A")
+                    .dificultad(dificultades[(int) (id % 3)])
+                    .build());
+        }
+        return preguntas;
+    }
+}
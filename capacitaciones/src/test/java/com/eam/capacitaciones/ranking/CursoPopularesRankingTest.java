@@ -0,0 +1,123 @@
+package com.eam.capacitaciones.ranking;
+
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+import com.eam.capacitaciones.dto.response.CursoPopularDTO;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking.Periodo;
+import com.eam.capacitaciones.repository.CursoContadorRepository;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.projection.CursoCabecera;
+import com.eam.capacitaciones.repository.projection.CursoContadores;
+import com.eam.capacitaciones.repository.projection.CursoInscritosDia;
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CursoPopularesRankingTest {
+
+    private static final LocalDate HOY = LocalDate.of(2025, 3, 10);
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private CursoContadorRepository contadorRepository;
+
+    @Mock
+    private InscripcionRepository inscripcionRepository;
+
+    private CursoPopularesRanking ranking;
+
+    @BeforeEach
+    void setUp() {
+        ranking = new CursoPopularesRanking(cursoRepository, contadorRepository, inscripcionRepository,
+                new SimpleMeterRegistry());
+        when(cursoRepository.findCabecerasActivas()).thenReturn(List.of(
+                new CursoCabecera(1L, "Excel", NivelEnum.BASICO),
+                new CursoCabecera(2L, "Python", NivelEnum.INTERMEDIO),
+                new CursoCabecera(3L, "Liderazgo", NivelEnum.AVANZADO)));
+        when(contadorRepository.findTotales()).thenReturn(List.of(
+                new CursoContadores(1L, 50L, 0L, 0L, 0L),
+                new CursoContadores(2L, 20L, 0L, 0L, 0L),
+                new CursoContadores(3L, 10L, 0L, 0L, 0L)));
+        when(inscripcionRepository.contarPorDiaDesde(HOY.minusDays(29))).thenReturn(List.of(
+                new CursoInscritosDia(2L, HOY, 6L),
+                new CursoInscritosDia(3L, HOY.minusDays(3), 4L),
+                new CursoInscritosDia(1L, HOY.minusDays(20), 9L)));
+        ranking.reconstruir(HOY);
+    }
+
+    @Test
+    void top_ShouldOrderEachPeriodByItsOwnCounts() {
+        // Act & Assert
+        assertThat(ids(ranking.top(Periodo.TOTAL, 10, HOY))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(ranking.top(Periodo.ULTIMOS_7_DIAS, 10, HOY))).containsExactly(2L, 3L);
+        assertThat(ids(ranking.top(Periodo.ULTIMOS_30_DIAS, 10, HOY))).containsExactly(1L, 2L, 3L);
+        assertThat(ranking.top(Periodo.TOTAL, 2, HOY)).extracting(CursoPopularDTO::getTotalInscritos)
+                .containsExactly(50L, 20L);
+    }
+
+    @Test
+    void registrar_ShouldReorderWithoutRebuilding() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            ranking.registrar(3L, HOY, 1, HOY);
+        }
+
+        // Assert
+        assertThat(ids(ranking.top(Periodo.ULTIMOS_7_DIAS, 10, HOY))).containsExactly(3L, 2L);
+        assertThat(ranking.top(Periodo.TOTAL, 10, HOY)).extracting(CursoPopularDTO::getTotalInscritos)
+                .containsExactly(50L, 20L, 15L);
+    }
+
+    @Test
+    void registrar_ShouldSubtractRemovedEnrollmentsFromTheirDay() {
+        // Act
+        ranking.registrar(2L, HOY, -6, HOY);
+
+        // Assert
+        assertThat(ids(ranking.top(Periodo.ULTIMOS_7_DIAS, 10, HOY))).containsExactly(3L);
+        assertThat(ranking.top(Periodo.TOTAL, 10, HOY)).extracting(CursoPopularDTO::getTotalInscritos)
+                .containsExactly(50L, 14L, 10L);
+    }
+
+    @Test
+    void top_ShouldDropDaysThatLeaveTheWindow() {
+        // Act
+        List<CursoPopularDTO> semana = ranking.top(Periodo.ULTIMOS_7_DIAS, 10, HOY.plusDays(4));
+        List<CursoPopularDTO> mes = ranking.top(Periodo.ULTIMOS_30_DIAS, 10, HOY.plusDays(10));
+
+        // Assert
+        assertThat(ids(semana)).containsExactly(2L);
+        assertThat(ids(mes)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void top_ShouldSkipCoursesThatAreNoLongerActive() {
+        // Arrange
+        when(cursoRepository.findCabeceraActivaById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        ranking.alCambiarCurso(new CursoCatalogoCambiadoEvent(1L, Set.of(NivelEnum.BASICO)));
+
+        // Assert
+        assertThat(ids(ranking.top(Periodo.TOTAL, 2, HOY))).containsExactly(2L, 3L);
+    }
+
+    private static List<Long> ids(List<CursoPopularDTO> cursos) {
+        return cursos.stream().map(CursoPopularDTO::getIdCurso).toList();
+    }
+}
@@ -0,0 +1,115 @@
+package com.eam.capacitaciones.recomendacion;
+
+import com.eam.capacitaciones.dto.response.CursoPopularDTO;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking.Periodo;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.projection.InscripcionPar;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CursoRecomendadorTest {
+
+    /** Usuarios 1-4 sobre los cursos 10 (A), 20 (B), 30 (C) y 40 (D). */
+    private static final List<InscripcionPar> INSCRIPCIONES = List.of(
+            new InscripcionPar(1L, 10L), new InscripcionPar(1L, 20L), new InscripcionPar(1L, 30L),
+            new InscripcionPar(2L, 10L), new InscripcionPar(2L, 20L),
+            new InscripcionPar(3L, 10L), new InscripcionPar(3L, 40L),
+            new InscripcionPar(4L, 20L), new InscripcionPar(4L, 30L));
+
+    @Mock
+    private InscripcionRepository inscripcionRepository;
+
+    @Mock
+    private CursoPopularesRanking cursoPopularesRanking;
+
+    private CursoRecomendador recomendador;
+
+    @BeforeEach
+    void setUp() {
+        // Lote de 3 para recorrer varias páginas; paralelismo 2 para pasar por el pool fork-join
+        recomendador = new CursoRecomendador(inscripcionRepository, cursoPopularesRanking,
+                new SimpleMeterRegistry(), 50, 3, 2);
+        when(inscripcionRepository.findParesDespuesDe(anyLong(), anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    long usuarioId = invocation.getArgument(0);
+                    long cursoId = invocation.getArgument(1);
+                    Pageable pageable = invocation.getArgument(2);
+                    return INSCRIPCIONES.stream()
+                            .filter(p -> p.usuarioId() > usuarioId
+                                    || (p.usuarioId() == usuarioId && p.cursoId() > cursoId))
+                            .limit(pageable.getPageSize())
+                            .toList();
+                });
+        recomendador.reconstruir();
+    }
+
+    @Test
+    void recomendar_ShouldRankByCosineSimilarityAndExcludeOwnCourses() {
+        // Arrange
+        when(inscripcionRepository.findCursoIdsByUsuario(99L)).thenReturn(List.of(10L));
+
+        // Act
+        List<Long> result = recomendador.recomendar(99L, 3);
+
+        // Assert: A-B = 2/3, A-D = 1/sqrt(3), A-C = 1/sqrt(6)
+        assertThat(result).containsExactly(20L, 40L, 30L);
+    }
+
+    @Test
+    void recomendar_ShouldAddUpScoresFromEveryEnrolledCourse() {
+        // Arrange
+        when(inscripcionRepository.findCursoIdsByUsuario(99L)).thenReturn(List.of(20L, 40L));
+
+        // Act
+        List<Long> result = recomendador.recomendar(99L, 1);
+
+        // Assert
+        assertThat(result).containsExactly(10L);
+        verifyNoInteractions(cursoPopularesRanking);
+    }
+
+    @Test
+    void recomendar_ShouldFallBackToPopularCourses_WhenUserHasNoHistory() {
+        // Arrange
+        when(inscripcionRepository.findCursoIdsByUsuario(99L)).thenReturn(List.of());
+        when(cursoPopularesRanking.top(Periodo.TOTAL, 2)).thenReturn(List.of(
+                CursoPopularDTO.builder().idCurso(20L).build(),
+                CursoPopularDTO.builder().idCurso(10L).build()));
+
+        // Act
+        List<Long> result = recomendador.recomendar(99L, 2);
+
+        // Assert
+        assertThat(result).containsExactly(20L, 10L);
+    }
+
+    @Test
+    void mejores_ShouldKeepHighestWeightsInDescendingOrder() {
+        // Arrange
+        CursoRecomendador.Mejores mejores = new CursoRecomendador.Mejores(3);
+        float[] pesos = {0.1f, 0.9f, 0.5f, 0.7f, 0.3f, 0.8f};
+
+        // Act
+        for (int id = 0; id < pesos.length; id++) {
+            mejores.ofrecer(id, pesos[id]);
+        }
+
+        // Assert
+        assertThat(mejores.ordenados()).containsExactly(1, 5, 3);
+    }
+}
@@ -0,0 +1,74 @@
+package com.eam.capacitaciones.reintento;
+
+import com.eam.capacitaciones.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReintentoOptimistaTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReintentoOptimista reintento;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reintento = new ReintentoOptimista(meterRegistry, 3, 1, 2);
+    }
+
+    @Test
+    void ejecutar_ConflictoTransitorio_ReintentaHastaConfirmar() {
+        // Arrange
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act
+        String resultado = reintento.ejecutar("usuario.actualizar", () -> {
+            if (intentos.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Usuario", 1L);
+            }
+            return "ok";
+        });
+
+        // Assert
+        assertThat(resultado).isEqualTo("ok");
+        assertThat(intentos).hasValue(3);
+        assertThat(meterRegistry.counter("persistencia.conflictos", "operacion", "usuario.actualizar").count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void ejecutar_ConflictoPersistente_LanzaConflictException() {
+        // Arrange
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act & Assert
+        assertThatThrownBy(() -> reintento.ejecutar("respuesta.calificar", () -> {
+            intentos.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("Respuesta", 1L);
+        }))
+                .isInstanceOf(ConflictException.class)
+                .hasCauseInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(intentos).hasValue(3);
+        assertThat(meterRegistry.counter("persistencia.conflictos.agotados", "operacion", "respuesta.calificar").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void ejecutar_OtraExcepcion_NoReintenta() {
+        // Arrange
+        AtomicInteger intentos = new AtomicInteger();
+
+        // Act & Assert
+        assertThatThrownBy(() -> reintento.ejecutar("inscripcion.abandonar", () -> {
+            intentos.incrementAndGet();
+            throw new IllegalStateException("fallo");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(intentos).hasValue(1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.eam.capacitaciones.repository;
+
+import com.eam.capacitaciones.domain.entity.Usuario;
+import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class InsercionPorLotesTest {
+
+    private static final int FILAS = 500;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void saveAll_ShouldGroupInsertsIntoJdbcBatches() {
+        // Arrange
+        List<Usuario> usuarios = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            usuarios.add(Usuario.builder()
+                    .nombre("Usuario " + i)
+                    .email("lote" + i + "@example.com")
+                    .password("encodedPassword")
+                    .rol(RolEnum.USER)
+                    .activo(true)
+                    .build());
+        }
+        statistics.clear();
+
+        // Act
+        usuarioRepository.saveAll(usuarios);
+        entityManager.flush();
+
+        // Assert
+        assertThat(usuarios).allSatisfy(u -> assertThat(u.getIdUsuario()).isNotNull());
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(FILAS);
+        // Lotes de 50 filas y una lectura de secuencia por bloque de 50 ids; fila a fila serían 500
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(FILAS / 10L);
+    }
+}
@@ -0,0 +1,167 @@
+package com.eam.capacitaciones.search;
+
+import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Modulo;
+import com.eam.capacitaciones.domain.entity.Modulo.TipoEnum;
+import com.eam.capacitaciones.dto.response.CursoBusquedaDTO;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.ModuloRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CursoContenidoIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private ModuloRepository moduloRepository;
+
+    private CursoContenidoIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = nuevoIndex();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (index != null) {
+            index.cerrar();
+        }
+    }
+
+    @Test
+    void buscar_ShouldMatchStemmedAndUnaccentedTerms() {
+        // Arrange
+        indexar(curso(1L, "Bases de Datos Relacionales", "Modelado y consultas SQL"),
+                modulo(10L, 1L, "Diseño", "La normalización de las tablas evita redundancias"));
+
+        // Act & Assert
+        assertThat(ids(index.buscar("base dato", 10))).containsExactly(1L);
+        assertThat(ids(index.buscar("NORMALIZACION", 10))).containsExactly(1L);
+        assertThat(index.buscar("de las y", 10)).isEmpty();
+    }
+
+    @Test
+    void buscar_ShouldRankTitleAboveDescriptionAboveModuleContent() {
+        // Arrange
+        indexar(curso(3L, "Ofimática básica", "Hojas de cálculo"),
+                modulo(30L, 3L, "Buenas prácticas", "Seguridad informática"));
+        indexar(curso(2L, "Redes corporativas", "Seguridad informática"),
+                modulo(20L, 2L, "Cableado", "Topologías de red"));
+        indexar(curso(1L, "Seguridad informática", "Conceptos generales"),
+                modulo(10L, 1L, "Introducción", "Amenazas comunes"));
+
+        // Act
+        List<CursoBusquedaDTO> result = index.buscar("seguridad", 10);
+
+        // Assert
+        assertThat(ids(result)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void buscar_ShouldHighlightBestMatchingModule() {
+        // Arrange
+        indexar(curso(1L, "Excel para analistas", "Análisis de datos en hojas de cálculo"),
+                modulo(10L, 1L, "Fórmulas", "Referencias relativas y absolutas"),
+                modulo(11L, 1L, "Tablas dinámicas", "Las tablas dinámicas resumen grandes volúmenes de datos"));
+
+        // Act
+        List<CursoBusquedaDTO> result = index.buscar("tablas dinámicas", 10);
+
+        // Assert
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getIdModulo()).isEqualTo(11L);
+        assertThat(result.get(0).getTituloModulo()).isEqualTo("Tablas dinámicas");
+        assertThat(result.get(0).getFragmento()).contains("<em>tablas</em>");
+    }
+
+    @Test
+    void reindexar_ShouldRemoveCurso_WhenInactive() {
+        // Arrange
+        Curso curso = curso(1L, "Liderazgo de equipos", "Gestión de personas");
+        indexar(curso);
+        curso.setActivo(false);
+
+        // Act
+        index.reindexar(1L);
+
+        // Assert
+        assertThat(index.buscar("liderazgo", 10)).isEmpty();
+    }
+
+    @Test
+    void sincronizarAlArrancar_ShouldReuseSegmentsAfterRestart() throws IOException {
+        // Arrange
+        when(cursoRepository.findIdsActivos()).thenReturn(List.of(), List.of(1L));
+        index.sincronizarAlArrancar();
+        indexar(curso(1L, "Comunicación asertiva", "Habilidades blandas"));
+        index.cerrar();
+        when(cursoRepository.findIdsModificadosDesde(any())).thenReturn(List.of());
+
+        // Act
+        index = nuevoIndex();
+        index.sincronizarAlArrancar();
+
+        // Assert
+        assertThat(ids(index.buscar("asertiva", 10))).containsExactly(1L);
+        verify(cursoRepository, never()).findAllById(any());
+    }
+
+    private CursoContenidoIndex nuevoIndex() throws IOException {
+        CursoContenidoIndex nuevo = new CursoContenidoIndex(cursoRepository, moduloRepository,
+                tempDir.toString(), false, 3.0f, 2.0f, 1.0f);
+        nuevo.abrir();
+        return nuevo;
+    }
+
+    private void indexar(Curso curso, Modulo... modulos) {
+        when(cursoRepository.findById(curso.getIdCurso())).thenReturn(Optional.of(curso));
+        when(moduloRepository.findByCursoIdOrderByOrdenAsc(curso.getIdCurso())).thenReturn(List.of(modulos));
+        index.reindexar(curso.getIdCurso());
+    }
+
+    private Curso curso(Long id, String titulo, String descripcion) {
+        return Curso.builder()
+                .idCurso(id)
+                .titulo(titulo)
+                .descripcion(descripcion)
+                .instructorId(1L)
+                .activo(true)
+                .build();
+    }
+
+    private Modulo modulo(Long id, Long cursoId, String titulo, String contenido) {
+        return Modulo.builder()
+                .idModulo(id)
+                .cursoId(cursoId)
+                .titulo(titulo)
+                .tipo(TipoEnum.TEXTO)
+                .orden(id.intValue())
+                .contenido(contenido)
+                .build();
+    }
+
+    private List<Long> ids(List<CursoBusquedaDTO> resultados) {
+        return resultados.stream().map(CursoBusquedaDTO::getIdCurso).toList();
+    }
+}
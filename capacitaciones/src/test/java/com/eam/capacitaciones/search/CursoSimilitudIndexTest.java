@@ -0,0 +1,143 @@
+package com.eam.capacitaciones.search;
+
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Modulo;
+import com.eam.capacitaciones.domain.entity.Modulo.TipoEnum;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.ModuloRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CursoSimilitudIndexTest {
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private ModuloRepository moduloRepository;
+
+    private CursoSimilitudIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CursoSimilitudIndex(cursoRepository, moduloRepository, new SimpleMeterRegistry(), 5, 2);
+    }
+
+    @Test
+    void reconstruir_ShouldRankCoursesBySharedContent() {
+        // Arrange
+        construir(curso(1L, "Programación Java", "Colecciones genéricas"),
+                curso(2L, "Java avanzado", "Colecciones concurrentes"),
+                curso(3L, "Cocina italiana", "Pastas salsas"),
+                curso(4L, "Python básico", "Colecciones listas"));
+
+        // Act
+        List<Long> similares = index.similares(1L, 10);
+
+        // Assert
+        assertThat(similares).containsExactly(2L, 4L);
+        assertThat(index.similares(3L, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void actualizar_ShouldRecomputeNeighborsOfChangedCourseAndOthers() {
+        // Arrange
+        construir(curso(1L, "Programación Java", "Colecciones genéricas"),
+                curso(2L, "Java avanzado", "Colecciones concurrentes"),
+                curso(3L, "Cocina italiana", "Pastas salsas"));
+        when(cursoRepository.findById(3L)).thenReturn(Optional.of(curso(3L, "Java cocineros", "Recetas")));
+        when(moduloRepository.findByCursoIdOrderByOrdenAsc(3L))
+                .thenReturn(List.of(modulo(30L, 3L, "Colecciones genéricas Java")));
+
+        // Act
+        index.actualizar(3L);
+
+        // Assert
+        assertThat(index.similares(3L, 10)).containsExactly(1L, 2L);
+        assertThat(index.similares(1L, 10)).contains(3L);
+        assertThat(index.similares(2L, 10)).contains(3L);
+    }
+
+    @Test
+    void actualizar_ShouldRemoveInactiveCourseFromAllLists() {
+        // Arrange
+        construir(curso(1L, "Programación Java", "Colecciones genéricas"),
+                curso(2L, "Java avanzado", "Colecciones concurrentes"),
+                curso(3L, "Java web", "Servlets"));
+        Curso inactivo = curso(2L, "Java avanzado", "Colecciones concurrentes");
+        inactivo.setActivo(false);
+        when(cursoRepository.findById(2L)).thenReturn(Optional.of(inactivo));
+
+        // Act
+        index.actualizar(2L);
+
+        // Assert
+        assertThat(index.similares(2L, 10)).isEmpty();
+        assertThat(index.similares(1L, 10)).containsExactly(3L);
+        assertThat(index.similares(3L, 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+        verify(moduloRepository, never()).findByCursoIdOrderByOrdenAsc(2L);
+    }
+
+    @Test
+    void alCambiarCurso_ShouldUpdateInBackground() throws InterruptedException {
+        // Arrange
+        construir(curso(1L, "Programación Java", "Colecciones genéricas"),
+                curso(2L, "Cocina italiana", "Pastas salsas"));
+        when(cursoRepository.findById(2L)).thenReturn(Optional.of(curso(2L, "Java avanzado", "Colecciones")));
+        when(moduloRepository.findByCursoIdOrderByOrdenAsc(2L)).thenReturn(List.of());
+
+        // Act
+        index.alCambiarCurso(new CursoCatalogoCambiadoEvent(2L, Set.of()));
+
+        // Assert
+        long limite = System.currentTimeMillis() + 5000;
+        while (index.similares(1L, 10).isEmpty() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(index.similares(1L, 10)).containsExactly(2L);
+    }
+
+    private void construir(Curso... cursos) {
+        List<Long> ids = Arrays.stream(cursos).map(Curso::getIdCurso).toList();
+        when(cursoRepository.findIdsActivos()).thenReturn(ids);
+        when(cursoRepository.findAllById(ids)).thenReturn(List.of(cursos));
+        when(moduloRepository.findByCursoIdIn(ids)).thenReturn(List.of());
+        index.reconstruir();
+    }
+
+    private Curso curso(Long id, String titulo, String descripcion) {
+        return Curso.builder()
+                .idCurso(id)
+                .titulo(titulo)
+                .descripcion(descripcion)
+                .instructorId(1L)
+                .activo(true)
+                .build();
+    }
+
+    private Modulo modulo(Long id, Long cursoId, String titulo) {
+        return Modulo.builder()
+                .idModulo(id)
+                .cursoId(cursoId)
+                .titulo(titulo)
+                .tipo(TipoEnum.TEXTO)
+                .orden(id.intValue())
+                .build();
+    }
+}
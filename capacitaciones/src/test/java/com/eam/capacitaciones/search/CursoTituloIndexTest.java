@@ -0,0 +1,144 @@
+package com.eam.capacitaciones.search;
+
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.dto.response.CursoSugerenciaDTO;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.projection.CursoTitulo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CursoTituloIndexTest {
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    private CursoTituloIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CursoTituloIndex(cursoRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void buscar_ShouldIgnoreAccentsAndCase() {
+        // Arrange
+        index.indexar(1L, "Excel Básico");
+        index.indexar(2L, "Gestión de Proyectos");
+
+        // Act & Assert
+        assertThat(ids(index.buscar("basico", 10))).containsExactly(1L);
+        assertThat(ids(index.buscar("GESTION", 10))).containsExactly(2L);
+        assertThat(ids(index.buscar("proyéctos", 10))).containsExactly(2L);
+    }
+
+    @Test
+    void buscar_ShouldRankTitlePrefixThenWordPrefixThenSubstring() {
+        // Arrange
+        index.indexar(1L, "Introducción a Python avanzado");
+        index.indexar(2L, "Python para análisis de datos");
+        index.indexar(3L, "Micropython");
+        index.indexar(4L, "Java");
+
+        // Act
+        List<CursoSugerenciaDTO> result = index.buscar("python", 10);
+
+        // Assert
+        assertThat(ids(result)).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void buscar_ShouldReturnOnlyTopK() {
+        // Arrange
+        for (long id = 1; id <= 30; id++) {
+            index.indexar(id, "Curso de seguridad " + id);
+        }
+
+        // Act
+        List<CursoSugerenciaDTO> result = index.buscar("seguridad", 5);
+
+        // Assert
+        assertThat(ids(result)).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void buscar_ShouldMatchWordPrefix_WhenQueryIsShort() {
+        // Arrange
+        index.indexar(1L, "Liderazgo de equipos");
+        index.indexar(2L, "Excel para líderes");
+        index.indexar(3L, "Ventas");
+
+        // Act & Assert
+        assertThat(ids(index.buscar("li", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.buscar("li", 10)).get(0)).isEqualTo(1L);
+    }
+
+    @Test
+    void buscar_ShouldRequireContiguousSubstring() {
+        // Arrange
+        index.indexar(1L, "abc bcd");
+
+        // Act & Assert
+        assertThat(index.buscar("abcd", 10)).isEmpty();
+        assertThat(ids(index.buscar("c bc", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void indexar_ShouldReplacePreviousTitle() {
+        // Arrange
+        index.indexar(1L, "Excel básico");
+
+        // Act
+        index.indexar(1L, "Power BI");
+
+        // Assert
+        assertThat(index.buscar("excel", 10)).isEmpty();
+        assertThat(ids(index.buscar("power", 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void alCambiarCurso_ShouldRemoveCurso_WhenNoLongerActive() {
+        // Arrange
+        index.indexar(1L, "Excel básico");
+        when(cursoRepository.findTituloActivoById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        index.alCambiarCurso(new CursoCatalogoCambiadoEvent(1L, Set.of()));
+
+        // Assert
+        assertThat(index.buscar("excel", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void reconstruir_ShouldLoadActiveCursos() {
+        // Arrange
+        index.indexar(99L, "Curso obsoleto");
+        when(cursoRepository.findTitulosActivos()).thenReturn(List.of(
+                new CursoTitulo(1L, "Excel básico"),
+                new CursoTitulo(2L, "Excel avanzado")));
+
+        // Act
+        index.reconstruir();
+
+        // Assert
+        assertThat(ids(index.buscar("excel", 10))).containsExactly(1L, 2L);
+        assertThat(index.buscar("obsoleto", 10)).isEmpty();
+    }
+
+    private List<Long> ids(List<CursoSugerenciaDTO> sugerencias) {
+        return sugerencias.stream().map(CursoSugerenciaDTO::getIdCurso).toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.eam.capacitaciones.security;
+
+import com.eam.capacitaciones.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void encodeAndMatches_ShouldDelegate() {
+        // Arrange
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PrefixEncoder(null), 2, 4, 1000)) {
+
+            // Act
+            String hash = encoder.encode("secreto");
+
+            // Assert
+            assertThat(hash).isEqualTo("hash:secreto");
+            assertThat(encoder.matches("secreto", hash)).isTrue();
+            assertThat(encoder.matches("otro", hash)).isFalse();
+        }
+    }
+
+    @Test
+    void encode_ShouldThrowServiceUnavailable_WhenQueueIsFull() throws Exception {
+        // Arrange
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PrefixEncoder(bloqueo), 1, 1, 5000)) {
+            Thread ocupante = new Thread(() -> encoder.encode("a"));
+            Thread enCola = new Thread(() -> encoder.encode("b"));
+            ocupante.start();
+            esperarHasta(() -> encoder.getActiveCount() == 1);
+            enCola.start();
+            esperarHasta(() -> encoder.getQueueDepth() == 1);
+
+            // Act & Assert
+            assertThatThrownBy(() -> encoder.encode("c"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+
+            bloqueo.countDown();
+            ocupante.join();
+            enCola.join();
+        }
+    }
+
+    @Test
+    void matches_ShouldThrowServiceUnavailable_WhenTimeoutExpires() {
+        // Arrange
+        CountDownLatch bloqueo = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PrefixEncoder(bloqueo), 1, 1, 50)) {
+
+            // Act & Assert
+            assertThatThrownBy(() -> encoder.matches("a", "hash:a"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+
+            bloqueo.countDown();
+        }
+    }
+
+    private static void esperarHasta(java.util.function.BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(5);
+        }
+    }
+
+    private record PrefixEncoder(CountDownLatch bloqueo) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            esperar();
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            esperar();
+            return ("hash:" + rawPassword).equals(encodedPassword);
+        }
+
+        private void esperar() {
+            if (bloqueo == null) {
+                return;
+            }
+            try {
+                bloqueo.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.eam.capacitaciones.security;
+
+import com.eam.capacitaciones.domain.entity.Usuario;
+import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+
+    private JwtTokenProvider tokenProvider;
+    private SecurityEpochRegistry securityEpochRegistry;
+    private TokenRevocationStore tokenRevocationStore;
+    private JwtAuthenticationFilter filter;
+    private CustomUserDetails userDetails;
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "5d7a4c9e2b1f8c6a3h9k7l2m5n8p1q4r7s0t3u6v9w2x5y8z1a4b7c0d3e6f9g");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3600000L);
+        ReflectionTestUtils.setField(tokenProvider, "jwtRefreshExpirationMs", 604800000L);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheMaxSize", 100);
+        tokenProvider.init();
+
+        securityEpochRegistry = new SecurityEpochRegistry();
+        tokenRevocationStore = new TokenRevocationStore();
+        ReflectionTestUtils.setField(tokenRevocationStore, "jwtExpirationMs", 3600000L);
+        ReflectionTestUtils.setField(tokenRevocationStore, "jwtRefreshExpirationMs", 604800000L);
+        ReflectionTestUtils.setField(tokenRevocationStore, "bucketSeconds", 60L);
+        ReflectionTestUtils.setField(tokenRevocationStore, "snapshotPath", "build/tmp/test-revoked-tokens.bin");
+        tokenRevocationStore.init();
+        filter = new JwtAuthenticationFilter(tokenProvider, customUserDetailsService,
+                securityEpochRegistry, tokenRevocationStore);
+
+        Usuario usuario = Usuario.builder()
+                .idUsuario(1L)
+                .email("test@example.com")
+                .password("encodedPassword")
+                .nombre("Test User")
+                .rol(RolEnum.INSTRUCTOR)
+                .activo(true)
+                .build();
+        userDetails = CustomUserDetails.build(usuario);
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        accessToken = tokenProvider.generateToken(authentication);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_ShouldLoadUserFromDatabaseOnEveryRequest_WhenStatelessDisabled() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "statelessAuthEnabled", false);
+        when(customUserDetailsService.loadUserById(1L)).thenReturn(userDetails);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            filtrar(accessToken);
+        }
+
+        // Assert
+        verify(customUserDetailsService, times(3)).loadUserById(1L);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+    }
+
+    @Test
+    void doFilter_ShouldBuildUserFromClaimsWithoutDatabase_WhenStatelessEnabled() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "statelessAuthEnabled", true);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            filtrar(accessToken);
+        }
+
+        // Assert
+        verify(customUserDetailsService, never()).loadUserById(anyLong());
+        CustomUserDetails principal = (CustomUserDetails) SecurityContextHolder.getContext()
+                .getAuthentication().getPrincipal();
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.getEmail()).isEqualTo("test@example.com");
+        assertThat(principal.getRol()).isEqualTo("INSTRUCTOR");
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_INSTRUCTOR");
+    }
+
+    @Test
+    void doFilter_ShouldRejectToken_WhenIssuedBeforeSecurityEpoch() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "statelessAuthEnabled", true);
+        Thread.sleep(5);
+        securityEpochRegistry.invalidarTokensAnteriores(1L);
+
+        // Act
+        filtrar(accessToken);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(customUserDetailsService, never()).loadUserById(anyLong());
+    }
+
+    @Test
+    void doFilter_ShouldAcceptToken_WhenIssuedRightAfterSecurityEpoch() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "statelessAuthEnabled", true);
+        securityEpochRegistry.invalidarTokensAnteriores(1L);
+        // Emitido justo después del cambio, casi siempre en el mismo segundo
+        String nuevoToken = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+
+        // Act
+        filtrar(nuevoToken);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(customUserDetailsService, never()).loadUserById(anyLong());
+    }
+
+    @Test
+    void doFilter_ShouldRejectToken_WhenRevoked() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "statelessAuthEnabled", true);
+        tokenRevocationStore.revoke(tokenProvider.getAllClaimsFromToken(accessToken));
+
+        // Act
+        filtrar(accessToken);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private void filtrar(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,86 @@
+package com.eam.capacitaciones.security;
+
+import com.eam.capacitaciones.domain.entity.Usuario;
+import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret",
+                "5d7a4c9e2b1f8c6a3h9k7l2m5n8p1q4r7s0t3u6v9w2x5y8z1a4b7c0d3e6f9g");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3600000L);
+        ReflectionTestUtils.setField(tokenProvider, "jwtRefreshExpirationMs", 604800000L);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheMaxSize", 2);
+        tokenProvider.init();
+
+        Usuario usuario = Usuario.builder()
+                .idUsuario(1L)
+                .email("test@example.com")
+                .password("encodedPassword")
+                .nombre("Test User")
+                .rol(RolEnum.USER)
+                .activo(true)
+                .build();
+        CustomUserDetails userDetails = CustomUserDetails.build(usuario);
+        authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    @Test
+    void validateToken_ShouldCacheVerifiedToken_AndResolveClaimsFromCache() {
+        // Arrange
+        String token = tokenProvider.generateToken(authentication);
+
+        // Act
+        boolean valido = tokenProvider.validateToken(token);
+        Long userId = tokenProvider.getUserIdFromToken(token);
+        String email = tokenProvider.getEmailFromToken(token);
+
+        // Assert
+        assertThat(valido).isTrue();
+        assertThat(userId).isEqualTo(1L);
+        assertThat(email).isEqualTo("test@example.com");
+        assertThat(tokenProvider.getVerifiedCacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    void validateToken_ShouldReturnFalse_WhenTokenTampered() {
+        // Arrange
+        String token = tokenProvider.generateToken(authentication);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        // Act & Assert
+        assertThat(tokenProvider.validateToken(tampered)).isFalse();
+        assertThat(tokenProvider.validateToken("malformed.token")).isFalse();
+        assertThat(tokenProvider.getVerifiedCacheSize()).isZero();
+    }
+
+    @Test
+    void validateToken_ShouldEvictInsteadOfGrowingBeyondMaxSize() {
+        // Arrange
+        String t1 = tokenProvider.generateRefreshToken(1L);
+        String t2 = tokenProvider.generateRefreshToken(2L);
+        String t3 = tokenProvider.generateRefreshToken(3L);
+
+        // Act
+        tokenProvider.validateToken(t1);
+        tokenProvider.validateToken(t2);
+        boolean tercero = tokenProvider.validateToken(t3);
+
+        // Assert
+        assertThat(tercero).isTrue();
+        assertThat(tokenProvider.getVerifiedCacheSize()).isEqualTo(2);
+        assertThat(tokenProvider.getUserIdFromToken(t3)).isEqualTo(3L);
+    }
+}
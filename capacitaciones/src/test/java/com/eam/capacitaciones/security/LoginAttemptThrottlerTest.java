@@ -0,0 +1,125 @@
+package com.eam.capacitaciones.security;
+
+import com.eam.capacitaciones.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptThrottlerTest {
+
+    private static final String EMAIL = "test@example.com";
+    private static final String IP = "10.0.0.1";
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptThrottler throttler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Email: retardo desde 3 fallos, bloqueo a los 5. IP: retardo desde 10, bloqueo a los 20.
+        throttler = new LoginAttemptThrottler(
+                meterRegistry,
+                new StripedFailureCounter(60_000, 3, 5, 1_000, 8_000, 300_000),
+                new StripedFailureCounter(60_000, 10, 20, 1_000, 8_000, 300_000),
+                now::get);
+    }
+
+    @Test
+    void verificarPermitido_ShouldAllow_BeforeDelayThreshold() {
+        // Arrange
+        throttler.registrarFallo(EMAIL, IP);
+        throttler.registrarFallo(EMAIL, IP);
+
+        // Act & Assert
+        assertThatCode(() -> throttler.verificarPermitido(EMAIL, IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void verificarPermitido_ShouldApplyProgressiveDelay() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            throttler.registrarFallo(EMAIL, IP);
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> throttler.verificarPermitido("TEST@example.com ", IP))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(1L);
+
+        now.addAndGet(1_000);
+        assertThatCode(() -> throttler.verificarPermitido(EMAIL, IP)).doesNotThrowAnyException();
+
+        throttler.registrarFallo(EMAIL, IP);
+        assertThatThrownBy(() -> throttler.verificarPermitido(EMAIL, IP))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(2L);
+    }
+
+    @Test
+    void registrarFallo_ShouldLockEmail_AfterLockoutThreshold() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            throttler.registrarFallo(EMAIL, IP);
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> throttler.verificarPermitido(EMAIL, "10.0.0.2"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds").isEqualTo(300L);
+        assertThat(meterRegistry.get("auth.login.lockouts").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("auth.login.locked").tag("key", "email").gauge().value()).isEqualTo(1.0);
+
+        now.addAndGet(300_000);
+        assertThatCode(() -> throttler.verificarPermitido(EMAIL, "10.0.0.2")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void verificarPermitido_ShouldThrottleIp_AcrossDifferentEmails() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            throttler.registrarFallo("usuario" + i + "@example.com", IP);
+        }
+
+        // Act & Assert
+        assertThatThrownBy(() -> throttler.verificarPermitido("otro@example.com", IP))
+                .isInstanceOf(TooManyRequestsException.class);
+        assertThatCode(() -> throttler.verificarPermitido("otro@example.com", "10.0.0.2"))
+                .doesNotThrowAnyException();
+        assertThat(meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void registrarExito_ShouldResetEmailCounter() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            throttler.registrarFallo(EMAIL, IP);
+        }
+
+        // Act
+        throttler.registrarExito(EMAIL);
+
+        // Assert
+        assertThatCode(() -> throttler.verificarPermitido(EMAIL, IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void purgarExpirados_ShouldDropStaleEntries() {
+        // Arrange
+        throttler.registrarFallo(EMAIL, IP);
+        now.addAndGet(60_001);
+
+        // Act
+        throttler.purgarExpirados();
+
+        // Assert
+        assertThat(meterRegistry.get("auth.login.tracked").tag("key", "email").gauge().value()).isZero();
+        assertThat(meterRegistry.get("auth.login.tracked").tag("key", "ip").gauge().value()).isZero();
+    }
+}
@@ -0,0 +1,87 @@
+package com.eam.capacitaciones.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private TokenRevocationStore nuevoStore(Path snapshot) {
+        TokenRevocationStore store = new TokenRevocationStore();
+        ReflectionTestUtils.setField(store, "jwtExpirationMs", 3600000L);
+        ReflectionTestUtils.setField(store, "jwtRefreshExpirationMs", 604800000L);
+        ReflectionTestUtils.setField(store, "bucketSeconds", 60L);
+        ReflectionTestUtils.setField(store, "snapshotPath", snapshot.toString());
+        store.init();
+        return store;
+    }
+
+    @Test
+    void parse_ShouldMatchUuidBits() {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+
+        // Act & Assert
+        assertThat(TokenRevocationStore.parseHigh(uuid.toString())).isEqualTo(uuid.getMostSignificantBits());
+        assertThat(TokenRevocationStore.parseLow(uuid.toString())).isEqualTo(uuid.getLeastSignificantBits());
+    }
+
+    @Test
+    void isRevoked_ShouldReturnTrueOnlyForRevokedJti() {
+        // Arrange
+        TokenRevocationStore store = nuevoStore(tempDir.resolve("revoked.bin"));
+        long exp = System.currentTimeMillis() / 1000 + 600;
+        String revocado = UUID.randomUUID().toString();
+        String vigente = UUID.randomUUID().toString();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            store.revoke(UUID.randomUUID().toString(), exp);
+        }
+        store.revoke(revocado, exp);
+
+        // Assert
+        assertThat(store.isRevoked(revocado, exp)).isTrue();
+        assertThat(store.isRevoked(vigente, exp)).isFalse();
+        assertThat(store.size()).isEqualTo(1001);
+    }
+
+    @Test
+    void revoke_ShouldIgnoreExpiredTokens() {
+        // Arrange
+        TokenRevocationStore store = nuevoStore(tempDir.resolve("revoked.bin"));
+        long exp = System.currentTimeMillis() / 1000 - 1;
+
+        // Act
+        store.revoke(UUID.randomUUID().toString(), exp);
+
+        // Assert
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void snapshot_ShouldSurviveRestart() {
+        // Arrange
+        Path snapshot = tempDir.resolve("revoked.bin");
+        TokenRevocationStore store = nuevoStore(snapshot);
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        String jti = UUID.randomUUID().toString();
+        store.revoke(jti, exp);
+
+        // Act
+        store.snapshotIfDirty();
+        TokenRevocationStore reiniciado = nuevoStore(snapshot);
+
+        // Assert
+        assertThat(reiniciado.isRevoked(jti, exp)).isTrue();
+        assertThat(reiniciado.size()).isEqualTo(1);
+    }
+}
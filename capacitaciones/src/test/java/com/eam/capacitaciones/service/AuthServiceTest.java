@@ -7,11 +7,15 @@ import com.eam.capacitaciones.dto.request.UsuarioCreateRequest;
 import com.eam.capacitaciones.dto.response.LoginResponse;
 import com.eam.capacitaciones.dto.response.UsuarioDTO;
 import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.exception.TooManyRequestsException;
 import com.eam.capacitaciones.exception.UnauthorizedException;
 import com.eam.capacitaciones.mapper.UsuarioMapper;
 import com.eam.capacitaciones.repository.UsuarioRepository;
 import com.eam.capacitaciones.security.CustomUserDetails;
 import com.eam.capacitaciones.security.JwtTokenProvider;
+import com.eam.capacitaciones.security.LoginAttemptThrottler;
+import com.eam.capacitaciones.security.TokenRevocationStore;
+import io.jsonwebtoken.Claims;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -52,6 +56,12 @@ class AuthServiceTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Mock
+    private LoginAttemptThrottler loginAttemptThrottler;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -113,7 +123,7 @@ class AuthServiceTest {
         when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuario));
         when(usuarioMapper.toDTO(usuario)).thenReturn(usuarioDTO);
 
-        LoginResponse result = authService.login(loginRequest);
+        LoginResponse result = authService.login(loginRequest, "10.0.0.1");
 
         assertThat(result.getToken()).isEqualTo("accessToken");
         assertThat(result.getRefreshToken()).isEqualTo("refreshToken");
@@ -121,6 +131,7 @@ class AuthServiceTest {
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtTokenProvider).generateToken(authentication);
         verify(jwtTokenProvider).generateRefreshToken(1L);
+        verify(loginAttemptThrottler).registrarExito("test@example.com");
     }
 
     @Test
@@ -129,10 +140,23 @@ class AuthServiceTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenThrow(new BadCredentialsException("Bad credentials"));
 
-        assertThatThrownBy(() -> authService.login(loginRequest))
+        assertThatThrownBy(() -> authService.login(loginRequest, "10.0.0.1"))
                 .isInstanceOf(UnauthorizedException.class)
                 .hasMessage("Email o contraseña incorrectos");
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
+        verify(loginAttemptThrottler).registrarFallo("test@example.com", "10.0.0.1");
+    }
+
+    @Test
+    void login_ShouldNotAuthenticate_WhenThrottled() {
+
+        doThrow(new TooManyRequestsException("Demasiados intentos", 5))
+                .when(loginAttemptThrottler).verificarPermitido("test@example.com", "10.0.0.1");
+
+        assertThatThrownBy(() -> authService.login(loginRequest, "10.0.0.1"))
+                .isInstanceOf(TooManyRequestsException.class);
+        verify(authenticationManager, never()).authenticate(any());
+        verify(usuarioRepository, never()).findByEmail(anyString());
     }
 
     @Test
@@ -142,9 +166,7 @@ class AuthServiceTest {
         when(usuarioMapper.toEntity(createRequest)).thenReturn(usuario);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
         when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuario);
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-                .thenReturn(authentication);
-        when(jwtTokenProvider.generateToken(authentication)).thenReturn("accessToken");
+        when(jwtTokenProvider.generateToken(any(Authentication.class))).thenReturn("accessToken");
         when(jwtTokenProvider.generateRefreshToken(1L)).thenReturn("refreshToken");
         when(usuarioMapper.toDTO(any(Usuario.class))).thenReturn(usuarioDTO);
 
@@ -156,6 +178,8 @@ class AuthServiceTest {
         verify(usuarioRepository).existsByEmail("test@example.com");
         verify(passwordEncoder).encode("password123");
         verify(usuarioRepository).save(any(Usuario.class));
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(authenticationManager, never()).authenticate(any());
     }
 
     @Test
@@ -229,9 +253,38 @@ class AuthServiceTest {
     @Test
     void logout_ShouldClearSecurityContext() {
 
-        authService.logout();
+        authService.logout(null, null);
 
         verify(securityContext, never()).setAuthentication(null); // SecurityContextHolder.clearContext() is called
+        verify(tokenRevocationStore, never()).revoke(any(Claims.class));
+    }
+
+    @Test
+    void logout_ShouldRevokeAccessAndRefreshTokens() {
+        Claims accessClaims = mock(Claims.class);
+        Claims refreshClaims = mock(Claims.class);
+        when(jwtTokenProvider.validateToken("accessToken")).thenReturn(true);
+        when(jwtTokenProvider.validateToken("refreshToken")).thenReturn(true);
+        when(jwtTokenProvider.getAllClaimsFromToken("accessToken")).thenReturn(accessClaims);
+        when(jwtTokenProvider.getAllClaimsFromToken("refreshToken")).thenReturn(refreshClaims);
+
+        authService.logout("accessToken", "refreshToken");
+
+        verify(tokenRevocationStore).revoke(accessClaims);
+        verify(tokenRevocationStore).revoke(refreshClaims);
+    }
+
+    @Test
+    void refreshAccessToken_ShouldThrowUnauthorizedException_WhenRefreshTokenRevoked() {
+        Claims claims = mock(Claims.class);
+        when(jwtTokenProvider.validateToken("refreshToken")).thenReturn(true);
+        when(jwtTokenProvider.getAllClaimsFromToken("refreshToken")).thenReturn(claims);
+        when(tokenRevocationStore.isRevoked(claims)).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.refreshAccessToken("refreshToken"))
+                .isInstanceOf(UnauthorizedException.class)
+                .hasMessage("Refresh token revocado");
+        verify(usuarioRepository, never()).findById(any());
     }
 
     @Test
@@ -0,0 +1,164 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.CursoContador;
+import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
+import com.eam.capacitaciones.repository.CursoContadorRepository;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.projection.CursoContadores;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CursoContadorServiceTest {
+
+    private static final int SHARDS = 4;
+
+    @Mock
+    private CursoContadorRepository contadorRepository;
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private InscripcionRepository inscripcionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CursoContadorService contadorService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        contadorService = new CursoContadorService(contadorRepository, cursoRepository, inscripcionRepository,
+                transactionManager, meterRegistry, SHARDS, 100, false);
+    }
+
+    @Test
+    void registrarTransicion_ShouldMoveCountFromPreviousState() {
+        // Arrange
+        when(contadorRepository.sumar(eq(1L), anyInt(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        // Act
+        contadorService.registrarTransicion(1L, EstadoEnum.EN_PROGRESO, EstadoEnum.COMPLETADO);
+
+        // Assert
+        verify(contadorRepository).sumar(eq(1L), anyInt(), eq(0L), eq(-1L), eq(1L), eq(0L));
+    }
+
+    @Test
+    void registrarBajas_ShouldSubtractEveryStateOfTheDeletedEnrollments() {
+        // Arrange
+        when(contadorRepository.sumar(eq(1L), anyInt(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+
+        // Act
+        contadorService.registrarBajas(List.of(new CursoContadores(1L, 3L, 1L, 1L, 0L)));
+
+        // Assert
+        verify(contadorRepository).sumar(eq(1L), anyInt(), eq(-3L), eq(-1L), eq(-1L), eq(0L));
+    }
+
+    @Test
+    void registrarTransicion_ShouldDoNothing_WhenStateIsUnchanged() {
+        // Act
+        contadorService.registrarTransicion(1L, EstadoEnum.EN_PROGRESO, EstadoEnum.EN_PROGRESO);
+
+        // Assert
+        verifyNoInteractions(contadorRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registrarInscripcion_ShouldRepairAndReconcileInBackground_WhenShardIsMissing() {
+        // Arrange
+        CursoContador shard0 = CursoContador.builder().cursoId(1L).shard(0).build();
+        when(contadorRepository.sumar(eq(1L), anyInt(), eq(1L), eq(0L), eq(0L), eq(0L))).thenReturn(0);
+        when(contadorRepository.findParaReconciliar(List.of(1L))).thenReturn(List.of(shard0));
+        when(contadorRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(inscripcionRepository.contarPorEstado(List.of(1L)))
+                .thenReturn(List.of(new CursoContadores(1L, 1L, 0L, 0L, 0L)));
+
+        // Act
+        contadorService.registrarInscripcion(1L);
+        verify(contadorRepository, never()).saveAll(any());
+        contadorService.consolidarTotales();
+
+        // Assert
+        ArgumentCaptor<List<CursoContador>> nuevos = ArgumentCaptor.forClass(List.class);
+        verify(contadorRepository).saveAll(nuevos.capture());
+        assertThat(nuevos.getValue()).extracting(CursoContador::getShard).containsExactly(1, 2, 3);
+        assertThat(shard0.getInscritos()).isEqualTo(1L);
+        verify(contadorRepository, times(1)).sumar(eq(1L), anyInt(), eq(1L), eq(0L), eq(0L), eq(0L));
+        verify(cursoRepository).consolidarTotalInscritos(List.of(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void inicializar_ShouldCreateEveryShard() {
+        // Act
+        contadorService.inicializar(1L);
+
+        // Assert
+        ArgumentCaptor<List<CursoContador>> nuevos = ArgumentCaptor.forClass(List.class);
+        verify(contadorRepository).saveAll(nuevos.capture());
+        assertThat(nuevos.getValue()).extracting(CursoContador::getShard).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    void consolidarTotales_ShouldRollUpOnlyCoursesWithNewEnrollments() {
+        // Arrange
+        when(contadorRepository.sumar(anyLong(), anyInt(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(1);
+        contadorService.registrarInscripcion(1L);
+        contadorService.registrarTransicion(2L, EstadoEnum.INSCRITO, EstadoEnum.EN_PROGRESO);
+
+        // Act
+        contadorService.consolidarTotales();
+        contadorService.consolidarTotales();
+
+        // Assert
+        verify(cursoRepository, times(1)).consolidarTotalInscritos(List.of(1L));
+    }
+
+    @Test
+    void reconciliar_ShouldCorrectDriftOnFirstShard() {
+        // Arrange
+        CursoContador shard0 = CursoContador.builder().cursoId(1L).shard(0).inscritos(5L).completados(2L).build();
+        CursoContador shard1 = CursoContador.builder().cursoId(1L).shard(1).inscritos(3L).enProgreso(1L).build();
+        when(cursoRepository.findIdsDespuesDe(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(cursoRepository.findIdsDespuesDe(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(contadorRepository.findParaReconciliar(List.of(1L, 2L))).thenReturn(List.of(shard0, shard1));
+        when(inscripcionRepository.contarPorEstado(List.of(1L, 2L)))
+                .thenReturn(List.of(new CursoContadores(1L, 10L, 1L, 4L, 1L)));
+
+        // Act
+        contadorService.reconciliar();
+
+        // Assert
+        assertThat(shard0.getInscritos() + shard1.getInscritos()).isEqualTo(10L);
+        assertThat(shard0.getEnProgreso() + shard1.getEnProgreso()).isEqualTo(1L);
+        assertThat(shard0.getCompletados() + shard1.getCompletados()).isEqualTo(4L);
+        assertThat(shard0.getAbandonados() + shard1.getAbandonados()).isEqualTo(1L);
+        assertThat(shard1.getInscritos()).isEqualTo(3L);
+        verify(contadorRepository, never()).save(any(CursoContador.class));
+        verify(cursoRepository).consolidarTotalInscritos(List.of(1L, 2L));
+        assertThat(meterRegistry.counter("inscripcion.contadores.desviaciones").count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,226 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.cache.CursoCatalogCache;
+import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
+import com.eam.capacitaciones.domain.entity.Inscripcion;
+import com.eam.capacitaciones.domain.entity.Modulo;
+import com.eam.capacitaciones.domain.entity.Modulo.TipoEnum;
+import com.eam.capacitaciones.domain.entity.Usuario;
+import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
+import com.eam.capacitaciones.dto.response.CursoDTO;
+import com.eam.capacitaciones.dto.response.CursorPage;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.ModuloRepository;
+import com.eam.capacitaciones.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class CursoServiceQueryCountTest {
+
+    @Autowired
+    private CursoService cursoService;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CursoCatalogCache catalogCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private Usuario instructor;
+    private int secuencia;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        instructor = usuarioRepository.save(nuevoUsuario(RolEnum.INSTRUCTOR));
+    }
+
+    @Test
+    void catalogReads_ShouldIssueConstantStatementCount_RegardlessOfCatalogSize() {
+        // Arrange
+        crearCursos(2);
+        long getAllPequeno = contarSentencias(() -> cursoService.getAllCursos(null, 100));
+        long activosPequeno = contarSentencias(() -> cursoService.getCursosActivos(null, 100));
+        long instructorPequeno = contarSentencias(
+                () -> cursoService.getCursosByInstructor(instructor.getIdUsuario(), null, 100));
+
+        crearCursos(20);
+
+        // Act
+        long getAllGrande = contarSentencias(() -> cursoService.getAllCursos(null, 100));
+        long activosGrande = contarSentencias(() -> cursoService.getCursosActivos(null, 100));
+        long instructorGrande = contarSentencias(
+                () -> cursoService.getCursosByInstructor(instructor.getIdUsuario(), null, 100));
+
+        // Assert
+        assertThat(getAllGrande).isEqualTo(getAllPequeno).isEqualTo(1);
+        assertThat(activosGrande).isEqualTo(activosPequeno).isEqualTo(1);
+        assertThat(instructorGrande).isEqualTo(instructorPequeno).isEqualTo(1);
+    }
+
+    @Test
+    void getAllCursos_ShouldReturnCountsAndInstructorName() {
+        // Arrange
+        crearCursos(1);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<CursoDTO> result = cursoService.getAllCursos(null, null).getItems();
+
+        // Assert
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getInstructorNombre()).isEqualTo(instructor.getNombre());
+        assertThat(result.get(0).getTotalModulos()).isEqualTo(3);
+        assertThat(result.get(0).getTotalInscritos()).isEqualTo(2);
+    }
+
+    @Test
+    void getAllCursos_ShouldWalkEveryCourseOnceThroughCursors() {
+        // Arrange
+        crearCursos(7);
+        entityManager.flush();
+        entityManager.clear();
+        Set<Long> vistos = new HashSet<>();
+        String cursor = null;
+        int paginas = 0;
+
+        // Act
+        do {
+            CursorPage<CursoDTO> pagina = cursoService.getAllCursos(cursor, 3);
+            pagina.getItems().forEach(c -> assertThat(vistos.add(c.getIdCurso())).isTrue());
+            cursor = pagina.getNextCursor();
+            paginas++;
+        } while (cursor != null);
+
+        // Assert
+        assertThat(vistos).hasSize(7);
+        assertThat(paginas).isEqualTo(3);
+    }
+
+    @Test
+    void getCursosActivos_ShouldServeRepeatedReadsFromCache() {
+        // Arrange
+        crearCursos(2);
+        long primeraLectura = contarSentencias(() -> cursoService.getCursosActivos(null, 100));
+
+        // Act
+        statistics.clear();
+        CursorPage<CursoDTO> segunda = cursoService.getCursosActivos(null, 100);
+
+        // Assert
+        assertThat(primeraLectura).isEqualTo(1);
+        assertThat(segunda.getItems()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void filtrarCursos_ShouldCompareAgainstInscritosCounterInSingleStatement() {
+        // Arrange
+        crearCursos(3);
+        Curso sinInscritos = cursoRepository.save(Curso.builder()
+                .titulo("Curso sin inscritos")
+                .nivel(NivelEnum.BASICO)
+                .instructorId(instructor.getIdUsuario())
+                .activo(true)
+                .build());
+
+        // Act
+        long sentencias = contarSentencias(() -> cursoService.filtrarCursos(
+                null, NivelEnum.BASICO, null, true, 2L, null, 100));
+        CursorPage<CursoDTO> result = cursoService.filtrarCursos(null, NivelEnum.BASICO, null, true, 2L, null, 100);
+
+        // Assert
+        assertThat(sentencias).isEqualTo(1);
+        assertThat(result.getItems()).hasSize(3)
+                .allSatisfy(c -> assertThat(c.getTotalInscritos()).isEqualTo(2))
+                .noneMatch(c -> c.getIdCurso().equals(sinInscritos.getIdCurso()));
+        assertThat(cursoService.filtrarCursos(null, null, null, null, 3L, null, 100).getItems()).isEmpty();
+    }
+
+    private long contarSentencias(Supplier<CursorPage<CursoDTO>> consulta) {
+        entityManager.flush();
+        entityManager.clear();
+        // Los cursos se insertan con el repositorio, sin pasar por la invalidación del servicio
+        catalogCache.invalidarTodo();
+        statistics.clear();
+        CursorPage<CursoDTO> result = consulta.get();
+        assertThat(result.getItems()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void crearCursos(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            Curso curso = cursoRepository.save(Curso.builder()
+                    .titulo("Curso de prueba " + (++secuencia))
+                    .nivel(NivelEnum.BASICO)
+                    .instructorId(instructor.getIdUsuario())
+                    .activo(true)
+                    .build());
+
+            for (int orden = 1; orden <= 3; orden++) {
+                moduloRepository.save(Modulo.builder()
+                        .cursoId(curso.getIdCurso())
+                        .titulo("Modulo " + orden)
+                        .tipo(TipoEnum.TEXTO)
+                        .orden(orden)
+                        .fechaCreacion(LocalDateTime.now())
+                        .build());
+            }
+
+            for (int j = 0; j < 2; j++) {
+                Usuario alumno = usuarioRepository.save(nuevoUsuario(RolEnum.USER));
+                inscripcionRepository.save(Inscripcion.builder()
+                        .usuarioId(alumno.getIdUsuario())
+                        .cursoId(curso.getIdCurso())
+                        .fechaInscripcion(LocalDate.now())
+                        .build());
+            }
+            // Valor que dejaría la consolidación desde CursoContador (ver CursoContadorServiceTest)
+            curso.setTotalInscritos(2L);
+        }
+    }
+
+    private Usuario nuevoUsuario(RolEnum rol) {
+        int n = ++secuencia;
+        return Usuario.builder()
+                .nombre("Usuario " + n)
+                .email("usuario" + n + "@example.com")
+                .password("encodedPassword")
+                .rol(rol)
+                .activo(true)
+                .build();
+    }
+}
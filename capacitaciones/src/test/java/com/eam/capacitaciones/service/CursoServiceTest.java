@@ -1,29 +1,52 @@
 package com.eam.capacitaciones.service;
 
+import com.eam.capacitaciones.cache.CursoCatalogCache;
+import com.eam.capacitaciones.cache.CursoCatalogCache.ListaKey;
+import com.eam.capacitaciones.cache.CursoCatalogoCambiadoEvent;
+import com.eam.capacitaciones.dao.CustomCursoDAO;
 import com.eam.capacitaciones.domain.entity.Curso;
 import com.eam.capacitaciones.domain.entity.Curso.NivelEnum;
 import com.eam.capacitaciones.domain.entity.Usuario;
 import com.eam.capacitaciones.dto.request.CursoCreateRequest;
+import com.eam.capacitaciones.dto.response.CursoBusquedaDTO;
 import com.eam.capacitaciones.dto.response.CursoDTO;
+import com.eam.capacitaciones.dto.response.CursoPopularDTO;
+import com.eam.capacitaciones.dto.response.CursoSugerenciaDTO;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.exception.BadRequestException;
 import com.eam.capacitaciones.exception.ForbiddenException;
 import com.eam.capacitaciones.exception.ResourceNotFoundException;
 import com.eam.capacitaciones.mapper.CursoMapper;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking;
+import com.eam.capacitaciones.ranking.CursoPopularesRanking.Periodo;
+import com.eam.capacitaciones.recomendacion.CursoRecomendador;
+import com.eam.capacitaciones.repository.CursoContadorRepository;
 import com.eam.capacitaciones.repository.CursoRepository;
 import com.eam.capacitaciones.repository.UsuarioRepository;
+import com.eam.capacitaciones.repository.projection.CursoResumen;
+import com.eam.capacitaciones.search.CursoContenidoIndex;
+import com.eam.capacitaciones.search.CursoSimilitudIndex;
+import com.eam.capacitaciones.search.CursoTituloIndex;
+import com.eam.capacitaciones.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,10 +61,41 @@ class CursoServiceTest {
     @Mock
     private CursoMapper cursoMapper;
 
+    @Mock
+    private CustomCursoDAO customCursoDAO;
+
+    @Mock
+    private CursoCatalogCache catalogCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CursoTituloIndex cursoTituloIndex;
+
+    @Mock
+    private CursoContenidoIndex cursoContenidoIndex;
+
+    @Mock
+    private CursoContadorRepository cursoContadorRepository;
+
+    @Mock
+    private CursoContadorService cursoContadorService;
+
+    @Mock
+    private CursoPopularesRanking cursoPopularesRanking;
+
+    @Mock
+    private CursoRecomendador cursoRecomendador;
+
+    @Mock
+    private CursoSimilitudIndex cursoSimilitudIndex;
+
     @InjectMocks
     private CursoService cursoService;
 
     private Curso curso;
+    private CursoResumen cursoResumen;
     private CursoDTO cursoDTO;
     private CursoCreateRequest createRequest;
     private Usuario instructor;
@@ -66,6 +120,9 @@ class CursoServiceTest {
                 .imagenUrl("test.jpg")
                 .build();
 
+        cursoResumen = new CursoResumen(1L, "Test Course", "Test Description", "10 horas",
+                NivelEnum.BASICO, 1L, "Instructor Name", true, "test.jpg", null, 0L, 0L);
+
         cursoDTO = CursoDTO.builder()
                 .idCurso(1L)
                 .titulo("Test Course")
@@ -91,42 +148,89 @@ class CursoServiceTest {
     }
 
     @Test
-    void getAllCursos_ShouldReturnAllCursos() {
+    void getAllCursos_ShouldReturnFirstPage() {
         // Arrange
-        when(cursoRepository.findAll()).thenReturn(List.of(curso));
-        when(cursoMapper.toDTOList(List.of(curso))).thenReturn(List.of(cursoDTO));
+        when(customCursoDAO.listarResumenes(null, null, null, null, null, 21)).thenReturn(List.of(cursoResumen));
+        when(cursoMapper.toDTOListFromResumenes(List.of(cursoResumen))).thenReturn(List.of(cursoDTO));
 
         // Act
-        List<CursoDTO> result = cursoService.getAllCursos();
+        CursorPage<CursoDTO> result = cursoService.getAllCursos(null, null);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitulo()).isEqualTo("Test Course");
-        verify(cursoRepository).findAll();
-        verify(cursoMapper).toDTOList(List.of(curso));
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getTitulo()).isEqualTo("Test Course");
+        assertThat(result.getHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+        verify(customCursoDAO).listarResumenes(null, null, null, null, null, 21);
+    }
+
+    @Test
+    void getAllCursos_ShouldReturnNextCursor_WhenMoreRowsExist() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2024, 1, 15, 10, 30);
+        CursoResumen primero = resumen(2L, fecha.plusDays(1));
+        CursoResumen segundo = resumen(1L, fecha);
+        when(customCursoDAO.listarResumenes(null, null, null, null, null, 2))
+                .thenReturn(List.of(primero, segundo));
+        when(cursoMapper.toDTOListFromResumenes(List.of(primero))).thenReturn(List.of(cursoDTO));
+
+        // Act
+        CursorPage<CursoDTO> result = cursoService.getAllCursos(null, 1);
+
+        // Assert
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getHasNext()).isTrue();
+        KeysetCursor cursor = KeysetCursor.decode(result.getNextCursor());
+        assertThat(cursor.getId()).isEqualTo(2L);
+        assertThat(cursor.getFecha()).isEqualTo(fecha.plusDays(1));
+    }
+
+    @Test
+    void getAllCursos_ShouldCapPageSize() {
+        // Arrange
+        when(customCursoDAO.listarResumenes(null, null, null, null, null, KeysetCursor.MAX_PAGE_SIZE + 1))
+                .thenReturn(List.of());
+        when(cursoMapper.toDTOListFromResumenes(List.of())).thenReturn(List.of());
+
+        // Act
+        CursorPage<CursoDTO> result = cursoService.getAllCursos(null, 10_000);
+
+        // Assert
+        assertThat(result.getItems()).isEmpty();
+        verify(customCursoDAO).listarResumenes(null, null, null, null, null, KeysetCursor.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void getAllCursos_ShouldThrowBadRequest_WhenCursorInvalid() {
+        // Act & Assert
+        assertThatThrownBy(() -> cursoService.getAllCursos("###", null))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(customCursoDAO);
     }
 
     @Test
     void getCursosActivos_ShouldReturnActiveCursos() {
         // Arrange
-        when(cursoRepository.findByActivoTrue()).thenReturn(List.of(curso));
-        when(cursoMapper.toDTOList(List.of(curso))).thenReturn(List.of(cursoDTO));
+        cargarDesdeCacheListas();
+        when(customCursoDAO.listarResumenes(true, null, null, null, null, 21)).thenReturn(List.of(cursoResumen));
+        when(cursoMapper.toDTOListFromResumenes(List.of(cursoResumen))).thenReturn(List.of(cursoDTO));
 
         // Act
-        List<CursoDTO> result = cursoService.getCursosActivos();
+        CursorPage<CursoDTO> result = cursoService.getCursosActivos(null, null);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getActivo()).isTrue();
-        verify(cursoRepository).findByActivoTrue();
-        verify(cursoMapper).toDTOList(List.of(curso));
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getActivo()).isTrue();
+        verify(catalogCache).getLista(eq(ListaKey.activos(null, 20)), any());
+        verify(customCursoDAO).listarResumenes(true, null, null, null, null, 21);
     }
 
     @Test
     void getCursoById_ShouldReturnCurso_WhenExists() {
         // Arrange
-        when(cursoRepository.findById(1L)).thenReturn(Optional.of(curso));
-        when(cursoMapper.toDTO(curso)).thenReturn(cursoDTO);
+        cargarDesdeCacheCurso();
+        when(cursoRepository.findResumenById(1L)).thenReturn(Optional.of(cursoResumen));
+        when(cursoMapper.toDTO(cursoResumen)).thenReturn(cursoDTO);
 
         // Act
         CursoDTO result = cursoService.getCursoById(1L);
@@ -134,68 +238,198 @@ class CursoServiceTest {
         // Assert
         assertThat(result.getIdCurso()).isEqualTo(1L);
         assertThat(result.getTitulo()).isEqualTo("Test Course");
-        verify(cursoRepository).findById(1L);
-        verify(cursoMapper).toDTO(curso);
+        verify(cursoRepository).findResumenById(1L);
+        verify(cursoMapper).toDTO(cursoResumen);
+    }
+
+    @Test
+    void getCursoById_ShouldNotQueryRepository_WhenCached() {
+        // Arrange
+        when(catalogCache.getCurso(eq(1L), any())).thenReturn(cursoDTO);
+
+        // Act
+        CursoDTO result = cursoService.getCursoById(1L);
+
+        // Assert
+        assertThat(result).isSameAs(cursoDTO);
+        verifyNoInteractions(cursoRepository, cursoMapper);
     }
 
     @Test
     void getCursoById_ShouldThrowException_WhenNotExists() {
         // Arrange
-        when(cursoRepository.findById(1L)).thenReturn(Optional.empty());
+        cargarDesdeCacheCurso();
+        when(cursoRepository.findResumenById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThatThrownBy(() -> cursoService.getCursoById(1L))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage("Curso no encontrado con ID: 1");
-        verify(cursoRepository).findById(1L);
+        verify(cursoRepository).findResumenById(1L);
     }
 
     @Test
     void getCursosByInstructor_ShouldReturnCursos() {
         // Arrange
-        when(cursoRepository.findByInstructorId(1L)).thenReturn(List.of(curso));
-        when(cursoMapper.toDTOList(List.of(curso))).thenReturn(List.of(cursoDTO));
+        when(customCursoDAO.listarResumenes(null, null, 1L, null, null, 21)).thenReturn(List.of(cursoResumen));
+        when(cursoMapper.toDTOListFromResumenes(List.of(cursoResumen))).thenReturn(List.of(cursoDTO));
 
         // Act
-        List<CursoDTO> result = cursoService.getCursosByInstructor(1L);
+        CursorPage<CursoDTO> result = cursoService.getCursosByInstructor(1L, null, null);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getInstructorId()).isEqualTo(1L);
-        verify(cursoRepository).findByInstructorId(1L);
-        verify(cursoMapper).toDTOList(List.of(curso));
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getInstructorId()).isEqualTo(1L);
+        verify(customCursoDAO).listarResumenes(null, null, 1L, null, null, 21);
     }
 
     @Test
     void getCursosByNivel_ShouldReturnCursos() {
         // Arrange
-        when(cursoRepository.findByNivel(NivelEnum.BASICO)).thenReturn(List.of(curso));
-        when(cursoMapper.toDTOList(List.of(curso))).thenReturn(List.of(cursoDTO));
+        cargarDesdeCacheListas();
+        when(customCursoDAO.listarResumenes(null, NivelEnum.BASICO, null, null, null, 21))
+                .thenReturn(List.of(cursoResumen));
+        when(cursoMapper.toDTOListFromResumenes(List.of(cursoResumen))).thenReturn(List.of(cursoDTO));
 
         // Act
-        List<CursoDTO> result = cursoService.getCursosByNivel(NivelEnum.BASICO);
+        CursorPage<CursoDTO> result = cursoService.getCursosByNivel(NivelEnum.BASICO, null, null);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getNivel()).isEqualTo(NivelEnum.BASICO);
-        verify(cursoRepository).findByNivel(NivelEnum.BASICO);
-        verify(cursoMapper).toDTOList(List.of(curso));
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getNivel()).isEqualTo(NivelEnum.BASICO);
+        verify(catalogCache).getLista(eq(ListaKey.porNivel(NivelEnum.BASICO, null, 20)), any());
+        verify(customCursoDAO).listarResumenes(null, NivelEnum.BASICO, null, null, null, 21);
     }
 
     @Test
     void searchCursosByTitulo_ShouldReturnMatchingCursos() {
         // Arrange
-        when(cursoRepository.searchByTitulo("Test")).thenReturn(List.of(curso));
-        when(cursoMapper.toDTOList(List.of(curso))).thenReturn(List.of(cursoDTO));
+        when(customCursoDAO.listarResumenes(true, null, null, "Test", null, 21)).thenReturn(List.of(cursoResumen));
+        when(cursoMapper.toDTOListFromResumenes(List.of(cursoResumen))).thenReturn(List.of(cursoDTO));
+
+        // Act
+        CursorPage<CursoDTO> result = cursoService.searchCursosByTitulo("Test", null, null);
+
+        // Assert
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getTitulo()).isEqualTo("Test Course");
+        verify(customCursoDAO).listarResumenes(true, null, null, "Test", null, 21);
+    }
+
+    @Test
+    void filtrarCursos_ShouldPassFiltersAndMinInscritosToDao() {
+        // Arrange
+        when(customCursoDAO.buscarCursosConFiltros("Test", NivelEnum.BASICO, 1L, true, 5L, null, 21))
+                .thenReturn(List.of(cursoResumen));
+        when(cursoMapper.toDTOListFromResumenes(List.of(cursoResumen))).thenReturn(List.of(cursoDTO));
+
+        // Act
+        CursorPage<CursoDTO> result = cursoService.filtrarCursos("Test", NivelEnum.BASICO, 1L, true, 5L, null, null);
+
+        // Assert
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getHasNext()).isFalse();
+        verify(customCursoDAO).buscarCursosConFiltros("Test", NivelEnum.BASICO, 1L, true, 5L, null, 21);
+    }
+
+    @Test
+    void autocompletarTitulo_ShouldUseIndexWithDefaultLimit() {
+        // Arrange
+        CursoSugerenciaDTO sugerencia = CursoSugerenciaDTO.builder().idCurso(1L).titulo("Test Course").build();
+        when(cursoTituloIndex.buscar("tes", CursoTituloIndex.DEFAULT_LIMIT)).thenReturn(List.of(sugerencia));
+
+        // Act
+        List<CursoSugerenciaDTO> result = cursoService.autocompletarTitulo("tes", null);
+
+        // Assert
+        assertThat(result).containsExactly(sugerencia);
+        verifyNoInteractions(cursoRepository, customCursoDAO);
+    }
+
+    @Test
+    void autocompletarTitulo_ShouldCapLimit() {
+        // Arrange
+        when(cursoTituloIndex.buscar("tes", CursoTituloIndex.MAX_LIMIT)).thenReturn(List.of());
+
+        // Act
+        List<CursoSugerenciaDTO> result = cursoService.autocompletarTitulo("tes", 1_000);
+
+        // Assert
+        assertThat(result).isEmpty();
+        verify(cursoTituloIndex).buscar("tes", CursoTituloIndex.MAX_LIMIT);
+    }
+
+    @Test
+    void getCursosPopulares_ShouldServeFromRankingWithoutDatabase() {
+        // Arrange
+        CursoPopularDTO popular = CursoPopularDTO.builder().idCurso(1L).titulo("Test Course").totalInscritos(7L).build();
+        when(cursoPopularesRanking.top(Periodo.ULTIMOS_7_DIAS, CursoPopularesRanking.DEFAULT_LIMIT))
+                .thenReturn(List.of(popular));
 
         // Act
-        List<CursoDTO> result = cursoService.searchCursosByTitulo("Test");
+        List<CursoPopularDTO> result = cursoService.getCursosPopulares(Periodo.ULTIMOS_7_DIAS, null);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getTitulo()).isEqualTo("Test Course");
-        verify(cursoRepository).searchByTitulo("Test");
-        verify(cursoMapper).toDTOList(List.of(curso));
+        assertThat(result).containsExactly(popular);
+        verifyNoInteractions(cursoRepository, customCursoDAO);
+    }
+
+    @Test
+    void getCursosRecomendados_ShouldResolveFromCacheAndSkipInactiveCourses() {
+        // Arrange
+        CursoDTO inactivo = CursoDTO.builder().idCurso(2L).activo(false).build();
+        CursoDTO otro = CursoDTO.builder().idCurso(3L).activo(true).build();
+        when(cursoRecomendador.recomendar(7L, 4)).thenReturn(List.of(1L, 2L, 3L));
+        when(catalogCache.getCurso(eq(1L), any())).thenReturn(cursoDTO);
+        when(catalogCache.getCurso(eq(2L), any())).thenReturn(inactivo);
+        when(catalogCache.getCurso(eq(3L), any())).thenReturn(otro);
+
+        // Act
+        List<CursoDTO> result = cursoService.getCursosRecomendados(7L, 2);
+
+        // Assert
+        assertThat(result).containsExactly(cursoDTO, otro);
+        verifyNoInteractions(cursoRepository, customCursoDAO);
+    }
+
+    @Test
+    void getCursosSimilares_ShouldResolveNeighborsFromIndex() {
+        // Arrange
+        CursoDTO similar = CursoDTO.builder().idCurso(3L).activo(true).build();
+        when(catalogCache.getCurso(eq(1L), any())).thenReturn(cursoDTO);
+        when(catalogCache.getCurso(eq(3L), any())).thenReturn(similar);
+        when(cursoSimilitudIndex.similares(1L, CursoSimilitudIndex.DEFAULT_LIMIT)).thenReturn(List.of(3L));
+
+        // Act
+        List<CursoDTO> result = cursoService.getCursosSimilares(1L, null);
+
+        // Assert
+        assertThat(result).containsExactly(similar);
+    }
+
+    @Test
+    void getCursosSimilares_ShouldThrowException_WhenCursoNotFound() {
+        // Arrange
+        when(catalogCache.getCurso(eq(99L), any())).thenReturn(null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> cursoService.getCursosSimilares(99L, 5))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(cursoSimilitudIndex);
+    }
+
+    @Test
+    void buscarContenido_ShouldUseFullTextIndexWithDefaultLimit() {
+        // Arrange
+        CursoBusquedaDTO hit = CursoBusquedaDTO.builder().idCurso(1L).titulo("Test Course").build();
+        when(cursoContenidoIndex.buscar("descripcion", CursoContenidoIndex.DEFAULT_LIMIT)).thenReturn(List.of(hit));
+
+        // Act
+        List<CursoBusquedaDTO> result = cursoService.buscarContenido("descripcion", null);
+
+        // Assert
+        assertThat(result).containsExactly(hit);
+        verifyNoInteractions(cursoRepository, customCursoDAO);
     }
 
     @Test
@@ -215,7 +449,9 @@ class CursoServiceTest {
         verify(usuarioRepository).existsById(1L);
         verify(cursoMapper).toEntity(createRequest);
         verify(cursoRepository).save(any(Curso.class));
+        verify(cursoContadorService).inicializar(1L);
         verify(cursoMapper).toDTO(any(Curso.class));
+        verify(eventPublisher).publishEvent(new CursoCatalogoCambiadoEvent(1L, Set.of(NivelEnum.BASICO)));
     }
 
     @Test
@@ -247,6 +483,26 @@ class CursoServiceTest {
         verify(cursoMapper).updateEntityFromRequest(createRequest, curso);
         verify(cursoRepository).save(curso);
         verify(cursoMapper).toDTO(curso);
+        verify(eventPublisher).publishEvent(new CursoCatalogoCambiadoEvent(1L, Set.of(NivelEnum.BASICO)));
+    }
+
+    @Test
+    void updateCurso_ShouldInvalidateOldAndNewNivel_WhenNivelChanges() {
+        // Arrange
+        when(cursoRepository.findById(1L)).thenReturn(Optional.of(curso));
+        doAnswer(invocation -> {
+            curso.setNivel(NivelEnum.AVANZADO);
+            return null;
+        }).when(cursoMapper).updateEntityFromRequest(createRequest, curso);
+        when(cursoRepository.save(any(Curso.class))).thenReturn(curso);
+        when(cursoMapper.toDTO(any(Curso.class))).thenReturn(cursoDTO);
+
+        // Act
+        cursoService.updateCurso(1L, createRequest, 1L);
+
+        // Assert
+        verify(eventPublisher).publishEvent(new CursoCatalogoCambiadoEvent(1L,
+                EnumSet.of(NivelEnum.BASICO, NivelEnum.AVANZADO)));
     }
 
     @Test
@@ -260,6 +516,7 @@ class CursoServiceTest {
                 .hasMessage("Curso no encontrado");
         verify(cursoRepository).findById(1L);
         verify(cursoRepository, never()).save(any(Curso.class));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -286,6 +543,8 @@ class CursoServiceTest {
         // Assert
         verify(cursoRepository).existsById(1L);
         verify(cursoRepository).deleteById(1L);
+        verify(cursoContadorRepository).deleteByCursoId(1L);
+        verify(eventPublisher).publishEvent(new CursoCatalogoCambiadoEvent(1L, EnumSet.allOf(NivelEnum.class)));
     }
 
     @Test
@@ -315,6 +574,7 @@ class CursoServiceTest {
         assertThat(curso.getActivo()).isTrue();
         verify(cursoRepository).findById(1L);
         verify(cursoRepository).save(curso);
+        verify(eventPublisher).publishEvent(new CursoCatalogoCambiadoEvent(1L, Set.of(NivelEnum.BASICO)));
     }
 
     @Test
@@ -357,4 +617,19 @@ class CursoServiceTest {
         verify(cursoRepository).findById(1L);
         verify(cursoRepository, never()).save(any(Curso.class));
     }
+
+    private void cargarDesdeCacheListas() {
+        when(catalogCache.getLista(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    private void cargarDesdeCacheCurso() {
+        when(catalogCache.getCurso(eq(1L), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    private CursoResumen resumen(Long id, LocalDateTime fechaCreacion) {
+        return new CursoResumen(id, "Test Course", "Test Description", "10 horas",
+                NivelEnum.BASICO, 1L, "Instructor Name", true, "test.jpg", fechaCreacion, 0L, 0L);
+    }
 }
@@ -0,0 +1,108 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
+import com.eam.capacitaciones.domain.entity.TareaProgramada;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.TareaProgramadaRepository;
+import com.eam.capacitaciones.repository.projection.InscripcionCurso;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InscripcionAbandonoDetectorTest {
+
+    private static final String TAREA = InscripcionAbandonoDetector.TAREA;
+
+    @Mock
+    private InscripcionRepository inscripcionRepository;
+
+    @Mock
+    private TareaProgramadaRepository tareaRepository;
+
+    @Mock
+    private CursoContadorService cursoContadorService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InscripcionAbandonoDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new InscripcionAbandonoDetector(inscripcionRepository, tareaRepository, cursoContadorService,
+                transactionManager, new SimpleMeterRegistry(), true, 30, 60000, 2);
+    }
+
+    @Test
+    void detectar_BloquesInactivos_MarcaPorCursoYAvanzaCheckpoint() {
+        // Arrange
+        TareaProgramada tarea = TareaProgramada.builder().nombre(TAREA).build();
+        when(tareaRepository.adquirir(eq(TAREA), anyString(), any(), any())).thenReturn(1);
+        when(tareaRepository.findById(TAREA)).thenReturn(Optional.of(tarea));
+        when(inscripcionRepository.findInactivasDespuesDe(eq(EstadoEnum.EN_PROGRESO), any(), eq(0L), any()))
+                .thenReturn(List.of(new InscripcionCurso(1L, 10L), new InscripcionCurso(2L, 20L)));
+        when(inscripcionRepository.findInactivasDespuesDe(eq(EstadoEnum.EN_PROGRESO), any(), eq(2L), any()))
+                .thenReturn(List.of(new InscripcionCurso(3L, 10L)));
+        when(inscripcionRepository.findInactivasDespuesDe(eq(EstadoEnum.EN_PROGRESO), any(), eq(3L), any()))
+                .thenReturn(List.of());
+        when(inscripcionRepository.cambiarEstadoSiInactivas(any(), eq(EstadoEnum.EN_PROGRESO),
+                eq(EstadoEnum.ABANDONADO), any(), any())).thenReturn(1);
+        when(tareaRepository.avanzar(eq(TAREA), anyString(), anyLong(), any())).thenReturn(1);
+
+        // Act
+        detector.detectar();
+
+        // Assert
+        verify(cursoContadorService, times(2)).sumar(10L, 0, -1, 0, 1);
+        verify(cursoContadorService).sumar(20L, 0, -1, 0, 1);
+        verify(tareaRepository).avanzar(eq(TAREA), anyString(), eq(2L), any());
+        verify(tareaRepository).avanzar(eq(TAREA), anyString(), eq(3L), any());
+        verify(tareaRepository).finalizar(eq(TAREA), anyString(), any());
+    }
+
+    @Test
+    void detectar_PasadaInterrumpida_ReanudaDesdeCheckpointConElMismoCorte() {
+        // Arrange
+        LocalDateTime corte = LocalDateTime.now().minusDays(31);
+        TareaProgramada tarea = TareaProgramada.builder().nombre(TAREA).corte(corte).ultimoId(500L).build();
+        when(tareaRepository.adquirir(eq(TAREA), anyString(), any(), any())).thenReturn(1);
+        when(tareaRepository.findById(TAREA)).thenReturn(Optional.of(tarea));
+        when(inscripcionRepository.findInactivasDespuesDe(eq(EstadoEnum.EN_PROGRESO), eq(corte), eq(500L), any()))
+                .thenReturn(List.of());
+
+        // Act
+        detector.detectar();
+
+        // Assert
+        verify(inscripcionRepository, never()).cambiarEstadoSiInactivas(any(), any(), any(), any(), any());
+        verify(tareaRepository).finalizar(eq(TAREA), anyString(), any());
+    }
+
+    @Test
+    void detectar_ArriendoDeOtraInstancia_NoProcesa() {
+        // Arrange
+        when(tareaRepository.adquirir(eq(TAREA), anyString(), any(), any())).thenReturn(0);
+        when(tareaRepository.existsById(TAREA)).thenReturn(true);
+
+        // Act
+        detector.detectar();
+
+        // Assert
+        verifyNoInteractions(inscripcionRepository, cursoContadorService);
+        verify(tareaRepository, never()).finalizar(any(), any(), any());
+    }
+}
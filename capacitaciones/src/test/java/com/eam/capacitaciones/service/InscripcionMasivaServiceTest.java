@@ -0,0 +1,148 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.Curso;
+import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
+import com.eam.capacitaciones.dto.request.InscripcionMasivaRequest;
+import com.eam.capacitaciones.dto.response.InscripcionMasivaDTO;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.exception.ForbiddenException;
+import com.eam.capacitaciones.ranking.InscripcionRegistradaEvent;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InscripcionMasivaServiceTest {
+
+    @Mock
+    private InscripcionRepository inscripcionRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private CursoContadorService cursoContadorService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InscripcionMasivaService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InscripcionMasivaService(inscripcionRepository, usuarioRepository, cursoRepository,
+                cursoContadorService, eventPublisher, transactionManager, new SimpleMeterRegistry(),
+                2, 1, 1, 60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void iniciar_ShouldThrowException_WhenNoCriteriaGiven() {
+        // Arrange
+        InscripcionMasivaRequest request = InscripcionMasivaRequest.builder().cursoId(5L).departamento(" ").build();
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.iniciar(request, 1L, true))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(cursoRepository, inscripcionRepository);
+    }
+
+    @Test
+    void iniciar_ShouldThrowForbidden_WhenInstructorDoesNotOwnCourse() {
+        // Arrange
+        InscripcionMasivaRequest request = InscripcionMasivaRequest.builder().cursoId(5L).rol(RolEnum.USER).build();
+        when(cursoRepository.findById(5L)).thenReturn(Optional.of(Curso.builder().idCurso(5L).instructorId(7L).build()));
+
+        // Act & Assert
+        assertThatThrownBy(() -> service.iniciar(request, 8L, false))
+                .isInstanceOf(ForbiddenException.class);
+        verifyNoInteractions(inscripcionRepository, usuarioRepository);
+    }
+
+    @Test
+    void ejecutar_ShouldInsertOnlyMissingEnrollmentsPerChunk() {
+        // Arrange
+        InscripcionMasivaRequest request = InscripcionMasivaRequest.builder()
+                .cursoId(5L)
+                .usuarioIds(Arrays.asList(3L, 1L, 1L, null, 2L, 9L))
+                .build();
+        when(usuarioRepository.findIdsActivosIn(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(usuarioRepository.findIdsActivosIn(List.of(3L, 9L))).thenReturn(List.of(3L));
+        when(inscripcionRepository.findUsuarioIdsInscritos(5L, List.of(1L, 2L))).thenReturn(List.of(2L));
+        when(inscripcionRepository.findUsuarioIdsInscritos(5L, List.of(3L))).thenReturn(List.of());
+        InscripcionMasivaService.Trabajo trabajo = new InscripcionMasivaService.Trabajo("job", 5L);
+
+        // Act
+        service.ejecutar(trabajo, request);
+
+        // Assert
+        InscripcionMasivaDTO resumen = trabajo.resumen();
+        assertThat(resumen.getEstado()).isEqualTo(InscripcionMasivaDTO.EstadoEnum.COMPLETADO);
+        assertThat(resumen.getProcesados()).isEqualTo(4);
+        assertThat(resumen.getInscritos()).isEqualTo(2);
+        assertThat(resumen.getYaInscritos()).isEqualTo(1);
+        assertThat(resumen.getNoEncontrados()).isEqualTo(1);
+        verify(inscripcionRepository, times(2)).saveAll(anyList());
+        verify(cursoContadorService, times(2)).sumar(5L, 1, 0, 0, 0);
+    }
+
+    @Test
+    void ejecutar_ShouldRetryChunk_WhenConcurrentEnrollmentCollides() {
+        // Arrange
+        InscripcionMasivaRequest request = InscripcionMasivaRequest.builder().cursoId(5L).rol(RolEnum.USER).build();
+        when(usuarioRepository.findIdsActivosDespuesDe(isNull(), eq(RolEnum.USER), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(usuarioRepository.findIdsActivosDespuesDe(isNull(), eq(RolEnum.USER), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(inscripcionRepository.findUsuarioIdsInscritos(5L, List.of(1L, 2L)))
+                .thenReturn(List.of(), List.of(1L));
+        doThrow(new DataIntegrityViolationException("uk_usuario_curso")).doNothing()
+                .when(inscripcionRepository).flush();
+        InscripcionMasivaService.Trabajo trabajo = new InscripcionMasivaService.Trabajo("job", 5L);
+
+        // Act
+        service.ejecutar(trabajo, request);
+
+        // Assert
+        InscripcionMasivaDTO resumen = trabajo.resumen();
+        assertThat(resumen.getEstado()).isEqualTo(InscripcionMasivaDTO.EstadoEnum.COMPLETADO);
+        assertThat(resumen.getInscritos()).isEqualTo(1);
+        assertThat(resumen.getYaInscritos()).isEqualTo(1);
+        verify(cursoContadorService, times(1)).sumar(5L, 1, 0, 0, 0);
+        verify(eventPublisher).publishEvent(new InscripcionRegistradaEvent(5L, LocalDate.now(), 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.exception.ResourceNotFoundException;
+import com.eam.capacitaciones.mapper.InscripcionMapper;
+import com.eam.capacitaciones.repository.CursoRepository;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import com.eam.capacitaciones.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InscripcionServiceTest {
+
+    @Mock
+    private InscripcionRepository inscripcionRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private CursoRepository cursoRepository;
+
+    @Mock
+    private InscripcionMapper inscripcionMapper;
+
+    @Mock
+    private CursoContadorService cursoContadorService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProgresoInscripcionBuffer progresoBuffer;
+
+    @InjectMocks
+    private InscripcionService inscripcionService;
+
+    @Test
+    void actualizarProgreso_ShouldRegisterInBuffer_WhenInscripcionExists() {
+        // Arrange
+        when(inscripcionRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        inscripcionService.actualizarProgreso(1L, new BigDecimal("40"));
+
+        // Assert
+        verify(progresoBuffer).registrar(1L, new BigDecimal("40"));
+    }
+
+    @Test
+    void actualizarProgreso_ShouldThrowNotFound_WhenInscripcionDoesNotExist() {
+        // Arrange
+        when(inscripcionRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> inscripcionService.actualizarProgreso(99L, new BigDecimal("40")))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Inscripción no encontrada");
+        verify(progresoBuffer, never()).registrar(anyLong(), any());
+    }
+}
@@ -0,0 +1,119 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.IntentoContador;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.repository.IntentoContadorRepository;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IntentoContadorServiceTest {
+
+    @Mock
+    private IntentoContadorRepository contadorRepository;
+
+    @Mock
+    private RespuestaRepository respuestaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IntentoContadorService intentoContadorService;
+
+    @BeforeEach
+    void setUp() {
+        intentoContadorService = new IntentoContadorService(
+                contadorRepository, respuestaRepository, transactionManager, 100);
+    }
+
+    @Test
+    void consumirIntento_ContadorExistente_DevuelveNumeroSinContar() {
+        // Arrange
+        when(contadorRepository.findIntentos(1L, 2L)).thenReturn(Optional.of(1), Optional.of(2));
+        when(contadorRepository.consumir(1L, 2L, 3)).thenReturn(1);
+
+        // Act
+        int intento = intentoContadorService.consumirIntento(1L, 2L, 3);
+
+        // Assert
+        assertThat(intento).isEqualTo(2);
+        verifyNoInteractions(respuestaRepository);
+        verify(contadorRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void consumirIntento_ContadorYaComprobado_SoloActualiza() {
+        // Arrange
+        when(contadorRepository.findIntentos(1L, 2L)).thenReturn(Optional.of(1), Optional.of(2), Optional.of(3));
+        when(contadorRepository.consumir(1L, 2L, 3)).thenReturn(1);
+        intentoContadorService.consumirIntento(1L, 2L, 3);
+
+        // Act
+        int intento = intentoContadorService.consumirIntento(1L, 2L, 3);
+
+        // Assert
+        assertThat(intento).isEqualTo(3);
+        verify(contadorRepository, times(3)).findIntentos(1L, 2L);
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void consumirIntento_LimiteAlcanzado_LanzaBadRequest() {
+        // Arrange
+        when(contadorRepository.findIntentos(1L, 2L)).thenReturn(Optional.of(3));
+        when(contadorRepository.consumir(1L, 2L, 3)).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> intentoContadorService.consumirIntento(1L, 2L, 3))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("máximo de intentos");
+        verify(contadorRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void consumirIntento_PrimerEnvio_CreaContadorDesdeIntentosRealizados() {
+        // Arrange
+        when(contadorRepository.findIntentos(1L, 2L)).thenReturn(Optional.empty(), Optional.of(5));
+        when(respuestaRepository.findIntentosRealizados(1L, 2L)).thenReturn(4);
+        when(contadorRepository.consumir(1L, 2L, Integer.MAX_VALUE)).thenReturn(1);
+
+        // Act
+        int intento = intentoContadorService.consumirIntento(1L, 2L, null);
+
+        // Assert
+        assertThat(intento).isEqualTo(5);
+        ArgumentCaptor<IntentoContador> captor = ArgumentCaptor.forClass(IntentoContador.class);
+        verify(contadorRepository).saveAndFlush(captor.capture());
+        assertThat(captor.getValue().getIntentos()).isEqualTo(4);
+    }
+
+    @Test
+    void consumirIntento_PrimerEnvioSimultaneo_UsaContadorDelOtroEnvio() {
+        // Arrange
+        when(contadorRepository.findIntentos(1L, 2L)).thenReturn(Optional.empty(), Optional.of(2));
+        when(respuestaRepository.findIntentosRealizados(1L, 2L)).thenReturn(0);
+        when(contadorRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_intento_contador"));
+        when(contadorRepository.consumir(1L, 2L, 3)).thenReturn(1);
+
+        // Act
+        int intento = intentoContadorService.consumirIntento(1L, 2L, 3);
+
+        // Assert
+        assertThat(intento).isEqualTo(2);
+        verify(transactionManager).rollback(any());
+    }
+}
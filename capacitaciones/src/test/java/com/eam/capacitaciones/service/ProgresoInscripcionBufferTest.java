@@ -0,0 +1,151 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.Inscripcion;
+import com.eam.capacitaciones.domain.entity.Inscripcion.EstadoEnum;
+import com.eam.capacitaciones.reintento.ReintentoOptimista;
+import com.eam.capacitaciones.repository.InscripcionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProgresoInscripcionBufferTest {
+
+    @Mock
+    private InscripcionRepository inscripcionRepository;
+
+    @Mock
+    private CursoContadorService cursoContadorService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProgresoInscripcionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ProgresoInscripcionBuffer(inscripcionRepository, cursoContadorService,
+                transactionManager, new ReintentoOptimista(new SimpleMeterRegistry(), 3, 0, 0),
+                new SimpleMeterRegistry(), 100);
+    }
+
+    @Test
+    void volcar_ShouldWriteOnlyHighestProgressPerInscripcion() {
+        // Arrange
+        Inscripcion primera = inscripcion(1L, "0");
+        Inscripcion segunda = inscripcion(2L, "0");
+        when(inscripcionRepository.findAllById(anyIterable())).thenReturn(List.of(primera, segunda));
+        buffer.registrar(1L, new BigDecimal("10"));
+        buffer.registrar(1L, new BigDecimal("30"));
+        buffer.registrar(1L, new BigDecimal("20"));
+        buffer.registrar(2L, new BigDecimal("5"));
+
+        // Act
+        buffer.volcar();
+
+        // Assert
+        assertThat(primera.getProgreso()).isEqualByComparingTo("30");
+        assertThat(segunda.getProgreso()).isEqualByComparingTo("5");
+        assertThat(primera.getEstado()).isEqualTo(EstadoEnum.EN_PROGRESO);
+        verify(inscripcionRepository, times(1)).findAllById(anyIterable());
+        verify(cursoContadorService, times(2)).registrarTransicion(7L, EstadoEnum.INSCRITO, EstadoEnum.EN_PROGRESO);
+        assertThat(buffer.pendientes()).isZero();
+        assertThat(buffer.coalescencia()).isEqualTo(0.5);
+    }
+
+    @Test
+    void registrar_ShouldWriteImmediately_WhenCourseIsCompleted() {
+        // Arrange
+        Inscripcion inscripcion = inscripcion(1L, "90");
+        when(inscripcionRepository.findById(1L)).thenReturn(Optional.of(inscripcion));
+        buffer.registrar(1L, new BigDecimal("95"));
+
+        // Act
+        buffer.registrar(1L, new BigDecimal("100"));
+
+        // Assert
+        assertThat(inscripcion.getEstado()).isEqualTo(EstadoEnum.COMPLETADO);
+        assertThat(buffer.pendientes()).isZero();
+        verify(cursoContadorService).registrarTransicion(7L, EstadoEnum.INSCRITO, EstadoEnum.COMPLETADO);
+        verify(inscripcionRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void volcar_ShouldNeverMoveProgressBackwards() {
+        // Arrange
+        Inscripcion inscripcion = inscripcion(1L, "50");
+        when(inscripcionRepository.findAllById(anyIterable())).thenReturn(List.of(inscripcion));
+        buffer.registrar(1L, new BigDecimal("40"));
+
+        // Act
+        buffer.volcar();
+
+        // Assert
+        assertThat(inscripcion.getProgreso()).isEqualByComparingTo("50");
+        verifyNoInteractions(cursoContadorService);
+    }
+
+    @Test
+    void volcar_ShouldKeepProgressPending_WhenWriteFails() {
+        // Arrange
+        when(inscripcionRepository.findAllById(anyIterable()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"));
+        buffer.registrar(1L, new BigDecimal("40"));
+
+        // Act
+        buffer.volcar();
+
+        // Assert
+        assertThat(buffer.pendientes()).isEqualTo(1);
+    }
+
+    @Test
+    void volcar_ShouldDropOnlyTheFailingProgress_WhenErrorIsNotRecoverable() {
+        // Arrange
+        Inscripcion valida = inscripcion(2L, "10");
+        when(inscripcionRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            if (ids.contains(1L)) {
+                throw new DataIntegrityViolationException("restricción violada");
+            }
+            return List.of(valida);
+        });
+        buffer.registrar(1L, new BigDecimal("40"));
+        buffer.registrar(2L, new BigDecimal("60"));
+
+        // Act
+        buffer.volcar();
+
+        // Assert
+        assertThat(buffer.pendientes()).isZero();
+        assertThat(valida.getProgreso()).isEqualByComparingTo("60");
+    }
+
+    private Inscripcion inscripcion(Long id, String progreso) {
+        return Inscripcion.builder()
+                .idInscripcion(id)
+                .usuarioId(id)
+                .cursoId(7L)
+                .progreso(new BigDecimal(progreso))
+                .estado(EstadoEnum.INSCRITO)
+                .fechaInscripcion(LocalDate.now())
+                .build();
+    }
+}
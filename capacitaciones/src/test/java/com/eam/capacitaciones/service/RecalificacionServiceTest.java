@@ -0,0 +1,97 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.calificacion.CalificadorMcq;
+import com.eam.capacitaciones.calificacion.ClaveCompilada;
+import com.eam.capacitaciones.domain.entity.Evaluacion;
+import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.dto.response.RecalificacionDTO;
+import com.eam.capacitaciones.reintento.ReintentoOptimista;
+import com.eam.capacitaciones.repository.EvaluacionRepository;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecalificacionServiceTest {
+
+    @Mock
+    private EvaluacionRepository evaluacionRepository;
+
+    @Mock
+    private RespuestaRepository respuestaRepository;
+
+    @Mock
+    private CalificadorMcq calificadorMcq;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RecalificacionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RecalificacionService(evaluacionRepository, respuestaRepository, calificadorMcq,
+                new ReintentoOptimista(new SimpleMeterRegistry(), 3, 1, 2), transactionManager, 100);
+    }
+
+    @Test
+    void recalificar_SoloCambiaLasAutomaticasQueSePuedenCalificar() {
+        // Arrange
+        Evaluacion evaluacion = Evaluacion.builder().idEvaluacion(1L).tipo(Evaluacion.TipoEnum.MCQ).puntajeMax(10).build();
+        Respuesta automatica = respuesta(1L, "A,B").puntuacion(BigDecimal.ZERO).calificada(true).build();
+        Respuesta manual = respuesta(2L, "A,C").puntuacion(new BigDecimal("7")).calificada(true)
+                .calificacionManual(true).build();
+        Respuesta conComentario = respuesta(3L, "A,C").puntuacion(new BigDecimal("6")).calificada(true)
+                .comentarioInstructor("Bien razonada").build();
+        Respuesta otroFormato = respuesta(4L, "1,2").puntuacion(new BigDecimal("8"))
+                .calificada(true).build();
+        Respuesta enBlanco = respuesta(5L, null).puntuacion(null).calificada(false).build();
+        when(evaluacionRepository.findById(1L)).thenReturn(Optional.of(evaluacion));
+        when(calificadorMcq.tieneClave(evaluacion)).thenReturn(true);
+        when(calificadorMcq.clave(eq(1L), anyInt(), anyLong(), anyInt()))
+                .thenReturn(Optional.of(ClaveCompilada.de(
+                        new int[]{ClaveCompilada.mascara("A"), ClaveCompilada.mascara("B")}, new int[]{1, 1})));
+        when(respuestaRepository.findByEvaluacionDespuesDe(eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(automatica, manual, conComentario, otroFormato, enBlanco));
+        when(respuestaRepository.findByEvaluacionDespuesDe(eq(1L), eq(5L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // Act
+        RecalificacionDTO resultado = service.recalificar(1L);
+
+        // Assert
+        assertThat(resultado.getRevisadas()).isEqualTo(5);
+        assertThat(resultado.getModificadas()).isEqualTo(1);
+        assertThat(automatica.getPuntuacion()).isEqualByComparingTo("10");
+        assertThat(manual.getPuntuacion()).isEqualByComparingTo("7");
+        assertThat(conComentario.getPuntuacion()).isEqualByComparingTo("6");
+        assertThat(otroFormato.getPuntuacion()).isEqualByComparingTo("8");
+        assertThat(enBlanco.getCalificada()).isFalse();
+    }
+
+    private static Respuesta.RespuestaBuilder respuesta(Long id, String texto) {
+        return Respuesta.builder()
+                .idRespuesta(id)
+                .evaluacionId(1L)
+                .usuarioId(id)
+                .intentoNumero(1)
+                .respuestaTexto(texto);
+    }
+}
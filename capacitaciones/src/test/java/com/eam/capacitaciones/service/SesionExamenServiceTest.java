@@ -0,0 +1,187 @@
+package com.eam.capacitaciones.service;
+
+import com.eam.capacitaciones.domain.entity.Evaluacion;
+import com.eam.capacitaciones.domain.entity.Respuesta;
+import com.eam.capacitaciones.domain.entity.SesionExamen;
+import com.eam.capacitaciones.domain.entity.SesionExamen.EstadoEnum;
+import com.eam.capacitaciones.dto.response.SesionExamenDTO;
+import com.eam.capacitaciones.exception.BadRequestException;
+import com.eam.capacitaciones.repository.EvaluacionRepository;
+import com.eam.capacitaciones.repository.RespuestaRepository;
+import com.eam.capacitaciones.repository.SesionExamenRepository;
+import com.eam.capacitaciones.sesion.SesionExamenIniciadaEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SesionExamenServiceTest {
+
+    @Mock
+    private SesionExamenRepository sesionExamenRepository;
+
+    @Mock
+    private EvaluacionRepository evaluacionRepository;
+
+    @Mock
+    private RespuestaRepository respuestaRepository;
+
+    @Mock
+    private IntentoContadorService intentoContadorService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private SesionExamenService sesionExamenService;
+
+    @Test
+    void iniciar_SinIntentoEnCurso_ConsumeIntentoYProgramaVencimiento() {
+        // Arrange
+        when(evaluacionRepository.findById(1L)).thenReturn(Optional.of(evaluacion(30)));
+        when(sesionExamenRepository.findAbiertasParaActualizar(1L, 2L)).thenReturn(List.of());
+        when(intentoContadorService.consumirIntento(1L, 2L, 3)).thenReturn(2);
+        when(sesionExamenRepository.save(any(SesionExamen.class))).thenAnswer(invocation -> {
+            SesionExamen sesion = invocation.getArgument(0);
+            sesion.setIdSesion(5L);
+            return sesion;
+        });
+
+        // Act
+        SesionExamenDTO sesion = sesionExamenService.iniciar(1L, 2L);
+
+        // Assert
+        assertThat(sesion.getIntentoNumero()).isEqualTo(2);
+        assertThat(sesion.getEstado()).isEqualTo(EstadoEnum.ABIERTA);
+        assertThat(sesion.getVence()).isEqualTo(sesion.getInicio().plusMinutes(30));
+        assertThat(sesion.getSegundosRestantes()).isBetween(1790L, 1800L);
+        verify(eventPublisher).publishEvent(new SesionExamenIniciadaEvent(5L, sesion.getVence()));
+    }
+
+    @Test
+    void iniciar_ConIntentoEnCurso_LoDevuelveSinConsumirOtro() {
+        // Arrange
+        SesionExamen abierta = sesion(7L, LocalDateTime.now().plusMinutes(10));
+        when(evaluacionRepository.findById(1L)).thenReturn(Optional.of(evaluacion(30)));
+        when(sesionExamenRepository.findAbiertasParaActualizar(1L, 2L)).thenReturn(List.of(abierta));
+
+        // Act
+        SesionExamenDTO sesion = sesionExamenService.iniciar(1L, 2L);
+
+        // Assert
+        assertThat(sesion.getSesionId()).isEqualTo(7L);
+        verify(intentoContadorService, never()).consumirIntento(anyLong(), anyLong(), anyInt());
+        verify(sesionExamenRepository, never()).save(any());
+    }
+
+    @Test
+    void entregar_EnviadaDespuesDelVencimiento_LanzaBadRequest() {
+        // Arrange
+        LocalDateTime vence = LocalDateTime.now().minusSeconds(5);
+        when(sesionExamenRepository.findParaEntregar(eq(1L), eq(2L), any(), any()))
+                .thenReturn(List.of(sesion(7L, vence)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> sesionExamenService.entregar(1L, 2L, vence.plusSeconds(1)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("tiempo del examen");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void entregar_EnviadaATiempoYGuardadaTrasVencer_SustituyeLaEntregaEnBlanco() {
+        // Arrange
+        LocalDateTime vence = LocalDateTime.now().minusMinutes(1);
+        SesionExamen expirada = sesion(7L, vence);
+        expirada.cerrar(EstadoEnum.EXPIRADA, vence.plusSeconds(30));
+        LocalDateTime enviadaEn = vence.minusSeconds(2);
+        when(sesionExamenRepository.findParaEntregar(eq(1L), eq(2L), eq(enviadaEn), any()))
+                .thenReturn(List.of(expirada));
+        when(respuestaRepository.deleteEntregaEnBlanco(1L, 2L, 1)).thenReturn(1);
+
+        // Act
+        SesionExamen entregada = sesionExamenService.entregar(1L, 2L, enviadaEn);
+
+        // Assert
+        assertThat(entregada.getIntentoNumero()).isEqualTo(1);
+        assertThat(expirada.getEstado()).isEqualTo(EstadoEnum.ENTREGADA);
+        verify(respuestaRepository).deleteEntregaEnBlanco(1L, 2L, 1);
+    }
+
+    @Test
+    void entregar_IntentoYaEntregado_LanzaBadRequest() {
+        // Arrange
+        LocalDateTime vence = LocalDateTime.now().plusMinutes(5);
+        SesionExamen entregada = sesion(7L, vence);
+        entregada.cerrar(EstadoEnum.ENTREGADA, LocalDateTime.now());
+        when(sesionExamenRepository.findParaEntregar(eq(1L), eq(2L), any(), any()))
+                .thenReturn(List.of(entregada));
+
+        // Act & Assert
+        assertThatThrownBy(() -> sesionExamenService.entregar(1L, 2L, LocalDateTime.now()))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("No hay un intento en curso");
+        verify(respuestaRepository, never()).deleteEntregaEnBlanco(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void vencer_SesionesAbiertas_CierraSoloLasVencidasConEntregaEnBlanco() {
+        // Arrange
+        SesionExamen vencida = sesion(7L, LocalDateTime.now().minusMinutes(1));
+        SesionExamen vigente = sesion(8L, LocalDateTime.now().plusMinutes(1));
+        when(sesionExamenRepository.findAbiertasParaCerrar(List.of(7L, 8L))).thenReturn(List.of(vencida, vigente));
+
+        // Act
+        int cerradas = sesionExamenService.vencer(List.of(7L, 8L));
+
+        // Assert
+        assertThat(cerradas).isEqualTo(1);
+        assertThat(vencida.getEstado()).isEqualTo(EstadoEnum.EXPIRADA);
+        assertThat(vigente.getEstado()).isEqualTo(EstadoEnum.ABIERTA);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Respuesta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(respuestaRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement().satisfies(respuesta -> {
+            assertThat(respuesta.getIntentoNumero()).isEqualTo(1);
+            assertThat(respuesta.getCalificada()).isTrue();
+            assertThat(respuesta.getEntregaAutomatica()).isTrue();
+        });
+    }
+
+    private static Evaluacion evaluacion(int duracionMinutos) {
+        return Evaluacion.builder()
+                .idEvaluacion(1L)
+                .tipo(Evaluacion.TipoEnum.MCQ)
+                .duracionMinutos(duracionMinutos)
+                .intentosPermitidos(3)
+                .build();
+    }
+
+    private static SesionExamen sesion(Long id, LocalDateTime vence) {
+        return SesionExamen.builder()
+                .idSesion(id)
+                .evaluacionId(1L)
+                .usuarioId(2L)
+                .intentoNumero(1)
+                .estado(EstadoEnum.ABIERTA)
+                .inicio(vence.minusMinutes(30))
+                .vence(vence)
+                .build();
+    }
+}
@@ -4,22 +4,31 @@ import com.eam.capacitaciones.domain.entity.Usuario;
 import com.eam.capacitaciones.domain.entity.Usuario.RolEnum;
 import com.eam.capacitaciones.dto.request.UsuarioCreateRequest;
 import com.eam.capacitaciones.dto.request.UsuarioUpdateRequest;
+import com.eam.capacitaciones.dto.response.CursorPage;
 import com.eam.capacitaciones.dto.response.UsuarioDTO;
 import com.eam.capacitaciones.exception.BadRequestException;
 import com.eam.capacitaciones.mapper.UsuarioMapper;
+import com.eam.capacitaciones.ranking.InscripcionRegistradaEvent;
+import com.eam.capacitaciones.repository.InscripcionRepository;
 import com.eam.capacitaciones.repository.UsuarioRepository;
+import com.eam.capacitaciones.repository.projection.CursoContadores;
+import com.eam.capacitaciones.repository.projection.CursoInscritosDia;
+import com.eam.capacitaciones.security.SecurityEpochRegistry;
+import com.eam.capacitaciones.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +50,18 @@ class UsuarioServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private SecurityEpochRegistry securityEpochRegistry;
+
+    @Mock
+    private InscripcionRepository inscripcionRepository;
+
+    @Mock
+    private CursoContadorService cursoContadorService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UsuarioService usuarioService;
 
@@ -103,6 +124,38 @@ class UsuarioServiceTest {
         verify(usuarioMapper).toDTO(usuario);
     }
 
+    @Test
+    void getUsuariosPorCursor_ShouldReturnFirstPage() {
+        // Arrange
+        when(usuarioRepository.findPrimeraPagina(PageRequest.of(0, 11))).thenReturn(List.of(usuario));
+        when(usuarioMapper.toDTOList(List.of(usuario))).thenReturn(List.of(usuarioDTO));
+
+        // Act
+        CursorPage<UsuarioDTO> result = usuarioService.getUsuariosPorCursor(null, 10);
+
+        // Assert
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getEmail()).isEqualTo("test@example.com");
+        assertThat(result.getHasNext()).isFalse();
+        verify(usuarioRepository).findPrimeraPagina(PageRequest.of(0, 11));
+        verify(usuarioRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getUsuariosPorCursor_ShouldContinueAfterCursor() {
+        // Arrange
+        String cursor = KeysetCursor.encode("Ana", 7L);
+        when(usuarioRepository.findPaginaDespuesDe("Ana", 7L, PageRequest.of(0, 11))).thenReturn(List.of(usuario));
+        when(usuarioMapper.toDTOList(List.of(usuario))).thenReturn(List.of(usuarioDTO));
+
+        // Act
+        CursorPage<UsuarioDTO> result = usuarioService.getUsuariosPorCursor(cursor, 10);
+
+        // Assert
+        assertThat(result.getItems()).hasSize(1);
+        verify(usuarioRepository).findPaginaDespuesDe("Ana", 7L, PageRequest.of(0, 11));
+    }
+
     @Test
     void getUsuarioById_ShouldReturnUsuario_WhenExists() {
         // Arrange
@@ -181,6 +234,7 @@ class UsuarioServiceTest {
         verify(usuarioRepository).existsByEmail("updated@example.com");
         verify(usuarioMapper).updateEntityFromRequest(updateRequest, usuario);
         verify(usuarioRepository).save(usuario);
+        verify(securityEpochRegistry).invalidarTokensAnteriores(1L);
     }
 
     @Test
@@ -223,6 +277,7 @@ class UsuarioServiceTest {
         // Assert
         assertThat(usuario.getActivo()).isFalse();
         verify(usuarioRepository).save(usuario);
+        verify(securityEpochRegistry).invalidarTokensAnteriores(1L);
     }
 
     @Test
@@ -243,12 +298,18 @@ class UsuarioServiceTest {
     @Test
     void deleteUsuario_ShouldDeleteUsuario_WhenExists() {
         // Arrange
+        List<CursoContadores> inscripciones = List.of(new CursoContadores(3L, 1L, 0L, 1L, 0L));
         when(usuarioRepository.existsById(1L)).thenReturn(true);
+        when(inscripcionRepository.contarPorEstadoDeUsuario(1L)).thenReturn(inscripciones);
+        LocalDate fecha = LocalDate.of(2024, 5, 2);
+        when(inscripcionRepository.contarPorDiaDeUsuario(1L)).thenReturn(List.of(new CursoInscritosDia(3L, fecha, 1L)));
 
         // Act
         usuarioService.deleteUsuario(1L);
 
         // Assert
+        verify(cursoContadorService).registrarBajas(inscripciones);
+        verify(eventPublisher).publishEvent(new InscripcionRegistradaEvent(3L, fecha, -1L));
         verify(usuarioRepository).deleteById(1L);
     }
 
@@ -0,0 +1,75 @@
+package com.eam.capacitaciones.sesion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuedaTemporizadoraTest {
+
+    @Test
+    void avanzar_AntesYDespuesDelVencimiento_EntregaSoloAlVencer() {
+        // Arrange
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(100, 8, 0);
+        rueda.programar("a", 250);
+
+        // Act
+        List<String> antes = rueda.avanzar(249);
+        List<String> despues = rueda.avanzar(300);
+
+        // Assert
+        assertThat(antes).isEmpty();
+        assertThat(despues).containsExactly("a");
+        assertThat(rueda.programadas()).isZero();
+    }
+
+    @Test
+    void avanzar_MismaRanuraEnOtraVuelta_EsperaASuVuelta() {
+        // Arrange: con 8 ranuras de 100 ms los ticks 3 y 11 comparten ranura
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(100, 8, 0);
+        rueda.programar("cercana", 250);
+        rueda.programar("lejana", 1050);
+
+        // Act & Assert
+        assertThat(rueda.avanzar(300)).containsExactly("cercana");
+        assertThat(rueda.avanzar(1000)).isEmpty();
+        assertThat(rueda.avanzar(1100)).containsExactly("lejana");
+    }
+
+    @Test
+    void cancelar_TareaProgramada_NoSeEntrega() {
+        // Arrange
+        RuedaTemporizadora<String> rueda = new RuedaTemporizadora<>(100, 8, 0);
+        RuedaTemporizadora.Tarea<String> cancelada = rueda.programar("cancelada", 200);
+        rueda.programar("vigente", 200);
+        rueda.avanzar(100);
+
+        // Act
+        cancelada.cancelar();
+        List<String> vencidas = rueda.avanzar(200);
+
+        // Assert
+        assertThat(vencidas).containsExactly("vigente");
+        assertThat(rueda.programadas()).isZero();
+    }
+
+    @Test
+    void avanzar_ConVariasVueltasDeRetraso_EntregaTodoLoVencido() {
+        // Arrange
+        RuedaTemporizadora<Integer> rueda = new RuedaTemporizadora<>(10, 64, 0);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        for (int i = 0; i < 20_000; i++) {
+            rueda.programar(i, aleatorio.nextLong(1, 5_000));
+        }
+        rueda.programar(-1, 20_000);
+
+        // Act
+        List<Integer> vencidas = rueda.avanzar(5_000);
+
+        // Assert
+        assertThat(vencidas).hasSize(20_000).doesNotContain(-1);
+        assertThat(rueda.programadas()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.eam.capacitaciones.sesion;
+
+import com.eam.capacitaciones.repository.SesionExamenRepository;
+import com.eam.capacitaciones.service.SesionExamenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SesionExamenTemporizadorTest {
+
+    @Mock
+    private SesionExamenService sesionExamenService;
+
+    @Mock
+    private SesionExamenRepository sesionExamenRepository;
+
+    private SesionExamenTemporizador temporizador;
+
+    @BeforeEach
+    void setUp() {
+        temporizador = new SesionExamenTemporizador(sesionExamenService, sesionExamenRepository,
+                new SimpleMeterRegistry(), 1000, 64, 30000, 5000, 2);
+    }
+
+    @Test
+    void barrer_CierraLasVencidasDeOtrasInstanciasPorBloques() {
+        // Arrange
+        when(sesionExamenRepository.findIdsVencidasDespuesDe(eq(0L), any(), any(Pageable.class)))
+                .thenReturn(List.of(3L, 5L));
+        when(sesionExamenRepository.findIdsVencidasDespuesDe(eq(5L), any(), any(Pageable.class)))
+                .thenReturn(List.of(8L));
+        when(sesionExamenRepository.findIdsVencidasDespuesDe(eq(8L), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(sesionExamenService.vencer(List.of(3L, 5L))).thenReturn(2);
+        when(sesionExamenService.vencer(List.of(8L))).thenReturn(1);
+        LocalDateTime antes = LocalDateTime.now().minusSeconds(30);
+
+        // Act
+        temporizador.barrer();
+
+        // Assert
+        verify(sesionExamenService).vencer(List.of(3L, 5L));
+        verify(sesionExamenService).vencer(List.of(8L));
+        // Solo las vencidas hace más del periodo de gracia
+        verify(sesionExamenRepository).findIdsVencidasDespuesDe(eq(0L),
+                argThat(limite -> !limite.isBefore(antes) && limite.isBefore(LocalDateTime.now().minusSeconds(29))),
+                any(Pageable.class));
+    }
+
+    @Test
+    void barrer_DescartaElVencimientoProgramadoDeLasSesionesCerradas() {
+        // Arrange
+        temporizador.alIniciar(new SesionExamenIniciadaEvent(3L, LocalDateTime.now().plusMinutes(30)));
+        when(sesionExamenRepository.findIdsVencidasDespuesDe(eq(0L), any(), any(Pageable.class)))
+                .thenReturn(List.of(3L));
+        when(sesionExamenRepository.findIdsVencidasDespuesDe(eq(3L), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(sesionExamenService.vencer(List.of(3L))).thenReturn(1);
+
+        // Act
+        temporizador.barrer();
+
+        // Assert
+        assertThat(temporizador.activas()).isZero();
+    }
+}